@@ -0,0 +1,91 @@
+package com.checkout.payment.gateway.bin;
+
+import com.checkout.payment.gateway.enums.CardScheme;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Card scheme lookup latency for a table the size of a commercial BIN file: {@code ranges}
+ * six-digit issuer ranges nested inside the scheme prefix ranges, looked up with random card
+ * numbers. {@code load} is the cost of parsing and flattening the same file on a reload.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BinTableBenchmark {
+
+  private static final int SAMPLES = 1 << 12;
+  private static final String[] COUNTRIES = {"GB", "US", "DE", "FR", "JP", "CN", "BR", "IN"};
+
+  @Param({"1000", "100000"})
+  public int ranges;
+
+  private String csv;
+  private BinTable table;
+  private String[] cardNumbers;
+  private int next;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    SplittableRandom random = new SplittableRandom(42);
+    StringBuilder builder = new StringBuilder("4,4,VISA\n51,55,MASTERCARD\n");
+    // Six-digit issuer ranges from 400000 up, every other BIN.
+    for (int i = 0; i < ranges; i++) {
+      int bin = 400_000 + i * 2;
+      CardScheme scheme = bin % 3 == 0 ? CardScheme.VISA : CardScheme.MAESTRO;
+      builder.append(bin).append(',').append(bin).append(',').append(scheme).append(',')
+          .append(COUNTRIES[random.nextInt(COUNTRIES.length)]).append('\n');
+    }
+    csv = builder.toString();
+    table = parse(csv);
+    cardNumbers = new String[SAMPLES];
+    for (int i = 0; i < SAMPLES; i++) {
+      long prefix = 40_000_000 + random.nextInt(60_000_000);
+      cardNumbers[i] = prefix + String.format("%08d", random.nextInt(100_000_000));
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public CardScheme lookup() {
+    return table.scheme(cardNumbers[next++ & (SAMPLES - 1)]);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public BinTable load() throws IOException {
+    return parse(csv);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(BinTableBenchmark.class.getSimpleName())
+        .addProfiler("gc")
+        .build()).run();
+  }
+
+  private static BinTable parse(String csv) throws IOException {
+    return BinTable.parse(new BufferedReader(new StringReader(csv)));
+  }
+}
@@ -0,0 +1,124 @@
+package com.checkout.payment.gateway.cache;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.repository.IndexedPaymentsRepository;
+import com.checkout.payment.gateway.repository.StripedPaymentsRepository;
+import com.checkout.payment.gateway.service.PaymentGatewayService;
+import com.checkout.payment.gateway.service.PaymentStageMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Allocation and throughput of producing the body of {@code GET /v1/payments/{id}}, below the
+ * HTTP layer, over 100K stored payments that all fit in the cache.
+ *
+ * <p>{@code serialize} is the previous path: a repository read and a Jackson serialization into
+ * the response stream. {@code cached} writes the cached bytes, and {@code notModified} is a
+ * revalidation answered with 304. Run {@link #main}, which adds the GC profiler; compare
+ * {@code gc.alloc.rate.norm}, the bytes allocated per GET.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PaymentJsonCacheBenchmark {
+
+  private static final int PAYMENTS = 1 << 17;
+
+  private final OutputStream response = new DiscardingOutputStream();
+  private IndexedPaymentsRepository payments;
+  private ObjectWriter paymentWriter;
+  private PaymentJsonCache cache;
+  private UUID[] ids;
+  private String[] etags;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    payments = new IndexedPaymentsRepository(new StripedPaymentsRepository(64), PAYMENTS,
+        PAYMENTS, 0.01);
+    ObjectMapper objectMapper = new ObjectMapper();
+    paymentWriter = objectMapper.writerFor(PostPaymentResponse.class);
+    cache = new PaymentJsonCache(new PaymentGatewayService(payments, null, null, null, null,
+        new PaymentStageMetrics(), Runnable::run), objectMapper, PAYMENTS);
+    ids = new UUID[PAYMENTS];
+    etags = new String[PAYMENTS];
+    SplittableRandom random = new SplittableRandom(42);
+    for (int i = 0; i < PAYMENTS; i++) {
+      PostPaymentResponse payment = new PostPaymentResponse();
+      payment.setId(UUID.randomUUID());
+      payment.setStatus(random.nextBoolean() ? PaymentStatus.AUTHORIZED : PaymentStatus.DECLINED);
+      payment.setCardNumberLastFour(String.format("%04d", random.nextInt(10_000)));
+      payment.setExpiryMonth(1 + random.nextInt(12));
+      payment.setExpiryYear(2026 + random.nextInt(10));
+      payment.setCurrency("GBP");
+      payment.setAmount(1 + random.nextInt(1_000_000));
+      payments.add(payment);
+      ids[i] = payment.getId();
+      etags[i] = cache.get(payment.getId()).orElseThrow().etag();
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class ThreadCursor {
+    private final SplittableRandom random = new SplittableRandom();
+
+    int next() {
+      return random.nextInt(PAYMENTS);
+    }
+  }
+
+  @Benchmark
+  public void serialize(ThreadCursor cursor) throws IOException {
+    paymentWriter.writeValue(response, payments.get(ids[cursor.next()]).orElseThrow());
+  }
+
+  @Benchmark
+  public void cached(ThreadCursor cursor) throws IOException {
+    response.write(cache.get(ids[cursor.next()]).orElseThrow().json());
+  }
+
+  @Benchmark
+  public boolean notModified(ThreadCursor cursor) {
+    int i = cursor.next();
+    return cache.isNotModified(cache.get(ids[i]).orElseThrow(), etags[i]);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(PaymentJsonCacheBenchmark.class.getSimpleName())
+        .addProfiler("gc")
+        .build()).run();
+  }
+
+  // Jackson closes the stream after each value; the response stream stays open.
+  private static final class DiscardingOutputStream extends OutputStream {
+
+    @Override
+    public void write(int b) {
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+    }
+  }
+}
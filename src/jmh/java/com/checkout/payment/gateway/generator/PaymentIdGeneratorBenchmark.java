@@ -0,0 +1,52 @@
+package com.checkout.payment.gateway.generator;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * {@code UUID.randomUUID()} against the time-ordered generator. Run {@link #main} to repeat the
+ * comparison at 1, 8 and 32 threads, where the shared {@code SecureRandom} starts to contend.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PaymentIdGeneratorBenchmark {
+
+  private final PaymentIdGenerator random = new RandomPaymentIdGenerator();
+  private final PaymentIdGenerator timeOrdered = new TimeOrderedPaymentIdGenerator();
+
+  @Benchmark
+  public UUID random() {
+    return random.nextId();
+  }
+
+  @Benchmark
+  public UUID timeOrdered() {
+    return timeOrdered.nextId();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    for (int threads : new int[]{1, 8, 32}) {
+      Options options = new OptionsBuilder()
+          .include(PaymentIdGeneratorBenchmark.class.getSimpleName())
+          .threads(threads)
+          .forks(1)
+          .build();
+      new Runner(options).run();
+    }
+  }
+}
@@ -0,0 +1,162 @@
+package com.checkout.payment.gateway.load;
+
+import com.checkout.payment.gateway.PaymentGatewayApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Year;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Overload test of admission control: more clients than Tomcat has workers keep sending
+ * {@code POST /v1/payments} to a stub bank that answers after 1-2 s, while a few clients read a
+ * payment with {@code GET /v1/payments/{id}}. The bank concurrency limiter is opened up, so
+ * without admission control payments hold every worker and the reads queue behind them. Runs
+ * once with admission control off and once with {@code payments.admission.target-latency}, and
+ * prints accepted and shed payments and the latency of both.
+ *
+ * <p>Arguments: {@code [postClients=600] [getClients=8] [durationSeconds=30]
+ * [targetLatencyMillis=500]}.
+ */
+public class AdmissionLoadBenchmark {
+
+  private static final long MIN_BANK_LATENCY_MS = 1_000;
+  private static final long MAX_BANK_LATENCY_MS = 2_000;
+
+  public static void main(String[] args) throws Exception {
+    int postClients = args.length > 0 ? Integer.parseInt(args[0]) : 600;
+    int getClients = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+    Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30);
+    long targetMillis = args.length > 3 ? Long.parseLong(args[3]) : 500;
+
+    try (LoadTestBank bank = new LoadTestBank(MIN_BANK_LATENCY_MS, MAX_BANK_LATENCY_MS)) {
+      Result off = run(bank.baseUrl(), 0, postClients, getClients, duration);
+      Result on = run(bank.baseUrl(), targetMillis, postClients, getClients, duration);
+      System.out.printf("%n%d POST and %d GET clients, bank latency %d-%d ms, %d s%n",
+          postClients, getClients, MIN_BANK_LATENCY_MS, MAX_BANK_LATENCY_MS,
+          duration.toSeconds());
+      System.out.println("admission   ok/s   503/s  errors  POST p50  POST p99"
+          + "   GET/s  GET p50  GET p99");
+      off.print("off");
+      on.print(targetMillis + " ms");
+    }
+  }
+
+  private static Result run(String bankUrl, long targetMillis, int postClients, int getClients,
+      Duration duration) throws Exception {
+    try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+        PaymentGatewayApplication.class).properties(
+        "server.port=0",
+        "client.url.default=" + bankUrl,
+        "client.http.pool.max-per-route=10000",
+        "client.http.pool.max-total=10000",
+        "client.http.pool-acquire-timeout=30s",
+        "client.limiter.initial-limit=10000",
+        "client.limiter.max-limit=10000",
+        "payments.admission.target-latency=" + targetMillis + "ms",
+        "logging.level.root=WARN",
+        "logging.level.org.springframework.web.client.RestTemplate=WARN").run()) {
+      URI uri = URI.create("http://127.0.0.1:"
+          + context.getEnvironment().getProperty("local.server.port") + "/v1/payments");
+      HttpClient client = HttpClient.newBuilder()
+          .version(HttpClient.Version.HTTP_1_1)
+          .executor(Executors.newVirtualThreadPerTaskExecutor())
+          .build();
+      HttpRequest post = HttpRequest.newBuilder(uri)
+          .timeout(Duration.ofSeconds(60))
+          .header("Content-Type", "application/json")
+          .POST(HttpRequest.BodyPublishers.ofString("""
+              {"cardNumber": "378282246310005", "expiryMonth": 12, "expiryYear": %d,
+               "currency": "GBP", "amount": 100, "cvv": "123"}
+              """.formatted(Year.now().getValue() + 1)))
+          .build();
+      String paymentId = new ObjectMapper().readTree(
+          client.send(post, HttpResponse.BodyHandlers.ofString()).body()).get("id").asText();
+      HttpRequest get = HttpRequest.newBuilder(uri.resolve("payments/" + paymentId))
+          .timeout(Duration.ofSeconds(60))
+          .GET()
+          .build();
+      return drive(client, post, postClients, get, getClients, duration);
+    }
+  }
+
+  private static Result drive(HttpClient client, HttpRequest post, int postClients,
+      HttpRequest get, int getClients, Duration duration) {
+    Result result = new Result(duration);
+    long deadline = System.nanoTime() + duration.toNanos();
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < postClients + getClients; i++) {
+        boolean reader = i < getClients;
+        executor.submit(() -> {
+          while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            try {
+              int status = client.send(reader ? get : post,
+                  HttpResponse.BodyHandlers.discarding()).statusCode();
+              long latency = System.nanoTime() - start;
+              if (status == 200) {
+                (reader ? result.getLatencies : result.postLatencies).add(latency);
+              } else if (status == 503 && !reader) {
+                result.shed.incrementAndGet();
+                // Clients honouring Retry-After would back off; pause briefly instead.
+                Thread.sleep(10);
+              } else {
+                result.errors.incrementAndGet();
+              }
+            } catch (IOException e) {
+              result.errors.incrementAndGet();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+              return;
+            }
+          }
+        });
+      }
+    }
+    return result;
+  }
+
+  private static final class Result {
+
+    final Duration duration;
+    final ConcurrentLinkedQueue<Long> postLatencies = new ConcurrentLinkedQueue<>();
+    final ConcurrentLinkedQueue<Long> getLatencies = new ConcurrentLinkedQueue<>();
+    final AtomicLong shed = new AtomicLong();
+    final AtomicLong errors = new AtomicLong();
+
+    Result(Duration duration) {
+      this.duration = duration;
+    }
+
+    void print(String mode) {
+      long[] posts = sorted(postLatencies);
+      long[] gets = sorted(getLatencies);
+      double seconds = duration.toSeconds();
+      System.out.printf("%-9s %6.1f %7.1f %7d %9.0f %9.0f %7.1f %8.1f %8.1f%n", mode,
+          posts.length / seconds, shed.get() / seconds, errors.get(), percentile(posts, 0.50),
+          percentile(posts, 0.99), gets.length / seconds, percentile(gets, 0.50),
+          percentile(gets, 0.99));
+    }
+
+    static long[] sorted(ConcurrentLinkedQueue<Long> latencies) {
+      return latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    static double percentile(long[] latencies, double p) {
+      if (latencies.length == 0) {
+        return Double.NaN;
+      }
+      int index = (int) Math.ceil(p * latencies.length) - 1;
+      return latencies[Math.max(0, index)] / 1_000_000.0;
+    }
+  }
+}
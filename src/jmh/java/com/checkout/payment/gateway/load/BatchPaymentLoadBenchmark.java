@@ -0,0 +1,127 @@
+package com.checkout.payment.gateway.load;
+
+import com.checkout.payment.gateway.PaymentGatewayApplication;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Year;
+import java.util.StringJoiner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Throughput of submitting the same number of payments one per {@code POST /v1/payments} and as
+ * {@code POST /v1/payments/batch} requests of 1, 100 and 1000 items, against a stub bank with
+ * 5-15 ms latency. A fixed number of concurrent clients keeps sending until every payment has
+ * been submitted.
+ *
+ * <p>Arguments: {@code [payments=20000] [concurrentClients=32]}.
+ */
+public class BatchPaymentLoadBenchmark {
+
+  private static final int[] BATCH_SIZES = {1, 100, 1000};
+
+  public static void main(String[] args) throws Exception {
+    int payments = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+    int clients = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+
+    try (LoadTestBank bank = new LoadTestBank(5, 15);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(
+            PaymentGatewayApplication.class).properties(
+            "server.port=0",
+            "client.url.default=" + bank.baseUrl(),
+            "client.http.pool.max-per-route=1000",
+            "client.http.pool.max-total=1000",
+            "client.limiter.initial-limit=256",
+            "client.limiter.max-limit=1000",
+            "payments.batch.parallelism=64",
+            "logging.level.root=WARN",
+            "logging.level.org.springframework.web.client.RestTemplate=WARN").run()) {
+      String baseUrl = "http://127.0.0.1:"
+          + context.getEnvironment().getProperty("local.server.port") + "/v1/payments";
+      HttpClient client = HttpClient.newBuilder()
+          .version(HttpClient.Version.HTTP_1_1)
+          .executor(Executors.newVirtualThreadPerTaskExecutor())
+          .build();
+
+      run(client, URI.create(baseUrl), 0, payments / 10, clients);
+      for (int batchSize : BATCH_SIZES) {
+        run(client, URI.create(baseUrl + "/batch"), batchSize, payments / 10, clients);
+      }
+
+      System.out.printf("%n%d payments, %d concurrent clients, bank latency 5-15 ms%n", payments,
+          clients);
+      System.out.println("mode         requests   payments/s   errors");
+      run(client, URI.create(baseUrl), 0, payments, clients).print("single");
+      for (int batchSize : BATCH_SIZES) {
+        run(client, URI.create(baseUrl + "/batch"), batchSize, payments, clients)
+            .print("batch " + batchSize);
+      }
+    }
+  }
+
+  /**
+   * Submits {@code payments} payments, {@code batchSize} per request, or one per single-payment
+   * request when {@code batchSize} is zero.
+   */
+  private static Result run(HttpClient client, URI uri, int batchSize, int payments,
+      int clients) throws InterruptedException {
+    String payment = """
+        {"cardNumber": "378282246310005", "expiryMonth": 12, "expiryYear": %d,
+         "currency": "GBP", "amount": 100, "cvv": "123"}""".formatted(Year.now().getValue() + 1);
+    String body = batchSize == 0 ? payment : batch(payment, batchSize);
+    int perRequest = Math.max(1, batchSize);
+    int requests = (payments + perRequest - 1) / perRequest;
+    HttpRequest request = HttpRequest.newBuilder(uri)
+        .timeout(Duration.ofMinutes(5))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(body))
+        .build();
+
+    AtomicInteger remaining = new AtomicInteger(requests);
+    AtomicLong errors = new AtomicLong();
+    long start = System.nanoTime();
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < clients; i++) {
+        executor.submit(() -> {
+          while (remaining.getAndDecrement() > 0) {
+            try {
+              HttpResponse<String> response = client.send(request,
+                  HttpResponse.BodyHandlers.ofString());
+              if (response.statusCode() != 200
+                  || (batchSize > 0 && response.body().contains("\"error\""))) {
+                errors.incrementAndGet();
+              }
+            } catch (Exception e) {
+              errors.incrementAndGet();
+            }
+          }
+          return null;
+        });
+      }
+    }
+    return new Result(requests, requests * perRequest, System.nanoTime() - start, errors.get());
+  }
+
+  private static String batch(String payment, int batchSize) {
+    StringJoiner joiner = new StringJoiner(",", "[", "]");
+    for (int i = 0; i < batchSize; i++) {
+      joiner.add(payment);
+    }
+    return joiner.toString();
+  }
+
+  private record Result(int requests, int payments, long elapsedNanos, long errors) {
+
+    void print(String mode) {
+      System.out.printf("%-12s %8d %12.0f %8d%n", mode, requests,
+          payments / (elapsedNanos / 1e9), errors);
+    }
+  }
+}
@@ -0,0 +1,138 @@
+package com.checkout.payment.gateway.load;
+
+import com.checkout.payment.gateway.bin.CardSchemeDetector;
+import com.checkout.payment.gateway.client.BankSimulatorAsyncInterface;
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.generator.RandomPaymentIdGenerator;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.repository.StripedPaymentsRepository;
+import com.checkout.payment.gateway.resilience.AdmissionController;
+import com.checkout.payment.gateway.service.BatchPaymentService;
+import com.checkout.payment.gateway.service.PaymentGatewayService;
+import com.checkout.payment.gateway.service.PaymentStageMetrics;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The scenario of {@link BatchPaymentLoadBenchmark} below the HTTP layer: payments submitted one
+ * at a time through {@link PaymentGatewayService#processPaymentAsync} and in batches of 1, 100
+ * and 1000 through {@link BatchPaymentService}, against an asynchronous stub bank answering in
+ * 5-15 ms. Needs no Spring context, so it also shows what batching buys when request parsing and
+ * round trips are left out. Each mode runs once to warm up and once measured.
+ *
+ * <p>Arguments: {@code [payments=20000] [concurrentClients=32] [parallelism=64]}.
+ */
+public class BatchPaymentServiceLoadBenchmark {
+
+  private static final int[] BATCH_SIZES = {1, 100, 1000};
+
+  public static void main(String[] args) throws Exception {
+    int payments = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+    int clients = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+    int parallelism = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+
+    ScheduledExecutorService bankTimer = Executors.newScheduledThreadPool(4);
+    BankSimulatorAsyncInterface bank = (paymentId, request) -> {
+      CompletableFuture<PaymentStatus> status = new CompletableFuture<>();
+      bankTimer.schedule(() -> status.complete(PaymentStatus.AUTHORIZED),
+          ThreadLocalRandom.current().nextLong(5, 16), TimeUnit.MILLISECONDS);
+      return status;
+    };
+    ExecutorService storageExecutor = Executors.newFixedThreadPool(16);
+    PaymentGatewayService service = new PaymentGatewayService(new StripedPaymentsRepository(64),
+        null, bank, new RandomPaymentIdGenerator(),
+        new CardSchemeDetector("", Duration.ofSeconds(30), "", false), new PaymentStageMetrics(),
+        storageExecutor);
+    ExecutorService batchExecutor = Executors.newFixedThreadPool(parallelism);
+    BatchPaymentService batchService = new BatchPaymentService(service, batchExecutor,
+        parallelism, new AdmissionController("payments", Duration.ZERO, Duration.ofSeconds(1), 1),
+        Duration.ofSeconds(1));
+
+    try {
+      run(service, batchService, 0, payments, clients);
+      for (int batchSize : BATCH_SIZES) {
+        run(service, batchService, batchSize, payments, clients);
+      }
+
+      System.out.printf("%n%d payments, %d concurrent clients, batch parallelism %d, "
+          + "bank latency 5-15 ms%n", payments, clients, parallelism);
+      System.out.println("mode         requests   payments/s   errors");
+      run(service, batchService, 0, payments, clients).print("single");
+      for (int batchSize : BATCH_SIZES) {
+        run(service, batchService, batchSize, payments, clients).print("batch " + batchSize);
+      }
+    } finally {
+      batchExecutor.shutdownNow();
+      storageExecutor.shutdownNow();
+      bankTimer.shutdownNow();
+    }
+  }
+
+  /**
+   * Submits {@code payments} payments, {@code batchSize} per call, or one per single-payment call
+   * when {@code batchSize} is zero.
+   */
+  private static Result run(PaymentGatewayService service, BatchPaymentService batchService,
+      int batchSize, int payments, int clients) {
+    int perRequest = Math.max(1, batchSize);
+    int requests = (payments + perRequest - 1) / perRequest;
+    AtomicInteger remaining = new AtomicInteger(requests);
+    AtomicLong errors = new AtomicLong();
+    long start = System.nanoTime();
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < clients; i++) {
+        executor.submit(() -> {
+          while (remaining.getAndDecrement() > 0) {
+            try {
+              if (batchSize == 0) {
+                service.processPaymentAsync(payment()).join();
+              } else {
+                List<PostPaymentRequest> batch = new ArrayList<>(batchSize);
+                for (int j = 0; j < batchSize; j++) {
+                  batch.add(payment());
+                }
+                for (CompletableFuture<PostPaymentResponse> result :
+                    batchService.processPayments(batch)) {
+                  result.join();
+                }
+              }
+            } catch (RuntimeException e) {
+              errors.incrementAndGet();
+            }
+          }
+          return null;
+        });
+      }
+    }
+    return new Result(requests, requests * perRequest, System.nanoTime() - start, errors.get());
+  }
+
+  private static PostPaymentRequest payment() {
+    PostPaymentRequest request = new PostPaymentRequest();
+    request.setCardNumber("378282246310005");
+    request.setExpiryMonth(12);
+    request.setExpiryYear(2030);
+    request.setCvv("123");
+    request.setCurrency("GBP");
+    request.setAmount(100);
+    return request;
+  }
+
+  private record Result(int requests, int payments, long elapsedNanos, long errors) {
+
+    void print(String mode) {
+      System.out.printf("%-12s %8d %12.0f %8d%n", mode, requests,
+          payments / (elapsedNanos / 1e9), errors);
+    }
+  }
+}
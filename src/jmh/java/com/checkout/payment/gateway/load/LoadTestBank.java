@@ -0,0 +1,62 @@
+package com.checkout.payment.gateway.load;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stub acquiring bank for load programs: authorizes every payment after a uniformly random
+ * delay between {@code minLatencyMillis} and {@code maxLatencyMillis}, serving each request on
+ * its own virtual thread.
+ */
+class LoadTestBank implements AutoCloseable {
+
+  private final HttpServer server;
+  private final long minLatencyMillis;
+  private final long maxLatencyMillis;
+
+  LoadTestBank(long minLatencyMillis, long maxLatencyMillis) throws IOException {
+    this.minLatencyMillis = minLatencyMillis;
+    this.maxLatencyMillis = maxLatencyMillis;
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+    server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    server.createContext("/payments", this::authorize);
+    server.start();
+  }
+
+  String baseUrl() {
+    return "http://127.0.0.1:" + server.getAddress().getPort();
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+  }
+
+  private void authorize(HttpExchange exchange) throws IOException {
+    try (InputStream in = exchange.getRequestBody()) {
+      in.readAllBytes();
+    }
+    if (maxLatencyMillis > 0) {
+      try {
+        Thread.sleep(ThreadLocalRandom.current()
+            .nextLong(minLatencyMillis, maxLatencyMillis + 1));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    byte[] response = "{\"authorized\":true,\"authorization_code\":\"0bb07405\"}"
+        .getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(200, response.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(response);
+    }
+  }
+}
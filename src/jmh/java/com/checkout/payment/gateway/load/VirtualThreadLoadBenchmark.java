@@ -0,0 +1,128 @@
+package com.checkout.payment.gateway.load;
+
+import com.checkout.payment.gateway.PaymentGatewayApplication;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Year;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Closed-loop load test of {@code POST /v1/payments} against a stub bank that answers after a
+ * uniformly random 200 ms - 2 s delay. Runs the gateway once on the default platform-thread
+ * Tomcat pool (200 workers) and once with {@code threads.virtual.enabled=true}, and prints
+ * throughput and latency percentiles for each.
+ *
+ * <p>Arguments: {@code [concurrentClients=1000] [durationSeconds=30]}.
+ */
+public class VirtualThreadLoadBenchmark {
+
+  private static final long MIN_BANK_LATENCY_MS = 200;
+  private static final long MAX_BANK_LATENCY_MS = 2_000;
+
+  public static void main(String[] args) throws Exception {
+    int clients = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+    Duration duration = Duration.ofSeconds(args.length > 1 ? Long.parseLong(args[1]) : 30);
+
+    try (LoadTestBank bank = new LoadTestBank(MIN_BANK_LATENCY_MS, MAX_BANK_LATENCY_MS)) {
+      String bankUrl = bank.baseUrl();
+      Result platform = run(false, bankUrl, clients, duration);
+      Result virtual = run(true, bankUrl, clients, duration);
+      System.out.printf("%n%d clients, bank latency %d-%d ms, %d s%n", clients,
+          MIN_BANK_LATENCY_MS, MAX_BANK_LATENCY_MS, duration.toSeconds());
+      System.out.println("mode      req/s    p50 ms   p99 ms   errors");
+      platform.print("platform");
+      virtual.print("virtual");
+    }
+  }
+
+  private static Result run(boolean virtualThreads, String bankUrl, int clients,
+      Duration duration) throws InterruptedException {
+    try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+        PaymentGatewayApplication.class).properties(
+        "server.port=0",
+        "threads.virtual.enabled=" + virtualThreads,
+        "client.url.default=" + bankUrl,
+        "client.http.pool.max-per-route=10000",
+        "client.http.pool.max-total=10000",
+        "client.http.pool-acquire-timeout=30s",
+        "logging.level.root=WARN",
+        "logging.level.org.springframework.web.client.RestTemplate=WARN").run()) {
+      URI uri = URI.create("http://127.0.0.1:"
+          + context.getEnvironment().getProperty("local.server.port") + "/v1/payments");
+      drive(uri, clients, Duration.ofSeconds(5));
+      return drive(uri, clients, duration);
+    }
+  }
+
+  private static Result drive(URI uri, int clients, Duration duration)
+      throws InterruptedException {
+    String body = """
+        {"cardNumber": "378282246310005", "expiryMonth": 12, "expiryYear": %d,
+         "currency": "GBP", "amount": 100, "cvv": "123"}
+        """.formatted(Year.now().getValue() + 1);
+    HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .build();
+    HttpRequest request = HttpRequest.newBuilder(uri)
+        .timeout(Duration.ofSeconds(60))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(body))
+        .build();
+
+    ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+    AtomicLong errors = new AtomicLong();
+    long deadline = System.nanoTime() + duration.toNanos();
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < clients; i++) {
+        executor.submit(() -> {
+          while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            try {
+              HttpResponse<Void> response = client.send(request,
+                  HttpResponse.BodyHandlers.discarding());
+              if (response.statusCode() == 200) {
+                latencies.add(System.nanoTime() - start);
+              } else {
+                errors.incrementAndGet();
+              }
+            } catch (IOException e) {
+              errors.incrementAndGet();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+              return;
+            }
+          }
+        });
+      }
+    }
+    long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+    return new Result(sorted, errors.get(), duration);
+  }
+
+  private record Result(long[] latencies, long errors, Duration duration) {
+
+    void print(String mode) {
+      System.out.printf("%-8s %7.1f %8.0f %8.0f %8d%n", mode,
+          latencies.length / (double) duration.toSeconds(), percentile(0.50), percentile(0.99),
+          errors);
+    }
+
+    double percentile(double p) {
+      if (latencies.length == 0) {
+        return Double.NaN;
+      }
+      int index = (int) Math.ceil(p * latencies.length) - 1;
+      return latencies[Math.max(0, index)] / 1_000_000.0;
+    }
+  }
+}
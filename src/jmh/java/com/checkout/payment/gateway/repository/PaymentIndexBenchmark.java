@@ -0,0 +1,185 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PaymentSearch;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.time.Instant;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Cost of the search index on the write path and search latency over 10M payments.
+ *
+ * <p>{@code add} compares the striped repository with and without the index in front of it. The
+ * search benchmarks load 10M payments spread over 30 days into the compact repository behind an
+ * index of the same capacity, and fetch one page of 100: by card (card chain), declined payments
+ * in one hour (time buckets), and by amount alone (no index, a scan of the packed index fields).
+ * {@code scanByCard} is the baseline, the same card lookup as a full repository scan. Run all
+ * thread counts for {@code add} with {@code ./gradlew jmhJar} and
+ * {@code java -cp build/libs/*-jmh.jar <this class>}.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class PaymentIndexBenchmark {
+
+  private static final int WRITE_KEYS = 1 << 20;
+  private static final int SEARCH_PAYMENTS = 10_000_000;
+  private static final int PAGE_SIZE = 100;
+  private static final int SAMPLES = 1 << 10;
+  private static final long START_MILLIS = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+  private static final long SPAN_MILLIS = TimeUnit.DAYS.toMillis(30);
+  private static final long HOUR_MILLIS = TimeUnit.HOURS.toMillis(1);
+  private static final String[] CURRENCIES = {"GBP", "USD", "EUR"};
+
+  @State(Scope.Benchmark)
+  public static class Writes {
+
+    @Param({"striped", "indexed"})
+    public String repository;
+
+    PaymentsRepository payments;
+    PostPaymentResponse[] samples;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      PaymentsRepository store = new StripedPaymentsRepository(64);
+      payments = repository.equals("indexed")
+          ? new IndexedPaymentsRepository(store, WRITE_KEYS, WRITE_KEYS, 0.01)
+          : store;
+      SplittableRandom random = new SplittableRandom(42);
+      samples = new PostPaymentResponse[WRITE_KEYS];
+      for (int i = 0; i < WRITE_KEYS; i++) {
+        samples[i] = payment(random, START_MILLIS + i);
+      }
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class Searches {
+
+    IndexedPaymentsRepository payments;
+    PaymentSearch[] byCard = new PaymentSearch[SAMPLES];
+    PaymentSearch[] declinedInHour = new PaymentSearch[SAMPLES];
+    PaymentSearch[] byAmount = new PaymentSearch[SAMPLES];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      payments = new IndexedPaymentsRepository(new CompactPaymentsRepository(), SEARCH_PAYMENTS,
+          SEARCH_PAYMENTS, 0.01);
+      SplittableRandom random = new SplittableRandom(7);
+      int sampleEvery = SEARCH_PAYMENTS / SAMPLES;
+      for (int i = 0; i < SEARCH_PAYMENTS; i++) {
+        long millis = START_MILLIS + SPAN_MILLIS * i / SEARCH_PAYMENTS;
+        PostPaymentResponse payment = payment(random, millis);
+        payments.add(payment);
+        if (i % sampleEvery == 0 && i / sampleEvery < SAMPLES) {
+          int sample = i / sampleEvery;
+          byCard[sample] = new PaymentSearch(payment.getCardNumberLastFour(),
+              payment.getExpiryMonth(), payment.getExpiryYear(), null, null, null, null, null);
+          Instant hour = Instant.ofEpochMilli(millis - millis % HOUR_MILLIS);
+          declinedInHour[sample] = new PaymentSearch(null, null, null, null,
+              PaymentStatus.DECLINED, null, hour, hour.plusMillis(HOUR_MILLIS));
+          byAmount[sample] = new PaymentSearch(null, null, null, payment.getAmount(), null, null,
+              null, null);
+        }
+      }
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class ThreadCursor {
+    private final SplittableRandom random = new SplittableRandom();
+
+    int next(int bound) {
+      return random.nextInt(bound);
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public void add(Writes writes, ThreadCursor cursor) {
+    writes.payments.add(writes.samples[cursor.next(WRITE_KEYS)]);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public int searchByCard(Searches searches, ThreadCursor cursor) {
+    return page(searches.payments, searches.byCard[cursor.next(SAMPLES)]);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public int searchDeclinedInHour(Searches searches, ThreadCursor cursor) {
+    return page(searches.payments, searches.declinedInHour[cursor.next(SAMPLES)]);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public int searchByAmount(Searches searches, ThreadCursor cursor) {
+    return page(searches.payments, searches.byAmount[cursor.next(SAMPLES)]);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int scanByCard(Searches searches, ThreadCursor cursor) {
+    PaymentSearch search = searches.byCard[cursor.next(SAMPLES)];
+    int[] found = new int[1];
+    searches.payments.scan(0, payment -> !search.matches(payment) || ++found[0] < PAGE_SIZE);
+    return found[0];
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    for (int threads : new int[]{1, 4, 16}) {
+      Options options = new OptionsBuilder()
+          .include(PaymentIndexBenchmark.class.getSimpleName() + "\\.add")
+          .threads(threads)
+          .build();
+      new Runner(options).run();
+    }
+    new Runner(new OptionsBuilder()
+        .include(PaymentIndexBenchmark.class.getSimpleName() + "\\.(search|scan)")
+        .build()).run();
+  }
+
+  private static int page(IndexedPaymentsRepository payments, PaymentSearch search) {
+    int[] found = new int[1];
+    payments.search(search, Long.MAX_VALUE, payment -> ++found[0] < PAGE_SIZE);
+    return found[0];
+  }
+
+  private static PostPaymentResponse payment(SplittableRandom random, long millis) {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(new UUID(millis << 16 | 0x7000L | random.nextInt(1 << 12),
+        0x8000000000000000L | random.nextLong() >>> 2));
+    payment.setStatus(random.nextInt(10) == 0 ? PaymentStatus.DECLINED : PaymentStatus.AUTHORIZED);
+    payment.setCardNumberLastFour(String.format("%04d", random.nextInt(10_000)));
+    payment.setExpiryMonth(1 + random.nextInt(12));
+    payment.setExpiryYear(2026 + random.nextInt(10));
+    payment.setCurrency(CURRENCIES[random.nextInt(CURRENCIES.length)]);
+    payment.setAmount(1 + random.nextInt(1_000_000));
+    return payment;
+  }
+}
@@ -0,0 +1,145 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Contention benchmark for the repository implementations at 1-64 threads.
+ *
+ * <p>The baseline is the original {@code HashMap} behind a synchronized wrapper: the bare map
+ * is not safe to write from several threads, and would corrupt itself rather than measure
+ * anything. Run all thread counts with {@code ./gradlew jmhJar} and
+ * {@code java -cp build/libs/*-jmh.jar <this class>}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PaymentsRepositoryContentionBenchmark {
+
+  private static final int KEYS = 1 << 20;
+
+  @Param({"hashmap", "concurrent-map", "striped"})
+  public String implementation;
+
+  private PaymentsRepository repository;
+  private UUID[] ids;
+  private PostPaymentResponse[] payments;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    repository = switch (implementation) {
+      case "hashmap" -> new SynchronizedHashMapPaymentsRepository();
+      case "concurrent-map" -> new ConcurrentMapPaymentsRepository();
+      case "striped" -> new StripedPaymentsRepository(64);
+      default -> throw new IllegalArgumentException(implementation);
+    };
+    SplittableRandom random = new SplittableRandom(42);
+    ids = new UUID[KEYS];
+    payments = new PostPaymentResponse[KEYS];
+    for (int i = 0; i < KEYS; i++) {
+      ids[i] = new UUID(random.nextLong(), random.nextLong());
+      payments[i] = payment(ids[i]);
+      // Pre-fill half of the keys so that add() mixes inserts and overwrites.
+      if ((i & 1) == 0) {
+        repository.add(payments[i]);
+      }
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class ThreadCursor {
+    private final SplittableRandom random = new SplittableRandom();
+
+    int next() {
+      return random.nextInt(KEYS);
+    }
+  }
+
+  @Benchmark
+  public Optional<PostPaymentResponse> get(ThreadCursor cursor) {
+    return repository.get(ids[cursor.next()]);
+  }
+
+  @Benchmark
+  public void add(ThreadCursor cursor) {
+    repository.add(payments[cursor.next()]);
+  }
+
+  @Benchmark
+  public Object readMostly(ThreadCursor cursor) {
+    int index = cursor.next();
+    if (index % 10 == 0) {
+      repository.add(payments[index]);
+      return null;
+    }
+    return repository.get(ids[index]);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    for (int threads : new int[]{1, 2, 4, 8, 16, 32, 64}) {
+      Options options = new OptionsBuilder()
+          .include(PaymentsRepositoryContentionBenchmark.class.getSimpleName())
+          .threads(threads)
+          .forks(1)
+          .build();
+      new Runner(options).run();
+    }
+  }
+
+  private static PostPaymentResponse payment(UUID id) {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(id);
+    payment.setStatus(PaymentStatus.AUTHORIZED);
+    payment.setCardNumberLastFour("4321");
+    payment.setExpiryMonth(12);
+    payment.setExpiryYear(2030);
+    payment.setCurrency("GBP");
+    payment.setAmount(100);
+    return payment;
+  }
+
+  private static final class SynchronizedHashMapPaymentsRepository implements PaymentsRepository {
+
+    private final Map<UUID, PostPaymentResponse> payments =
+        Collections.synchronizedMap(new HashMap<>());
+
+    @Override
+    public void add(PostPaymentResponse payment) {
+      payments.put(payment.getId(), payment);
+    }
+
+    @Override
+    public Optional<PostPaymentResponse> get(UUID id) {
+      return Optional.ofNullable(payments.get(id));
+    }
+
+    @Override
+    public long scan(long position, PaymentVisitor visitor) {
+      throw new UnsupportedOperationException("Not measured by this benchmark");
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Prints the retained heap per stored payment for each repository implementation. Payments are
+ * built the same way {@code PaymentGatewayService} builds them, with fresh strings for the last
+ * four digits and currency. Run with a fixed heap, e.g. {@code -Xms4g -Xmx4g}.
+ */
+public class PaymentsRepositoryFootprint {
+
+  private static final int PAYMENTS = 2_000_000;
+  private static final String[] CURRENCIES = {"GBP", "USD", "EUR"};
+
+  public static void main(String[] args) {
+    int payments = args.length > 0 ? Integer.parseInt(args[0]) : PAYMENTS;
+    for (String implementation : new String[]{"striped", "concurrent-map", "compact"}) {
+      long before = usedHeap();
+      PaymentsRepository repository = fill(implementation, payments);
+      long after = usedHeap();
+      System.out.printf("%-15s %6.1f bytes/payment (%d payments)%n", implementation,
+          (double) (after - before) / payments, payments);
+      if (repository.get(UUID.randomUUID()).isPresent()) {
+        throw new IllegalStateException();
+      }
+    }
+  }
+
+  private static PaymentsRepository fill(String implementation, int payments) {
+    PaymentsRepository repository = switch (implementation) {
+      case "striped" -> new StripedPaymentsRepository(64);
+      case "concurrent-map" -> new ConcurrentMapPaymentsRepository();
+      case "compact" -> new CompactPaymentsRepository();
+      default -> throw new IllegalArgumentException(implementation);
+    };
+    SplittableRandom random = new SplittableRandom(7);
+    for (int i = 0; i < payments; i++) {
+      PostPaymentResponse payment = new PostPaymentResponse();
+      payment.setId(new UUID(random.nextLong(), random.nextLong()));
+      payment.setStatus(i % 2 == 0 ? PaymentStatus.AUTHORIZED : PaymentStatus.DECLINED);
+      String cardNumber = "453201511283" + String.format("%04d", random.nextInt(10_000));
+      payment.setCardNumberLastFour(cardNumber.substring(cardNumber.length() - 4));
+      payment.setExpiryMonth(1 + random.nextInt(12));
+      payment.setExpiryYear(2026 + random.nextInt(10));
+      payment.setCurrency(new String(CURRENCIES[random.nextInt(CURRENCIES.length)]));
+      payment.setAmount(1 + random.nextInt(1_000_000));
+      repository.add(payment);
+    }
+    return repository;
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 5; i++) {
+      System.gc();
+      try {
+        Thread.sleep(100);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
@@ -0,0 +1,91 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.repository.journal.FsyncPolicy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Latency of {@link PaymentsRepository#add} as seen by request threads, on a journal with
+ * {@code fsync-policy=always}: {@code queueCapacity=0} writes synchronously and waits for the
+ * fsync, anything above queues the payment for the write-behind writer. The journal lives in a
+ * temporary directory, so the numbers depend on the disk it is on.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class WriteBehindBenchmark {
+
+  @Param({"0", "10000"})
+  public int queueCapacity;
+
+  private Path directory;
+  private JournalPaymentsRepository journal;
+  private IndexedPaymentsRepository repository;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("write-behind-benchmark");
+    journal = new JournalPaymentsRepository(directory.toString(), DataSize.ofMegabytes(256),
+        FsyncPolicy.ALWAYS, Duration.ofMillis(100));
+    repository = new IndexedPaymentsRepository(journal, 1 << 20, 1 << 24, 0.01, queueCapacity,
+        256, Duration.ofSeconds(1), 10_000);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    repository.close();
+    journal.close();
+    try (Stream<Path> files = Files.walk(directory)) {
+      files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+
+  @Benchmark
+  public void add() {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(UUID.randomUUID());
+    payment.setStatus(PaymentStatus.AUTHORIZED);
+    payment.setCardNumberLastFour("0366");
+    payment.setExpiryMonth(4);
+    payment.setExpiryYear(2030);
+    payment.setCurrency("GBP");
+    payment.setAmount(12345);
+    repository.add(payment);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(WriteBehindBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
@@ -0,0 +1,131 @@
+package com.checkout.payment.gateway.service;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.EntityNotFoundException;
+import com.checkout.payment.gateway.exception.handler.CommonExceptionHandler;
+import com.checkout.payment.gateway.generator.TimeOrderedPaymentIdGenerator;
+import com.checkout.payment.gateway.model.ErrorResponse;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.repository.IndexedPaymentsRepository;
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+import com.checkout.payment.gateway.repository.StripedPaymentsRepository;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Throughput of {@code GET /v1/payments/{id}} for unknown IDs over 1M stored payments, below the
+ * HTTP layer.
+ *
+ * <p>{@code throwAndHandle} is the previous path: a repository miss, a new
+ * {@link EntityNotFoundException} with its stack trace, and the exception handler's 404. Its two
+ * log lines are left out, so the gap to the new path is a lower bound. {@code lookupMiss} is the
+ * exception-free path straight on the repository, and {@code filteredMiss} the same path through
+ * {@link PaymentGatewayService} and the ID filter. {@code filteredHit} shows what the filter adds
+ * to lookups of stored payments. Run {@link #main} for 1, 4 and 16 threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class NotFoundBenchmark {
+
+  private static final int PAYMENTS = 1 << 20;
+
+  private final CommonExceptionHandler exceptionHandler = new CommonExceptionHandler();
+  private PaymentsRepository store;
+  private PaymentGatewayService service;
+  private UUID[] known;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    store = new StripedPaymentsRepository(64);
+    IndexedPaymentsRepository payments = new IndexedPaymentsRepository(store, PAYMENTS, PAYMENTS,
+        0.01);
+    TimeOrderedPaymentIdGenerator generator = new TimeOrderedPaymentIdGenerator();
+    service = new PaymentGatewayService(payments, null, null, generator, null,
+        new PaymentStageMetrics(), Runnable::run);
+    known = new UUID[PAYMENTS];
+    for (int i = 0; i < PAYMENTS; i++) {
+      PostPaymentResponse payment = new PostPaymentResponse();
+      payment.setId(generator.nextId());
+      payment.setStatus(PaymentStatus.AUTHORIZED);
+      payment.setCardNumberLastFour("4321");
+      payment.setExpiryMonth(12);
+      payment.setExpiryYear(2030);
+      payment.setCurrency("GBP");
+      payment.setAmount(100);
+      payments.add(payment);
+      known[i] = payment.getId();
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class ThreadIds {
+    private final SplittableRandom random = new SplittableRandom();
+
+    UUID unknown() {
+      return new UUID(random.nextLong(), random.nextLong());
+    }
+
+    int knownIndex() {
+      return random.nextInt(PAYMENTS);
+    }
+  }
+
+  @Benchmark
+  public ResponseEntity<ErrorResponse> throwAndHandle(ThreadIds ids) {
+    UUID id = ids.unknown();
+    try {
+      store.get(id).orElseThrow(
+          () -> new EntityNotFoundException("Payment not found. Payment ID: " + id));
+      return null;
+    } catch (EntityNotFoundException e) {
+      return exceptionHandler.handleNotFoundException(e);
+    }
+  }
+
+  @Benchmark
+  public ResponseEntity<?> lookupMiss(ThreadIds ids) {
+    return store.get(ids.unknown()).isPresent() ? null : CommonExceptionHandler.notFound();
+  }
+
+  @Benchmark
+  public ResponseEntity<?> filteredMiss(ThreadIds ids) {
+    return service.getPaymentById(ids.unknown()).isPresent() ? null
+        : CommonExceptionHandler.notFound();
+  }
+
+  @Benchmark
+  public boolean filteredHit(ThreadIds ids) {
+    return service.getPaymentById(known[ids.knownIndex()]).isPresent();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    for (int threads : new int[]{1, 4, 16}) {
+      Options options = new OptionsBuilder()
+          .include(NotFoundBenchmark.class.getSimpleName())
+          .threads(threads)
+          .build();
+      new Runner(options).run();
+    }
+  }
+}
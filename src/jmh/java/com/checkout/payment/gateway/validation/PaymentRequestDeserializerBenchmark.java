@@ -0,0 +1,96 @@
+package com.checkout.payment.gateway.validation;
+
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Year;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Reading and validating a valid payment request body, as the POST endpoint does.
+ * {@code bindThenValidate} binds the bean with a plain reader and runs Bean Validation on it;
+ * {@code validateWhileParsing} reads with {@link PaymentRequestDeserializer} and only falls back
+ * to Bean Validation for requests it could not verify. {@code bind} and {@code readVerified} are
+ * the two reads alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaymentRequestDeserializerBenchmark {
+
+  private ValidatorFactory validatorFactory;
+  private Validator validator;
+  private ObjectReader plainReader;
+  private ObjectReader verifyingReader;
+  private byte[] body;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    validatorFactory = Validation.buildDefaultValidatorFactory();
+    validator = validatorFactory.getValidator();
+    plainReader = new ObjectMapper().readerFor(PostPaymentRequest.class);
+    verifyingReader = new ObjectMapper()
+        .registerModule(PaymentRequestDeserializer.module(null))
+        .readerFor(PostPaymentRequest.class);
+    body = ("{\"cardNumber\":\"4532015112830366\",\"expiryMonth\":12,\"expiryYear\":"
+        + (Year.now().getValue() + 1) + ",\"currency\":\"USD\",\"amount\":1000,\"cvv\":\"123\"}")
+        .getBytes(StandardCharsets.UTF_8);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    validatorFactory.close();
+  }
+
+  @Benchmark
+  public boolean bindThenValidate() throws IOException {
+    PostPaymentRequest request = plainReader.readValue(body);
+    return validator.validate(request).isEmpty();
+  }
+
+  @Benchmark
+  public boolean validateWhileParsing() throws IOException {
+    PostPaymentRequest request = verifyingReader.readValue(body);
+    return request.isVerified() || validator.validate(request).isEmpty();
+  }
+
+  @Benchmark
+  public PostPaymentRequest bind() throws IOException {
+    return plainReader.readValue(body);
+  }
+
+  @Benchmark
+  public PostPaymentRequest readVerified() throws IOException {
+    return verifyingReader.readValue(body);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(PaymentRequestDeserializerBenchmark.class.getSimpleName())
+        .addProfiler("gc")
+        .build()).run();
+  }
+}
@@ -0,0 +1,164 @@
+package com.checkout.payment.gateway.validation;
+
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import java.time.Year;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Validation of a valid payment request, before and after the per-field constraints were fused
+ * into {@link PaymentRequestValidator}.
+ *
+ * <p>{@code beanValidationBefore} validates a copy of the request carrying the previous field
+ * annotations, plus the previous class-level {@link FutureExpiryDateValidator}, and
+ * {@code beanValidationAfter} the request itself, both through Hibernate Validator as Spring MVC
+ * does. {@code constraintsBefore} and {@code fusedAfter} call the validators directly, leaving out
+ * the framework. Run {@link #main}, which adds the GC profiler for allocation per request.
+ *
+ * <p>The previous constraint annotations and validators are kept next to this benchmark as its
+ * baseline; the application no longer uses them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PaymentRequestValidatorBenchmark {
+
+  private static final java.util.regex.Pattern DIGITS = java.util.regex.Pattern.compile("^\\d+$");
+
+  private final CardChecksumValidator cardChecksumValidator = new CardChecksumValidator();
+  private final CurrencyCodeValidator currencyCodeValidator = new CurrencyCodeValidator();
+  private final CurrentOrFutureYearValidator yearValidator = new CurrentOrFutureYearValidator();
+  private final FutureExpiryDateValidator expiryDateValidator = new FutureExpiryDateValidator();
+  private final PaymentRequestValidator paymentRequestValidator = new PaymentRequestValidator();
+
+  private ValidatorFactory validatorFactory;
+  private Validator validator;
+  private PostPaymentRequest request;
+  private LegacyPaymentRequest legacyRequest;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    validatorFactory = Validation.buildDefaultValidatorFactory();
+    validator = validatorFactory.getValidator();
+    request = new PostPaymentRequest();
+    request.setCardNumber("4532015112830366");
+    request.setExpiryMonth(12);
+    request.setExpiryYear(Year.now().getValue() + 1);
+    request.setCurrency("USD");
+    request.setAmount(1000);
+    request.setCvv("123");
+    legacyRequest = new LegacyPaymentRequest(request);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    validatorFactory.close();
+  }
+
+  @Benchmark
+  public boolean beanValidationBefore() {
+    Set<ConstraintViolation<LegacyPaymentRequest>> violations = validator.validate(legacyRequest);
+    return violations.isEmpty() && expiryDateValidator.isValid(request, null);
+  }
+
+  @Benchmark
+  public boolean beanValidationAfter() {
+    return validator.validate(request).isEmpty();
+  }
+
+  @Benchmark
+  public boolean constraintsBefore() {
+    String cardNumber = request.getCardNumber();
+    String currency = request.getCurrency();
+    String cvv = request.getCvv();
+    return cardNumber.length() >= 14 && cardNumber.length() <= 19
+        && DIGITS.matcher(cardNumber).matches()
+        && cardChecksumValidator.isValid(cardNumber, null)
+        && request.getExpiryMonth() >= 1 && request.getExpiryMonth() <= 12
+        && yearValidator.isValid(request.getExpiryYear(), null)
+        && currency.length() == 3 && currencyCodeValidator.isValid(currency, null)
+        && request.getAmount() >= 1 && request.getAmount() <= Integer.MAX_VALUE - 1
+        && cvv.length() >= 3 && cvv.length() <= 4 && DIGITS.matcher(cvv).matches()
+        && expiryDateValidator.isValid(request, null);
+  }
+
+  @Benchmark
+  public boolean fusedAfter() {
+    return paymentRequestValidator.isValid(request, null);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(PaymentRequestValidatorBenchmark.class.getSimpleName())
+        .addProfiler("gc")
+        .build()).run();
+  }
+
+  /**
+   * The field constraints {@link PostPaymentRequest} carried before they were fused.
+   */
+  static class LegacyPaymentRequest {
+
+    @NotNull(message = "Card number must not be empty")
+    @Size(min = 14, max = 19, message = "Card number must be between 14 and 19 characters long")
+    @Pattern(regexp = "^\\d+$", message = "Card number must be 14-19 numeric characters long")
+    @CardChecksumCheck
+    private final String cardNumber;
+
+    @Min(value = 1, message = "Invalid value of the expiry month, value should be in a range 1-12")
+    @Max(value = 12, message = "Invalid value of the expiry month, value should be in a range 1-12")
+    private final int expiryMonth;
+
+    @CurrentOrFutureYear
+    private final int expiryYear;
+
+    @NotNull(message = "Currency must not be empty")
+    @Size(min = 3, max = 3, message = "Currency must be exactly 3 characters long")
+    @CurrencyCode
+    private final String currency;
+
+    @Min(value = 1, message = "Invalid value of the amount, value must be more than 0")
+    @Max(value = Integer.MAX_VALUE - 1,
+        message = "Invalid value of the amount, value must be less than " + Integer.MAX_VALUE)
+    private final int amount;
+
+    @NotNull(message = "CVV must not be empty")
+    @Size(min = 3, max = 4, message = "CVV must be 3 or 4 characters long")
+    @Pattern(regexp = "^\\d+$", message = "CVV must only contain numeric characters")
+    private final String cvv;
+
+    LegacyPaymentRequest(PostPaymentRequest request) {
+      this.cardNumber = request.getCardNumber();
+      this.expiryMonth = request.getExpiryMonth();
+      this.expiryYear = request.getExpiryYear();
+      this.currency = request.getCurrency();
+      this.amount = request.getAmount();
+      this.cvv = request.getCvv();
+    }
+  }
+}
@@ -0,0 +1,239 @@
+package com.checkout.payment.gateway.bin;
+
+import com.checkout.payment.gateway.enums.CardScheme;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Immutable index of BIN (issuer identification number) ranges to card scheme and issuer
+ * country, looked up by the first eight digits of a card number.
+ *
+ * <p>Ranges are read one per line as {@code low,high,scheme[,country]}, where {@code low} and
+ * {@code high} are digit prefixes of one to eight digits ({@code 51,55} covers every card starting
+ * 51 to 55), {@code scheme} is a {@link CardScheme} constant and {@code country} an optional ISO
+ * 3166 alpha-2 code. Blank lines and lines starting with {@code #} are skipped. Ranges may nest,
+ * and the narrowest range covering a card wins; ranges that partially overlap are rejected.
+ *
+ * <p>Nested ranges are flattened into disjoint segments held in parallel primitive arrays (11
+ * bytes per segment), so a lookup is a binary search over an {@code int[]} without allocating.
+ */
+public final class BinTable {
+
+  static final int BIN_DIGITS = 8;
+
+  private static final CardScheme[] SCHEMES = CardScheme.values();
+
+  private final int[] lows;
+  private final int[] highs;
+  private final byte[] schemes;
+  private final short[] countries;
+  private final int size;
+
+  private BinTable(int[] lows, int[] highs, byte[] schemes, short[] countries, int size) {
+    this.lows = lows;
+    this.highs = highs;
+    this.schemes = schemes;
+    this.countries = countries;
+    this.size = size;
+  }
+
+  /**
+   * Reads a table, throwing {@link IllegalArgumentException} with the line number for the first
+   * malformed line or partially overlapping range.
+   */
+  public static BinTable parse(BufferedReader reader) throws IOException {
+    List<Range> ranges = new ArrayList<>();
+    String line;
+    int lineNumber = 0;
+    while ((line = reader.readLine()) != null) {
+      lineNumber++;
+      String trimmed = line.strip();
+      if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+        continue;
+      }
+      ranges.add(parseRange(trimmed, lineNumber));
+    }
+    return flatten(ranges);
+  }
+
+  /**
+   * Returns the scheme of the card, or {@code null} if no range covers it or the card number
+   * does not start with eight ASCII digits.
+   */
+  public CardScheme scheme(String cardNumber) {
+    int segment = find(bin(cardNumber));
+    return segment < 0 ? null : SCHEMES[schemes[segment]];
+  }
+
+  /**
+   * Returns the issuer country of the card, or {@code null} if unknown.
+   */
+  public String issuerCountry(String cardNumber) {
+    int segment = find(bin(cardNumber));
+    if (segment < 0 || countries[segment] == 0) {
+      return null;
+    }
+    short country = countries[segment];
+    return new String(new char[]{(char) (country >>> 8), (char) (country & 0xFF)});
+  }
+
+  /**
+   * Returns the number of disjoint segments the ranges were flattened into.
+   */
+  public int size() {
+    return size;
+  }
+
+  // Returns the first eight digits as a number, or -1.
+  static int bin(String cardNumber) {
+    if (cardNumber == null || cardNumber.length() < BIN_DIGITS) {
+      return -1;
+    }
+    int bin = 0;
+    for (int i = 0; i < BIN_DIGITS; i++) {
+      char c = cardNumber.charAt(i);
+      if (c < '0' || c > '9') {
+        return -1;
+      }
+      bin = bin * 10 + (c - '0');
+    }
+    return bin;
+  }
+
+  private int find(int bin) {
+    if (bin < 0) {
+      return -1;
+    }
+    int i = Arrays.binarySearch(lows, 0, size, bin);
+    if (i < 0) {
+      // The segment starting below the insertion point, if any.
+      i = -i - 2;
+    }
+    return i >= 0 && bin <= highs[i] ? i : -1;
+  }
+
+  private static Range parseRange(String line, int lineNumber) {
+    String[] fields = line.split(",", -1);
+    if (fields.length < 3 || fields.length > 4) {
+      throw invalid(lineNumber, "expected low,high,scheme[,country]");
+    }
+    String low = fields[0].strip();
+    String high = fields[1].strip();
+    if (!isPrefix(low) || !isPrefix(high)) {
+      throw invalid(lineNumber, "BIN prefixes must be 1-" + BIN_DIGITS + " digits");
+    }
+    int lowBin = Integer.parseInt((low + "00000000").substring(0, BIN_DIGITS));
+    int highBin = Integer.parseInt((high + "99999999").substring(0, BIN_DIGITS));
+    if (lowBin > highBin) {
+      throw invalid(lineNumber, "low " + low + " is above high " + high);
+    }
+    CardScheme scheme;
+    try {
+      scheme = CardScheme.valueOf(fields[2].strip());
+    } catch (IllegalArgumentException e) {
+      throw invalid(lineNumber, "unknown scheme " + fields[2].strip());
+    }
+    short country = 0;
+    String code = fields.length == 4 ? fields[3].strip() : "";
+    if (!code.isEmpty()) {
+      if (code.length() != 2 || !isUpperCaseLetter(code.charAt(0))
+          || !isUpperCaseLetter(code.charAt(1))) {
+        throw invalid(lineNumber, "country must be an ISO 3166 alpha-2 code");
+      }
+      country = (short) (code.charAt(0) << 8 | code.charAt(1));
+    }
+    return new Range(lowBin, highBin, (byte) scheme.ordinal(), country, lineNumber);
+  }
+
+  /**
+   * Sweeps the ranges in start order with a stack of the ranges still open, emitting the part of
+   * each range not covered by a narrower one. Identical ranges resolve to the later line.
+   */
+  private static BinTable flatten(List<Range> ranges) {
+    ranges.sort(Comparator.comparingInt(Range::low)
+        .thenComparing(Comparator.comparingInt(Range::high).reversed()));
+    Segments segments = new Segments(ranges.size() * 2 + 1);
+    Deque<Range> open = new ArrayDeque<>();
+    int cursor = 0;
+    for (Range range : ranges) {
+      while (!open.isEmpty() && open.peek().high() < range.low()) {
+        Range closed = open.pop();
+        segments.add(cursor, closed.high(), closed);
+        cursor = closed.high() + 1;
+      }
+      Range parent = open.peek();
+      if (parent != null) {
+        if (range.high() > parent.high()) {
+          throw invalid(range.line(), "range overlaps the range on line " + parent.line());
+        }
+        segments.add(cursor, range.low() - 1, parent);
+      }
+      cursor = range.low();
+      open.push(range);
+    }
+    while (!open.isEmpty()) {
+      Range closed = open.pop();
+      segments.add(cursor, closed.high(), closed);
+      cursor = closed.high() + 1;
+    }
+    int size = segments.size;
+    return new BinTable(Arrays.copyOf(segments.lows, size), Arrays.copyOf(segments.highs, size),
+        Arrays.copyOf(segments.schemes, size), Arrays.copyOf(segments.countries, size), size);
+  }
+
+  private static boolean isPrefix(String value) {
+    if (value.isEmpty() || value.length() > BIN_DIGITS) {
+      return false;
+    }
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c < '0' || c > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isUpperCaseLetter(char c) {
+    return c >= 'A' && c <= 'Z';
+  }
+
+  private static IllegalArgumentException invalid(int lineNumber, String reason) {
+    return new IllegalArgumentException("Invalid BIN range on line " + lineNumber + ": " + reason);
+  }
+
+  private record Range(int low, int high, byte scheme, short country, int line) {
+  }
+
+  private static final class Segments {
+    int[] lows;
+    int[] highs;
+    byte[] schemes;
+    short[] countries;
+    int size;
+
+    Segments(int capacity) {
+      lows = new int[capacity];
+      highs = new int[capacity];
+      schemes = new byte[capacity];
+      countries = new short[capacity];
+    }
+
+    void add(int low, int high, Range range) {
+      if (low > high) {
+        return;
+      }
+      lows[size] = low;
+      highs[size] = high;
+      schemes[size] = range.scheme();
+      countries[size] = range.country();
+      size++;
+    }
+  }
+}
@@ -0,0 +1,200 @@
+package com.checkout.payment.gateway.bin;
+
+import com.checkout.payment.gateway.enums.CardScheme;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Detects the card scheme from the card number's BIN, and decides which cards the gateway
+ * accepts before asking the bank.
+ *
+ * <p>The {@link BinTable} is read from {@code payments.bin.file}, or from the {@code
+ * bin-ranges.csv} bundled with the gateway when no file is set. The file is checked for changes
+ * every {@code payments.bin.reload-interval} and a changed file is loaded in the background and
+ * swapped in with a single volatile write, so lookups never block or see a partly loaded table.
+ * A file that fails to load is logged and the current table kept. Replace the file with an atomic
+ * move so a reload never reads it half written.
+ */
+@Component
+public class CardSchemeDetector implements AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(CardSchemeDetector.class);
+  private static final String BUNDLED_TABLE = "/bin-ranges.csv";
+
+  private final Path file;
+  private final Set<CardScheme> supportedSchemes;
+  private final boolean rejectUnknown;
+  private final ScheduledExecutorService reloader;
+  private final LongAdder reloads = new LongAdder();
+  private final LongAdder failedReloads = new LongAdder();
+  private final LongAdder rejections = new LongAdder();
+  private volatile BinTable table;
+  private FileTime loadedModifiedTime;
+  private long loadedSize;
+
+  /**
+   * @param supportedSchemes comma separated {@link CardScheme} constants, empty for all
+   * @param rejectUnknown    whether cards outside every known range are rejected
+   */
+  public CardSchemeDetector(@Value("${payments.bin.file:}") String file,
+      @Value("${payments.bin.reload-interval:30s}") Duration reloadInterval,
+      @Value("${payments.bin.supported-schemes:}") String supportedSchemes,
+      @Value("${payments.bin.reject-unknown:false}") boolean rejectUnknown) {
+    this.file = file.isBlank() ? null : Path.of(file);
+    this.supportedSchemes = parseSchemes(supportedSchemes);
+    this.rejectUnknown = rejectUnknown;
+    if (this.file == null) {
+      this.table = loadBundled();
+      this.reloader = null;
+    } else {
+      if (!reload()) {
+        throw new IllegalStateException("Could not load the BIN table from " + file);
+      }
+      this.reloader = reloadInterval.isZero() ? null : startReloader(reloadInterval);
+    }
+    LOG.info("Loaded {} BIN ranges from {}, supported schemes: {}", table.size(),
+        this.file == null ? BUNDLED_TABLE : this.file, this.supportedSchemes);
+  }
+
+  /**
+   * Returns the scheme of the card, or {@code null} if no known range covers it.
+   */
+  public CardScheme detect(String cardNumber) {
+    return table.scheme(cardNumber);
+  }
+
+  /**
+   * Returns {@code false} if the card belongs to a scheme the gateway does not support, or to no
+   * known range when {@code payments.bin.reject-unknown} is set.
+   */
+  public boolean isAccepted(String cardNumber) {
+    BinTable current = table;
+    CardScheme scheme = current.scheme(cardNumber);
+    if (accepts(scheme)) {
+      return true;
+    }
+    rejections.increment();
+    LOG.warn("Card scheme {} issued in {} is not supported", scheme,
+        current.issuerCountry(cardNumber));
+    return false;
+  }
+
+  /**
+   * Same as {@link #isAccepted} without counting or logging a rejection.
+   */
+  public boolean supports(String cardNumber) {
+    return accepts(table.scheme(cardNumber));
+  }
+
+  /**
+   * Loads the file if it changed since it was last loaded. Returns {@code true} if a new table
+   * was swapped in.
+   */
+  public synchronized boolean reload() {
+    if (file == null) {
+      return false;
+    }
+    try {
+      BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+      if (attributes.lastModifiedTime().equals(loadedModifiedTime)
+          && attributes.size() == loadedSize) {
+        return false;
+      }
+      BinTable loaded;
+      try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.US_ASCII)) {
+        loaded = BinTable.parse(reader);
+      }
+      table = loaded;
+      loadedModifiedTime = attributes.lastModifiedTime();
+      loadedSize = attributes.size();
+      reloads.increment();
+      LOG.info("Reloaded {} BIN ranges from {}", loaded.size(), file);
+      return true;
+    } catch (IOException | IllegalArgumentException e) {
+      failedReloads.increment();
+      LOG.error("Could not load the BIN table from {}, keeping the current table", file, e);
+      return false;
+    }
+  }
+
+  public int tableSize() {
+    return table.size();
+  }
+
+  public long reloadCount() {
+    return reloads.sum();
+  }
+
+  public long failedReloadCount() {
+    return failedReloads.sum();
+  }
+
+  public long rejectedCount() {
+    return rejections.sum();
+  }
+
+  @Override
+  public void close() {
+    if (reloader != null) {
+      reloader.shutdownNow();
+    }
+  }
+
+  private boolean accepts(CardScheme scheme) {
+    return scheme == null ? !rejectUnknown : supportedSchemes.contains(scheme);
+  }
+
+  private ScheduledExecutorService startReloader(Duration interval) {
+    ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "bin-table-reloader");
+      thread.setDaemon(true);
+      return thread;
+    });
+    long intervalMillis = interval.toMillis();
+    executor.scheduleWithFixedDelay(this::reload, intervalMillis, intervalMillis,
+        TimeUnit.MILLISECONDS);
+    return executor;
+  }
+
+  private static BinTable loadBundled() {
+    try (InputStream in = CardSchemeDetector.class.getResourceAsStream(BUNDLED_TABLE)) {
+      if (in == null) {
+        throw new IllegalStateException("Missing bundled BIN table " + BUNDLED_TABLE);
+      }
+      return BinTable.parse(new BufferedReader(new InputStreamReader(in,
+          StandardCharsets.US_ASCII)));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static Set<CardScheme> parseSchemes(String schemes) {
+    if (schemes.isBlank()) {
+      return EnumSet.allOf(CardScheme.class);
+    }
+    Set<CardScheme> parsed = EnumSet.noneOf(CardScheme.class);
+    for (String scheme : schemes.split(",")) {
+      parsed.add(CardScheme.valueOf(scheme.strip()));
+    }
+    return parsed;
+  }
+}
@@ -0,0 +1,157 @@
+package com.checkout.payment.gateway.cache;
+
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.service.PaymentGatewayService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded cache of stored payments encoded as JSON, so {@code GET /v1/payments/{id}} serializes a
+ * payment once and then writes the same bytes for every later read.
+ *
+ * <p>Each entry carries a strong ETag, a hash of its JSON bytes, so the ETag changes whenever the
+ * representation does. A revalidation is only answered 304 for a payment found in the cache or the
+ * repository. Entries are evicted oldest first once more than {@code maxEntries} are cached.
+ */
+@Component
+public class PaymentJsonCache {
+
+  private final PaymentGatewayService paymentGatewayService;
+  private final ObjectWriter paymentWriter;
+  private final ConcurrentHashMap<UUID, PaymentJson> entries = new ConcurrentHashMap<>();
+  private final AtomicReferenceArray<UUID> insertionOrder;
+  private final AtomicLong inserted = new AtomicLong();
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder notModified = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  public PaymentJsonCache(PaymentGatewayService paymentGatewayService, ObjectMapper objectMapper,
+      @Value("${payments.json-cache.max-entries:100000}") int maxEntries) {
+    if (maxEntries < 1) {
+      throw new IllegalArgumentException("JSON cache max entries must be positive");
+    }
+    this.paymentGatewayService = paymentGatewayService;
+    this.paymentWriter = objectMapper.writerFor(PostPaymentResponse.class);
+    this.insertionOrder = new AtomicReferenceArray<>(maxEntries);
+  }
+
+  /**
+   * Returns the strong ETag of a JSON representation: the quoted, unpadded base64url SHA-256 of
+   * its bytes.
+   */
+  public static String etag(byte[] json) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+    return '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest(json)) + '"';
+  }
+
+  /**
+   * Returns the payment encoded as JSON with its ETag, or empty if there is none.
+   */
+  public Optional<PaymentJson> get(UUID id) {
+    PaymentJson json = entries.get(id);
+    if (json != null) {
+      hits.increment();
+      return Optional.of(json);
+    }
+    Optional<PostPaymentResponse> payment = paymentGatewayService.getPaymentById(id);
+    if (payment.isEmpty()) {
+      return Optional.empty();
+    }
+    misses.increment();
+    byte[] bytes = encode(payment.get());
+    json = new PaymentJson(bytes, etag(bytes));
+    PaymentJson cached = entries.putIfAbsent(id, json);
+    if (cached != null) {
+      return Optional.of(cached);
+    }
+    int slot = (int) (inserted.getAndIncrement() % insertionOrder.length());
+    UUID oldest = insertionOrder.getAndSet(slot, id);
+    if (oldest != null && entries.remove(oldest) != null) {
+      evictions.increment();
+    }
+    return Optional.of(json);
+  }
+
+  /**
+   * Returns {@code true} if {@code ifNoneMatch} names the ETag of {@code payment}, which the caller
+   * got from {@link #get}, so the payment is known to exist. As If-None-Match requires, tags are
+   * compared weakly, so {@code W/"x"} matches {@code "x"}, and {@code *} matches any payment.
+   */
+  public boolean isNotModified(PaymentJson payment, String ifNoneMatch) {
+    if (!matches(ifNoneMatch, payment.etag())) {
+      return false;
+    }
+    notModified.increment();
+    return true;
+  }
+
+  // Our ETags are base64url, so no tag that equals one is split by a comma.
+  private static boolean matches(String ifNoneMatch, String etag) {
+    for (String candidate : ifNoneMatch.split(",")) {
+      String tag = candidate.strip();
+      if (tag.equals("*")) {
+        return true;
+      }
+      if (tag.startsWith("W/")) {
+        tag = tag.substring(2);
+      }
+      if (tag.equals(etag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  public long missCount() {
+    return misses.sum();
+  }
+
+  public long notModifiedCount() {
+    return notModified.sum();
+  }
+
+  public long evictionCount() {
+    return evictions.sum();
+  }
+
+  private byte[] encode(PostPaymentResponse payment) {
+    try {
+      return paymentWriter.writeValueAsBytes(payment);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Could not encode payment " + payment.getId(), e);
+    }
+  }
+
+  /**
+   * A payment encoded as JSON and the strong ETag of those bytes.
+   */
+  public record PaymentJson(byte[] json, String etag) {
+  }
+}
@@ -0,0 +1,231 @@
+package com.checkout.payment.gateway.client;
+
+import com.checkout.payment.gateway.client.model.BankPaymentRequest;
+import com.checkout.payment.gateway.client.model.BankPaymentResponse;
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.AcquiringProcessException;
+import com.checkout.payment.gateway.exception.DeadlineExceededException;
+import com.checkout.payment.gateway.exception.TransientBankException;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.resilience.AdaptiveConcurrencyLimiter;
+import com.checkout.payment.gateway.resilience.Backoff;
+import com.checkout.payment.gateway.resilience.CircuitBreaker;
+import com.checkout.payment.gateway.resilience.Deadline;
+import com.checkout.payment.gateway.resilience.RetryBudget;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * {@code client.mode=async}: calls the bank through the non-blocking JDK {@link HttpClient}, so
+ * no thread is held while the authorization is in flight. Guarded by the same bank
+ * {@link CircuitBreaker} and {@link AdaptiveConcurrencyLimiter} as the blocking client, and given
+ * only what is left of the request deadline in the same way. A call over the concurrency limit is
+ * rejected at once rather than queued, so the caller's thread never waits for a permit.
+ *
+ * <p>Transient failures (a {@code 502} or {@code 503}, or a connection that could not be opened)
+ * are retried like the blocking client does: up to {@code client.retry.max-attempts}, after a
+ * jittered {@link Backoff}, paid for from the bank {@link RetryBudget} and only while the backoff
+ * fits in the request deadline. The wait is scheduled rather than slept, so retries hold no thread
+ * either. Calls are not hedged in this mode.
+ */
+@Service
+@ConditionalOnProperty(name = "client.mode", havingValue = "async")
+public class BankSimulatorAsyncDefaultImpl implements BankSimulatorAsyncInterface {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BankSimulatorAsyncDefaultImpl.class);
+  private static final Duration MIN_TIMEOUT = Duration.ofMillis(1);
+
+  private final HttpClient httpClient;
+  private final ObjectMapper objectMapper;
+  private final Duration readTimeout;
+  private final CircuitBreaker circuitBreaker;
+  private final AdaptiveConcurrencyLimiter limiter;
+  private final RetryBudget retryBudget;
+  private final int maxAttempts;
+  private final Backoff backoff;
+
+  private final LongAdder retries = new LongAdder();
+
+  @Value("${client.url.default}")
+  private String baseUrl;
+
+  public BankSimulatorAsyncDefaultImpl(HttpClient bankAsyncHttpClient, ObjectMapper objectMapper,
+      @Value("${client.http.read-timeout:10s}") Duration readTimeout,
+      CircuitBreaker bankCircuitBreaker, AdaptiveConcurrencyLimiter bankConcurrencyLimiter,
+      RetryBudget bankRetryBudget,
+      @Value("${client.retry.max-attempts:1}") int maxAttempts,
+      @Value("${client.retry.base-delay:50ms}") Duration baseDelay,
+      @Value("${client.retry.max-delay:1s}") Duration maxDelay) {
+    this(bankAsyncHttpClient, objectMapper, readTimeout, bankCircuitBreaker,
+        bankConcurrencyLimiter, bankRetryBudget, maxAttempts, new Backoff(baseDelay, maxDelay));
+  }
+
+  BankSimulatorAsyncDefaultImpl(HttpClient httpClient, ObjectMapper objectMapper,
+      Duration readTimeout, CircuitBreaker circuitBreaker, AdaptiveConcurrencyLimiter limiter,
+      RetryBudget retryBudget, int maxAttempts, Backoff backoff) {
+    if (maxAttempts < 1) {
+      throw new IllegalArgumentException("Bank client needs at least one attempt");
+    }
+    this.httpClient = httpClient;
+    this.objectMapper = objectMapper;
+    this.readTimeout = readTimeout;
+    this.circuitBreaker = circuitBreaker;
+    this.limiter = limiter;
+    this.retryBudget = retryBudget;
+    this.maxAttempts = maxAttempts;
+    this.backoff = backoff;
+  }
+
+  @Override
+  public CompletableFuture<PaymentStatus> makePaymentAsync(UUID paymentId,
+      PostPaymentRequest request) {
+    retryBudget.onRequest();
+    return attempt(paymentId, request, 1);
+  }
+
+  public long retryCount() {
+    return retries.sum();
+  }
+
+  private CompletableFuture<PaymentStatus> attempt(UUID paymentId, PostPaymentRequest request,
+      int attempt) {
+    return send(paymentId, request).exceptionallyCompose(throwable -> {
+      Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+          ? throwable.getCause() : throwable;
+      if (!(cause instanceof TransientBankException)) {
+        return CompletableFuture.failedFuture(cause);
+      }
+      Duration delay = backoff.delay(attempt);
+      Deadline deadline = request.getDeadline();
+      if (attempt >= maxAttempts
+          || (deadline != null && deadline.remaining().compareTo(delay) <= 0)
+          || !retryBudget.tryWithdraw()) {
+        return CompletableFuture.failedFuture(cause);
+      }
+      retries.increment();
+      LOG.warn("Bank call failed for payment ID: {}, retry {} in {} ms", paymentId, attempt,
+          delay.toMillis());
+      Executor afterDelay = CompletableFuture.delayedExecutor(delay.toNanos(),
+          TimeUnit.NANOSECONDS);
+      return CompletableFuture.runAsync(() -> { }, afterDelay)
+          .thenCompose(ignored -> attempt(paymentId, request, attempt + 1));
+    });
+  }
+
+  private CompletableFuture<PaymentStatus> send(UUID paymentId, PostPaymentRequest request) {
+    Deadline deadline = request.getDeadline();
+    if (deadline != null && deadline.isExpired()) {
+      return CompletableFuture.failedFuture(new DeadlineExceededException(
+          "Deadline expired before payment ID: " + paymentId + " was sent to the bank"));
+    }
+    LOG.info("Making async payment request to bank for ID: {}", paymentId);
+    HttpRequest httpRequest;
+    try {
+      BankPaymentRequest bankPaymentRequest = new BankPaymentRequest(request.getCardNumber(),
+          request.getExpiryDate(), request.getCvv(), request.getCurrency(), request.getAmount());
+      httpRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/payments"))
+          .timeout(deadline == null ? readTimeout : atLeast(deadline.cap(readTimeout)))
+          .header("Content-Type", "application/json")
+          .header(BankSimulatorDefaultImpl.IDEMPOTENCY_KEY, paymentId.toString())
+          .POST(HttpRequest.BodyPublishers.ofByteArray(
+              objectMapper.writeValueAsBytes(bankPaymentRequest)))
+          .build();
+    } catch (IOException | RuntimeException e) {
+      return CompletableFuture.failedFuture(bankError(paymentId, request, e));
+    }
+
+    if (!circuitBreaker.tryAcquirePermission()) {
+      return CompletableFuture.failedFuture(
+          CircuitBreakingBankSimulator.circuitOpen(circuitBreaker, paymentId));
+    }
+    if (!limiter.tryAcquireNow()) {
+      circuitBreaker.onIgnore();
+      return CompletableFuture.failedFuture(
+          ConcurrencyLimitingBankSimulator.limitReached(limiter, paymentId));
+    }
+    long start = System.nanoTime();
+    return httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofByteArray())
+        .handle((response, throwable) -> {
+          if (throwable != null) {
+            if (deadline != null && deadline.isExpired()) {
+              LOG.warn("Deadline expired waiting for the bank for payment ID: {}", paymentId);
+              throw new DeadlineExceededException(
+                  "Deadline expired waiting for the bank for payment ID: " + paymentId);
+            }
+            AcquiringProcessException error = bankError(paymentId, request, throwable);
+            throw BankSimulatorDefaultImpl.neverSent(throwable)
+                ? new TransientBankException(error.getMessage()) : error;
+          }
+          try {
+            return toPaymentStatus(response, paymentId);
+          } catch (AcquiringProcessException e) {
+            throw e;
+          } catch (IOException | RuntimeException e) {
+            throw bankError(paymentId, request, e);
+          }
+        })
+        .whenComplete((status, throwable) -> {
+          long rtt = System.nanoTime() - start;
+          if (throwable == null) {
+            limiter.onSuccess(rtt);
+            circuitBreaker.onSuccess(rtt);
+          } else if (throwable.getCause() instanceof DeadlineExceededException) {
+            limiter.onIgnore();
+            circuitBreaker.onIgnore();
+          } else {
+            limiter.onFailure();
+            circuitBreaker.onFailure(rtt);
+          }
+        });
+  }
+
+  private PaymentStatus toPaymentStatus(HttpResponse<byte[]> response, UUID paymentId)
+      throws IOException {
+    if (response.statusCode() == 502 || response.statusCode() == 503) {
+      LOG.warn("Bank responded with HTTP {} for payment ID: {}", response.statusCode(), paymentId);
+      throw new TransientBankException("Bank simulator respond with error while making payment "
+          + "request for payment ID: " + paymentId);
+    }
+    if (response.statusCode() < 200 || response.statusCode() >= 300) {
+      throw new IOException("Bank responded with HTTP " + response.statusCode());
+    }
+    byte[] body = response.body();
+    BankPaymentResponse bankPaymentResponse = body == null || body.length == 0
+        ? null : objectMapper.readValue(body, BankPaymentResponse.class);
+    return BankSimulatorDefaultImpl.handleSuccessBankResponse(bankPaymentResponse, paymentId);
+  }
+
+  private static Duration atLeast(Duration timeout) {
+    return timeout.compareTo(MIN_TIMEOUT) < 0 ? MIN_TIMEOUT : timeout;
+  }
+
+  private static AcquiringProcessException bankError(UUID paymentId, PostPaymentRequest request,
+      Throwable cause) {
+    Throwable unwrapped = cause instanceof CompletionException && cause.getCause() != null
+        ? cause.getCause() : cause;
+    if (unwrapped instanceof AcquiringProcessException acquiringProcessException) {
+      return acquiringProcessException;
+    }
+    LOG.error(
+        "Bank simulator respond with error while making payment request for payment ID: {}, lastFour: {}",
+        paymentId, request.getCardNumberLastFour(), unwrapped);
+    return new AcquiringProcessException("Bank simulator respond with error while making payment "
+        + "request for payment ID: " + paymentId);
+  }
+}
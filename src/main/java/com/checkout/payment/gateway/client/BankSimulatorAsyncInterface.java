@@ -0,0 +1,15 @@
+package com.checkout.payment.gateway.client;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking variant of {@link BankSimulatorInterface}. Failures complete the future
+ * exceptionally with an {@link com.checkout.payment.gateway.exception.AcquiringProcessException}.
+ */
+public interface BankSimulatorAsyncInterface {
+
+  CompletableFuture<PaymentStatus> makePaymentAsync(UUID paymentId, PostPaymentRequest request);
+}
@@ -2,13 +2,27 @@ package com.checkout.payment.gateway.client;
 
 import com.checkout.payment.gateway.enums.PaymentStatus;
 import com.checkout.payment.gateway.exception.AcquiringProcessException;
+import com.checkout.payment.gateway.exception.BankCallCancelledException;
+import com.checkout.payment.gateway.exception.DeadlineExceededException;
+import com.checkout.payment.gateway.exception.TransientBankException;
 import com.checkout.payment.gateway.client.model.BankPaymentRequest;
 import com.checkout.payment.gateway.client.model.BankPaymentResponse;
 import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.resilience.Deadline;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.net.http.HttpConnectTimeoutException;
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.apache.hc.core5.http.ConnectionRequestTimeoutException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 import java.util.UUID;
 
@@ -17,6 +31,8 @@ public class BankSimulatorDefaultImpl implements BankSimulatorInterface {
 
   private static final Logger LOG = LoggerFactory.getLogger(BankSimulatorDefaultImpl.class);
 
+  static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
   private final RestTemplate restTemplate;
 
   @Value("${client.url.default}")
@@ -26,9 +42,24 @@ public class BankSimulatorDefaultImpl implements BankSimulatorInterface {
     this.restTemplate = restTemplate;
   }
 
+  /**
+   * With a request {@link PostPaymentRequest#getDeadline() deadline}, the bank gets only the time
+   * left, and a payment whose deadline has already expired is not sent at all. The payment ID is
+   * sent as the bank's idempotency key, so every attempt for a payment is the same request to it.
+   *
+   * @throws TransientBankException if the bank answered 502 or 503, or the payment never reached
+   *     it because no connection could be opened or taken from the pool
+   * @throws BankCallCancelledException if the calling thread was interrupted, as the losing
+   *     hedged attempt is
+   */
   @Override
   public PaymentStatus makePayment(UUID paymentId, PostPaymentRequest request) {
+    Deadline deadline = request.getDeadline();
     try {
+      if (deadline != null && deadline.isExpired()) {
+        throw new DeadlineExceededException(
+            "Deadline expired before payment ID: " + paymentId + " was sent to the bank");
+      }
       LOG.info("Making payment request to bank for ID: {}", paymentId);
 
       String cardNumber = request.getCardNumber();
@@ -40,26 +71,65 @@ public class BankSimulatorDefaultImpl implements BankSimulatorInterface {
       BankPaymentRequest bankPaymentRequest = new BankPaymentRequest(
           cardNumber, expiryDate, cvv, currency, amount);
 
-      var response = restTemplate.postForEntity(
+      HttpHeaders headers = new HttpHeaders();
+      headers.set(IDEMPOTENCY_KEY, paymentId.toString());
+
+      var response = DeadlineHttpRequestFactory.within(deadline, () -> restTemplate.postForEntity(
           baseUrl + "/payments",
-          bankPaymentRequest,
+          new HttpEntity<>(bankPaymentRequest, headers),
           BankPaymentResponse.class
-      );
+      ));
       BankPaymentResponse body = response.getBody();
       return handleSuccessBankResponse(body, paymentId);
 
-    } catch (AcquiringProcessException ex) {
+    } catch (AcquiringProcessException | DeadlineExceededException ex) {
       throw ex;
     } catch (Exception e) {
+      if (deadline != null && deadline.isExpired()) {
+        LOG.warn("Deadline expired waiting for the bank for payment ID: {}", paymentId);
+        throw new DeadlineExceededException(
+            "Deadline expired waiting for the bank for payment ID: " + paymentId);
+      }
+      if (Thread.currentThread().isInterrupted()) {
+        LOG.info("Bank call cancelled for payment ID: {}", paymentId);
+        throw new BankCallCancelledException("Bank call cancelled for payment ID: " + paymentId);
+      }
       LOG.error(
           "Bank simulator respond with error while making payment request for payment ID: {}, lastFour: {}",
           paymentId, request.getCardNumberLastFour(), e);
-      throw new AcquiringProcessException("Bank simulator respond with error while making payment "
-          + "request for payment ID: " + paymentId);
+      String message = "Bank simulator respond with error while making payment request for "
+          + "payment ID: " + paymentId;
+      throw isTransient(e)
+          ? new TransientBankException(message) : new AcquiringProcessException(message);
+    }
+  }
+
+  private static boolean isTransient(Exception e) {
+    return e instanceof HttpServerErrorException.BadGateway
+        || e instanceof HttpServerErrorException.ServiceUnavailable
+        || (e instanceof ResourceAccessException && neverSent(e));
+  }
+
+  /**
+   * Whether the I/O failure happened before the request was written. A read timeout, a reset or a
+   * 504 may come after the bank took the payment, so only these are safe to send again. Shared
+   * with the async client, whose JDK {@link HttpConnectTimeoutException} means the same.
+   */
+  static boolean neverSent(Throwable e) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof ConnectException
+          || cause instanceof HttpConnectTimeoutException
+          || cause instanceof NoRouteToHostException
+          || cause instanceof UnknownHostException
+          || cause instanceof ConnectTimeoutException
+          || cause instanceof ConnectionRequestTimeoutException) {
+        return true;
+      }
     }
+    return false;
   }
 
-  private PaymentStatus handleSuccessBankResponse(BankPaymentResponse response, UUID paymentId) {
+  static PaymentStatus handleSuccessBankResponse(BankPaymentResponse response, UUID paymentId) {
     if (response == null) {
       LOG.warn("Bank returned null body for payment ID: {}", paymentId);
       throw new AcquiringProcessException("Bank returned null body for payment ID: " + paymentId);
@@ -0,0 +1,33 @@
+package com.checkout.payment.gateway.client;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Default {@code client.mode=sync}: calls the blocking {@link BankSimulatorInterface} on the
+ * caller's thread and returns an already completed future.
+ */
+@Service
+@ConditionalOnProperty(name = "client.mode", havingValue = "sync", matchIfMissing = true)
+public class BlockingBankSimulatorAsyncAdapter implements BankSimulatorAsyncInterface {
+
+  private final BankSimulatorInterface bankSimulatorClient;
+
+  public BlockingBankSimulatorAsyncAdapter(BankSimulatorInterface bankSimulatorClient) {
+    this.bankSimulatorClient = bankSimulatorClient;
+  }
+
+  @Override
+  public CompletableFuture<PaymentStatus> makePaymentAsync(UUID paymentId,
+      PostPaymentRequest request) {
+    try {
+      return CompletableFuture.completedFuture(bankSimulatorClient.makePayment(paymentId, request));
+    } catch (RuntimeException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package com.checkout.payment.gateway.client;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.BankCallCancelledException;
+import com.checkout.payment.gateway.exception.BankUnavailableException;
+import com.checkout.payment.gateway.exception.DeadlineExceededException;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.resilience.CircuitBreaker;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Guards the bank client with the bank {@link CircuitBreaker}: while the circuit is open payments
+ * fail immediately with {@link BankUnavailableException} instead of waiting out the bank timeout.
+ * Rejections from the inner {@link ConcurrencyLimitingBankSimulator} never reached the bank and
+ * are not counted as failures, nor are calls cut short by the request deadline or cancelled by
+ * their caller.
+ */
+@Service
+public class CircuitBreakingBankSimulator implements BankSimulatorInterface {
+
+  private static final Logger LOG = LoggerFactory.getLogger(CircuitBreakingBankSimulator.class);
+
+  private final BankSimulatorInterface delegate;
+  private final CircuitBreaker circuitBreaker;
+
+  public CircuitBreakingBankSimulator(ConcurrencyLimitingBankSimulator delegate,
+      CircuitBreaker bankCircuitBreaker) {
+    this.delegate = delegate;
+    this.circuitBreaker = bankCircuitBreaker;
+  }
+
+  @Override
+  public PaymentStatus makePayment(UUID paymentId, PostPaymentRequest request) {
+    if (!circuitBreaker.tryAcquirePermission()) {
+      throw circuitOpen(circuitBreaker, paymentId);
+    }
+    long start = System.nanoTime();
+    try {
+      PaymentStatus status = delegate.makePayment(paymentId, request);
+      circuitBreaker.onSuccess(System.nanoTime() - start);
+      return status;
+    } catch (BankUnavailableException | DeadlineExceededException
+        | BankCallCancelledException e) {
+      circuitBreaker.onIgnore();
+      throw e;
+    } catch (RuntimeException e) {
+      circuitBreaker.onFailure(System.nanoTime() - start);
+      throw e;
+    }
+  }
+
+  static BankUnavailableException circuitOpen(CircuitBreaker circuitBreaker, UUID paymentId) {
+    LOG.warn("Bank circuit is {}, rejecting payment ID: {}", circuitBreaker.getState(), paymentId);
+    return new BankUnavailableException(
+        "Bank circuit is open, payment rejected for payment ID: " + paymentId,
+        circuitBreaker.remainingOpenDuration());
+  }
+}
@@ -0,0 +1,65 @@
+package com.checkout.payment.gateway.client;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.BankCallCancelledException;
+import com.checkout.payment.gateway.exception.BankUnavailableException;
+import com.checkout.payment.gateway.exception.DeadlineExceededException;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.resilience.AdaptiveConcurrencyLimiter;
+import java.time.Duration;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Caps in-flight calls to {@link BankSimulatorDefaultImpl} at the bank's
+ * {@link AdaptiveConcurrencyLimiter} limit. Calls that cannot get a permit within the short queue
+ * wait fail with {@link BankUnavailableException}. A call cut short by the request deadline or
+ * cancelled by its caller says nothing about the bank and does not move the limit.
+ */
+@Service
+public class ConcurrencyLimitingBankSimulator implements BankSimulatorInterface {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(ConcurrencyLimitingBankSimulator.class);
+
+  private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+  private final BankSimulatorInterface delegate;
+  private final AdaptiveConcurrencyLimiter limiter;
+
+  public ConcurrencyLimitingBankSimulator(BankSimulatorDefaultImpl delegate,
+      AdaptiveConcurrencyLimiter bankConcurrencyLimiter) {
+    this.delegate = delegate;
+    this.limiter = bankConcurrencyLimiter;
+  }
+
+  @Override
+  public PaymentStatus makePayment(UUID paymentId, PostPaymentRequest request) {
+    if (!limiter.tryAcquire()) {
+      throw limitReached(limiter, paymentId);
+    }
+    long start = System.nanoTime();
+    try {
+      PaymentStatus status = delegate.makePayment(paymentId, request);
+      limiter.onSuccess(System.nanoTime() - start);
+      return status;
+    } catch (DeadlineExceededException | BankCallCancelledException e) {
+      limiter.onIgnore();
+      throw e;
+    } catch (RuntimeException e) {
+      limiter.onFailure();
+      throw e;
+    }
+  }
+
+  static BankUnavailableException limitReached(AdaptiveConcurrencyLimiter limiter,
+      UUID paymentId) {
+    LOG.warn("Bank concurrency limit {} reached, rejecting payment ID: {}", limiter.getLimit(),
+        paymentId);
+    return new BankUnavailableException(
+        "Bank concurrency limit reached, payment rejected for payment ID: " + paymentId,
+        RETRY_AFTER);
+  }
+}
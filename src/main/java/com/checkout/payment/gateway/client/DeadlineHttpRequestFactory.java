@@ -0,0 +1,75 @@
+package com.checkout.payment.gateway.client;
+
+import com.checkout.payment.gateway.resilience.Deadline;
+import java.net.URI;
+import java.time.Duration;
+import java.util.function.Supplier;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+/**
+ * Request factory for the bank {@code RestTemplate} that shortens the pool, connect and response
+ * timeouts of a request to what is left of the deadline it is made {@link #within}. Requests made
+ * outside of it keep the client's configured timeouts.
+ */
+public class DeadlineHttpRequestFactory extends HttpComponentsClientHttpRequestFactory {
+
+  private static final ThreadLocal<Deadline> DEADLINE = new ThreadLocal<>();
+  private static final Duration MIN_TIMEOUT = Duration.ofMillis(1);
+
+  private final Duration poolAcquireTimeout;
+  private final Duration connectTimeout;
+  private final Duration readTimeout;
+
+  public DeadlineHttpRequestFactory(CloseableHttpClient httpClient, Duration poolAcquireTimeout,
+      Duration connectTimeout, Duration readTimeout) {
+    super(httpClient);
+    this.poolAcquireTimeout = poolAcquireTimeout;
+    this.connectTimeout = connectTimeout;
+    this.readTimeout = readTimeout;
+  }
+
+  /**
+   * Makes the requests of {@code call}, on the calling thread, within {@code deadline}.
+   */
+  public static <T> T within(Deadline deadline, Supplier<T> call) {
+    if (deadline == null) {
+      return call.get();
+    }
+    DEADLINE.set(deadline);
+    try {
+      return call.get();
+    } finally {
+      DEADLINE.remove();
+    }
+  }
+
+  @Override
+  @SuppressWarnings("deprecation")
+  protected HttpContext createHttpContext(HttpMethod httpMethod, URI uri) {
+    Deadline deadline = DEADLINE.get();
+    if (deadline == null) {
+      return super.createHttpContext(httpMethod, uri);
+    }
+    // The connect timeout is per connection in HttpClient 5, but a request-level value still
+    // takes precedence over it.
+    HttpClientContext context = HttpClientContext.create();
+    context.setRequestConfig(RequestConfig.custom()
+        .setConnectionRequestTimeout(timeout(deadline, poolAcquireTimeout))
+        .setConnectTimeout(timeout(deadline, connectTimeout))
+        .setResponseTimeout(timeout(deadline, readTimeout))
+        .build());
+    return context;
+  }
+
+  private static Timeout timeout(Deadline deadline, Duration configured) {
+    Duration capped = deadline.cap(configured);
+    // A zero timeout means no timeout at all to HttpClient.
+    return Timeout.of(capped.compareTo(MIN_TIMEOUT) < 0 ? MIN_TIMEOUT : capped);
+  }
+}
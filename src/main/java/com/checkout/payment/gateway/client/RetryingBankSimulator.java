@@ -0,0 +1,228 @@
+package com.checkout.payment.gateway.client;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.AcquiringProcessException;
+import com.checkout.payment.gateway.exception.TransientBankException;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.resilience.Backoff;
+import com.checkout.payment.gateway.resilience.Deadline;
+import com.checkout.payment.gateway.resilience.LatencyPercentile;
+import com.checkout.payment.gateway.resilience.RetryBudget;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+/**
+ * Retries bank calls that failed with a {@link TransientBankException}, waiting a jittered
+ * {@link Backoff} between attempts, and optionally hedges: when an attempt is still running after
+ * the recent p95 bank latency, a second one is sent and whichever answers first wins; the other is
+ * cancelled so it does not hold on to a connection and a bank concurrency permit. Every attempt
+ * carries the payment ID as the bank's idempotency key. A retry follows only a call that never
+ * reached the bank, but a hedge repeats one the bank may be processing: enabled against a bank
+ * that does not honour the key, hedging can authorise a payment twice.
+ *
+ * <p>Every retry and hedge is paid for from the bank {@link RetryBudget}, so extra calls stay a
+ * small share of normal traffic however hard the bank is failing. Each attempt goes through the
+ * {@link CircuitBreakingBankSimulator}: an open circuit or a full concurrency limit ends the
+ * retries rather than being retried. No retry is started that could not finish its backoff before
+ * the request deadline.
+ */
+@Service
+@Primary
+public class RetryingBankSimulator implements BankSimulatorInterface, AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(RetryingBankSimulator.class);
+
+  private static final int HEDGE_LATENCY_WINDOW = 1000;
+
+  private final BankSimulatorInterface delegate;
+  private final RetryBudget retryBudget;
+  private final int maxAttempts;
+  private final Backoff backoff;
+  private final LatencyPercentile hedgeLatency;
+  private final long hedgeMinDelayNanos;
+  private final ExecutorService hedgeExecutor;
+
+  private final LongAdder retries = new LongAdder();
+  private final LongAdder hedges = new LongAdder();
+  private final LongAdder hedgeWins = new LongAdder();
+
+  public RetryingBankSimulator(CircuitBreakingBankSimulator delegate,
+      RetryBudget bankRetryBudget,
+      @Value("${client.retry.max-attempts:1}") int maxAttempts,
+      @Value("${client.retry.base-delay:50ms}") Duration baseDelay,
+      @Value("${client.retry.max-delay:1s}") Duration maxDelay,
+      @Value("${client.hedge.enabled:false}") boolean hedgeEnabled,
+      @Value("${client.hedge.percentile:0.95}") double hedgePercentile,
+      @Value("${client.hedge.min-delay:20ms}") Duration hedgeMinDelay) {
+    this(delegate, bankRetryBudget, maxAttempts, new Backoff(baseDelay, maxDelay),
+        hedgeEnabled ? new LatencyPercentile(hedgePercentile, HEDGE_LATENCY_WINDOW) : null,
+        hedgeMinDelay);
+  }
+
+  RetryingBankSimulator(BankSimulatorInterface delegate, RetryBudget retryBudget,
+      int maxAttempts, Backoff backoff, LatencyPercentile hedgeLatency, Duration hedgeMinDelay) {
+    if (maxAttempts < 1) {
+      throw new IllegalArgumentException("Bank client needs at least one attempt");
+    }
+    this.delegate = delegate;
+    this.retryBudget = retryBudget;
+    this.maxAttempts = maxAttempts;
+    this.backoff = backoff;
+    this.hedgeLatency = hedgeLatency;
+    this.hedgeMinDelayNanos = hedgeMinDelay.toNanos();
+    // Attempts mostly wait on the bank, so a virtual thread each is enough.
+    this.hedgeExecutor = hedgeLatency == null ? null : Executors.newVirtualThreadPerTaskExecutor();
+  }
+
+  @Override
+  public PaymentStatus makePayment(UUID paymentId, PostPaymentRequest request) {
+    retryBudget.onRequest();
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return hedgeExecutor == null
+            ? delegate.makePayment(paymentId, request) : hedged(paymentId, request);
+      } catch (TransientBankException e) {
+        Duration delay = backoff.delay(attempt);
+        if (attempt >= maxAttempts || !fitsDeadline(request.getDeadline(), delay)
+            || !retryBudget.tryWithdraw()) {
+          throw e;
+        }
+        retries.increment();
+        LOG.warn("Bank call failed for payment ID: {}, retry {} in {} ms", paymentId, attempt,
+            delay.toMillis());
+        try {
+          Thread.sleep(delay);
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          throw e;
+        }
+      }
+    }
+  }
+
+  /**
+   * Stops the hedge threads with the context, after the attempts already running have finished.
+   */
+  @Override
+  public void close() {
+    if (hedgeExecutor != null) {
+      hedgeExecutor.close();
+    }
+  }
+
+  public long retryCount() {
+    return retries.sum();
+  }
+
+  public long hedgeCount() {
+    return hedges.sum();
+  }
+
+  public long hedgeWinCount() {
+    return hedgeWins.sum();
+  }
+
+  /**
+   * Delay after which an attempt is hedged, in milliseconds; -1 while hedging is disabled or
+   * there are too few samples to know the bank's latency.
+   */
+  public double getHedgeDelayMillis() {
+    long delay = hedgeDelayNanos();
+    return delay < 0 ? -1 : delay / 1_000_000.0;
+  }
+
+  private PaymentStatus hedged(UUID paymentId, PostPaymentRequest request) {
+    long hedgeAfter = hedgeDelayNanos();
+    if (hedgeAfter < 0) {
+      return timed(paymentId, request);
+    }
+    CompletionService<PaymentStatus> attempts = new ExecutorCompletionService<>(hedgeExecutor);
+    Future<PaymentStatus> original = attempts.submit(() -> timed(paymentId, request));
+    Future<PaymentStatus> hedge = null;
+    try {
+      Future<PaymentStatus> first = attempts.poll(hedgeAfter, TimeUnit.NANOSECONDS);
+      if (first != null) {
+        return result(first);
+      }
+      Deadline deadline = request.getDeadline();
+      if ((deadline != null && deadline.isExpired()) || !retryBudget.tryWithdraw()) {
+        return result(attempts.take());
+      }
+      hedges.increment();
+      LOG.info("Bank call for payment ID: {} slower than {} ms, hedging", paymentId,
+          TimeUnit.NANOSECONDS.toMillis(hedgeAfter));
+      hedge = attempts.submit(() -> timed(paymentId, request));
+      Future<PaymentStatus> winner = attempts.take();
+      PaymentStatus status;
+      try {
+        status = result(winner);
+      } catch (RuntimeException e) {
+        // The other attempt may still succeed; its answer, or failure, is the one to report.
+        return result(attempts.take());
+      }
+      if (winner == hedge) {
+        hedgeWins.increment();
+      }
+      return status;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new AcquiringProcessException(
+          "Interrupted waiting for the bank for payment ID: " + paymentId);
+    } finally {
+      // Interrupting the loser closes its connection and releases its bank permit; it then ends
+      // with a BankCallCancelledException, which the circuit breaker and limiter ignore.
+      cancel(original);
+      cancel(hedge);
+    }
+  }
+
+  private static void cancel(Future<PaymentStatus> attempt) {
+    if (attempt != null) {
+      attempt.cancel(true);
+    }
+  }
+
+  private PaymentStatus timed(UUID paymentId, PostPaymentRequest request) {
+    long start = System.nanoTime();
+    PaymentStatus status = delegate.makePayment(paymentId, request);
+    hedgeLatency.record(System.nanoTime() - start);
+    return status;
+  }
+
+  private long hedgeDelayNanos() {
+    long percentile = hedgeLatency == null ? -1 : hedgeLatency.getNanos();
+    return percentile < 0 ? -1 : Math.max(percentile, hedgeMinDelayNanos);
+  }
+
+  private static boolean fitsDeadline(Deadline deadline, Duration delay) {
+    return deadline == null || deadline.remaining().compareTo(delay) > 0;
+  }
+
+  private static PaymentStatus result(Future<PaymentStatus> attempt)
+      throws InterruptedException {
+    try {
+      return attempt.get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (e.getCause() instanceof Error error) {
+        throw error;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+}
@@ -1,6 +1,47 @@
 package com.checkout.payment.gateway.configuration;
 
+import com.checkout.payment.gateway.bin.CardSchemeDetector;
+import com.checkout.payment.gateway.cache.PaymentJsonCache;
+import com.checkout.payment.gateway.client.BankSimulatorAsyncDefaultImpl;
+import com.checkout.payment.gateway.client.DeadlineHttpRequestFactory;
+import com.checkout.payment.gateway.client.RetryingBankSimulator;
+import com.checkout.payment.gateway.idempotency.IdempotencyCache;
+import com.checkout.payment.gateway.ingest.PaymentStreamIngestor;
+import com.checkout.payment.gateway.repository.IndexedPaymentsRepository;
+import com.checkout.payment.gateway.repository.WriteBehindPaymentsRepository;
+import com.checkout.payment.gateway.resilience.AdaptiveConcurrencyLimiter;
+import com.checkout.payment.gateway.resilience.AdmissionController;
+import com.checkout.payment.gateway.resilience.Bulkhead;
+import com.checkout.payment.gateway.resilience.CircuitBreaker;
+import com.checkout.payment.gateway.resilience.RetryBudget;
+import com.checkout.payment.gateway.service.PaymentPipeline;
+import com.checkout.payment.gateway.service.PaymentStageMetrics;
+import com.checkout.payment.gateway.service.PaymentStageMetrics.Stage;
+import com.checkout.payment.gateway.service.PipelineStage;
+import com.checkout.payment.gateway.validation.PaymentRequestDeserializer;
+import com.fasterxml.jackson.databind.Module;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.net.http.HttpClient;
 import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -10,10 +51,553 @@ import org.springframework.web.client.RestTemplate;
 public class ApplicationConfiguration {
 
   @Bean
-  public RestTemplate restTemplate(RestTemplateBuilder builder) {
+  public PoolingHttpClientConnectionManager bankConnectionManager(
+      @Value("${client.http.pool.max-per-route:50}") int maxPerRoute,
+      @Value("${client.http.pool.max-total:200}") int maxTotal,
+      @Value("${client.http.pool.time-to-live:5m}") Duration timeToLive,
+      @Value("${client.http.pool.validate-after-inactivity:2s}") Duration validateAfterInactivity,
+      @Value("${client.http.connect-timeout:10s}") Duration connectTimeout,
+      @Value("${client.http.read-timeout:10s}") Duration readTimeout) {
+    return PoolingHttpClientConnectionManagerBuilder.create()
+        .setMaxConnPerRoute(maxPerRoute)
+        .setMaxConnTotal(maxTotal)
+        .setDefaultConnectionConfig(ConnectionConfig.custom()
+            .setConnectTimeout(Timeout.of(connectTimeout))
+            .setSocketTimeout(Timeout.of(readTimeout))
+            .setTimeToLive(TimeValue.of(timeToLive))
+            .setValidateAfterInactivity(TimeValue.of(validateAfterInactivity))
+            .build())
+        .build();
+  }
+
+  @Bean
+  public CloseableHttpClient bankHttpClient(PoolingHttpClientConnectionManager bankConnectionManager,
+      @Value("${client.http.pool.idle-eviction:30s}") Duration idleEviction,
+      @Value("${client.http.pool-acquire-timeout:2s}") Duration poolAcquireTimeout,
+      @Value("${client.http.read-timeout:10s}") Duration readTimeout) {
+    return HttpClients.custom()
+        .setConnectionManager(bankConnectionManager)
+        .evictExpiredConnections()
+        .evictIdleConnections(TimeValue.of(idleEviction))
+        .setDefaultRequestConfig(RequestConfig.custom()
+            .setConnectionRequestTimeout(Timeout.of(poolAcquireTimeout))
+            .setResponseTimeout(Timeout.of(readTimeout))
+            .build())
+        .build();
+  }
+
+  @Bean
+  public RestTemplate restTemplate(RestTemplateBuilder builder, CloseableHttpClient bankHttpClient,
+      @Value("${client.http.pool-acquire-timeout:2s}") Duration poolAcquireTimeout,
+      @Value("${client.http.connect-timeout:10s}") Duration connectTimeout,
+      @Value("${client.http.read-timeout:10s}") Duration readTimeout) {
     return builder
-        .setConnectTimeout(Duration.ofMillis(10000))
-        .setReadTimeout(Duration.ofMillis(10000))
+        .requestFactory(() -> new DeadlineHttpRequestFactory(bankHttpClient, poolAcquireTimeout,
+            connectTimeout, readTimeout))
         .build();
   }
+
+  @Bean
+  @ConditionalOnProperty(name = "client.mode", havingValue = "async")
+  public HttpClient bankAsyncHttpClient(
+      @Value("${client.http.connect-timeout:10s}") Duration connectTimeout,
+      @Value("${client.async.threads:4}") int threads,
+      @Value("${threads.virtual.enabled:false}") boolean virtualThreads) {
+    AtomicInteger counter = new AtomicInteger();
+    return HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(connectTimeout)
+        .executor(virtualThreads
+            ? Executors.newVirtualThreadPerTaskExecutor()
+            : Executors.newFixedThreadPool(threads, runnable -> {
+              Thread thread = new Thread(runnable, "bank-async-" + counter.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            }))
+        .build();
+  }
+
+  /**
+   * Runs the payments of a batch or stream. Like {@link #paymentStorageExecutor}, it is injected by
+   * qualifier; with these executors defined, Boot does not create its own task executor, which
+   * nothing here uses outside {@code threads.virtual.enabled=true}.
+   */
+  @Bean(destroyMethod = "close")
+  @Qualifier("batchPaymentExecutor")
+  public ExecutorService batchPaymentExecutor(
+      @Value("${payments.batch.parallelism:32}") int parallelism,
+      @Value("${threads.virtual.enabled:false}") boolean virtualThreads) {
+    if (virtualThreads) {
+      return Executors.newVirtualThreadPerTaskExecutor();
+    }
+    AtomicInteger counter = new AtomicInteger();
+    return Executors.newFixedThreadPool(parallelism, runnable -> {
+      Thread thread = new Thread(runnable, "batch-payment-" + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Stores payments whose bank call completed asynchronously, off the bank client's callback
+   * threads. Closed with the context, after the payments it was given have been stored.
+   */
+  @Bean(destroyMethod = "close")
+  @Qualifier("paymentStorageExecutor")
+  public ExecutorService paymentStorageExecutor(
+      @Value("${payments.storage.threads:16}") int threads,
+      @Value("${threads.virtual.enabled:false}") boolean virtualThreads) {
+    if (virtualThreads) {
+      return Executors.newVirtualThreadPerTaskExecutor();
+    }
+    AtomicInteger counter = new AtomicInteger();
+    return Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "payment-storage-" + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @Bean
+  public MeterBinder bankConnectionPoolMetrics(
+      PoolingHttpClientConnectionManager bankConnectionManager) {
+    return registry -> {
+      Gauge.builder("bank.client.pool.leased", bankConnectionManager,
+              pool -> pool.getTotalStats().getLeased())
+          .description("Connections to the bank currently in use")
+          .register(registry);
+      Gauge.builder("bank.client.pool.pending", bankConnectionManager,
+              pool -> pool.getTotalStats().getPending())
+          .description("Requests waiting for a connection to the bank")
+          .register(registry);
+      Gauge.builder("bank.client.pool.available", bankConnectionManager,
+              pool -> pool.getTotalStats().getAvailable())
+          .description("Idle connections to the bank kept alive in the pool")
+          .register(registry);
+      Gauge.builder("bank.client.pool.max", bankConnectionManager,
+              pool -> pool.getTotalStats().getMax())
+          .description("Maximum number of connections to the bank")
+          .register(registry);
+    };
+  }
+
+  @Bean
+  public CircuitBreaker bankCircuitBreaker(
+      @Value("${client.circuit-breaker.sliding-window-size:50}") int slidingWindowSize,
+      @Value("${client.circuit-breaker.minimum-calls:20}") int minimumCalls,
+      @Value("${client.circuit-breaker.failure-rate-threshold:50}") int failureRateThreshold,
+      @Value("${client.circuit-breaker.slow-call-rate-threshold:80}") int slowCallRateThreshold,
+      @Value("${client.circuit-breaker.slow-call-duration:5s}") Duration slowCallDuration,
+      @Value("${client.circuit-breaker.open-duration:10s}") Duration openDuration,
+      @Value("${client.circuit-breaker.half-open-calls:5}") int halfOpenCalls) {
+    return new CircuitBreaker("bank", slidingWindowSize, minimumCalls, failureRateThreshold,
+        slowCallRateThreshold, slowCallDuration, openDuration, halfOpenCalls);
+  }
+
+  @Bean
+  public MeterBinder bankCircuitBreakerMetrics(CircuitBreaker bankCircuitBreaker) {
+    return registry -> {
+      Gauge.builder("bank.client.circuit.state", bankCircuitBreaker,
+              breaker -> breaker.getState().ordinal())
+          .description("Bank circuit breaker state: 0 closed, 1 open, 2 half-open")
+          .register(registry);
+      Gauge.builder("bank.client.circuit.failure.rate", bankCircuitBreaker,
+              CircuitBreaker::failureRate)
+          .description("Percentage of failed bank calls in the sliding window")
+          .baseUnit("percent")
+          .register(registry);
+      Gauge.builder("bank.client.circuit.slow.call.rate", bankCircuitBreaker,
+              CircuitBreaker::slowCallRate)
+          .description("Percentage of slow bank calls in the sliding window")
+          .baseUnit("percent")
+          .register(registry);
+      FunctionCounter.builder("bank.client.circuit.rejected", bankCircuitBreaker,
+              CircuitBreaker::rejectedCount)
+          .description("Bank calls rejected without being attempted")
+          .register(registry);
+      for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+        FunctionCounter.builder("bank.client.circuit.transitions", bankCircuitBreaker,
+                breaker -> breaker.transitionCount(state))
+            .tag("state", state.name().toLowerCase())
+            .description("Bank circuit breaker transitions into the tagged state")
+            .register(registry);
+      }
+    };
+  }
+
+  @Bean
+  public AdaptiveConcurrencyLimiter bankConcurrencyLimiter(
+      @Value("${client.limiter.initial-limit:10}") int initialLimit,
+      @Value("${client.limiter.min-limit:2}") int minLimit,
+      @Value("${client.limiter.max-limit:50}") int maxLimit,
+      @Value("${client.limiter.rtt-tolerance:1.5}") double rttTolerance,
+      @Value("${client.limiter.smoothing:0.2}") double smoothing,
+      @Value("${client.limiter.backoff-ratio:0.9}") double backoffRatio,
+      @Value("${client.limiter.short-window:10}") int shortWindow,
+      @Value("${client.limiter.long-window:500}") int longWindow,
+      @Value("${client.limiter.max-queued:50}") int maxQueued,
+      @Value("${client.limiter.max-queue-wait:50ms}") Duration maxQueueWait) {
+    return new AdaptiveConcurrencyLimiter("bank", initialLimit, minLimit, maxLimit, rttTolerance,
+        smoothing, backoffRatio, shortWindow, longWindow, maxQueued, maxQueueWait);
+  }
+
+  @Bean
+  public MeterBinder bankConcurrencyLimiterMetrics(
+      AdaptiveConcurrencyLimiter bankConcurrencyLimiter) {
+    return registry -> {
+      Gauge.builder("bank.client.limiter.limit", bankConcurrencyLimiter,
+              AdaptiveConcurrencyLimiter::getLimit)
+          .description("Current adaptive limit of concurrent bank calls")
+          .register(registry);
+      Gauge.builder("bank.client.limiter.inflight", bankConcurrencyLimiter,
+              AdaptiveConcurrencyLimiter::getInflight)
+          .description("Bank calls currently in flight")
+          .register(registry);
+      Gauge.builder("bank.client.limiter.queued", bankConcurrencyLimiter,
+              AdaptiveConcurrencyLimiter::getQueued)
+          .description("Bank calls waiting for a concurrency permit")
+          .register(registry);
+      Gauge.builder("bank.client.limiter.rtt", bankConcurrencyLimiter,
+              AdaptiveConcurrencyLimiter::getRttMillis)
+          .description("Short-window bank round-trip time estimate")
+          .baseUnit("milliseconds")
+          .register(registry);
+      FunctionCounter.builder("bank.client.limiter.rejected", bankConcurrencyLimiter,
+              AdaptiveConcurrencyLimiter::rejectedCount)
+          .description("Bank calls rejected by the concurrency limiter")
+          .register(registry);
+    };
+  }
+
+  @Bean
+  public RetryBudget bankRetryBudget(
+      @Value("${client.retry.budget.ratio:0.1}") double ratio,
+      @Value("${client.retry.budget.min-per-second:5}") int minPerSecond) {
+    return new RetryBudget("bank", ratio, minPerSecond);
+  }
+
+  @Bean
+  public MeterBinder bankRetryMetrics(RetryingBankSimulator retryingBankSimulator,
+      RetryBudget bankRetryBudget) {
+    return registry -> {
+      FunctionCounter.builder("bank.client.retries", retryingBankSimulator,
+              RetryingBankSimulator::retryCount)
+          .description("Bank calls retried after a transient failure")
+          .register(registry);
+      FunctionCounter.builder("bank.client.hedges", retryingBankSimulator,
+              RetryingBankSimulator::hedgeCount)
+          .description("Second bank calls sent because the first was slower than the hedge delay")
+          .register(registry);
+      FunctionCounter.builder("bank.client.hedge.wins", retryingBankSimulator,
+              RetryingBankSimulator::hedgeWinCount)
+          .description("Hedged bank calls answered before the call they hedged")
+          .register(registry);
+      Gauge.builder("bank.client.hedge.delay", retryingBankSimulator,
+              RetryingBankSimulator::getHedgeDelayMillis)
+          .description("Time after which a bank call is hedged, -1 while unknown or disabled")
+          .baseUnit("milliseconds")
+          .register(registry);
+      Gauge.builder("bank.client.retry.budget.balance", bankRetryBudget, RetryBudget::getBalance)
+          .description("Retries and hedges the bank retry budget currently allows")
+          .register(registry);
+      FunctionCounter.builder("bank.client.retry.budget.exhausted", bankRetryBudget,
+              RetryBudget::exhaustedCount)
+          .description("Retries and hedges skipped because the retry budget was spent")
+          .register(registry);
+    };
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "client.mode", havingValue = "async")
+  public MeterBinder bankAsyncRetryMetrics(BankSimulatorAsyncDefaultImpl bankSimulatorAsync) {
+    return registry -> FunctionCounter.builder("bank.client.async.retries", bankSimulatorAsync,
+            BankSimulatorAsyncDefaultImpl::retryCount)
+        .description("Async bank calls retried after a transient failure")
+        .register(registry);
+  }
+
+  @Bean
+  public AdmissionController paymentAdmissionController(
+      @Value("${payments.admission.target-latency:2s}") Duration targetLatency,
+      @Value("${payments.admission.interval:1s}") Duration interval,
+      @Value("${payments.admission.min-limit:10}") int minLimit) {
+    return new AdmissionController("payments", targetLatency, interval, minLimit);
+  }
+
+  @Bean
+  public MeterBinder paymentAdmissionMetrics(AdmissionController paymentAdmissionController) {
+    return registry -> {
+      Gauge.builder("payments.admission.shedding", paymentAdmissionController,
+              controller -> controller.isShedding() ? 1 : 0)
+          .description("1 while new payments are being shed, 0 otherwise")
+          .register(registry);
+      Gauge.builder("payments.admission.limit", paymentAdmissionController,
+              AdmissionController::getLimit)
+          .description("Concurrent payments admitted while shedding, 0 when not shedding")
+          .register(registry);
+      Gauge.builder("payments.admission.inflight", paymentAdmissionController,
+              AdmissionController::getInflight)
+          .description("Admitted payments not yet completed")
+          .register(registry);
+      Gauge.builder("payments.admission.latency", paymentAdmissionController,
+              AdmissionController::getLatencyMillis)
+          .description("Shortest payment latency of the last interval")
+          .baseUnit("milliseconds")
+          .register(registry);
+      FunctionCounter.builder("payments.admission.rejected", paymentAdmissionController,
+              AdmissionController::rejectedCount)
+          .description("Payments rejected because latency was above the target")
+          .register(registry);
+    };
+  }
+
+  @Bean
+  public Bulkhead paymentReadBulkhead(
+      @Value("${payments.lanes.read.max-concurrent:50}") int maxConcurrent) {
+    return new Bulkhead("read", maxConcurrent);
+  }
+
+  @Bean
+  public Bulkhead paymentWriteBulkhead(
+      @Value("${payments.lanes.write.max-concurrent:150}") int maxConcurrent) {
+    return new Bulkhead("write", maxConcurrent);
+  }
+
+  @Bean
+  public MeterBinder paymentLaneMetrics(Bulkhead paymentReadBulkhead,
+      Bulkhead paymentWriteBulkhead) {
+    return registry -> {
+      for (Bulkhead lane : List.of(paymentReadBulkhead, paymentWriteBulkhead)) {
+        Gauge.builder("payments.lane.inflight", lane, Bulkhead::getInflight)
+            .tag("lane", lane.getName())
+            .description("Requests currently running in the lane")
+            .register(registry);
+        Gauge.builder("payments.lane.limit", lane, Bulkhead::getMaxConcurrent)
+            .tag("lane", lane.getName())
+            .description("Concurrent requests allowed in the lane")
+            .register(registry);
+        Gauge.builder("payments.lane.utilization", lane, Bulkhead::utilization)
+            .tag("lane", lane.getName())
+            .description("Share of the lane limit in use")
+            .register(registry);
+        FunctionCounter.builder("payments.lane.rejected", lane, Bulkhead::rejectedCount)
+            .tag("lane", lane.getName())
+            .description("Requests rejected because the lane was full")
+            .register(registry);
+      }
+    };
+  }
+
+  @Bean
+  public MeterBinder paymentStageMetricsBinder(PaymentStageMetrics paymentStageMetrics) {
+    return registry -> {
+      for (Stage stage : Stage.values()) {
+        FunctionTimer.builder("payments.stage.time", paymentStageMetrics,
+                metrics -> metrics.count(stage), metrics -> metrics.totalNanos(stage),
+                TimeUnit.NANOSECONDS)
+            .tag("stage", stage.tag())
+            .description("Time payments spent in each stage of processing")
+            .register(registry);
+        FunctionCounter.builder("payments.deadline.exceeded", paymentStageMetrics,
+                metrics -> metrics.deadlineExceededCount(stage))
+            .tag("stage", stage.tag())
+            .description("Payments whose request deadline expired in the stage")
+            .register(registry);
+      }
+    };
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "payments.pipeline.enabled", havingValue = "true")
+  public MeterBinder paymentPipelineMetrics(PaymentPipeline paymentPipeline) {
+    return registry -> {
+      for (PipelineStage stage : paymentPipeline.stages()) {
+        Gauge.builder("payments.pipeline.queue.depth", stage, PipelineStage::queueDepth)
+            .tag("stage", stage.getName())
+            .description("Payments waiting in the stage queue")
+            .register(registry);
+        Gauge.builder("payments.pipeline.busy", stage, PipelineStage::busyWorkers)
+            .tag("stage", stage.getName())
+            .description("Stage workers currently processing a payment")
+            .register(registry);
+        FunctionTimer.builder("payments.pipeline.queue.wait", stage,
+                PipelineStage::completedCount, PipelineStage::waitTimeNanos,
+                TimeUnit.NANOSECONDS)
+            .tag("stage", stage.getName())
+            .description("Time payments waited in the stage queue")
+            .register(registry);
+        FunctionTimer.builder("payments.pipeline.service", stage,
+                PipelineStage::completedCount, PipelineStage::serviceTimeNanos,
+                TimeUnit.NANOSECONDS)
+            .tag("stage", stage.getName())
+            .description("Time the stage spent processing payments")
+            .register(registry);
+        FunctionCounter.builder("payments.pipeline.rejections", stage,
+                PipelineStage::rejectedCount)
+            .tag("stage", stage.getName())
+            .description("Payments turned away because the stage queue was full")
+            .register(registry);
+      }
+    };
+  }
+
+  @Bean
+  public MeterBinder idempotencyCacheMetrics(IdempotencyCache idempotencyCache) {
+    return registry -> {
+      Gauge.builder("payments.idempotency.cache.size", idempotencyCache, IdempotencyCache::size)
+          .description("Idempotency keys currently cached")
+          .register(registry);
+      FunctionCounter.builder("payments.idempotency.requests", idempotencyCache,
+              IdempotencyCache::missCount)
+          .tag("result", "miss")
+          .description("Keyed payment requests by cache outcome")
+          .register(registry);
+      FunctionCounter.builder("payments.idempotency.requests", idempotencyCache,
+              IdempotencyCache::coalescedCount)
+          .tag("result", "coalesced")
+          .description("Keyed payment requests by cache outcome")
+          .register(registry);
+      FunctionCounter.builder("payments.idempotency.requests", idempotencyCache,
+              IdempotencyCache::hitCount)
+          .tag("result", "hit")
+          .description("Keyed payment requests by cache outcome")
+          .register(registry);
+      FunctionCounter.builder("payments.idempotency.cache.evictions", idempotencyCache,
+              IdempotencyCache::expiredEvictionCount)
+          .tag("cause", "expired")
+          .description("Idempotency keys evicted from the cache")
+          .register(registry);
+      FunctionCounter.builder("payments.idempotency.cache.evictions", idempotencyCache,
+              IdempotencyCache::sizeEvictionCount)
+          .tag("cause", "size")
+          .description("Idempotency keys evicted from the cache")
+          .register(registry);
+    };
+  }
+
+  @Bean
+  public MeterBinder paymentIngestMetrics(PaymentStreamIngestor paymentStreamIngestor) {
+    return registry -> {
+      FunctionCounter.builder("payments.ingest.records", paymentStreamIngestor,
+              PaymentStreamIngestor::processedCount)
+          .tag("result", "processed")
+          .description("Streamed payment records by outcome")
+          .register(registry);
+      FunctionCounter.builder("payments.ingest.records", paymentStreamIngestor,
+              PaymentStreamIngestor::rejectedCount)
+          .tag("result", "rejected")
+          .description("Streamed payment records by outcome")
+          .register(registry);
+      FunctionCounter.builder("payments.ingest.records", paymentStreamIngestor,
+              PaymentStreamIngestor::failedCount)
+          .tag("result", "failed")
+          .description("Streamed payment records by outcome")
+          .register(registry);
+    };
+  }
+
+  @Bean
+  public MeterBinder paymentIndexMetrics(IndexedPaymentsRepository indexedPaymentsRepository) {
+    return registry -> {
+      Gauge.builder("payments.index.size", indexedPaymentsRepository,
+              IndexedPaymentsRepository::indexSize)
+          .description("Payments covered by the search index")
+          .register(registry);
+      FunctionCounter.builder("payments.index.evictions", indexedPaymentsRepository,
+              IndexedPaymentsRepository::indexEvictedCount)
+          .description("Payments dropped from the search index to stay within its capacity")
+          .register(registry);
+      FunctionCounter.builder("payments.id-filter.rejections", indexedPaymentsRepository,
+              IndexedPaymentsRepository::filteredLookupCount)
+          .description("Lookups of unknown payment IDs answered without a repository read")
+          .register(registry);
+    };
+  }
+
+  @Bean
+  public MeterBinder paymentWriteBehindMetrics(
+      IndexedPaymentsRepository indexedPaymentsRepository) {
+    return registry -> indexedPaymentsRepository.writeBehind().ifPresent(writeBehind -> {
+      Gauge.builder("payments.write-behind.pending", writeBehind,
+              WriteBehindPaymentsRepository::pendingCount)
+          .description("Payments accepted but not yet written to the repository")
+          .register(registry);
+      FunctionCounter.builder("payments.write-behind.batches", writeBehind,
+              WriteBehindPaymentsRepository::batchCount)
+          .description("Batches of payments written to the repository")
+          .register(registry);
+      FunctionCounter.builder("payments.write-behind.failures", writeBehind,
+              WriteBehindPaymentsRepository::failedBatchCount)
+          .description("Batch write attempts that failed")
+          .register(registry);
+      Gauge.builder("payments.write-behind.dead-letters", writeBehind,
+              WriteBehindPaymentsRepository::deadLetterCount)
+          .description("Payments that could not be written and are only held in memory")
+          .register(registry);
+      FunctionCounter.builder("payments.write-behind.dead-letters.dropped", writeBehind,
+              WriteBehindPaymentsRepository::droppedDeadLetterCount)
+          .description("Dead-lettered payments dropped from memory over the dead letter limit")
+          .register(registry);
+    });
+  }
+
+  @Bean
+  public MeterBinder paymentJsonCacheMetrics(PaymentJsonCache paymentJsonCache) {
+    return registry -> {
+      Gauge.builder("payments.json-cache.size", paymentJsonCache, PaymentJsonCache::size)
+          .description("Payments cached as encoded JSON")
+          .register(registry);
+      FunctionCounter.builder("payments.json-cache.requests", paymentJsonCache,
+              PaymentJsonCache::hitCount)
+          .tag("result", "hit")
+          .description("Payment reads by JSON cache outcome")
+          .register(registry);
+      FunctionCounter.builder("payments.json-cache.requests", paymentJsonCache,
+              PaymentJsonCache::missCount)
+          .tag("result", "miss")
+          .description("Payment reads by JSON cache outcome")
+          .register(registry);
+      FunctionCounter.builder("payments.json-cache.requests", paymentJsonCache,
+              PaymentJsonCache::notModifiedCount)
+          .tag("result", "not-modified")
+          .description("Payment reads by JSON cache outcome")
+          .register(registry);
+      FunctionCounter.builder("payments.json-cache.evictions", paymentJsonCache,
+              PaymentJsonCache::evictionCount)
+          .description("Encoded payments evicted from the JSON cache")
+          .register(registry);
+    };
+  }
+
+  @Bean
+  public MeterBinder cardSchemeMetrics(CardSchemeDetector cardSchemeDetector) {
+    return registry -> {
+      Gauge.builder("payments.bin.ranges", cardSchemeDetector, CardSchemeDetector::tableSize)
+          .description("Disjoint BIN ranges in the loaded table")
+          .register(registry);
+      FunctionCounter.builder("payments.bin.reloads", cardSchemeDetector,
+              CardSchemeDetector::reloadCount)
+          .tag("result", "success")
+          .description("BIN table reloads by outcome")
+          .register(registry);
+      FunctionCounter.builder("payments.bin.reloads", cardSchemeDetector,
+              CardSchemeDetector::failedReloadCount)
+          .tag("result", "failure")
+          .description("BIN table reloads by outcome")
+          .register(registry);
+      FunctionCounter.builder("payments.bin.rejections", cardSchemeDetector,
+              CardSchemeDetector::rejectedCount)
+          .description("Payments rejected for an unsupported card scheme")
+          .register(registry);
+    };
+  }
+
+  /**
+   * Registered with the application's {@code ObjectMapper}, so payment requests are verified
+   * while they are read.
+   */
+  @Bean
+  public Module paymentRequestModule(CardSchemeDetector cardSchemeDetector) {
+    return PaymentRequestDeserializer.module(cardSchemeDetector);
+  }
 }
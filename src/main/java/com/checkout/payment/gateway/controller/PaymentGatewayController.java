@@ -1,18 +1,51 @@
 package com.checkout.payment.gateway.controller;
 
+import com.checkout.payment.gateway.cache.PaymentJsonCache;
+import com.checkout.payment.gateway.cache.PaymentJsonCache.PaymentJson;
+import com.checkout.payment.gateway.exception.InvalidBatchException;
+import com.checkout.payment.gateway.exception.InvalidPaymentRequestException;
+import com.checkout.payment.gateway.exception.ServiceOverloadedException;
+import com.checkout.payment.gateway.exception.handler.CommonExceptionHandler;
+import com.checkout.payment.gateway.idempotency.IdempotencyCache;
+import com.checkout.payment.gateway.model.BatchPaymentItemResponse;
+import com.checkout.payment.gateway.model.PaymentFilter;
+import com.checkout.payment.gateway.model.PaymentPage;
+import com.checkout.payment.gateway.model.PaymentSearch;
 import com.checkout.payment.gateway.model.PostPaymentRequest;
 import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.resilience.AdmissionController;
+import com.checkout.payment.gateway.resilience.Bulkhead;
+import com.checkout.payment.gateway.resilience.Deadline;
+import com.checkout.payment.gateway.service.BatchPaymentItemFactory;
+import com.checkout.payment.gateway.service.BatchPaymentService;
 import com.checkout.payment.gateway.service.PaymentGatewayService;
+import com.checkout.payment.gateway.service.PaymentPipeline;
+import com.checkout.payment.gateway.service.PaymentQueryService;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
-import jakarta.validation.Valid;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -20,22 +53,252 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("v1/payments")
 public class PaymentGatewayController {
 
+  private static final String REQUEST_TIMEOUT = "Request-Timeout";
+
+  // A stored payment never changes, so a client may keep it for a year without revalidating.
+  private static final String PAYMENT_CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(365))
+      .cachePrivate().immutable().getHeaderValue();
+
   private final PaymentGatewayService paymentGatewayService;
+  private final IdempotencyCache idempotencyCache;
+  private final BatchPaymentService batchPaymentService;
+  private final BatchPaymentItemFactory itemFactory;
+  private final PaymentQueryService paymentQueryService;
+  private final PaymentJsonCache paymentJsonCache;
+  private final PaymentPipeline paymentPipeline;
+  private final AdmissionController admissionController;
+  private final Duration admissionRetryAfter;
+  private final Bulkhead readLane;
+  private final Bulkhead writeLane;
+  private final Duration laneRetryAfter;
+  private final Duration defaultTimeout;
+  private final Duration maxTimeout;
+  private final int maxBatchSize;
 
-  public PaymentGatewayController(PaymentGatewayService paymentGatewayService) {
+  public PaymentGatewayController(PaymentGatewayService paymentGatewayService,
+      IdempotencyCache idempotencyCache, BatchPaymentService batchPaymentService,
+      BatchPaymentItemFactory itemFactory, PaymentQueryService paymentQueryService,
+      PaymentJsonCache paymentJsonCache, Optional<PaymentPipeline> paymentPipeline,
+      AdmissionController admissionController,
+      @Value("${payments.admission.retry-after:1s}") Duration admissionRetryAfter,
+      Bulkhead paymentReadBulkhead, Bulkhead paymentWriteBulkhead,
+      @Value("${payments.lanes.retry-after:1s}") Duration laneRetryAfter,
+      @Value("${payments.deadline.default:10s}") Duration defaultTimeout,
+      @Value("${payments.deadline.max:30s}") Duration maxTimeout,
+      @Value("${payments.batch.max-size:1000}") int maxBatchSize) {
     this.paymentGatewayService = paymentGatewayService;
+    this.idempotencyCache = idempotencyCache;
+    this.batchPaymentService = batchPaymentService;
+    this.itemFactory = itemFactory;
+    this.paymentQueryService = paymentQueryService;
+    this.paymentJsonCache = paymentJsonCache;
+    this.paymentPipeline = paymentPipeline.orElse(null);
+    this.admissionController = admissionController;
+    this.admissionRetryAfter = admissionRetryAfter;
+    this.readLane = paymentReadBulkhead;
+    this.writeLane = paymentWriteBulkhead;
+    this.laneRetryAfter = laneRetryAfter;
+    this.defaultTimeout = defaultTimeout;
+    this.maxTimeout = maxTimeout;
+    this.maxBatchSize = maxBatchSize;
+  }
+
+  @GetMapping
+  public ResponseEntity<PaymentPage> getPostPaymentEvents(
+      @RequestParam(required = false) Instant from,
+      @RequestParam(required = false) Instant to,
+      @RequestParam(required = false) String status,
+      @RequestParam(required = false) String currency,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "100") int limit) {
+    PaymentFilter filter = new PaymentFilter(from, to, PaymentQueryService.parseStatus(status),
+        currency);
+    return new ResponseEntity<>(read(() -> paymentQueryService.listPayments(filter, cursor, limit)),
+        HttpStatus.OK);
+  }
+
+  @GetMapping("/search")
+  public ResponseEntity<PaymentPage> searchPostPaymentEvents(
+      @RequestParam(required = false) String lastFour,
+      @RequestParam(required = false) Integer expiryMonth,
+      @RequestParam(required = false) Integer expiryYear,
+      @RequestParam(required = false) Integer amount,
+      @RequestParam(required = false) String status,
+      @RequestParam(required = false) String currency,
+      @RequestParam(required = false) Instant from,
+      @RequestParam(required = false) Instant to,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "100") int limit) {
+    PaymentSearch search = new PaymentSearch(lastFour, expiryMonth, expiryYear, amount,
+        PaymentQueryService.parseStatus(status), currency, from, to);
+    return new ResponseEntity<>(
+        read(() -> paymentQueryService.searchPayments(search, cursor, limit)), HttpStatus.OK);
   }
 
   @GetMapping("/{id}")
-  public ResponseEntity<PostPaymentResponse> getPostPaymentEventById(@PathVariable UUID id) {
-    return new ResponseEntity<>(paymentGatewayService.getPaymentById(id), HttpStatus.OK);
+  public ResponseEntity<?> getPostPaymentEventById(@PathVariable UUID id,
+      @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    return read(() -> getPayment(id, ifNoneMatch));
+  }
+
+  private ResponseEntity<?> getPayment(UUID id, String ifNoneMatch) {
+    Optional<PaymentJson> found = paymentJsonCache.get(id);
+    if (found.isEmpty()) {
+      return CommonExceptionHandler.notFound();
+    }
+    PaymentJson payment = found.get();
+    if (ifNoneMatch != null && paymentJsonCache.isNotModified(payment, ifNoneMatch)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(payment.etag())
+          .header(HttpHeaders.CACHE_CONTROL, PAYMENT_CACHE_CONTROL).build();
+    }
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).eTag(payment.etag())
+        .header(HttpHeaders.CACHE_CONTROL, PAYMENT_CACHE_CONTROL).body(payment.json());
   }
 
+  /**
+   * The request is validated here rather than with {@code @Valid}, so that requests verified
+   * while they were read skip Bean Validation. With {@code payments.pipeline.enabled} the
+   * {@link PaymentPipeline} validates it in its first stage instead.
+   *
+   * <p>New payments pass the {@link AdmissionController}, which answers 503 at once while payment
+   * latency is above {@code payments.admission.target-latency}, and then take a permit of the
+   * write lane; idempotent replays do neither.
+   *
+   * <p>The payment must be answered within the {@code Request-Timeout} header, in milliseconds,
+   * or {@code payments.deadline.default}; see {@link #deadline}.
+   */
   @PostMapping
-  public ResponseEntity<PostPaymentResponse> createPostPaymentEvent(
-      @RequestBody @Valid  PostPaymentRequest postPaymentRequest) {
-    return new ResponseEntity<>(
-        paymentGatewayService.processPayment(postPaymentRequest),
-        HttpStatus.OK);
+  public CompletableFuture<ResponseEntity<PostPaymentResponse>> createPostPaymentEvent(
+      @RequestBody PostPaymentRequest postPaymentRequest,
+      @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+      @RequestHeader(name = REQUEST_TIMEOUT, required = false) Long timeoutMillis) {
+    postPaymentRequest.setDeadline(deadline(timeoutMillis));
+    if (paymentPipeline == null) {
+      BindingResult errors = itemFactory.validationErrors(postPaymentRequest);
+      if (errors != null) {
+        throw new InvalidPaymentRequestException(errors);
+      }
+    }
+    CompletableFuture<PostPaymentResponse> payment = idempotencyKey == null
+        ? processPayment(postPaymentRequest)
+        : idempotencyCache.execute(idempotencyKey, postPaymentRequest,
+            () -> processPayment(postPaymentRequest));
+    return payment.thenApply(response -> new ResponseEntity<>(response, HttpStatus.OK));
+  }
+
+  /**
+   * A batch takes one permit of the write lane until all of its payments have completed.
+   */
+  @PostMapping("/batch")
+  public CompletableFuture<ResponseEntity<List<BatchPaymentItemResponse>>> createPostPaymentEventBatch(
+      @RequestBody List<PostPaymentRequest> postPaymentRequests,
+      @RequestHeader(name = REQUEST_TIMEOUT, required = false) Long timeoutMillis) {
+    if (postPaymentRequests.isEmpty() || postPaymentRequests.size() > maxBatchSize) {
+      throw new InvalidBatchException(
+          "Batch must contain between 1 and " + maxBatchSize + " payments");
+    }
+    Deadline deadline = deadline(timeoutMillis);
+    postPaymentRequests.forEach(request -> request.setDeadline(deadline));
+    if (!writeLane.tryAcquire()) {
+      throw new ServiceOverloadedException("Payment write lane is full", laneRetryAfter);
+    }
+    CompletableFuture<ResponseEntity<List<BatchPaymentItemResponse>>> batch;
+    try {
+      batch = processBatch(postPaymentRequests);
+    } catch (RuntimeException e) {
+      writeLane.release();
+      throw e;
+    }
+    batch.whenComplete((response, failure) -> writeLane.release());
+    return batch;
+  }
+
+  private CompletableFuture<ResponseEntity<List<BatchPaymentItemResponse>>> processBatch(
+      List<PostPaymentRequest> postPaymentRequests) {
+    BatchPaymentItemResponse[] items = new BatchPaymentItemResponse[postPaymentRequests.size()];
+    List<Integer> validIndexes = new ArrayList<>();
+    List<PostPaymentRequest> validRequests = new ArrayList<>();
+    for (int i = 0; i < postPaymentRequests.size(); i++) {
+      PostPaymentRequest request = postPaymentRequests.get(i);
+      items[i] = itemFactory.validate(i, request);
+      if (items[i] == null) {
+        validIndexes.add(i);
+        validRequests.add(request);
+      }
+    }
+
+    List<CompletableFuture<PostPaymentResponse>> payments =
+        batchPaymentService.processPayments(validRequests);
+    CompletableFuture<?>[] completions = new CompletableFuture<?>[payments.size()];
+    for (int j = 0; j < payments.size(); j++) {
+      int index = validIndexes.get(j);
+      completions[j] = payments.get(j).handle((response, failure) -> {
+        items[index] = itemFactory.completed(index, response, failure);
+        return null;
+      });
+    }
+    return CompletableFuture.allOf(completions)
+        .thenApply(done -> new ResponseEntity<>(Arrays.asList(items), HttpStatus.OK));
+  }
+
+  private CompletableFuture<PostPaymentResponse> processPayment(PostPaymentRequest request) {
+    if (!admissionController.tryAcquire()) {
+      throw new ServiceOverloadedException("Payment latency is above the admission target",
+          admissionRetryAfter);
+    }
+    if (!writeLane.tryAcquire()) {
+      admissionController.onIgnore();
+      throw new ServiceOverloadedException("Payment write lane is full", laneRetryAfter);
+    }
+    long start = System.nanoTime();
+    CompletableFuture<PostPaymentResponse> payment;
+    try {
+      payment = paymentPipeline != null
+          ? paymentPipeline.submit(request)
+          : paymentGatewayService.processPaymentAsync(request);
+    } catch (RuntimeException e) {
+      writeLane.release();
+      admissionController.onIgnore();
+      throw e;
+    }
+    payment.whenComplete((response, failure) -> {
+      writeLane.release();
+      admissionController.onComplete(System.nanoTime() - start);
+    });
+    return payment;
+  }
+
+  /**
+   * Starts the request deadline: the requested timeout capped at {@code payments.deadline.max},
+   * or {@code payments.deadline.default} without one. Payments still waiting for the bank when it
+   * expires are dropped, and the bank call gets only the time left. A timeout of zero or less is
+   * a validation error rather than a deadline that has already expired.
+   */
+  private Deadline deadline(Long timeoutMillis) {
+    if (timeoutMillis == null) {
+      return Deadline.after(defaultTimeout);
+    }
+    if (timeoutMillis <= 0) {
+      BindingResult errors = new BeanPropertyBindingResult(timeoutMillis, REQUEST_TIMEOUT);
+      errors.reject("Positive", REQUEST_TIMEOUT + " must be a positive number of milliseconds");
+      throw new InvalidPaymentRequestException(errors);
+    }
+    Duration requested = Duration.ofMillis(timeoutMillis);
+    return Deadline.after(requested.compareTo(maxTimeout) > 0 ? maxTimeout : requested);
+  }
+
+  /**
+   * Runs a read in the read lane, so reads keep their share of the request threads however many
+   * payments are waiting on the bank, and cannot take the payments' share either.
+   */
+  private <T> T read(Supplier<T> query) {
+    if (!readLane.tryAcquire()) {
+      throw new ServiceOverloadedException("Payment read lane is full", laneRetryAfter);
+    }
+    try {
+      return query.get();
+    } finally {
+      readLane.release();
+    }
   }
 }
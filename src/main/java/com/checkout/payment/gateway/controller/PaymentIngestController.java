@@ -0,0 +1,50 @@
+package com.checkout.payment.gateway.controller;
+
+import com.checkout.payment.gateway.exception.ServiceOverloadedException;
+import com.checkout.payment.gateway.ingest.PaymentStreamIngestor;
+import com.checkout.payment.gateway.resilience.Bulkhead;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("v1/payments")
+public class PaymentIngestController {
+
+  private final PaymentStreamIngestor paymentStreamIngestor;
+  private final Bulkhead writeLane;
+  private final Duration laneRetryAfter;
+
+  public PaymentIngestController(PaymentStreamIngestor paymentStreamIngestor,
+      Bulkhead paymentWriteBulkhead,
+      @Value("${payments.lanes.retry-after:1s}") Duration laneRetryAfter) {
+    this.paymentStreamIngestor = paymentStreamIngestor;
+    this.writeLane = paymentWriteBulkhead;
+    this.laneRetryAfter = laneRetryAfter;
+  }
+
+  /**
+   * Streams one NDJSON result per {@code PostPaymentRequest} line of the body. The request runs
+   * on the calling thread so a slow bank pushes back on the upload instead of buffering it, and
+   * holds a permit of the write lane for as long as it holds that thread.
+   */
+  @PostMapping(path = "/stream", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+  public void ingestPostPaymentEventStream(InputStream body, HttpServletResponse response)
+      throws IOException {
+    if (!writeLane.tryAcquire()) {
+      throw new ServiceOverloadedException("Payment write lane is full", laneRetryAfter);
+    }
+    try {
+      response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+      paymentStreamIngestor.ingest(body, response.getOutputStream());
+    } finally {
+      writeLane.release();
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package com.checkout.payment.gateway.enums;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Card schemes. The {@link #getCode() code} is what repositories store, so it must never change
+ * once assigned; constants can be added or reordered freely. Code 0 is reserved for "no scheme".
+ */
+public enum CardScheme {
+  VISA("Visa", 1),
+  MASTERCARD("Mastercard", 2),
+  AMERICAN_EXPRESS("American Express", 3),
+  DISCOVER("Discover", 4),
+  DINERS_CLUB("Diners Club", 5),
+  JCB("JCB", 6),
+  UNIONPAY("UnionPay", 7),
+  MAESTRO("Maestro", 8);
+
+  private static final CardScheme[] BY_CODE = byCode();
+
+  private final String name;
+  private final byte code;
+
+  CardScheme(String name, int code) {
+    this.name = name;
+    this.code = (byte) code;
+  }
+
+  @JsonValue
+  public String getName() {
+    return this.name;
+  }
+
+  public byte getCode() {
+    return code;
+  }
+
+  /**
+   * Returns the scheme stored as {@code code}.
+   *
+   * @throws IllegalArgumentException if no scheme has that code
+   */
+  public static CardScheme fromCode(byte code) {
+    CardScheme scheme = code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    if (scheme == null) {
+      throw new IllegalArgumentException("Unknown card scheme code: " + code);
+    }
+    return scheme;
+  }
+
+  private static CardScheme[] byCode() {
+    CardScheme[] byCode = new CardScheme[Byte.MAX_VALUE + 1];
+    for (CardScheme scheme : values()) {
+      if (scheme.code <= 0 || byCode[scheme.code] != null) {
+        throw new IllegalStateException("Card scheme code must be positive and unique: " + scheme);
+      }
+      byCode[scheme.code] = scheme;
+    }
+    return byCode;
+  }
+}
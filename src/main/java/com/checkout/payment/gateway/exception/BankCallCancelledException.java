@@ -0,0 +1,12 @@
+package com.checkout.payment.gateway.exception;
+
+/**
+ * A bank call abandoned by its caller, such as the slower of two hedged attempts. Says nothing
+ * about the bank's health.
+ */
+public class BankCallCancelledException extends AcquiringProcessException {
+
+  public BankCallCancelledException(String message) {
+    super(message);
+  }
+}
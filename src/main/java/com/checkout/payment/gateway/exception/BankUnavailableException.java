@@ -0,0 +1,17 @@
+package com.checkout.payment.gateway.exception;
+
+import java.time.Duration;
+
+public class BankUnavailableException extends RuntimeException{
+
+  private final Duration retryAfter;
+
+  public BankUnavailableException(String message, Duration retryAfter) {
+    super(message);
+    this.retryAfter = retryAfter;
+  }
+
+  public Duration getRetryAfter() {
+    return retryAfter;
+  }
+}
@@ -0,0 +1,7 @@
+package com.checkout.payment.gateway.exception;
+
+public class IdempotencyKeyConflictException extends RuntimeException{
+  public IdempotencyKeyConflictException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,7 @@
+package com.checkout.payment.gateway.exception;
+
+public class InvalidIdempotencyKeyException extends RuntimeException{
+  public InvalidIdempotencyKeyException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,7 @@
+package com.checkout.payment.gateway.exception;
+
+public class InvalidPaymentQueryException extends RuntimeException{
+  public InvalidPaymentQueryException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,20 @@
+package com.checkout.payment.gateway.exception;
+
+import org.springframework.validation.BindingResult;
+
+/**
+ * A payment request that failed validation outside Spring MVC's {@code @Valid} handling.
+ */
+public class InvalidPaymentRequestException extends RuntimeException {
+
+  private final transient BindingResult bindingResult;
+
+  public InvalidPaymentRequestException(BindingResult bindingResult) {
+    super("Invalid payment request");
+    this.bindingResult = bindingResult;
+  }
+
+  public BindingResult getBindingResult() {
+    return bindingResult;
+  }
+}
@@ -0,0 +1,11 @@
+package com.checkout.payment.gateway.exception;
+
+public class PaymentStorageException extends RuntimeException{
+  public PaymentStorageException(String message) {
+    super(message);
+  }
+
+  public PaymentStorageException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
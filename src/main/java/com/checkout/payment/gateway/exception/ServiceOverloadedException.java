@@ -0,0 +1,20 @@
+package com.checkout.payment.gateway.exception;
+
+import java.time.Duration;
+
+/**
+ * The gateway turned the request away because it is already working at capacity.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+  private final Duration retryAfter;
+
+  public ServiceOverloadedException(String message, Duration retryAfter) {
+    super(message);
+    this.retryAfter = retryAfter;
+  }
+
+  public Duration getRetryAfter() {
+    return retryAfter;
+  }
+}
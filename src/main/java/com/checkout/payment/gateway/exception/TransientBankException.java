@@ -0,0 +1,13 @@
+package com.checkout.payment.gateway.exception;
+
+/**
+ * A bank call that failed in a way that may succeed if tried again: the bank answered 502 or 503,
+ * or the payment never reached it because the connection could not be opened or no pooled
+ * connection was free in time.
+ */
+public class TransientBankException extends AcquiringProcessException {
+
+  public TransientBankException(String message) {
+    super(message);
+  }
+}
@@ -2,15 +2,25 @@ package com.checkout.payment.gateway.exception.handler;
 
 import com.checkout.payment.gateway.enums.PaymentStatus;
 import com.checkout.payment.gateway.exception.AcquiringProcessException;
+import com.checkout.payment.gateway.exception.BankUnavailableException;
+import com.checkout.payment.gateway.exception.DeadlineExceededException;
 import com.checkout.payment.gateway.exception.EntityNotFoundException;
 import com.checkout.payment.gateway.exception.EventProcessingException;
+import com.checkout.payment.gateway.exception.IdempotencyKeyConflictException;
+import com.checkout.payment.gateway.exception.InvalidBatchException;
+import com.checkout.payment.gateway.exception.InvalidIdempotencyKeyException;
+import com.checkout.payment.gateway.exception.InvalidPaymentRequestException;
+import com.checkout.payment.gateway.exception.InvalidPaymentQueryException;
+import com.checkout.payment.gateway.exception.ServiceOverloadedException;
 import com.checkout.payment.gateway.model.ErrorResponse;
 import com.checkout.payment.gateway.model.ErrorResponseStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.validation.BindingResult;
 import org.springframework.validation.ObjectError;
 import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -18,24 +28,36 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
 import static org.springframework.http.HttpStatus.BAD_GATEWAY;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.GATEWAY_TIMEOUT;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
 
 @ControllerAdvice
 public class CommonExceptionHandler {
 
   private static final Logger LOG = LoggerFactory.getLogger(CommonExceptionHandler.class);
 
+  private static final ErrorResponse PAGE_NOT_FOUND = new ErrorResponse("Page not found");
+
   @ExceptionHandler(EntityNotFoundException.class)
   public ResponseEntity<ErrorResponse> handleNotFoundException(EntityNotFoundException ex) {
-    return new ResponseEntity<>(new ErrorResponse("Page not found"),
-        NOT_FOUND);
+    return notFound();
+  }
+
+  /**
+   * The 404 response, for controllers that resolve a missing entity without an exception.
+   */
+  public static ResponseEntity<ErrorResponse> notFound() {
+    return new ResponseEntity<>(PAGE_NOT_FOUND, NOT_FOUND);
   }
 
   @ExceptionHandler(AcquiringProcessException.class)
@@ -44,16 +66,62 @@ public class CommonExceptionHandler {
         BAD_GATEWAY);
   }
 
+  @ExceptionHandler(BankUnavailableException.class)
+  public ResponseEntity<ErrorResponse> handleBankUnavailableException(BankUnavailableException ex) {
+    return ResponseEntity.status(SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds(ex.getRetryAfter())))
+        .body(new ErrorResponse("Error processing payment. Acquiring Bank is unavailable.Try again later."));
+  }
+
+  @ExceptionHandler(ServiceOverloadedException.class)
+  public ResponseEntity<ErrorResponse> handleServiceOverloadedException(
+      ServiceOverloadedException ex) {
+    return ResponseEntity.status(SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds(ex.getRetryAfter())))
+        .body(new ErrorResponse(
+            "Error processing payment. Payment gateway is overloaded. Try again later."));
+  }
+
+  @ExceptionHandler(DeadlineExceededException.class)
+  public ResponseEntity<ErrorResponse> handleDeadlineExceededException(
+      DeadlineExceededException ex) {
+    LOG.warn(ex.getMessage());
+    return new ResponseEntity<>(
+        new ErrorResponse("Error processing payment. Request deadline exceeded."), GATEWAY_TIMEOUT);
+  }
+
+  @ExceptionHandler(IdempotencyKeyConflictException.class)
+  public ResponseEntity<ErrorResponse> handleIdempotencyKeyConflictException(
+      IdempotencyKeyConflictException ex) {
+    return new ResponseEntity<>(new ErrorResponse(ex.getMessage()), UNPROCESSABLE_ENTITY);
+  }
+
+  @ExceptionHandler(InvalidIdempotencyKeyException.class)
+  public ResponseEntity<ErrorResponse> handleInvalidIdempotencyKeyException(
+      InvalidIdempotencyKeyException ex) {
+    return new ResponseEntity<>(new ErrorResponse(ex.getMessage()), BAD_REQUEST);
+  }
+
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ResponseEntity<ErrorResponse> handleValidationException(
       MethodArgumentNotValidException ex) {
+    return handleValidationErrors(ex.getBindingResult());
+  }
+
+  @ExceptionHandler(InvalidPaymentRequestException.class)
+  public ResponseEntity<ErrorResponse> handleInvalidPaymentRequestException(
+      InvalidPaymentRequestException ex) {
+    return handleValidationErrors(ex.getBindingResult());
+  }
+
+  public ResponseEntity<ErrorResponse> handleValidationErrors(BindingResult bindingResult) {
     List<String> errors = new ArrayList<>();
-    ex.getBindingResult()
+    bindingResult
         .getFieldErrors().forEach(
             errorField -> errors.add(errorField.getField() + ": " + errorField.getDefaultMessage()));
 
     if (errors.isEmpty()) {
-      ex.getBindingResult().getAllErrors().stream()
+      bindingResult.getAllErrors().stream()
           .map(ObjectError::getDefaultMessage)
           .filter(Objects::nonNull)
           .forEach(errors::add);
@@ -62,6 +130,37 @@ public class CommonExceptionHandler {
     return new ResponseEntity<>(new ErrorResponseStatus(PaymentStatus.REJECTED.getName(), String.join("\n; ", errors)), BAD_REQUEST);
   }
 
+  /**
+   * Renders the failure of one batch item exactly as the same failure of a single payment.
+   */
+  public ResponseEntity<ErrorResponse> handleBatchItemFailure(Throwable ex) {
+    if (ex instanceof AcquiringProcessException acquiringProcessException) {
+      return handleAcquiringBankClientException(acquiringProcessException);
+    }
+    if (ex instanceof BankUnavailableException bankUnavailableException) {
+      return handleBankUnavailableException(bankUnavailableException);
+    }
+    if (ex instanceof DeadlineExceededException deadlineExceededException) {
+      return handleDeadlineExceededException(deadlineExceededException);
+    }
+    if (ex instanceof ServiceOverloadedException serviceOverloadedException) {
+      return handleServiceOverloadedException(serviceOverloadedException);
+    }
+    return handleGenericException(ex instanceof Exception exception
+        ? exception : new IllegalStateException(ex));
+  }
+
+  @ExceptionHandler(InvalidBatchException.class)
+  public ResponseEntity<ErrorResponse> handleInvalidBatchException(InvalidBatchException ex) {
+    return new ResponseEntity<>(new ErrorResponse(ex.getMessage()), BAD_REQUEST);
+  }
+
+  @ExceptionHandler(InvalidPaymentQueryException.class)
+  public ResponseEntity<ErrorResponse> handleInvalidPaymentQueryException(
+      InvalidPaymentQueryException ex) {
+    return new ResponseEntity<>(new ErrorResponse(ex.getMessage()), BAD_REQUEST);
+  }
+
   @ExceptionHandler(MethodArgumentTypeMismatchException.class)
   public ResponseEntity<ErrorResponse> handleMethodArgumentException(MethodArgumentTypeMismatchException ex) {
     LOG.error("Invalid argument format", ex);
@@ -76,9 +175,12 @@ public class CommonExceptionHandler {
         HttpStatus.NOT_FOUND);
   }
 
+  /**
+   * Malformed bodies are client errors, so they are logged in one line without a stack trace.
+   */
   @ExceptionHandler(HttpMessageNotReadableException.class)
   public ResponseEntity<ErrorResponse> handleJsonParseException(HttpMessageNotReadableException ex) {
-    LOG.error("Exception happened", ex);
+    LOG.warn("Unreadable request body: {}", ex.getMessage());
     return new ResponseEntity<>(new ErrorResponse(ex.getMessage()),
         HttpStatus.BAD_REQUEST);
   }
@@ -96,4 +198,9 @@ public class CommonExceptionHandler {
     return new ResponseEntity<>(new ErrorResponse(ex.getMessage()),
         INTERNAL_SERVER_ERROR);
   }
+
+  // Retry-After takes whole seconds, rounded up so clients never come back early.
+  private static long retryAfterSeconds(Duration retryAfter) {
+    return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+  }
 }
@@ -0,0 +1,50 @@
+package com.checkout.payment.gateway.export;
+
+import com.checkout.payment.gateway.model.PaymentFilter;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bulk export mode: writes every stored payment to {@code payments.export.file} as NDJSON at
+ * startup, logs a summary and exits. Meant for the durable journal repository, whose payments are
+ * recovered on startup.
+ */
+@Component
+@ConditionalOnProperty(name = "payments.export.file")
+public class PaymentExportCommand implements ApplicationRunner {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PaymentExportCommand.class);
+
+  private final PaymentExporter paymentExporter;
+  private final ConfigurableApplicationContext applicationContext;
+  private final String file;
+
+  public PaymentExportCommand(PaymentExporter paymentExporter,
+      ConfigurableApplicationContext applicationContext,
+      @Value("${payments.export.file}") String file) {
+    this.paymentExporter = paymentExporter;
+    this.applicationContext = applicationContext;
+    this.file = file;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) throws IOException {
+    long start = System.nanoTime();
+    long exported = paymentExporter.export(PaymentFilter.ALL, Path.of(file));
+    long elapsedNanos = Math.max(1, System.nanoTime() - start);
+    LOG.info("Exported {} payments to {} in {} ms ({} payments/s)", exported, file,
+        TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+        Math.round(exported * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos));
+    System.exit(SpringApplication.exit(applicationContext));
+  }
+}
@@ -0,0 +1,11 @@
+package com.checkout.payment.gateway.generator;
+
+import java.util.UUID;
+
+/**
+ * Source of payment IDs. Selected with the {@code payments.id-generator} property.
+ */
+public interface PaymentIdGenerator {
+
+  UUID nextId();
+}
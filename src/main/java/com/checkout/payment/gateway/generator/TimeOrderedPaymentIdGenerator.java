@@ -0,0 +1,66 @@
+package com.checkout.payment.gateway.generator;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * UUIDv7 (RFC 9562) generator: a 48-bit Unix millisecond timestamp, a 12-bit sequence and 62
+ * random bits.
+ *
+ * <p>The timestamp and sequence are taken together from one atomic 60-bit counter that never
+ * goes backwards, so IDs from one node are strictly increasing and unique even when the clock
+ * stalls or steps back. More than 4096 IDs in a millisecond borrow from the next millisecond.
+ * The random bits come from {@link ThreadLocalRandom} and only separate IDs of different nodes,
+ * so there is no shared {@code SecureRandom} on the hot path.
+ */
+@Component
+@ConditionalOnProperty(name = "payments.id-generator", havingValue = "time-ordered",
+    matchIfMissing = true)
+public class TimeOrderedPaymentIdGenerator implements PaymentIdGenerator {
+
+  private static final int SEQUENCE_BITS = 12;
+  private static final long VERSION_7 = 0x7000L;
+  private static final long VARIANT_RFC = 0x8000000000000000L;
+  private static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+  private final AtomicLong lastTick = new AtomicLong();
+  private final LongSupplier clock;
+
+  public TimeOrderedPaymentIdGenerator() {
+    this(System::currentTimeMillis);
+  }
+
+  TimeOrderedPaymentIdGenerator(LongSupplier clock) {
+    this.clock = clock;
+  }
+
+  @Override
+  public UUID nextId() {
+    long now = clock.getAsLong() << SEQUENCE_BITS;
+    long tick = lastTick.updateAndGet(last -> Math.max(now, last + 1));
+    long timestamp = tick >>> SEQUENCE_BITS;
+    long sequence = tick & ((1L << SEQUENCE_BITS) - 1);
+
+    long msb = timestamp << 16 | VERSION_7 | sequence;
+    long lsb = VARIANT_RFC | (ThreadLocalRandom.current().nextLong() & RANDOM_MASK);
+    return new UUID(msb, lsb);
+  }
+
+  /**
+   * Returns the Unix millisecond timestamp embedded in a version 7 UUID, or -1 for other versions.
+   */
+  public static long timestampMillis(UUID id) {
+    return timestampMillis(id.getMostSignificantBits());
+  }
+
+  /**
+   * Same as {@link #timestampMillis(UUID)}, from the most significant bits of the UUID.
+   */
+  public static long timestampMillis(long mostSignificantBits) {
+    return (mostSignificantBits >>> 12 & 0xF) == 7 ? mostSignificantBits >>> 16 : -1;
+  }
+}
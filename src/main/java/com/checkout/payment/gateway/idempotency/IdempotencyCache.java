@@ -0,0 +1,216 @@
+package com.checkout.payment.gateway.idempotency;
+
+import com.checkout.payment.gateway.exception.IdempotencyKeyConflictException;
+import com.checkout.payment.gateway.exception.InvalidIdempotencyKeyException;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded, TTL-expiring cache of payment outcomes keyed by the merchant's {@code Idempotency-Key}.
+ * The first request for a key runs the payment; concurrent duplicates join that in-flight call
+ * and later replays are answered from the cache. Failed payments are not cached, so a retry after
+ * a bank error is attempted again. Entries are evicted oldest first once expired or when the cache
+ * grows past {@code maxEntries}.
+ *
+ * <p>Only an HMAC-SHA256 fingerprint of the request is kept, so reusing a key for a different
+ * payment is detected without retaining card data. The HMAC key is random per process, so the
+ * fingerprint cannot be brute-forced back to a card number without it, and the CVV is left out.
+ */
+@Component
+public class IdempotencyCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(IdempotencyCache.class);
+
+  static final int MAX_KEY_LENGTH = 255;
+
+  private static final String FINGERPRINT_ALGORITHM = "HmacSHA256";
+  private static final SecretKeySpec FINGERPRINT_KEY = randomKey();
+
+  private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+  private final ConcurrentLinkedQueue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+  private final ReentrantLock evictionLock = new ReentrantLock();
+  private final int maxEntries;
+  private final long ttlNanos;
+  private final LongSupplier nanoClock;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder coalesced = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder expiredEvictions = new LongAdder();
+  private final LongAdder sizeEvictions = new LongAdder();
+
+  @Autowired
+  public IdempotencyCache(@Value("${payments.idempotency.max-entries:100000}") int maxEntries,
+      @Value("${payments.idempotency.ttl:24h}") Duration ttl) {
+    this(maxEntries, ttl, System::nanoTime);
+  }
+
+  IdempotencyCache(int maxEntries, Duration ttl, LongSupplier nanoClock) {
+    this.maxEntries = maxEntries;
+    this.ttlNanos = ttl.toNanos();
+    this.nanoClock = nanoClock;
+  }
+
+  public CompletableFuture<PostPaymentResponse> execute(String key, PostPaymentRequest request,
+      Supplier<CompletableFuture<PostPaymentResponse>> payment) {
+    if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+      throw new InvalidIdempotencyKeyException(
+          "Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters long");
+    }
+    byte[] fingerprint = fingerprint(request);
+    long now = nanoClock.getAsLong();
+    Entry created = new Entry(key, fingerprint, now + ttlNanos);
+    Entry entry = entries.compute(key, (k, existing) -> {
+      if (existing == null) {
+        return created;
+      }
+      if (existing.expiresAt - now <= 0) {
+        expiredEvictions.increment();
+        return created;
+      }
+      return existing;
+    });
+
+    if (entry != created) {
+      if (!MessageDigest.isEqual(entry.fingerprint, fingerprint)) {
+        LOG.warn("Idempotency key {} reused with a different payment request", key);
+        throw new IdempotencyKeyConflictException(
+            "Idempotency key was already used with a different payment request");
+      }
+      if (entry.result.isDone()) {
+        hits.increment();
+        LOG.info("Replaying payment for idempotency key {}", key);
+      } else {
+        coalesced.increment();
+        LOG.info("Joining in-flight payment for idempotency key {}", key);
+      }
+      return entry.result.copy();
+    }
+
+    misses.increment();
+    insertionOrder.add(created);
+    evict(now);
+    CompletableFuture<PostPaymentResponse> call;
+    try {
+      call = payment.get();
+    } catch (RuntimeException e) {
+      call = CompletableFuture.failedFuture(e);
+    }
+    call.whenComplete((response, failure) -> {
+      if (failure == null) {
+        created.result.complete(response);
+      } else {
+        entries.remove(key, created);
+        created.result.completeExceptionally(
+            failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause() : failure);
+      }
+    });
+    return created.result.copy();
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  public long coalescedCount() {
+    return coalesced.sum();
+  }
+
+  public long missCount() {
+    return misses.sum();
+  }
+
+  public long expiredEvictionCount() {
+    return expiredEvictions.sum();
+  }
+
+  public long sizeEvictionCount() {
+    return sizeEvictions.sum();
+  }
+
+  private void evict(long now) {
+    if (!evictionLock.tryLock()) {
+      return;
+    }
+    try {
+      Entry head;
+      while ((head = insertionOrder.peek()) != null) {
+        if (entries.get(head.key) != head) {
+          insertionOrder.poll();
+        } else if (head.expiresAt - now <= 0) {
+          insertionOrder.poll();
+          if (entries.remove(head.key, head)) {
+            expiredEvictions.increment();
+          }
+        } else if (entries.size() > maxEntries) {
+          insertionOrder.poll();
+          if (entries.remove(head.key, head)) {
+            sizeEvictions.increment();
+          }
+        } else {
+          break;
+        }
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  static byte[] fingerprint(PostPaymentRequest request) {
+    Mac mac;
+    try {
+      mac = Mac.getInstance(FINGERPRINT_ALGORITHM);
+      mac.init(FINGERPRINT_KEY);
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException(FINGERPRINT_ALGORITHM + " is not available", e);
+    }
+    String canonical = request.getCardNumber() + '|' + request.getExpiryMonth() + '|'
+        + request.getExpiryYear() + '|' + request.getCurrency() + '|' + request.getAmount();
+    return mac.doFinal(canonical.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static SecretKeySpec randomKey() {
+    byte[] key = new byte[32];
+    new SecureRandom().nextBytes(key);
+    return new SecretKeySpec(key, FINGERPRINT_ALGORITHM);
+  }
+
+  private static final class Entry {
+
+    private final String key;
+    private final byte[] fingerprint;
+    private final long expiresAt;
+    private final CompletableFuture<PostPaymentResponse> result = new CompletableFuture<>();
+
+    private Entry(String key, byte[] fingerprint, long expiresAt) {
+      this.key = key;
+      this.fingerprint = fingerprint;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
@@ -0,0 +1,24 @@
+package com.checkout.payment.gateway.ingest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome counts of one ingested stream: {@code processed} records reached the bank (authorized
+ * or declined), {@code rejected} ones were malformed or invalid and {@code failed} ones hit an
+ * acquiring bank error.
+ */
+public record IngestSummary(long records, long processed, long rejected, long failed,
+                            long elapsedNanos) {
+
+  public double recordsPerSecond() {
+    return elapsedNanos == 0 ? 0 : records * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Ingested %d payment records in %d ms (%.0f records/s): "
+            + "%d processed, %d rejected, %d failed", records,
+        TimeUnit.NANOSECONDS.toMillis(elapsedNanos), recordsPerSecond(), processed, rejected,
+        failed);
+  }
+}
@@ -0,0 +1,68 @@
+package com.checkout.payment.gateway.ingest;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Command line mode of {@link PaymentStreamIngestor}: ingests {@code payments.ingest.file} at
+ * startup, which may be {@code -} for stdin, and writes the results to the file
+ * {@code payments.ingest.output}. Results never go to stdout, where they would mix with the
+ * application logs. The summary, including records per second, is logged, and the application
+ * exits once the ingest is done.
+ */
+@Component
+@ConditionalOnProperty(name = "payments.ingest.file")
+public class PaymentIngestCommand implements ApplicationRunner {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PaymentIngestCommand.class);
+
+  private static final String STANDARD_STREAM = "-";
+
+  private final PaymentStreamIngestor paymentStreamIngestor;
+  private final ConfigurableApplicationContext applicationContext;
+  private final String file;
+  private final String output;
+
+  public PaymentIngestCommand(PaymentStreamIngestor paymentStreamIngestor,
+      ConfigurableApplicationContext applicationContext,
+      @Value("${payments.ingest.file}") String file,
+      @Value("${payments.ingest.output:}") String output) {
+    if (output.isBlank() || STANDARD_STREAM.equals(output)) {
+      throw new IllegalArgumentException(
+          "payments.ingest.output must name a file for the ingest results");
+    }
+    this.paymentStreamIngestor = paymentStreamIngestor;
+    this.applicationContext = applicationContext;
+    this.file = file;
+    this.output = output;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) throws IOException {
+    InputStream in = STANDARD_STREAM.equals(file) ? System.in : Files.newInputStream(Path.of(file));
+    IngestSummary summary;
+    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(Path.of(output)),
+        64 * 1024)) {
+      summary = paymentStreamIngestor.ingest(in, out);
+    } finally {
+      if (in != System.in) {
+        in.close();
+      }
+    }
+    LOG.info("Ingested {} into {}: {}", file, output, summary);
+    System.exit(SpringApplication.exit(applicationContext));
+  }
+}
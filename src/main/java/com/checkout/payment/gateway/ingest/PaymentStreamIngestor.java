@@ -0,0 +1,334 @@
+package com.checkout.payment.gateway.ingest;
+
+import com.checkout.payment.gateway.model.BatchPaymentItemResponse;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.service.BatchPaymentItemFactory;
+import com.checkout.payment.gateway.service.BatchPaymentService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Authorizes a newline-delimited stream of {@link PostPaymentRequest} records and writes one
+ * {@link BatchPaymentItemResponse} line per record, in completion order, while the input is still
+ * being read. Records are framed on {@code '\n'} into a single reusable buffer and parsed in place,
+ * and at most {@code maxInFlight} payments are outstanding: once the window is full the reader
+ * stops consuming input until a payment completes, so memory does not grow with the stream.
+ *
+ * <p>Each result carries the zero-based record index and the status and body a single
+ * {@code POST /v1/payments} of that record would have got. Blank lines are skipped.
+ */
+@Component
+public class PaymentStreamIngestor {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PaymentStreamIngestor.class);
+
+  private static final int READ_BUFFER_SIZE = 64 * 1024;
+  private static final int FLUSH_EVERY_RECORDS = 64;
+  private static final long FLUSH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+  private final ObjectReader requestReader;
+  private final ObjectWriter resultWriter;
+  private final BatchPaymentService batchPaymentService;
+  private final BatchPaymentItemFactory itemFactory;
+  private final int maxInFlight;
+  private final int maxRecordBytes;
+
+  private final LongAdder processed = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+
+  public PaymentStreamIngestor(ObjectMapper objectMapper, BatchPaymentService batchPaymentService,
+      BatchPaymentItemFactory itemFactory,
+      @Value("${payments.ingest.max-in-flight:64}") int maxInFlight,
+      @Value("${payments.ingest.max-record-size:16KB}") DataSize maxRecordSize) {
+    this.requestReader = objectMapper.readerFor(PostPaymentRequest.class);
+    this.resultWriter = objectMapper.writerFor(BatchPaymentItemResponse.class);
+    this.batchPaymentService = batchPaymentService;
+    this.itemFactory = itemFactory;
+    this.maxInFlight = maxInFlight;
+    this.maxRecordBytes = (int) maxRecordSize.toBytes();
+  }
+
+  /**
+   * Consumes {@code in} to the end and returns once every record's result has been written to
+   * {@code out}. Neither stream is closed. If writing fails, reading stops and the write failure
+   * is rethrown once the payments already started have completed.
+   */
+  public IngestSummary ingest(InputStream in, OutputStream out) throws IOException {
+    long start = System.nanoTime();
+    RecordReader records = new RecordReader(in, maxRecordBytes);
+    ResultStream results = new ResultStream(out);
+    int index = 0;
+    try {
+      while (!results.broken() && records.next()) {
+        int current = index++;
+        if (records.truncated()) {
+          results.write(itemFactory.tooLarge(current, maxRecordBytes));
+          continue;
+        }
+        PostPaymentRequest request;
+        try {
+          request = requestReader.readValue(records.buffer(), 0, records.length());
+        } catch (JsonProcessingException e) {
+          results.write(itemFactory.malformed(current, e));
+          continue;
+        }
+        BatchPaymentItemResponse invalid = itemFactory.validate(current, request);
+        if (invalid != null) {
+          results.write(invalid);
+          continue;
+        }
+        results.acquire();
+        batchPaymentService.submitPayment(request).whenComplete((response, failure) ->
+            results.complete(itemFactory.completed(current, response, failure)));
+      }
+    } finally {
+      results.awaitInFlight();
+    }
+    results.finish();
+    IngestSummary summary = results.summary(index, System.nanoTime() - start);
+    LOG.info("{}", summary);
+    return summary;
+  }
+
+  public long processedCount() {
+    return processed.sum();
+  }
+
+  public long rejectedCount() {
+    return rejected.sum();
+  }
+
+  public long failedCount() {
+    return failed.sum();
+  }
+
+  /**
+   * Serializes results from the reading thread and from payment completions. Output is flushed
+   * when nothing is left in flight or after a run of results, so results reach the client
+   * promptly without a flush per record. Guarded by a lock rather than {@code synchronized},
+   * which would pin a virtual thread to its carrier while it writes to the servlet response.
+   */
+  private final class ResultStream {
+
+    private final OutputStream out;
+    private final Semaphore window = new Semaphore(maxInFlight);
+    private final ReentrantLock lock = new ReentrantLock();
+    private int inFlight;
+    private int unflushed;
+    private long lastFlush = System.nanoTime();
+    private long processedRecords;
+    private long rejectedRecords;
+    private long failedRecords;
+    private IOException failure;
+
+    ResultStream(OutputStream out) {
+      this.out = out;
+    }
+
+    void acquire() {
+      window.acquireUninterruptibly();
+      lock.lock();
+      try {
+        inFlight++;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    void complete(BatchPaymentItemResponse item) {
+      lock.lock();
+      try {
+        inFlight--;
+        write(item);
+      } finally {
+        lock.unlock();
+        window.release();
+      }
+    }
+
+    void write(BatchPaymentItemResponse item) {
+      lock.lock();
+      try {
+        count(item.getStatus());
+        if (failure != null) {
+          return;
+        }
+        out.write(resultWriter.writeValueAsBytes(item));
+        out.write('\n');
+        long now = System.nanoTime();
+        if (inFlight == 0 || ++unflushed >= FLUSH_EVERY_RECORDS
+            || now - lastFlush >= FLUSH_INTERVAL_NANOS) {
+          out.flush();
+          unflushed = 0;
+          lastFlush = now;
+        }
+      } catch (IOException e) {
+        LOG.warn("Stopping payment ingest, results can no longer be written", e);
+        failure = e;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void count(int status) {
+      if (status == 200) {
+        processedRecords++;
+        processed.increment();
+      } else if (status == 400) {
+        rejectedRecords++;
+        rejected.increment();
+      } else {
+        failedRecords++;
+        failed.increment();
+      }
+    }
+
+    boolean broken() {
+      lock.lock();
+      try {
+        return failure != null;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    void awaitInFlight() {
+      window.acquireUninterruptibly(maxInFlight);
+      window.release(maxInFlight);
+    }
+
+    void finish() throws IOException {
+      lock.lock();
+      try {
+        if (failure != null) {
+          throw failure;
+        }
+        out.flush();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    IngestSummary summary(long records, long elapsedNanos) {
+      lock.lock();
+      try {
+        return new IngestSummary(records, processedRecords, rejectedRecords, failedRecords,
+            elapsedNanos);
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Splits the input into non-blank lines. A line longer than {@code maxRecordBytes} is skipped to
+   * its end and reported as {@link #truncated()} rather than buffered.
+   */
+  static final class RecordReader {
+
+    private final InputStream in;
+    private final int maxRecordBytes;
+    private final byte[] chunk = new byte[READ_BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private byte[] record = new byte[1024];
+    private int length;
+    private boolean truncated;
+
+    RecordReader(InputStream in, int maxRecordBytes) {
+      this.in = in;
+      this.maxRecordBytes = maxRecordBytes;
+    }
+
+    boolean next() throws IOException {
+      while (readLine()) {
+        if (truncated || !isBlank()) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    byte[] buffer() {
+      return record;
+    }
+
+    int length() {
+      return length;
+    }
+
+    boolean truncated() {
+      return truncated;
+    }
+
+    private boolean readLine() throws IOException {
+      length = 0;
+      truncated = false;
+      boolean read = false;
+      while (true) {
+        if (position == limit) {
+          int n = in.read(chunk);
+          if (n < 0) {
+            return read;
+          }
+          position = 0;
+          limit = n;
+          continue;
+        }
+        read = true;
+        int start = position;
+        while (position < limit && chunk[position] != '\n') {
+          position++;
+        }
+        append(start, position - start);
+        if (position < limit) {
+          position++;
+          return true;
+        }
+      }
+    }
+
+    private void append(int offset, int count) {
+      if (truncated || count == 0) {
+        return;
+      }
+      if (length + count > maxRecordBytes) {
+        truncated = true;
+        return;
+      }
+      if (length + count > record.length) {
+        byte[] grown =
+            new byte[Math.min(maxRecordBytes, Math.max(record.length * 2, length + count))];
+        System.arraycopy(record, 0, grown, 0, length);
+        record = grown;
+      }
+      System.arraycopy(chunk, offset, record, length, count);
+      length += count;
+    }
+
+    private boolean isBlank() {
+      for (int i = 0; i < length; i++) {
+        byte b = record[i];
+        if (b != ' ' && b != '\t' && b != '\r') {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package com.checkout.payment.gateway.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Outcome of one item of a batch: the HTTP status the item would have got as a single
+ * {@code POST /v1/payments}, with either the payment or the error body.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchPaymentItemResponse {
+
+  private final int index;
+  private final int status;
+  private final PostPaymentResponse payment;
+  private final ErrorResponse error;
+
+  private BatchPaymentItemResponse(int index, int status, PostPaymentResponse payment,
+      ErrorResponse error) {
+    this.index = index;
+    this.status = status;
+    this.payment = payment;
+    this.error = error;
+  }
+
+  public static BatchPaymentItemResponse processed(int index, PostPaymentResponse payment) {
+    return new BatchPaymentItemResponse(index, 200, payment, null);
+  }
+
+  public static BatchPaymentItemResponse failed(int index, ResponseEntity<ErrorResponse> error) {
+    return new BatchPaymentItemResponse(index, error.getStatusCode().value(), null,
+        error.getBody());
+  }
+
+  @Override
+  public String toString() {
+    return "BatchPaymentItemResponse{" +
+        "index=" + index +
+        ", status=" + status +
+        ", payment=" + payment +
+        ", error=" + error +
+        '}';
+  }
+
+  public int getIndex() {
+    return index;
+  }
+
+  public int getStatus() {
+    return status;
+  }
+
+  public PostPaymentResponse getPayment() {
+    return payment;
+  }
+
+  public ErrorResponse getError() {
+    return error;
+  }
+}
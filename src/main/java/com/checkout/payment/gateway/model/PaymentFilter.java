@@ -0,0 +1,57 @@
+package com.checkout.payment.gateway.model;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.generator.TimeOrderedPaymentIdGenerator;
+import java.time.Instant;
+
+/**
+ * Criteria for listing stored payments; {@code null} criteria match everything. The time range
+ * is checked against the timestamp embedded in time-ordered (UUIDv7) payment IDs, so payments
+ * with random IDs never match a time range.
+ */
+public class PaymentFilter {
+
+  public static final PaymentFilter ALL = new PaymentFilter(null, null, null, null);
+
+  private final Instant from;
+  private final Instant to;
+  private final PaymentStatus status;
+  private final String currency;
+
+  /**
+   * @param from inclusive lower bound of the payment time
+   * @param to   exclusive upper bound of the payment time
+   */
+  public PaymentFilter(Instant from, Instant to, PaymentStatus status, String currency) {
+    this.from = from;
+    this.to = to;
+    this.status = status;
+    this.currency = currency;
+  }
+
+  public boolean matches(PostPaymentResponse payment) {
+    if (status != null && payment.getStatus() != status) {
+      return false;
+    }
+    if (currency != null && !currency.equalsIgnoreCase(payment.getCurrency())) {
+      return false;
+    }
+    if (from == null && to == null) {
+      return true;
+    }
+    long timestamp = TimeOrderedPaymentIdGenerator.timestampMillis(payment.getId());
+    return timestamp >= 0
+        && (from == null || timestamp >= from.toEpochMilli())
+        && (to == null || timestamp < to.toEpochMilli());
+  }
+
+  @Override
+  public String toString() {
+    return "PaymentFilter{" +
+        "from=" + from +
+        ", to=" + to +
+        ", status=" + status +
+        ", currency='" + currency + '\'' +
+        '}';
+  }
+}
@@ -0,0 +1,36 @@
+package com.checkout.payment.gateway.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+
+/**
+ * One page of {@code GET /v1/payments}. {@code nextCursor} is absent once the end of the store
+ * has been reached.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PaymentPage {
+
+  private final List<PostPaymentResponse> payments;
+  private final String nextCursor;
+
+  public PaymentPage(List<PostPaymentResponse> payments, String nextCursor) {
+    this.payments = payments;
+    this.nextCursor = nextCursor;
+  }
+
+  @Override
+  public String toString() {
+    return "PaymentPage{" +
+        "payments=" + payments +
+        ", nextCursor='" + nextCursor + '\'' +
+        '}';
+  }
+
+  public List<PostPaymentResponse> getPayments() {
+    return payments;
+  }
+
+  public String getNextCursor() {
+    return nextCursor;
+  }
+}
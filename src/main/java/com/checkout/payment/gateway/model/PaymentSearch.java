@@ -0,0 +1,112 @@
+package com.checkout.payment.gateway.model;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.generator.TimeOrderedPaymentIdGenerator;
+import java.time.Instant;
+
+/**
+ * Criteria for {@code GET /v1/payments/search}; {@code null} criteria match everything. Like
+ * {@link PaymentFilter}, the time range is checked against the timestamp embedded in
+ * time-ordered (UUIDv7) payment IDs.
+ */
+public class PaymentSearch {
+
+  private final String lastFour;
+  private final Integer expiryMonth;
+  private final Integer expiryYear;
+  private final Integer amount;
+  private final PaymentStatus status;
+  private final String currency;
+  private final Instant from;
+  private final Instant to;
+
+  /**
+   * @param from inclusive lower bound of the payment time
+   * @param to   exclusive upper bound of the payment time
+   */
+  public PaymentSearch(String lastFour, Integer expiryMonth, Integer expiryYear, Integer amount,
+      PaymentStatus status, String currency, Instant from, Instant to) {
+    this.lastFour = lastFour;
+    this.expiryMonth = expiryMonth;
+    this.expiryYear = expiryYear;
+    this.amount = amount;
+    this.status = status;
+    this.currency = currency;
+    this.from = from;
+    this.to = to;
+  }
+
+  public boolean matches(PostPaymentResponse payment) {
+    if (lastFour != null && !lastFour.equals(payment.getCardNumberLastFour())) {
+      return false;
+    }
+    if (expiryMonth != null && payment.getExpiryMonth() != expiryMonth) {
+      return false;
+    }
+    if (expiryYear != null && payment.getExpiryYear() != expiryYear) {
+      return false;
+    }
+    if (amount != null && payment.getAmount() != amount) {
+      return false;
+    }
+    if (status != null && payment.getStatus() != status) {
+      return false;
+    }
+    if (currency != null && !currency.equalsIgnoreCase(payment.getCurrency())) {
+      return false;
+    }
+    if (from == null && to == null) {
+      return true;
+    }
+    long timestamp = TimeOrderedPaymentIdGenerator.timestampMillis(payment.getId());
+    return timestamp >= 0
+        && (from == null || timestamp >= from.toEpochMilli())
+        && (to == null || timestamp < to.toEpochMilli());
+  }
+
+  public String getLastFour() {
+    return lastFour;
+  }
+
+  public Integer getExpiryMonth() {
+    return expiryMonth;
+  }
+
+  public Integer getExpiryYear() {
+    return expiryYear;
+  }
+
+  public Integer getAmount() {
+    return amount;
+  }
+
+  public PaymentStatus getStatus() {
+    return status;
+  }
+
+  public String getCurrency() {
+    return currency;
+  }
+
+  public Instant getFrom() {
+    return from;
+  }
+
+  public Instant getTo() {
+    return to;
+  }
+
+  @Override
+  public String toString() {
+    return "PaymentSearch{" +
+        "lastFour='" + lastFour + '\'' +
+        ", expiryMonth=" + expiryMonth +
+        ", expiryYear=" + expiryYear +
+        ", amount=" + amount +
+        ", status=" + status +
+        ", currency='" + currency + '\'' +
+        ", from=" + from +
+        ", to=" + to +
+        '}';
+  }
+}
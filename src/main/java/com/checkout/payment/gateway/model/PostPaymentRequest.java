@@ -1,48 +1,29 @@
 package com.checkout.payment.gateway.model;
 
-import com.checkout.payment.gateway.validation.CardChecksumCheck;
-import com.checkout.payment.gateway.validation.CurrencyCode;
-import com.checkout.payment.gateway.validation.CurrentOrFutureYear;
-import com.checkout.payment.gateway.validation.FutureExpiryDate;
-import jakarta.validation.constraints.Max;
-import jakarta.validation.constraints.Min;
-import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Pattern;
-import jakarta.validation.constraints.Size;
+import com.checkout.payment.gateway.resilience.Deadline;
+import com.checkout.payment.gateway.validation.ValidPaymentRequest;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.io.Serializable;
 
-@FutureExpiryDate(message = "Expiry date is not valid")
+/**
+ * All fields are checked together by {@link ValidPaymentRequest}. A request whose fields were
+ * already checked while it was read from JSON is {@link #isVerified() verified}; changing any
+ * field clears the mark. The {@link #getDeadline() deadline} travels with the request to the
+ * bank client and is not part of the payment.
+ */
+@ValidPaymentRequest
 public class PostPaymentRequest implements Serializable {
 
-  @NotNull(message = "Card number must not be empty")
-  @Size(min = 14, max = 19, message = "Card number must be between 14 and 19 characters long")
-  @Pattern(regexp = "^\\d+$", message = "Card number must be 14-19 numeric characters long")
-  @CardChecksumCheck
   private String cardNumber;
-
-  @NotNull(message = "Expiry month must not be empty")
-  @Min(value = 1, message = "Invalid value of the expiry month, value should be in a range 1-12")
-  @Max(value = 12, message = "Invalid value of the expiry month, value should be in a range 1-12")
   private int expiryMonth;
-
-  @NotNull(message = "Expiry year must not be empty")
-  @CurrentOrFutureYear
   private int expiryYear;
-
-  @NotNull(message = "Currency must not be empty")
-  @Size(min = 3, max = 3, message = "Currency must be exactly 3 characters long")
-  @CurrencyCode
   private String currency;
-
-  @NotNull(message = "Amount must not be empty")
-  @Min(value = 1, message = "Invalid value of the amount, value must be more than 0")
-  @Max(value = Integer.MAX_VALUE-1, message = "Invalid value of the amount, value must be less than " + Integer.MAX_VALUE)
   private int amount;
-
-  @NotNull(message = "CVV must not be empty")
-  @Size(min = 3, max = 4, message = "CVV must be 3 or 4 characters long")
-  @Pattern(regexp = "^\\d+$", message = "CVV must only contain numeric characters")
   private String cvv;
+  @JsonIgnore
+  private transient boolean verified;
+  @JsonIgnore
+  private transient Deadline deadline;
 
   public String getExpiryDate() {
     return String.format("%d/%d", expiryMonth, expiryYear);
@@ -93,25 +74,58 @@ public class PostPaymentRequest implements Serializable {
 
   public void setCardNumber(String cardNumber) {
     this.cardNumber = cardNumber;
+    this.verified = false;
   }
 
   public void setExpiryMonth(int expiryMonth) {
     this.expiryMonth = expiryMonth;
+    this.verified = false;
   }
 
   public void setExpiryYear(int expiryYear) {
     this.expiryYear = expiryYear;
+    this.verified = false;
   }
 
   public void setCurrency(String currency) {
     this.currency = currency;
+    this.verified = false;
   }
 
   public void setAmount(int amount) {
     this.amount = amount;
+    this.verified = false;
   }
 
   public void setCvv(String cvv) {
     this.cvv = cvv;
+    this.verified = false;
+  }
+
+  /**
+   * Returns {@code true} if the request is known to pass {@link ValidPaymentRequest}, so Bean
+   * Validation may be skipped.
+   */
+  @JsonIgnore
+  public boolean isVerified() {
+    return verified;
+  }
+
+  @JsonIgnore
+  public void setVerified(boolean verified) {
+    this.verified = verified;
+  }
+
+  /**
+   * Returns the time by which the payment must be answered, or {@code null} for none.
+   */
+  @JsonIgnore
+  public Deadline getDeadline() {
+    return deadline;
+  }
+
+  @JsonIgnore
+  public void setDeadline(Deadline deadline) {
+    this.deadline = deadline;
   }
 }
@@ -1,5 +1,6 @@
 package com.checkout.payment.gateway.model;
 
+import com.checkout.payment.gateway.enums.CardScheme;
 import com.checkout.payment.gateway.enums.PaymentStatus;
 import java.util.UUID;
 
@@ -11,6 +12,7 @@ public class PostPaymentResponse {
   private int expiryYear;
   private String currency;
   private int amount;
+  private CardScheme scheme;
 
 
   public UUID getId() {
@@ -69,6 +71,14 @@ public class PostPaymentResponse {
     this.amount = amount;
   }
 
+  public CardScheme getScheme() {
+    return scheme;
+  }
+
+  public void setScheme(CardScheme scheme) {
+    this.scheme = scheme;
+  }
+
   @Override
   public String toString() {
     return "GetPaymentResponse{" +
@@ -79,6 +89,7 @@ public class PostPaymentResponse {
         ", expiryYear=" + expiryYear +
         ", currency='" + currency + '\'' +
         ", amount=" + amount +
+        ", scheme=" + scheme +
         '}';
   }
 }
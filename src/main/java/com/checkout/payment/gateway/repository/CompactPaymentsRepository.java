@@ -0,0 +1,324 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.enums.CardScheme;
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Heap-compact repository. Each payment is packed into fixed-width slots of parallel primitive
+ * arrays (29 bytes) and located through an open-addressing {@code int[]} index, so no object is
+ * retained per payment. {@link PostPaymentResponse} instances are only materialised on read.
+ *
+ * <p>Slot layout: ID as two longs, amount as an int, expiry year as a short, expiry month as a
+ * byte, status ordinal as a byte, last four digits as a short (with distinct sentinels for a
+ * missing and an empty value), the currency as three 5-bit letters packed into a short and the card
+ * scheme code as a byte. Payments whose fields do not fit this encoding (e.g. a lower case
+ * currency) only store their ID in the slot and are kept as objects in a small overflow map.
+ *
+ * <p>Writes are serialised by a lock. Reads are lock-free: a writer fills the slot, then the
+ * index entry, then bumps the volatile {@code size}, and a reader only trusts slots below the
+ * size it has read.
+ */
+@Repository
+@ConditionalOnProperty(name = "payments.repository.type", havingValue = "compact")
+public class CompactPaymentsRepository implements PaymentsRepository {
+
+  private static final int CHUNK_SHIFT = 14;
+  private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+  private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+  private static final int INITIAL_INDEX_CAPACITY = 1 << 10;
+  private static final short NO_LAST_FOUR = -1;
+  private static final short EMPTY_LAST_FOUR = -2;
+  private static final byte NO_STATUS = -1;
+  private static final byte OVERFLOW_STATUS = -2;
+  private static final short NO_CURRENCY = 0;
+  private static final byte NO_SCHEME = 0;
+  private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+
+  private final ReentrantLock writeLock = new ReentrantLock();
+  private final ConcurrentHashMap<UUID, PostPaymentResponse> overflow = new ConcurrentHashMap<>();
+  private volatile Chunk[] chunks = new Chunk[0];
+  private volatile int[] index = new int[INITIAL_INDEX_CAPACITY];
+  private volatile int size;
+
+  @Override
+  public void add(PostPaymentResponse payment) {
+    UUID id = Objects.requireNonNull(payment.getId(), "Payment ID must not be null");
+    writeLock.lock();
+    try {
+      int slot = size;
+      Chunk chunk = chunkForWrite(slot);
+      int i = slot & CHUNK_MASK;
+      chunk.idMsb[i] = id.getMostSignificantBits();
+      chunk.idLsb[i] = id.getLeastSignificantBits();
+      boolean fits = fitsSlot(payment);
+      if (fits) {
+        chunk.amount[i] = payment.getAmount();
+        chunk.expiryYear[i] = (short) payment.getExpiryYear();
+        chunk.expiryMonth[i] = (byte) payment.getExpiryMonth();
+        chunk.status[i] = payment.getStatus() == null ? NO_STATUS
+            : (byte) payment.getStatus().ordinal();
+        chunk.lastFour[i] = encodeLastFour(payment.getCardNumberLastFour());
+        chunk.currency[i] = encodeCurrency(payment.getCurrency());
+        chunk.scheme[i] = payment.getScheme() == null ? NO_SCHEME
+            : payment.getScheme().getCode();
+      } else {
+        chunk.status[i] = OVERFLOW_STATUS;
+        overflow.put(id, payment);
+      }
+      indexSlot(id.getMostSignificantBits(), id.getLeastSignificantBits(), slot);
+      size = slot + 1;
+      if (fits) {
+        overflow.remove(id);
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @Override
+  public Optional<PostPaymentResponse> get(UUID id) {
+    if (id == null) {
+      return Optional.empty();
+    }
+    if (!overflow.isEmpty()) {
+      PostPaymentResponse payment = overflow.get(id);
+      if (payment != null) {
+        return Optional.of(payment);
+      }
+    }
+    int slot = findSlot(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    return slot < 0 ? Optional.empty()
+        : Optional.ofNullable(materialise(id, chunks[slot >>> CHUNK_SHIFT], slot & CHUNK_MASK));
+  }
+
+  /**
+   * Positions are slot numbers. A slot superseded by a later add of the same ID is skipped.
+   */
+  @Override
+  public long scan(long position, PaymentVisitor visitor) {
+    int published = size;
+    Chunk[] current = chunks;
+    for (int slot = (int) position; slot < published; slot++) {
+      Chunk chunk = current[slot >>> CHUNK_SHIFT];
+      int c = slot & CHUNK_MASK;
+      long msb = chunk.idMsb[c];
+      long lsb = chunk.idLsb[c];
+      if (findSlot(msb, lsb) != slot) {
+        continue;
+      }
+      PostPaymentResponse payment = materialise(new UUID(msb, lsb), chunk, c);
+      if (payment != null && !visitor.visit(payment)) {
+        return slot + 1;
+      }
+    }
+    return Math.max(position, published);
+  }
+
+  public int size() {
+    return size;
+  }
+
+  static boolean fitsSlot(PostPaymentResponse payment) {
+    String lastFour = payment.getCardNumberLastFour();
+    if (lastFour != null && !lastFour.isEmpty() && !isFourDigits(lastFour)) {
+      return false;
+    }
+    String currency = payment.getCurrency();
+    if (currency != null && !isUpperCaseCode(currency)) {
+      return false;
+    }
+    return payment.getExpiryYear() >= Short.MIN_VALUE && payment.getExpiryYear() <= Short.MAX_VALUE
+        && payment.getExpiryMonth() >= Byte.MIN_VALUE && payment.getExpiryMonth() <= Byte.MAX_VALUE;
+  }
+
+  // Returns the slot the index holds for the ID, or -1.
+  private int findSlot(long msb, long lsb) {
+    int published = size;
+    int[] table = index;
+    int mask = table.length - 1;
+    for (int i = hash(msb, lsb) & mask; ; i = (i + 1) & mask) {
+      int entry = table[i];
+      if (entry == 0) {
+        return -1;
+      }
+      int slot = entry - 1;
+      while (slot >= published) {
+        // The entry belongs to a write that has not published its size yet.
+        Thread.onSpinWait();
+        published = size;
+      }
+      Chunk chunk = chunks[slot >>> CHUNK_SHIFT];
+      int c = slot & CHUNK_MASK;
+      if (chunk.idMsb[c] == msb && chunk.idLsb[c] == lsb) {
+        return slot;
+      }
+    }
+  }
+
+  // Returns null for an overflow slot whose payment has since been replaced.
+  private PostPaymentResponse materialise(UUID id, Chunk chunk, int i) {
+    if (chunk.status[i] == OVERFLOW_STATUS) {
+      return overflow.get(id);
+    }
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(id);
+    payment.setAmount(chunk.amount[i]);
+    payment.setExpiryYear(chunk.expiryYear[i]);
+    payment.setExpiryMonth(chunk.expiryMonth[i]);
+    payment.setStatus(chunk.status[i] == NO_STATUS ? null : STATUSES[chunk.status[i]]);
+    payment.setCardNumberLastFour(decodeLastFour(chunk.lastFour[i]));
+    payment.setCurrency(decodeCurrency(chunk.currency[i]));
+    payment.setScheme(
+        chunk.scheme[i] == NO_SCHEME ? null : CardScheme.fromCode(chunk.scheme[i]));
+    return payment;
+  }
+
+  // Called holding writeLock.
+  private Chunk chunkForWrite(int slot) {
+    Chunk[] current = chunks;
+    int chunkIndex = slot >>> CHUNK_SHIFT;
+    if (chunkIndex < current.length) {
+      return current[chunkIndex];
+    }
+    Chunk[] grown = new Chunk[chunkIndex + 1];
+    System.arraycopy(current, 0, grown, 0, current.length);
+    grown[chunkIndex] = new Chunk();
+    chunks = grown;
+    return grown[chunkIndex];
+  }
+
+  // Called holding writeLock. Keeps the index at most half full.
+  private void indexSlot(long msb, long lsb, int slot) {
+    int[] table = index;
+    if ((size + 1) * 2 > table.length) {
+      table = rehash(table, table.length << 1);
+      index = table;
+    }
+    int mask = table.length - 1;
+    Chunk[] current = chunks;
+    for (int i = hash(msb, lsb) & mask; ; i = (i + 1) & mask) {
+      int entry = table[i];
+      if (entry != 0) {
+        Chunk chunk = current[(entry - 1) >>> CHUNK_SHIFT];
+        int c = (entry - 1) & CHUNK_MASK;
+        if (chunk.idMsb[c] != msb || chunk.idLsb[c] != lsb) {
+          continue;
+        }
+      }
+      table[i] = slot + 1;
+      return;
+    }
+  }
+
+  private int[] rehash(int[] table, int capacity) {
+    int[] rehashed = new int[capacity];
+    int mask = capacity - 1;
+    Chunk[] current = chunks;
+    for (int entry : table) {
+      if (entry == 0) {
+        continue;
+      }
+      Chunk chunk = current[(entry - 1) >>> CHUNK_SHIFT];
+      int c = (entry - 1) & CHUNK_MASK;
+      int i = hash(chunk.idMsb[c], chunk.idLsb[c]) & mask;
+      while (rehashed[i] != 0) {
+        i = (i + 1) & mask;
+      }
+      rehashed[i] = entry;
+    }
+    return rehashed;
+  }
+
+  private static int hash(long msb, long lsb) {
+    long h = (msb ^ lsb) * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  private static boolean isFourDigits(String value) {
+    if (value.length() != 4) {
+      return false;
+    }
+    for (int i = 0; i < 4; i++) {
+      char c = value.charAt(i);
+      if (c < '0' || c > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isUpperCaseCode(String value) {
+    if (value.length() != 3) {
+      return false;
+    }
+    for (int i = 0; i < 3; i++) {
+      char c = value.charAt(i);
+      if (c < 'A' || c > 'Z') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static short encodeLastFour(String lastFour) {
+    if (lastFour == null) {
+      return NO_LAST_FOUR;
+    }
+    if (lastFour.isEmpty()) {
+      return EMPTY_LAST_FOUR;
+    }
+    return (short) ((lastFour.charAt(0) - '0') * 1000 + (lastFour.charAt(1) - '0') * 100
+        + (lastFour.charAt(2) - '0') * 10 + (lastFour.charAt(3) - '0'));
+  }
+
+  private static String decodeLastFour(short lastFour) {
+    if (lastFour == NO_LAST_FOUR) {
+      return null;
+    }
+    if (lastFour == EMPTY_LAST_FOUR) {
+      return "";
+    }
+    char[] digits = {
+        (char) ('0' + lastFour / 1000), (char) ('0' + lastFour / 100 % 10),
+        (char) ('0' + lastFour / 10 % 10), (char) ('0' + lastFour % 10)};
+    return new String(digits);
+  }
+
+  private static short encodeCurrency(String currency) {
+    if (currency == null) {
+      return NO_CURRENCY;
+    }
+    return (short) ((currency.charAt(0) - 'A' + 1) << 10 | (currency.charAt(1) - 'A' + 1) << 5
+        | (currency.charAt(2) - 'A' + 1));
+  }
+
+  private static String decodeCurrency(short currency) {
+    if (currency == NO_CURRENCY) {
+      return null;
+    }
+    char[] letters = {
+        (char) ('A' - 1 + (currency >>> 10 & 0x1F)), (char) ('A' - 1 + (currency >>> 5 & 0x1F)),
+        (char) ('A' - 1 + (currency & 0x1F))};
+    return new String(letters);
+  }
+
+  private static final class Chunk {
+    final long[] idMsb = new long[CHUNK_SIZE];
+    final long[] idLsb = new long[CHUNK_SIZE];
+    final int[] amount = new int[CHUNK_SIZE];
+    final short[] expiryYear = new short[CHUNK_SIZE];
+    final byte[] expiryMonth = new byte[CHUNK_SIZE];
+    final byte[] status = new byte[CHUNK_SIZE];
+    final short[] lastFour = new short[CHUNK_SIZE];
+    final short[] currency = new short[CHUNK_SIZE];
+    final byte[] scheme = new byte[CHUNK_SIZE];
+  }
+}
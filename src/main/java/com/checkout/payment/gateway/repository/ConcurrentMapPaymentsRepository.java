@@ -0,0 +1,45 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@ConditionalOnProperty(name = "payments.repository.type", havingValue = "concurrent-map")
+public class ConcurrentMapPaymentsRepository implements PaymentsRepository {
+
+  private final ConcurrentHashMap<UUID, PostPaymentResponse> payments = new ConcurrentHashMap<>();
+  // Scan position of each payment: the sequence number of its first add.
+  private final ConcurrentSkipListMap<Long, UUID> insertionOrder = new ConcurrentSkipListMap<>();
+  private final AtomicLong sequence = new AtomicLong();
+
+  @Override
+  public void add(PostPaymentResponse payment) {
+    if (payments.put(payment.getId(), payment) == null) {
+      insertionOrder.put(sequence.getAndIncrement(), payment.getId());
+    }
+  }
+
+  @Override
+  public Optional<PostPaymentResponse> get(UUID id) {
+    return Optional.ofNullable(payments.get(id));
+  }
+
+  @Override
+  public long scan(long position, PaymentVisitor visitor) {
+    long next = position;
+    for (Map.Entry<Long, UUID> entry : insertionOrder.tailMap(position).entrySet()) {
+      next = entry.getKey() + 1;
+      if (!visitor.visit(payments.get(entry.getValue()))) {
+        break;
+      }
+    }
+    return next;
+  }
+}
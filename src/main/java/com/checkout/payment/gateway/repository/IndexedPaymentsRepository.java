@@ -0,0 +1,151 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.model.PaymentSearch;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.repository.index.PaymentIdFilter;
+import com.checkout.payment.gateway.repository.index.PaymentIndex;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Keeps a {@link PaymentIndex} up to date on every {@link #add} to the repository selected with
+ * {@code payments.repository.type}, and answers {@link #search} from it. Every ID is also added
+ * to a {@link PaymentIdFilter}, so {@link #get} answers most unknown IDs without a repository
+ * lookup. Scans go straight to the repository. Both are rebuilt from the repository on startup.
+ *
+ * <p>With {@code payments.repository.write-behind.queue-capacity} above zero, writes reach the
+ * repository through a {@link WriteBehindPaymentsRepository}, off the caller's thread.
+ */
+@Repository
+@Primary
+public class IndexedPaymentsRepository implements PaymentsRepository, AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(IndexedPaymentsRepository.class);
+
+  private final PaymentsRepository store;
+  private final PaymentIndex index;
+  private final PaymentIdFilter idFilter;
+  private final WriteBehindPaymentsRepository writeBehind;
+  private final LongAdder filteredLookups = new LongAdder();
+
+  public IndexedPaymentsRepository(PaymentsRepository store, int capacity, long expectedPayments,
+      double falsePositiveRate) {
+    this(store, capacity, expectedPayments, falsePositiveRate, 0, 1, Duration.ZERO, 0);
+  }
+
+  /**
+   * @param writeBehindCapacity payments waiting to be written, {@code 0} to write synchronously
+   */
+  @Autowired
+  public IndexedPaymentsRepository(PaymentsRepository store,
+      @Value("${payments.index.capacity:1000000}") int capacity,
+      @Value("${payments.id-filter.expected-payments:1000000}") long expectedPayments,
+      @Value("${payments.id-filter.false-positive-rate:0.01}") double falsePositiveRate,
+      @Value("${payments.repository.write-behind.queue-capacity:0}") int writeBehindCapacity,
+      @Value("${payments.repository.write-behind.batch-size:256}") int writeBehindBatchSize,
+      @Value("${payments.repository.write-behind.enqueue-timeout:1s}") Duration enqueueTimeout,
+      @Value("${payments.repository.write-behind.max-dead-letters:10000}") int maxDeadLetters) {
+    this.index = new PaymentIndex(capacity);
+    this.idFilter = new PaymentIdFilter(expectedPayments, falsePositiveRate);
+    store.scan(0, payment -> {
+      idFilter.add(payment.getId());
+      index.add(payment);
+      return true;
+    });
+    LOG.info("Indexed {} payments, index capacity: {}", index.size(), capacity);
+    this.writeBehind = writeBehindCapacity > 0
+        ? new WriteBehindPaymentsRepository(store, writeBehindCapacity, writeBehindBatchSize,
+            enqueueTimeout, maxDeadLetters)
+        : null;
+    this.store = writeBehind != null ? writeBehind : store;
+  }
+
+  /**
+   * The ID reaches the filter before the repository, so once a payment can be read from the
+   * repository the filter lets lookups of it through.
+   */
+  @Override
+  public void add(PostPaymentResponse payment) {
+    idFilter.add(payment.getId());
+    store.add(payment);
+    index.add(payment);
+  }
+
+  @Override
+  public Optional<PostPaymentResponse> get(UUID id) {
+    if (id == null) {
+      return Optional.empty();
+    }
+    if (!idFilter.mightContain(id)) {
+      filteredLookups.increment();
+      return Optional.empty();
+    }
+    return store.get(id);
+  }
+
+  /**
+   * Returns {@code false} if the payment has certainly never been stored, without a repository
+   * read.
+   */
+  public boolean mightContain(UUID id) {
+    return idFilter.mightContain(id);
+  }
+
+  @Override
+  public long scan(long position, PaymentVisitor visitor) {
+    return store.scan(position, visitor);
+  }
+
+  /**
+   * Visits the stored payments matching {@code search}, newest first, starting below position
+   * {@code before} ({@link Long#MAX_VALUE} for the newest). Returns the position the visitor
+   * stopped at, to be passed as {@code before} to resume, or {@code -1} once every match has
+   * been visited. Only payments still covered by the index are found.
+   */
+  public long search(PaymentSearch search, long before, PaymentVisitor visitor) {
+    return index.search(search, before, id -> {
+      PostPaymentResponse payment = store.get(id).orElse(null);
+      return payment == null || !search.matches(payment) || visitor.visit(payment);
+    });
+  }
+
+  /**
+   * Returns the write-behind stage, if writes are queued.
+   */
+  public Optional<WriteBehindPaymentsRepository> writeBehind() {
+    return Optional.ofNullable(writeBehind);
+  }
+
+  public long indexSize() {
+    return index.size();
+  }
+
+  public long indexEvictedCount() {
+    return index.evictedCount();
+  }
+
+  /**
+   * Returns the number of lookups answered by the ID filter without reaching the repository.
+   */
+  public long filteredLookupCount() {
+    return filteredLookups.sum();
+  }
+
+  /**
+   * Waits for queued writes to reach the repository.
+   */
+  @Override
+  public void close() {
+    if (writeBehind != null) {
+      writeBehind.close();
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.repository.journal.FsyncPolicy;
+import com.checkout.payment.gateway.repository.journal.PaymentJournal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Durable repository backed by a {@link PaymentJournal}. The ID to journal position index is
+ * kept in memory and rebuilt from the journal on startup.
+ */
+@Repository
+@ConditionalOnProperty(name = "payments.repository.type", havingValue = "journal")
+public class JournalPaymentsRepository implements PaymentsRepository, AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(JournalPaymentsRepository.class);
+
+  private final PaymentJournal journal;
+  private final ConcurrentHashMap<UUID, Long> index = new ConcurrentHashMap<>();
+
+  public JournalPaymentsRepository(
+      @Value("${payments.repository.journal.directory:data/journal}") String directory,
+      @Value("${payments.repository.journal.segment-size:64MB}") DataSize segmentSize,
+      @Value("${payments.repository.journal.fsync-policy:always}") FsyncPolicy fsyncPolicy,
+      @Value("${payments.repository.journal.fsync-interval:100ms}") Duration fsyncInterval) {
+    this.journal = PaymentJournal.open(Path.of(directory), segmentSize.toBytes(), fsyncPolicy,
+        fsyncInterval);
+    journal.forEach(index::put);
+    LOG.info("Recovered {} payments from journal in {}, fsync policy: {}", index.size(), directory,
+        fsyncPolicy);
+  }
+
+  @Override
+  public void add(PostPaymentResponse payment) {
+    long position = journal.append(payment);
+    index.put(payment.getId(), position);
+  }
+
+  /**
+   * Group commit: the batch is appended under one lock and made durable with one sync.
+   */
+  @Override
+  public void addAll(List<PostPaymentResponse> payments) {
+    long[] positions = journal.appendAll(payments);
+    for (int i = 0; i < positions.length; i++) {
+      index.put(payments.get(i).getId(), positions[i]);
+    }
+  }
+
+  @Override
+  public Optional<PostPaymentResponse> get(UUID id) {
+    Long position = id == null ? null : index.get(id);
+    return position == null ? Optional.empty() : Optional.of(journal.read(position));
+  }
+
+  /**
+   * Positions are journal positions. A record superseded by a later add of the same ID is
+   * skipped; one whose index update is still in flight is visited.
+   */
+  @Override
+  public long scan(long position, PaymentVisitor visitor) {
+    return journal.scan(position, (id, recordPosition) -> {
+      Long latest = index.get(id);
+      return latest != null && latest > recordPosition
+          || visitor.visit(journal.read(recordPosition));
+    });
+  }
+
+  @Override
+  public void close() {
+    journal.close();
+  }
+}
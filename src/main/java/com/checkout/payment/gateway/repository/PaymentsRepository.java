@@ -1,22 +1,44 @@
 package com.checkout.payment.gateway.repository;
 
 import com.checkout.payment.gateway.model.PostPaymentResponse;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import org.springframework.stereotype.Repository;
 
-@Repository
-public class PaymentsRepository {
+/**
+ * Storage for processed payments. The implementation is selected with the
+ * {@code payments.repository.type} property.
+ */
+public interface PaymentsRepository {
 
-  private final HashMap<UUID, PostPaymentResponse> payments = new HashMap<>();
+  void add(PostPaymentResponse payment);
 
-  public void add(PostPaymentResponse payment) {
-    payments.put(payment.getId(), payment);
+  /**
+   * Adds the payments in order. Stores that can make a batch durable at once override this.
+   */
+  default void addAll(List<PostPaymentResponse> payments) {
+    for (PostPaymentResponse payment : payments) {
+      add(payment);
+    }
   }
 
-  public Optional<PostPaymentResponse> get(UUID id) {
-    return Optional.ofNullable(payments.get(id));
-  }
+  Optional<PostPaymentResponse> get(UUID id);
+
+  /**
+   * Visits stored payments from {@code position} ({@code 0} for the start) until the visitor
+   * returns {@code false} or every payment has been visited, and returns the position just after
+   * the last visited payment. Positions are stable, so a scan resumed from a returned position
+   * never repeats a payment; payments added while scanning may or may not be visited. Each
+   * payment is read from the store as it is visited, nothing is collected up front.
+   */
+  long scan(long position, PaymentVisitor visitor);
 
+  @FunctionalInterface
+  interface PaymentVisitor {
+
+    /**
+     * Returns {@code false} to stop the scan after this payment.
+     */
+    boolean visit(PostPaymentResponse payment);
+  }
 }
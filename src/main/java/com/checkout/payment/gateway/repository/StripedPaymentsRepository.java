@@ -0,0 +1,190 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Lock-striped in-memory repository. Payments are spread over a power-of-two number of segments
+ * by the hash of their ID; writers lock only their segment, readers never lock.
+ *
+ * <p>Each segment publishes its bucket table through a volatile field and chains immutable
+ * nodes, so a reader always sees a consistent chain even while the segment is being resized.
+ *
+ * <p>Each segment also appends the IDs it stores to a log, which gives {@link #scan} stable
+ * positions: the segment number in the high 32 bits and the log index in the low 32 bits.
+ */
+@Repository
+@ConditionalOnProperty(name = "payments.repository.type", havingValue = "striped",
+    matchIfMissing = true)
+public class StripedPaymentsRepository implements PaymentsRepository {
+
+  private static final int MAX_SEGMENTS = 1 << 16;
+  private static final int INITIAL_SEGMENT_CAPACITY = 16;
+
+  private final Segment[] segments;
+  private final int segmentShift;
+
+  public StripedPaymentsRepository(@Value("${payments.repository.segments:64}") int segments) {
+    if (segments < 1 || segments > MAX_SEGMENTS) {
+      throw new IllegalArgumentException("Segments must be in a range 1-" + MAX_SEGMENTS);
+    }
+    int size = Integer.highestOneBit(segments - 1) << 1;
+    size = Math.max(size, 1);
+    this.segments = new Segment[size];
+    for (int i = 0; i < size; i++) {
+      this.segments[i] = new Segment();
+    }
+    this.segmentShift = 32 - Integer.numberOfTrailingZeros(size);
+  }
+
+  @Override
+  public void add(PostPaymentResponse payment) {
+    UUID id = Objects.requireNonNull(payment.getId(), "Payment ID must not be null");
+    int hash = hash(id);
+    segmentFor(hash).put(id, hash, payment);
+  }
+
+  @Override
+  public Optional<PostPaymentResponse> get(UUID id) {
+    if (id == null) {
+      return Optional.empty();
+    }
+    int hash = hash(id);
+    return Optional.ofNullable(segmentFor(hash).get(id, hash));
+  }
+
+  @Override
+  public long scan(long position, PaymentVisitor visitor) {
+    int segmentIndex = (int) (position >>> 32);
+    int logIndex = (int) position;
+    for (; segmentIndex < segments.length; segmentIndex++, logIndex = 0) {
+      Segment segment = segments[segmentIndex];
+      int published = segment.logSize;
+      UUID[] log = segment.log;
+      while (logIndex < published) {
+        UUID id = log[logIndex++];
+        PostPaymentResponse payment = segment.get(id, hash(id));
+        if (!visitor.visit(payment)) {
+          return (long) segmentIndex << 32 | logIndex;
+        }
+      }
+    }
+    return (long) (segments.length - 1) << 32 | segments[segments.length - 1].logSize;
+  }
+
+  public int size() {
+    int size = 0;
+    for (Segment segment : segments) {
+      size += segment.count;
+    }
+    return size;
+  }
+
+  int segmentCount() {
+    return segments.length;
+  }
+
+  private Segment segmentFor(int hash) {
+    // Top bits pick the segment, low bits pick the bucket inside it.
+    return segmentShift == 32 ? segments[0] : segments[(hash * 0x9E3779B9) >>> segmentShift];
+  }
+
+  private static int hash(UUID id) {
+    long bits = id.getMostSignificantBits() ^ id.getLeastSignificantBits();
+    int h = (int) (bits ^ (bits >>> 32));
+    return h ^ (h >>> 16);
+  }
+
+  private static final class Node {
+    final UUID key;
+    final int hash;
+    final Node next;
+    volatile PostPaymentResponse value;
+
+    Node(UUID key, int hash, PostPaymentResponse value, Node next) {
+      this.key = key;
+      this.hash = hash;
+      this.value = value;
+      this.next = next;
+    }
+  }
+
+  private static final class Segment {
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile AtomicReferenceArray<Node> table =
+        new AtomicReferenceArray<>(INITIAL_SEGMENT_CAPACITY);
+    private volatile int count;
+    // IDs in the order they were first stored; entries below logSize are immutable.
+    private volatile UUID[] log = new UUID[INITIAL_SEGMENT_CAPACITY];
+    private volatile int logSize;
+
+    PostPaymentResponse get(UUID key, int hash) {
+      AtomicReferenceArray<Node> tab = table;
+      for (Node node = tab.get(hash & (tab.length() - 1)); node != null; node = node.next) {
+        if (node.hash == hash && node.key.equals(key)) {
+          return node.value;
+        }
+      }
+      return null;
+    }
+
+    void put(UUID key, int hash, PostPaymentResponse value) {
+      lock.lock();
+      try {
+        AtomicReferenceArray<Node> tab = table;
+        int index = hash & (tab.length() - 1);
+        Node head = tab.get(index);
+        for (Node node = head; node != null; node = node.next) {
+          if (node.hash == hash && node.key.equals(key)) {
+            node.value = value;
+            return;
+          }
+        }
+        tab.set(index, new Node(key, hash, value, head));
+        append(key);
+        int newCount = count + 1;
+        count = newCount;
+        if (newCount > tab.length() - (tab.length() >>> 2)) {
+          resize(tab);
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    // Called under the segment lock. The grown log is published before the size that covers it.
+    private void append(UUID key) {
+      UUID[] current = log;
+      int size = logSize;
+      if (size == current.length) {
+        UUID[] grown = new UUID[size << 1];
+        System.arraycopy(current, 0, grown, 0, size);
+        log = grown;
+        current = grown;
+      }
+      current[size] = key;
+      logSize = size + 1;
+    }
+
+    // Called under the segment lock. Nodes are copied rather than relinked so readers still
+    // walking the old table are never exposed to a half-moved chain.
+    private void resize(AtomicReferenceArray<Node> oldTable) {
+      int newLength = oldTable.length() << 1;
+      AtomicReferenceArray<Node> newTable = new AtomicReferenceArray<>(newLength);
+      for (int i = 0; i < oldTable.length(); i++) {
+        for (Node node = oldTable.get(i); node != null; node = node.next) {
+          int index = node.hash & (newLength - 1);
+          newTable.set(index, new Node(node.key, node.hash, node.value, newTable.get(index)));
+        }
+      }
+      table = newTable;
+    }
+  }
+}
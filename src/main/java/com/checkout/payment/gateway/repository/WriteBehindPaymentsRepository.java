@@ -0,0 +1,261 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.exception.PaymentStorageException;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Takes the store's writes off the caller's thread. {@link #add} puts the payment in a pending
+ * map and a bounded queue and returns; a single writer thread drains the queue in batches of up
+ * to {@code batchSize} and hands each batch to {@link PaymentsRepository#addAll}, so a durable
+ * store commits the whole batch with one sync. When the queue is full, {@link #add} waits up to
+ * {@code enqueueTimeout} and then fails with a {@link PaymentStorageException}.
+ *
+ * <p>{@link #get} reads the pending map before the store, so a payment can be read as soon as it
+ * is added. A payment is removed from the map only after the store has it. Scans go straight to
+ * the store and see a payment once it is written.
+ *
+ * <p>A batch that fails to write is retried up to {@value #MAX_ATTEMPTS} times, with its payments
+ * still readable. A batch that still fails is split in halves, each written the same way, so one
+ * bad payment cannot hold up the rest. A single payment that cannot be written is dead-lettered:
+ * logged, counted and kept readable from memory, but never retried. At most
+ * {@code maxDeadLetters} are kept; beyond that the oldest is dropped and can no longer be read,
+ * so a store that keeps rejecting payments cannot exhaust the heap. {@link #close} stops new adds
+ * and waits until every accepted payment has been written or dead-lettered.
+ */
+public class WriteBehindPaymentsRepository implements PaymentsRepository, AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(WriteBehindPaymentsRepository.class);
+  static final int MAX_ATTEMPTS = 3;
+  private static final long RETRY_DELAY_MILLIS = 100;
+
+  private final PaymentsRepository store;
+  private final int batchSize;
+  private final int maxDeadLetters;
+  private final long enqueueTimeoutNanos;
+  private final BlockingQueue<PostPaymentResponse> queue;
+  private final ConcurrentHashMap<UUID, PostPaymentResponse> pending = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<UUID, PostPaymentResponse> deadLetters =
+      new ConcurrentHashMap<>();
+  // Dead-lettered IDs, oldest first; only the writer thread touches it.
+  private final ArrayDeque<UUID> deadLetterOrder = new ArrayDeque<>();
+  private final Thread writer;
+  private final Object progressMonitor = new Object();
+  // Counted before a payment is queued, and completed once it is written or was never queued,
+  // so flush() also waits for adds still waiting for room in the queue.
+  private final AtomicLong accepted = new AtomicLong();
+  private volatile long completed;
+  private final LongAdder batches = new LongAdder();
+  private final LongAdder failedBatches = new LongAdder();
+  private final LongAdder droppedDeadLetters = new LongAdder();
+  private volatile boolean closed;
+  private volatile boolean stopped;
+
+  public WriteBehindPaymentsRepository(PaymentsRepository store, int queueCapacity,
+      int batchSize, Duration enqueueTimeout, int maxDeadLetters) {
+    if (queueCapacity < 1 || batchSize < 1) {
+      throw new IllegalArgumentException("Queue capacity and batch size must be positive");
+    }
+    if (maxDeadLetters < 0) {
+      throw new IllegalArgumentException("Dead letter limit must not be negative");
+    }
+    this.store = store;
+    this.batchSize = batchSize;
+    this.maxDeadLetters = maxDeadLetters;
+    this.enqueueTimeoutNanos = enqueueTimeout.toNanos();
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.writer = new Thread(this::drain, "payment-write-behind");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  @Override
+  public void add(PostPaymentResponse payment) {
+    accepted.incrementAndGet();
+    boolean queued = false;
+    try {
+      if (closed) {
+        throw new PaymentStorageException("Payment repository is closed");
+      }
+      pending.put(payment.getId(), payment);
+      queued = queue.offer(payment, enqueueTimeoutNanos, TimeUnit.NANOSECONDS);
+      if (!queued) {
+        throw new PaymentStorageException("Payment write queue is full");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new PaymentStorageException("Interrupted while queueing the payment write", e);
+    } finally {
+      if (!queued) {
+        pending.remove(payment.getId(), payment);
+        complete(1);
+      }
+    }
+  }
+
+  @Override
+  public Optional<PostPaymentResponse> get(UUID id) {
+    if (id == null) {
+      return store.get(null);
+    }
+    PostPaymentResponse payment = pending.get(id);
+    if (payment == null) {
+      payment = deadLetters.get(id);
+    }
+    return payment != null ? Optional.of(payment) : store.get(id);
+  }
+
+  @Override
+  public long scan(long position, PaymentVisitor visitor) {
+    return store.scan(position, visitor);
+  }
+
+  /**
+   * Waits until every payment added before the call has been written to the store.
+   */
+  public void flush() {
+    long target = accepted.get();
+    synchronized (progressMonitor) {
+      while (completed < target) {
+        try {
+          progressMonitor.wait();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new PaymentStorageException("Interrupted while flushing payment writes", e);
+        }
+      }
+    }
+  }
+
+  public int pendingCount() {
+    return pending.size();
+  }
+
+  public long batchCount() {
+    return batches.sum();
+  }
+
+  public long failedBatchCount() {
+    return failedBatches.sum();
+  }
+
+  /**
+   * Payments given up on after every write failed; they are only kept in memory.
+   */
+  public int deadLetterCount() {
+    return deadLetters.size();
+  }
+
+  /**
+   * Dead letters dropped from memory to stay within {@code maxDeadLetters}; these payments are
+   * lost.
+   */
+  public long droppedDeadLetterCount() {
+    return droppedDeadLetters.sum();
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    flush();
+    stopped = true;
+    writer.interrupt();
+    try {
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    LOG.info("Payment write-behind stopped after {} batches", batches.sum());
+  }
+
+  private void drain() {
+    List<PostPaymentResponse> batch = new ArrayList<>(batchSize);
+    while (!stopped) {
+      try {
+        batch.add(queue.take());
+      } catch (InterruptedException e) {
+        continue;
+      }
+      queue.drainTo(batch, batchSize - 1);
+      write(batch);
+      batch.clear();
+    }
+  }
+
+  private void write(List<PostPaymentResponse> batch) {
+    if (!tryWrite(batch)) {
+      if (batch.size() > 1) {
+        int half = batch.size() / 2;
+        LOG.warn("Splitting a failed batch of {} payments", batch.size());
+        write(batch.subList(0, half));
+        write(batch.subList(half, batch.size()));
+        return;
+      }
+      deadLetter(batch.get(0));
+    }
+    for (PostPaymentResponse payment : batch) {
+      pending.remove(payment.getId(), payment);
+    }
+    complete(batch.size());
+  }
+
+  private void deadLetter(PostPaymentResponse payment) {
+    LOG.error("Dead-lettering payment ID: {}, it could not be written", payment.getId());
+    if (deadLetters.put(payment.getId(), payment) != null) {
+      return;
+    }
+    deadLetterOrder.add(payment.getId());
+    if (deadLetterOrder.size() > maxDeadLetters) {
+      UUID oldest = deadLetterOrder.remove();
+      deadLetters.remove(oldest);
+      droppedDeadLetters.increment();
+      LOG.error("Dropping dead-lettered payment ID: {}, over the limit of {} dead letters", oldest,
+          maxDeadLetters);
+    }
+  }
+
+  private boolean tryWrite(List<PostPaymentResponse> batch) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        store.addAll(batch);
+        batches.increment();
+        return true;
+      } catch (RuntimeException e) {
+        failedBatches.increment();
+        if (attempt >= MAX_ATTEMPTS) {
+          LOG.error("Failed to write {} payments after {} attempts", batch.size(), attempt, e);
+          return false;
+        }
+        LOG.warn("Failed to write {} payments, retrying", batch.size(), e);
+        try {
+          Thread.sleep(RETRY_DELAY_MILLIS);
+        } catch (InterruptedException interrupted) {
+          // Only close() interrupts, and it waits for this batch first.
+        }
+      }
+    }
+  }
+
+  private void complete(int count) {
+    synchronized (progressMonitor) {
+      completed += count;
+      progressMonitor.notifyAll();
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package com.checkout.payment.gateway.repository.index;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Blocked Bloom filter over payment IDs: answers "definitely never added" for most unknown IDs
+ * without touching the repository. It never forgets an ID, so a negative answer is always right.
+ *
+ * <p>The filter is sized for {@code expectedPayments} at the given false positive rate; beyond
+ * that the false positive rate degrades gracefully and positives fall through to the repository.
+ * All probes of an ID hit one 512-bit block, so a lookup reads a single cache line. Adds set bits
+ * with a CAS only where a bit is still clear, and lookups never write.
+ */
+public class PaymentIdFilter {
+
+  private static final int BLOCK_LONGS = 8;
+  private static final int BLOCK_BITS = BLOCK_LONGS * Long.SIZE;
+  private static final int MAX_HASHES = 16;
+  private static final double LN2 = Math.log(2);
+
+  private final AtomicLongArray bits;
+  private final long blocks;
+  private final int hashes;
+
+  public PaymentIdFilter(long expectedPayments, double falsePositiveRate) {
+    if (expectedPayments < 1) {
+      throw new IllegalArgumentException("Expected payments must be positive");
+    }
+    if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+      throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+    }
+    double optimalBits = -expectedPayments * Math.log(falsePositiveRate) / (LN2 * LN2);
+    long blockCount = (long) Math.ceil(optimalBits / BLOCK_BITS);
+    if (blockCount > Integer.MAX_VALUE / BLOCK_LONGS) {
+      throw new IllegalArgumentException("Filter for " + expectedPayments + " payments at "
+          + falsePositiveRate + " false positive rate is too large");
+    }
+    this.blocks = Math.max(1, blockCount);
+    this.bits = new AtomicLongArray((int) blocks * BLOCK_LONGS);
+    long hashCount = Math.round(blocks * BLOCK_BITS / (double) expectedPayments * LN2);
+    this.hashes = (int) Math.max(1, Math.min(MAX_HASHES, hashCount));
+  }
+
+  public void add(UUID id) {
+    long hash = hash(id);
+    int base = block(hash);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32) | 1;
+    for (int i = 0; i < hashes; i++) {
+      int bit = (h1 + i * h2) & (BLOCK_BITS - 1);
+      int index = base + (bit >>> 6);
+      long mask = 1L << bit;
+      long word = bits.get(index);
+      while ((word & mask) == 0) {
+        long witness = bits.compareAndExchange(index, word, word | mask);
+        if (witness == word) {
+          break;
+        }
+        word = witness;
+      }
+    }
+  }
+
+  /**
+   * Returns {@code false} if the ID has certainly never been added.
+   */
+  public boolean mightContain(UUID id) {
+    long hash = hash(id);
+    int base = block(hash);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32) | 1;
+    for (int i = 0; i < hashes; i++) {
+      int bit = (h1 + i * h2) & (BLOCK_BITS - 1);
+      if ((bits.get(base + (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  long sizeInBits() {
+    return blocks * BLOCK_BITS;
+  }
+
+  int hashCount() {
+    return hashes;
+  }
+
+  // First index of the block, from a remix of the hash so it is independent of the probes.
+  private int block(long hash) {
+    long selector = (hash * 0x9E3779B97F4A7C15L) >>> 32;
+    return (int) ((selector * blocks) >>> 32) * BLOCK_LONGS;
+  }
+
+  // Version 7 IDs carry the timestamp in their high bits, so both halves are mixed.
+  private static long hash(UUID id) {
+    long h = id.getMostSignificantBits() * 0x9E3779B97F4A7C15L ^ id.getLeastSignificantBits();
+    h ^= h >>> 33;
+    h *= 0xFF51AFD7ED558CCDL;
+    h ^= h >>> 33;
+    h *= 0xC4CEB9FE1A85EC53L;
+    return h ^ (h >>> 33);
+  }
+}
@@ -0,0 +1,442 @@
+package com.checkout.payment.gateway.repository.index;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.generator.TimeOrderedPaymentIdGenerator;
+import com.checkout.payment.gateway.model.PaymentSearch;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Secondary indexes over the most recently added payments: card last four plus expiry, status,
+ * currency and hour of the payment time.
+ *
+ * <p>Payments are numbered in the order they are added and their searchable fields are packed
+ * into chunks of parallel primitive arrays. The card, status and currency indexes are chains
+ * threaded through those arrays: a head table holds the newest ordinal of each key bucket and
+ * every payment stores the distance back to the previous payment of its bucket, so an index
+ * entry is an {@code int} rather than an object. The time index maps each hour, taken from the
+ * UUIDv7 payment ID, to the range of ordinals added for it. All in all a payment costs 39 bytes
+ * plus its share of the card head table.
+ *
+ * <p>Memory is bounded by {@code capacity}: chunks form a ring and the oldest chunk is dropped
+ * when a new one is needed, so searches cover only the most recent payments. A payment added
+ * twice is indexed twice.
+ *
+ * <p>Writes are serialised by a lock. Reads are lock-free: chain heads are published through an
+ * {@link AtomicLongArray} after the payment has been written, range scans only trust ordinals
+ * below the volatile {@code added} count, and a dropped chunk is recognised by its number.
+ */
+public class PaymentIndex {
+
+  public static final int MAX_CAPACITY = 1 << 30;
+
+  private static final int CHUNK_SHIFT = 14;
+  private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+  private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+  private static final int MIN_CARD_BUCKETS = 1 << 10;
+  private static final int CURRENCY_KEYS = 1 << 15;
+  private static final long HOUR_MILLIS = 3_600_000;
+  private static final long NONE = -1;
+  private static final int NO_CARD = -1;
+  private static final byte NO_STATUS = -1;
+  private static final short NO_CURRENCY = 0;
+  private static final int CARD = 0;
+  private static final int STATUS = 1;
+  private static final int CURRENCY = 2;
+  private static final int CHAINS = 3;
+
+  private final ReentrantLock writeLock = new ReentrantLock();
+  private final Chunk[] ring;
+  private final long retainedCapacity;
+  private final AtomicLongArray cardHeads;
+  private final AtomicLongArray statusHeads;
+  private final AtomicLongArray currencyHeads;
+  private final ConcurrentSkipListMap<Long, TimeBucket> timeBuckets =
+      new ConcurrentSkipListMap<>();
+  private TimeBucket lastBucket;
+  private volatile long added;
+  private volatile long evicted;
+
+  public PaymentIndex(int capacity) {
+    if (capacity < 1 || capacity > MAX_CAPACITY) {
+      throw new IllegalArgumentException("Index capacity must be in a range 1-" + MAX_CAPACITY);
+    }
+    this.ring = new Chunk[(capacity + CHUNK_MASK) >>> CHUNK_SHIFT];
+    this.retainedCapacity = (long) ring.length << CHUNK_SHIFT;
+    this.cardHeads = emptyHeads(Math.max(MIN_CARD_BUCKETS, Integer.highestOneBit(capacity) >>> 2));
+    this.statusHeads = emptyHeads(PaymentStatus.values().length);
+    this.currencyHeads = emptyHeads(CURRENCY_KEYS);
+  }
+
+  public void add(PostPaymentResponse payment) {
+    UUID id = Objects.requireNonNull(payment.getId(), "Payment ID must not be null");
+    int cardKey = cardKey(payment.getCardNumberLastFour(), payment.getExpiryMonth(),
+        payment.getExpiryYear());
+    byte status = payment.getStatus() == null ? NO_STATUS : (byte) payment.getStatus().ordinal();
+    short currency = currencyKey(payment.getCurrency());
+    long timestamp = TimeOrderedPaymentIdGenerator.timestampMillis(id);
+    writeLock.lock();
+    try {
+      long ordinal = added;
+      Chunk chunk = chunkForWrite(ordinal);
+      int i = (int) ordinal & CHUNK_MASK;
+      chunk.idMsb[i] = id.getMostSignificantBits();
+      chunk.idLsb[i] = id.getLeastSignificantBits();
+      chunk.cardKey[i] = cardKey;
+      chunk.amount[i] = payment.getAmount();
+      chunk.status[i] = status;
+      chunk.currency[i] = currency;
+      if (cardKey != NO_CARD) {
+        link(cardHeads, cardBucket(cardKey), ordinal, chunk.next[CARD], i);
+      }
+      if (status != NO_STATUS) {
+        link(statusHeads, status, ordinal, chunk.next[STATUS], i);
+      }
+      if (currency != NO_CURRENCY) {
+        link(currencyHeads, currency, ordinal, chunk.next[CURRENCY], i);
+      }
+      if (timestamp >= 0) {
+        addToTimeBucket(timestamp / HOUR_MILLIS, ordinal);
+      }
+      added = ordinal + 1;
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Visits the IDs of indexed payments matching {@code search}, newest first, starting below
+   * ordinal {@code before} ({@link Long#MAX_VALUE} for the newest). Returns the ordinal the
+   * visitor stopped at, to be passed as {@code before} to resume, or {@code -1} once every
+   * candidate has been visited.
+   *
+   * <p>A full card (last four and expiry) walks the card chain, otherwise a time range scans the
+   * ordinals of its hours, otherwise the currency or status chain is walked. Remaining criteria
+   * are checked against the packed fields, so only matching payments reach the visitor.
+   */
+  public long search(PaymentSearch search, long before, CandidateVisitor visitor) {
+    Query query = Query.of(search);
+    if (query == null) {
+      return NONE;
+    }
+    long high = Math.min(before, added) - 1;
+    long low = 0;
+    if (query.timeRange) {
+      long[] range = ordinalRange(query.fromMillis, query.toMillis);
+      if (range == null) {
+        return NONE;
+      }
+      low = range[0];
+      high = Math.min(high, range[1]);
+    }
+    if (query.cardKey != NO_CARD) {
+      return walk(cardHeads.get(cardBucket(query.cardKey)), CARD, high, low, query, visitor);
+    }
+    if (query.timeRange) {
+      return scan(high, low, query, visitor);
+    }
+    if (query.currency != NO_CURRENCY) {
+      return walk(currencyHeads.get(query.currency), CURRENCY, high, low, query, visitor);
+    }
+    if (query.status != NO_STATUS) {
+      return walk(statusHeads.get(query.status), STATUS, high, low, query, visitor);
+    }
+    return scan(high, low, query, visitor);
+  }
+
+  /**
+   * Returns the number of payments currently covered by the index.
+   */
+  public long size() {
+    long count = added;
+    return count - Math.min(count, oldestRetained(count));
+  }
+
+  /**
+   * Returns the number of payments dropped from the index to stay within its capacity.
+   */
+  public long evictedCount() {
+    return evicted;
+  }
+
+  private long walk(long head, int chain, long high, long low, Query query,
+      CandidateVisitor visitor) {
+    long ordinal = head;
+    while (ordinal != NONE && ordinal >= low) {
+      Chunk chunk = chunkForRead(ordinal);
+      if (chunk == null) {
+        break;
+      }
+      int i = (int) ordinal & CHUNK_MASK;
+      if (ordinal <= high && query.matches(chunk, i)
+          && !visitor.visit(new UUID(chunk.idMsb[i], chunk.idLsb[i]))) {
+        return ordinal;
+      }
+      int distance = chunk.next[chain][i];
+      ordinal = distance == 0 ? NONE : ordinal - distance;
+    }
+    return NONE;
+  }
+
+  private long scan(long high, long low, Query query, CandidateVisitor visitor) {
+    for (long ordinal = high; ordinal >= low; ordinal--) {
+      Chunk chunk = chunkForRead(ordinal);
+      if (chunk == null) {
+        break;
+      }
+      int i = (int) ordinal & CHUNK_MASK;
+      if (query.matches(chunk, i) && !visitor.visit(new UUID(chunk.idMsb[i], chunk.idLsb[i]))) {
+        return ordinal;
+      }
+    }
+    return NONE;
+  }
+
+  // Returns the lowest and highest ordinal added for payments in [from, to), or null if none.
+  private long[] ordinalRange(long fromMillis, long toMillis) {
+    if (fromMillis >= toMillis) {
+      return null;
+    }
+    long low = Long.MAX_VALUE;
+    long high = NONE;
+    for (TimeBucket bucket : timeBuckets.subMap(fromMillis / HOUR_MILLIS, true,
+        (toMillis - 1) / HOUR_MILLIS, true).values()) {
+      low = Math.min(low, bucket.minOrdinal);
+      high = Math.max(high, bucket.maxOrdinal);
+    }
+    return high == NONE ? null : new long[]{low, high};
+  }
+
+  // Returns null once the chunk holding the ordinal has been dropped.
+  private Chunk chunkForRead(long ordinal) {
+    long number = ordinal >>> CHUNK_SHIFT;
+    Chunk chunk = ring[(int) (number % ring.length)];
+    return chunk != null && chunk.number == number ? chunk : null;
+  }
+
+  // Called holding writeLock.
+  private Chunk chunkForWrite(long ordinal) {
+    long number = ordinal >>> CHUNK_SHIFT;
+    int index = (int) (number % ring.length);
+    Chunk chunk = ring[index];
+    if (chunk == null || chunk.number != number) {
+      if (chunk != null) {
+        evicted = evicted + CHUNK_SIZE;
+      }
+      chunk = new Chunk(number);
+      ring[index] = chunk;
+    }
+    return chunk;
+  }
+
+  // Called holding writeLock. The chain link is written before the head that exposes it.
+  private void link(AtomicLongArray heads, int bucket, long ordinal, int[] next, int i) {
+    long previous = heads.get(bucket);
+    long distance = ordinal - previous;
+    next[i] = previous == NONE || distance >= retainedCapacity ? 0 : (int) distance;
+    heads.set(bucket, ordinal);
+  }
+
+  // Called holding writeLock. Ordinals only grow, so the first one of an hour is its minimum.
+  private void addToTimeBucket(long hour, long ordinal) {
+    TimeBucket bucket = lastBucket;
+    if (bucket == null || bucket.hour != hour) {
+      bucket = timeBuckets.get(hour);
+      if (bucket == null) {
+        bucket = new TimeBucket(hour, ordinal);
+        timeBuckets.put(hour, bucket);
+        long oldest = oldestRetained(ordinal + 1);
+        timeBuckets.values().removeIf(candidate -> candidate.maxOrdinal < oldest);
+      }
+      lastBucket = bucket;
+    }
+    bucket.maxOrdinal = ordinal;
+  }
+
+  private long oldestRetained(long count) {
+    long chunks = (count + CHUNK_MASK) >>> CHUNK_SHIFT;
+    return Math.max(0, chunks - ring.length) << CHUNK_SHIFT;
+  }
+
+  private int cardBucket(int cardKey) {
+    int h = cardKey * 0x9E3779B9;
+    return (h ^ (h >>> 16)) & (cardHeads.length() - 1);
+  }
+
+  private static AtomicLongArray emptyHeads(int length) {
+    AtomicLongArray heads = new AtomicLongArray(length);
+    for (int i = 0; i < length; i++) {
+      heads.set(i, NONE);
+    }
+    return heads;
+  }
+
+  // Last four digits, expiry year and expiry month packed as 14, 12 and 4 bits.
+  private static int cardKey(String lastFour, int expiryMonth, int expiryYear) {
+    int digits = lastFourDigits(lastFour);
+    if (digits < 0 || expiryMonth < 0 || expiryMonth > 0xF || expiryYear < 0
+        || expiryYear > 0xFFF) {
+      return NO_CARD;
+    }
+    return digits << 16 | expiryYear << 4 | expiryMonth;
+  }
+
+  private static int lastFourDigits(String lastFour) {
+    if (lastFour == null || lastFour.length() != 4) {
+      return -1;
+    }
+    int digits = 0;
+    for (int i = 0; i < 4; i++) {
+      char c = lastFour.charAt(i);
+      if (c < '0' || c > '9') {
+        return -1;
+      }
+      digits = digits * 10 + (c - '0');
+    }
+    return digits;
+  }
+
+  // Three case-insensitive letters packed as 5 bits each, never 0.
+  private static short currencyKey(String currency) {
+    if (currency == null || currency.length() != 3) {
+      return NO_CURRENCY;
+    }
+    int key = 0;
+    for (int i = 0; i < 3; i++) {
+      char c = Character.toUpperCase(currency.charAt(i));
+      if (c < 'A' || c > 'Z') {
+        return NO_CURRENCY;
+      }
+      key = key << 5 | (c - 'A' + 1);
+    }
+    return (short) key;
+  }
+
+  @FunctionalInterface
+  public interface CandidateVisitor {
+
+    /**
+     * Returns {@code false} to stop the search after this payment.
+     */
+    boolean visit(UUID id);
+  }
+
+  private static final class Query {
+    int cardKey = NO_CARD;
+    int lastFour = -1;
+    int expiryMonth = -1;
+    int expiryYear = -1;
+    boolean amountSet;
+    int amount;
+    byte status = NO_STATUS;
+    short currency = NO_CURRENCY;
+    boolean timeRange;
+    long fromMillis;
+    long toMillis = Long.MAX_VALUE;
+
+    // Returns null when no indexed payment can match.
+    static Query of(PaymentSearch search) {
+      Query query = new Query();
+      if (search.getLastFour() != null) {
+        query.lastFour = lastFourDigits(search.getLastFour());
+        if (query.lastFour < 0) {
+          return null;
+        }
+      }
+      if (search.getExpiryMonth() != null) {
+        query.expiryMonth = search.getExpiryMonth();
+        if (query.expiryMonth < 0 || query.expiryMonth > 0xF) {
+          return null;
+        }
+      }
+      if (search.getExpiryYear() != null) {
+        query.expiryYear = search.getExpiryYear();
+        if (query.expiryYear < 0 || query.expiryYear > 0xFFF) {
+          return null;
+        }
+      }
+      if (query.lastFour >= 0 && query.expiryMonth >= 0 && query.expiryYear >= 0) {
+        query.cardKey = query.lastFour << 16 | query.expiryYear << 4 | query.expiryMonth;
+      }
+      if (search.getAmount() != null) {
+        query.amountSet = true;
+        query.amount = search.getAmount();
+      }
+      if (search.getStatus() != null) {
+        query.status = (byte) search.getStatus().ordinal();
+      }
+      if (search.getCurrency() != null) {
+        query.currency = currencyKey(search.getCurrency());
+        if (query.currency == NO_CURRENCY) {
+          return null;
+        }
+      }
+      Instant from = search.getFrom();
+      Instant to = search.getTo();
+      if (from != null || to != null) {
+        query.timeRange = true;
+        query.fromMillis = from == null ? 0 : Math.max(0, from.toEpochMilli());
+        query.toMillis = to == null ? Long.MAX_VALUE : to.toEpochMilli();
+      }
+      return query;
+    }
+
+    boolean matches(Chunk chunk, int i) {
+      if (lastFour >= 0 || expiryMonth >= 0 || expiryYear >= 0) {
+        int key = chunk.cardKey[i];
+        if (key == NO_CARD
+            || lastFour >= 0 && key >>> 16 != lastFour
+            || expiryYear >= 0 && (key >>> 4 & 0xFFF) != expiryYear
+            || expiryMonth >= 0 && (key & 0xF) != expiryMonth) {
+          return false;
+        }
+      }
+      if (amountSet && chunk.amount[i] != amount) {
+        return false;
+      }
+      if (status != NO_STATUS && chunk.status[i] != status) {
+        return false;
+      }
+      if (currency != NO_CURRENCY && chunk.currency[i] != currency) {
+        return false;
+      }
+      if (!timeRange) {
+        return true;
+      }
+      long timestamp = TimeOrderedPaymentIdGenerator.timestampMillis(chunk.idMsb[i]);
+      return timestamp >= fromMillis && timestamp < toMillis;
+    }
+  }
+
+  private static final class TimeBucket {
+    final long hour;
+    final long minOrdinal;
+    volatile long maxOrdinal;
+
+    TimeBucket(long hour, long ordinal) {
+      this.hour = hour;
+      this.minOrdinal = ordinal;
+      this.maxOrdinal = ordinal;
+    }
+  }
+
+  private static final class Chunk {
+    final long number;
+    final long[] idMsb = new long[CHUNK_SIZE];
+    final long[] idLsb = new long[CHUNK_SIZE];
+    final int[] cardKey = new int[CHUNK_SIZE];
+    final int[] amount = new int[CHUNK_SIZE];
+    final short[] currency = new short[CHUNK_SIZE];
+    final byte[] status = new byte[CHUNK_SIZE];
+    final int[][] next = new int[CHAINS][CHUNK_SIZE];
+
+    Chunk(long number) {
+      this.number = number;
+    }
+  }
+}
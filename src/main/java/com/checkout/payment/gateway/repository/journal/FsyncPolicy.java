@@ -0,0 +1,10 @@
+package com.checkout.payment.gateway.repository.journal;
+
+public enum FsyncPolicy {
+  /** Every append waits until its record is forced to disk; concurrent appends share one force. */
+  ALWAYS,
+  /** Appends return immediately; dirty records are forced on a fixed interval. */
+  INTERVAL,
+  /** Records are only forced on close. Survives a process crash, not a power loss. */
+  NEVER
+}
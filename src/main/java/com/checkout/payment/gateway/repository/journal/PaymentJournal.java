@@ -0,0 +1,505 @@
+package com.checkout.payment.gateway.repository.journal;
+
+import com.checkout.payment.gateway.enums.CardScheme;
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.PaymentStorageException;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only journal of fixed-size payment records stored in memory-mapped segment files.
+ *
+ * <p>Record layout ({@value #RECORD_SIZE} bytes):
+ * <pre>
+ *  0  long   id (most significant bits)
+ *  8  long   id (least significant bits)
+ * 16  int    amount
+ * 20  short  expiry year
+ * 22  byte   expiry month
+ * 23  byte   status ordinal, -1 when absent
+ * 24  byte[4] card number last four, ASCII, zero padded
+ * 28  byte[3] currency, ASCII
+ * 31  byte   card scheme code, 0 when absent (older records)
+ * 32  int    CRC32 of bytes 0-31
+ * 36  byte   commit marker, written last
+ * </pre>
+ * The first slot of every segment holds the file header. On open, each segment is scanned and
+ * scanning stops at the first slot without a commit marker or with a bad checksum, so a record
+ * torn by a crash is discarded and its slot reused.
+ *
+ * <p>Positions returned by {@link #append} pack the segment number in the high 32 bits and the
+ * byte offset inside the segment in the low 32 bits.
+ */
+public class PaymentJournal implements AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PaymentJournal.class);
+
+  static final int RECORD_SIZE = 40;
+  private static final int PAYLOAD_SIZE = 32;
+  private static final int CRC_OFFSET = 32;
+  private static final int MARKER_OFFSET = 36;
+  private static final byte COMMITTED = 1;
+
+  private static final int MAGIC = 0x50474A31;
+  private static final int VERSION = 1;
+  private static final Pattern SEGMENT_NAME = Pattern.compile("payments-(\\d{8})\\.journal");
+  private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+
+  private final Path directory;
+  private final int segmentSize;
+  private final FsyncPolicy fsyncPolicy;
+
+  private final ReentrantLock appendLock = new ReentrantLock();
+  // A lock rather than a monitor: fsync blocks, and a virtual thread blocked inside synchronized
+  // would pin its carrier thread for the whole sync.
+  private final ReentrantLock syncLock = new ReentrantLock();
+  private final byte[] scratch = new byte[RECORD_SIZE];
+  private final ByteBuffer scratchBuffer = ByteBuffer.wrap(scratch);
+  private final CRC32 crc = new CRC32();
+
+  private volatile Segment[] segments;
+  private long appendedSequence;
+  private volatile long durableSequence;
+  private volatile boolean closed;
+  private final ScheduledExecutorService flusher;
+
+  private PaymentJournal(Path directory, int segmentSize, FsyncPolicy fsyncPolicy) {
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    this.fsyncPolicy = fsyncPolicy;
+    this.flusher = fsyncPolicy == FsyncPolicy.INTERVAL
+        ? Executors.newSingleThreadScheduledExecutor(runnable -> {
+          Thread thread = new Thread(runnable, "payment-journal-flusher");
+          thread.setDaemon(true);
+          return thread;
+        })
+        : null;
+  }
+
+  /**
+   * Opens the journal in {@code directory}, creating it when missing, and recovers every segment
+   * found there.
+   *
+   * @param segmentSize   bytes per segment file, rounded down to a whole number of records
+   * @param fsyncInterval only used with {@link FsyncPolicy#INTERVAL}
+   */
+  public static PaymentJournal open(Path directory, long segmentSize, FsyncPolicy fsyncPolicy,
+      Duration fsyncInterval) {
+    if (segmentSize < 2L * RECORD_SIZE || segmentSize > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException(
+          "Segment size must be between " + 2 * RECORD_SIZE + " and " + Integer.MAX_VALUE + " bytes");
+    }
+    int alignedSize = (int) (segmentSize - segmentSize % RECORD_SIZE);
+    PaymentJournal journal = new PaymentJournal(directory, alignedSize, fsyncPolicy);
+    journal.recover();
+    if (journal.flusher != null) {
+      long intervalMillis = Math.max(1, fsyncInterval.toMillis());
+      journal.flusher.scheduleWithFixedDelay(journal::flushQuietly, intervalMillis, intervalMillis,
+          TimeUnit.MILLISECONDS);
+    }
+    return journal;
+  }
+
+  /**
+   * Appends a record and returns its position. With {@link FsyncPolicy#ALWAYS} this only returns
+   * once the record is on disk.
+   */
+  public long append(PostPaymentResponse payment) {
+    long position;
+    long sequence;
+    appendLock.lock();
+    try {
+      checkOpen();
+      position = write(payment);
+      sequence = appendedSequence;
+    } finally {
+      appendLock.unlock();
+    }
+    if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+      awaitDurable(sequence);
+    }
+    return position;
+  }
+
+  /**
+   * Appends the records in order and returns their positions. With {@link FsyncPolicy#ALWAYS}
+   * the whole batch is forced to disk together, so it costs one sync instead of one per record.
+   */
+  public long[] appendAll(List<PostPaymentResponse> payments) {
+    long[] positions = new long[payments.size()];
+    long sequence;
+    appendLock.lock();
+    try {
+      checkOpen();
+      for (int i = 0; i < positions.length; i++) {
+        positions[i] = write(payments.get(i));
+      }
+      sequence = appendedSequence;
+    } finally {
+      appendLock.unlock();
+    }
+    if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+      awaitDurable(sequence);
+    }
+    return positions;
+  }
+
+  public PostPaymentResponse read(long position) {
+    Segment segment = segments[(int) (position >>> 32)];
+    int offset = (int) position;
+    MappedByteBuffer buffer = segment.buffer;
+
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(new UUID(buffer.getLong(offset), buffer.getLong(offset + 8)));
+    payment.setAmount(buffer.getInt(offset + 16));
+    payment.setExpiryYear(buffer.getShort(offset + 20));
+    payment.setExpiryMonth(buffer.get(offset + 22));
+    byte status = buffer.get(offset + 23);
+    payment.setStatus(status < 0 ? null : STATUSES[status]);
+    payment.setCardNumberLastFour(readAscii(buffer, offset + 24, 4));
+    String currency = readAscii(buffer, offset + 28, 3);
+    payment.setCurrency(currency.isEmpty() ? null : currency);
+    byte scheme = buffer.get(offset + 31);
+    payment.setScheme(scheme == 0 ? null : CardScheme.fromCode(scheme));
+    return payment;
+  }
+
+  /**
+   * Calls {@code consumer} with the ID and position of every committed record, oldest first.
+   */
+  public void forEach(BiConsumer<UUID, Long> consumer) {
+    scan(0, (id, position) -> {
+      consumer.accept(id, position);
+      return true;
+    });
+  }
+
+  /**
+   * Calls {@code visitor} with the ID and position of each committed record from
+   * {@code position} ({@code 0} for the first record) on, oldest first, until it returns
+   * {@code false}. Returns the position after the last record visited.
+   */
+  public long scan(long position, RecordVisitor visitor) {
+    Segment[] current = segments;
+    int segmentNumber = (int) (position >>> 32);
+    int offset = Math.max(RECORD_SIZE, (int) position);
+    for (; segmentNumber < current.length; segmentNumber++, offset = RECORD_SIZE) {
+      Segment segment = current[segmentNumber];
+      int end = segment.writeOffset;
+      for (; offset < end; offset += RECORD_SIZE) {
+        UUID id = new UUID(segment.buffer.getLong(offset), segment.buffer.getLong(offset + 8));
+        long recordPosition = ((long) segment.number << 32) | offset;
+        if (!visitor.visit(id, recordPosition)) {
+          return recordPosition + RECORD_SIZE;
+        }
+      }
+    }
+    Segment last = current[current.length - 1];
+    return Math.max(position, ((long) last.number << 32) | last.writeOffset);
+  }
+
+  @FunctionalInterface
+  public interface RecordVisitor {
+
+    boolean visit(UUID id, long position);
+  }
+
+  /**
+   * Forces every appended record to disk.
+   */
+  public void flush() {
+    syncLock.lock();
+    try {
+      sync();
+    } finally {
+      syncLock.unlock();
+    }
+  }
+
+  @Override
+  public void close() {
+    appendLock.lock();
+    try {
+      if (closed) {
+        return;
+      }
+      closed = true;
+    } finally {
+      appendLock.unlock();
+    }
+    if (flusher != null) {
+      flusher.shutdownNow();
+    }
+    flush();
+    for (Segment segment : segments) {
+      try {
+        segment.channel.close();
+      } catch (IOException e) {
+        LOG.warn("Failed to close journal segment {}", segment.path, e);
+      }
+    }
+  }
+
+  int segmentCount() {
+    return segments.length;
+  }
+
+  // Called holding appendLock.
+  private void checkOpen() {
+    if (closed) {
+      throw new PaymentStorageException("Payment journal is closed");
+    }
+  }
+
+  // Called holding appendLock.
+  private long write(PostPaymentResponse payment) {
+    Segment segment = activeSegment();
+    if (segment.writeOffset + RECORD_SIZE > segmentSize) {
+      segment = roll(segment);
+    }
+    encode(payment);
+    segment.buffer.put(segment.writeOffset, scratch, 0, MARKER_OFFSET);
+    segment.buffer.put(segment.writeOffset + MARKER_OFFSET, COMMITTED);
+    long position = ((long) segment.number << 32) | segment.writeOffset;
+    segment.writeOffset += RECORD_SIZE;
+    appendedSequence++;
+    return position;
+  }
+
+  private void awaitDurable(long sequence) {
+    if (durableSequence >= sequence) {
+      return;
+    }
+    syncLock.lock();
+    try {
+      // Whoever held the lock before us may already have forced our record.
+      if (durableSequence < sequence) {
+        sync();
+      }
+    } finally {
+      syncLock.unlock();
+    }
+  }
+
+  private void flushQuietly() {
+    try {
+      flush();
+    } catch (RuntimeException e) {
+      LOG.error("Periodic payment journal flush failed", e);
+    }
+  }
+
+  // Called holding syncLock.
+  private void sync() {
+    Segment segment;
+    int from;
+    int to;
+    long target;
+    appendLock.lock();
+    try {
+      segment = activeSegment();
+      from = segment.flushedOffset;
+      to = segment.writeOffset;
+      target = appendedSequence;
+    } finally {
+      appendLock.unlock();
+    }
+    if (to > from) {
+      segment.buffer.force(from, to - from);
+      segment.flushedOffset = to;
+    }
+    durableSequence = target;
+  }
+
+  // Called holding appendLock.
+  private Segment roll(Segment full) {
+    if (fsyncPolicy != FsyncPolicy.NEVER && full.writeOffset > full.flushedOffset) {
+      full.buffer.force(full.flushedOffset, full.writeOffset - full.flushedOffset);
+      full.flushedOffset = full.writeOffset;
+    }
+    Segment next = createSegment(full.number + 1);
+    Segment[] current = segments;
+    Segment[] rolled = new Segment[current.length + 1];
+    System.arraycopy(current, 0, rolled, 0, current.length);
+    rolled[current.length] = next;
+    segments = rolled;
+    LOG.info("Payment journal rolled over to segment {}", next.path);
+    return next;
+  }
+
+  private Segment activeSegment() {
+    Segment[] current = segments;
+    return current[current.length - 1];
+  }
+
+  private void recover() {
+    try {
+      Files.createDirectories(directory);
+      List<Path> paths = new ArrayList<>();
+      try (Stream<Path> files = Files.list(directory)) {
+        files.filter(path -> SEGMENT_NAME.matcher(path.getFileName().toString()).matches())
+            .sorted()
+            .forEach(paths::add);
+      }
+      List<Segment> recovered = new ArrayList<>();
+      for (int i = 0; i < paths.size(); i++) {
+        Matcher matcher = SEGMENT_NAME.matcher(paths.get(i).getFileName().toString());
+        matcher.matches();
+        if (Integer.parseInt(matcher.group(1)) != i) {
+          throw new PaymentStorageException("Payment journal segment missing before " + paths.get(i));
+        }
+        recovered.add(openSegment(paths.get(i), i, i == paths.size() - 1));
+      }
+      if (recovered.isEmpty()) {
+        recovered.add(createSegment(0));
+      }
+      segments = recovered.toArray(new Segment[0]);
+    } catch (IOException e) {
+      throw new PaymentStorageException("Failed to open payment journal in " + directory, e);
+    }
+  }
+
+  private Segment createSegment(int number) {
+    Path path = directory.resolve(String.format("payments-%08d.journal", number));
+    try {
+      Segment segment = mapSegment(path, number);
+      segment.buffer.putInt(0, MAGIC);
+      segment.buffer.putInt(4, VERSION);
+      segment.buffer.putInt(8, RECORD_SIZE);
+      segment.buffer.force(0, RECORD_SIZE);
+      return segment;
+    } catch (IOException e) {
+      throw new PaymentStorageException("Failed to create payment journal segment " + path, e);
+    }
+  }
+
+  private Segment openSegment(Path path, int number, boolean active) throws IOException {
+    Segment segment = mapSegment(path, number);
+    MappedByteBuffer buffer = segment.buffer;
+    if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+        || buffer.getInt(8) != RECORD_SIZE) {
+      throw new PaymentStorageException("Unrecognised payment journal segment " + path);
+    }
+    int limit = buffer.capacity() - buffer.capacity() % RECORD_SIZE;
+    int offset = RECORD_SIZE;
+    byte[] record = new byte[RECORD_SIZE];
+    while (offset + RECORD_SIZE <= limit) {
+      buffer.get(offset, record);
+      if (record[MARKER_OFFSET] != COMMITTED || !checksumMatches(record)) {
+        break;
+      }
+      offset += RECORD_SIZE;
+    }
+    if (offset + RECORD_SIZE <= limit && hasData(buffer, offset, limit)) {
+      LOG.warn("Discarding torn or uncommitted payment journal records in {} from offset {}",
+          path, offset);
+      if (active) {
+        for (int i = offset; i < limit; i++) {
+          buffer.put(i, (byte) 0);
+        }
+        buffer.force(offset, limit - offset);
+      }
+    }
+    segment.writeOffset = offset;
+    segment.flushedOffset = offset;
+    return segment;
+  }
+
+  private Segment mapSegment(Path path, int number) throws IOException {
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE);
+    long size = Math.max(channel.size(), segmentSize);
+    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+        Math.min(size, Integer.MAX_VALUE));
+    return new Segment(path, number, channel, buffer);
+  }
+
+  private static boolean hasData(MappedByteBuffer buffer, int from, int to) {
+    for (int i = from; i < to; i++) {
+      if (buffer.get(i) != 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean checksumMatches(byte[] record) {
+    CRC32 checksum = new CRC32();
+    checksum.update(record, 0, PAYLOAD_SIZE);
+    return (int) checksum.getValue() == ByteBuffer.wrap(record).getInt(CRC_OFFSET);
+  }
+
+  // Called holding appendLock.
+  private void encode(PostPaymentResponse payment) {
+    ByteBuffer buffer = scratchBuffer;
+    UUID id = payment.getId();
+    buffer.putLong(0, id.getMostSignificantBits());
+    buffer.putLong(8, id.getLeastSignificantBits());
+    buffer.putInt(16, payment.getAmount());
+    buffer.putShort(20, (short) payment.getExpiryYear());
+    buffer.put(22, (byte) payment.getExpiryMonth());
+    buffer.put(23, payment.getStatus() == null ? -1 : (byte) payment.getStatus().ordinal());
+    writeAscii(buffer, 24, 4, payment.getCardNumberLastFour());
+    writeAscii(buffer, 28, 3, payment.getCurrency());
+    CardScheme scheme = payment.getScheme();
+    buffer.put(31, scheme == null ? 0 : scheme.getCode());
+    crc.reset();
+    crc.update(scratch, 0, PAYLOAD_SIZE);
+    buffer.putInt(CRC_OFFSET, (int) crc.getValue());
+  }
+
+  private static void writeAscii(ByteBuffer buffer, int offset, int length, String value) {
+    for (int i = 0; i < length; i++) {
+      char c = value != null && i < value.length() ? value.charAt(i) : 0;
+      buffer.put(offset + i, (byte) c);
+    }
+  }
+
+  private static String readAscii(MappedByteBuffer buffer, int offset, int length) {
+    byte[] bytes = new byte[length];
+    int size = 0;
+    while (size < length && (bytes[size] = buffer.get(offset + size)) != 0) {
+      size++;
+    }
+    return new String(bytes, 0, size, StandardCharsets.US_ASCII);
+  }
+
+  private static final class Segment {
+    final Path path;
+    final int number;
+    final FileChannel channel;
+    final MappedByteBuffer buffer;
+    // Volatile so scans see every record below it fully written.
+    volatile int writeOffset = RECORD_SIZE;
+    volatile int flushedOffset = RECORD_SIZE;
+
+    Segment(Path path, int number, FileChannel channel, MappedByteBuffer buffer) {
+      this.path = path;
+      this.number = number;
+      this.channel = channel;
+      this.buffer = buffer;
+    }
+  }
+}
@@ -0,0 +1,231 @@
+package com.checkout.payment.gateway.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gradient-based adaptive concurrency limit. Every successful call feeds its round-trip time into
+ * a short and a long exponential moving average; their ratio says whether the downstream is
+ * queueing:
+ *
+ * <pre>
+ *   gradient = clamp(rttTolerance * longRtt / shortRtt, 0.5, 1.0)
+ *   newLimit = limit * gradient + sqrt(limit)
+ *   limit    = limit * (1 - smoothing) + newLimit * smoothing
+ * </pre>
+ *
+ * <p>Stable latency lets the limit grow by the {@code sqrt(limit)} headroom; rising latency pulls
+ * it down. A long average more than twice the short one decays quickly, so a slow period or cold
+ * start does not leave an inflated baseline behind. Failed calls cut the limit multiplicatively
+ * by {@code backoffRatio}. The limit only grows while at least half of it is in use, so an idle
+ * client does not inflate it.
+ *
+ * <p>Callers over the limit wait up to {@code maxQueueWait} for a permit, at most
+ * {@code maxQueued} at a time; beyond that they are rejected immediately.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+  private final String name;
+  private final int minLimit;
+  private final int maxLimit;
+  private final double rttTolerance;
+  private final double smoothing;
+  private final double backoffRatio;
+  private final double shortAlpha;
+  private final double longAlpha;
+  private final int maxQueued;
+  private final long maxQueueWaitNanos;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition permitReleased = lock.newCondition();
+  private double limit;
+  private double shortRtt;
+  private double longRtt;
+  private volatile int inflight;
+  private volatile int queued;
+  private final LongAdder rejected = new LongAdder();
+
+  public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+      double rttTolerance, double smoothing, double backoffRatio, int shortWindow, int longWindow,
+      int maxQueued, Duration maxQueueWait) {
+    if (minLimit < 1 || maxLimit < minLimit) {
+      throw new IllegalArgumentException("Limits must satisfy 1 <= min <= max");
+    }
+    this.name = name;
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    this.rttTolerance = rttTolerance;
+    this.smoothing = smoothing;
+    this.backoffRatio = backoffRatio;
+    this.shortAlpha = 2.0 / (shortWindow + 1);
+    this.longAlpha = 2.0 / (longWindow + 1);
+    this.maxQueued = maxQueued;
+    this.maxQueueWaitNanos = maxQueueWait.toNanos();
+  }
+
+  /**
+   * Takes a permit, waiting briefly if the limit is reached. A successful acquire must be paired
+   * with exactly one of {@link #onSuccess(long)}, {@link #onFailure()} or {@link #onIgnore()}.
+   */
+  public boolean tryAcquire() {
+    lock.lock();
+    try {
+      if (inflight < (int) limit) {
+        inflight++;
+        return true;
+      }
+      if (queued >= maxQueued || maxQueueWaitNanos <= 0) {
+        rejected.increment();
+        return false;
+      }
+      queued++;
+      try {
+        long remaining = maxQueueWaitNanos;
+        while (inflight >= (int) limit) {
+          if (remaining <= 0) {
+            rejected.increment();
+            return false;
+          }
+          remaining = permitReleased.awaitNanos(remaining);
+        }
+        inflight++;
+        return true;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        rejected.increment();
+        return false;
+      } finally {
+        queued--;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Takes a permit only if one is free, without queueing, for callers that must not block. Pairs
+   * with the release methods like {@link #tryAcquire()}.
+   */
+  public boolean tryAcquireNow() {
+    lock.lock();
+    try {
+      if (inflight < (int) limit) {
+        inflight++;
+        return true;
+      }
+      rejected.increment();
+      return false;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Releases the permit and adjusts the limit from the call's round-trip time.
+   */
+  public void onSuccess(long rttNanos) {
+    lock.lock();
+    try {
+      int inUse = inflight;
+      inflight--;
+      if (shortRtt == 0) {
+        shortRtt = rttNanos;
+        longRtt = rttNanos;
+      } else {
+        shortRtt += (rttNanos - shortRtt) * shortAlpha;
+        longRtt += (rttNanos - longRtt) * longAlpha;
+        if (longRtt > 2 * shortRtt) {
+          // Latency recovered after a slow period (or a cold start): pull the baseline down
+          // faster than the long average alone would.
+          longRtt *= 0.95;
+        }
+      }
+      double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRtt / shortRtt));
+      double newLimit = limit * gradient + Math.sqrt(limit);
+      if (newLimit > limit && inUse < limit / 2) {
+        permitReleased.signal();
+        return;
+      }
+      updateLimit(limit * (1 - smoothing) + newLimit * smoothing);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Releases the permit of a failed or timed-out call and backs the limit off.
+   */
+  public void onFailure() {
+    lock.lock();
+    try {
+      inflight--;
+      updateLimit(limit * backoffRatio);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Releases the permit without taking a sample.
+   */
+  public void onIgnore() {
+    lock.lock();
+    try {
+      inflight--;
+      permitReleased.signal();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int getLimit() {
+    lock.lock();
+    try {
+      return (int) limit;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int getInflight() {
+    return inflight;
+  }
+
+  public int getQueued() {
+    return queued;
+  }
+
+  public long rejectedCount() {
+    return rejected.sum();
+  }
+
+  /**
+   * Short-window round-trip time estimate in milliseconds, 0 before the first sample.
+   */
+  public double getRttMillis() {
+    lock.lock();
+    try {
+      return shortRtt / TimeUnit.MILLISECONDS.toNanos(1);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  private void updateLimit(double newLimit) {
+    int previous = (int) limit;
+    limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    if ((int) limit > previous) {
+      permitReleased.signalAll();
+    } else {
+      permitReleased.signal();
+    }
+  }
+}
@@ -0,0 +1,180 @@
+package com.checkout.payment.gateway.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Sheds new work when its latency stays above a target, in the manner of CoDel. Every admitted
+ * call reports its latency, from admission to completion, so queueing in front of the downstream
+ * and the downstream's own latency are both counted. Latencies are grouped into intervals and
+ * only the shortest one of each interval is kept: a burst that drains within the interval leaves
+ * a short call behind, while a standing queue or a slow downstream makes every call slow.
+ *
+ * <p>When the shortest latency of an interval is above the target, the next interval admits
+ * only as many concurrent calls as Little's law allows at the target latency:
+ *
+ * <pre>
+ *   limit = max(minLimit, completedCalls * target / intervalLength)
+ * </pre>
+ *
+ * <p>If the downstream itself is slower than the target, the limit settles at {@code minLimit},
+ * which keeps a trickle of calls going, and their latency, to tell when it recovers.
+ *
+ * <p>Callers over the limit are rejected at once. The limit is lifted after the first interval
+ * whose shortest latency is back under the target. An interval in which nothing completed while
+ * calls were in flight counts as one long latency, so a downstream that stops answering is
+ * detected too.
+ */
+public class AdmissionController {
+
+  private final String name;
+  private final long targetNanos;
+  private final long intervalNanos;
+  private final int minLimit;
+  private final LongSupplier nanoClock;
+
+  private final AtomicInteger inflight = new AtomicInteger();
+  private final LongAdder rejected = new LongAdder();
+  private final ReentrantLock lock = new ReentrantLock();
+  private volatile long intervalStart;
+  private long intervalMinLatency = Long.MAX_VALUE;
+  private int intervalCompletions;
+  private int intervalStartInflight;
+  private volatile long lastMinLatency;
+  private volatile int limit = Integer.MAX_VALUE;
+
+  /**
+   * @param target   latency above which calls are shed, zero to admit every call
+   * @param interval length of the window the shortest latency is taken over
+   * @param minLimit concurrent calls admitted while shedding however slow they are
+   */
+  public AdmissionController(String name, Duration target, Duration interval, int minLimit) {
+    this(name, target, interval, minLimit, System::nanoTime);
+  }
+
+  AdmissionController(String name, Duration target, Duration interval, int minLimit,
+      LongSupplier nanoClock) {
+    if (target.isNegative() || interval.isNegative() || interval.isZero() || minLimit < 1) {
+      throw new IllegalArgumentException(
+          "Target must not be negative, interval and minimum limit must be positive");
+    }
+    this.name = name;
+    this.targetNanos = target.toNanos();
+    this.intervalNanos = interval.toNanos();
+    this.minLimit = minLimit;
+    this.nanoClock = nanoClock;
+    this.intervalStart = nanoClock.getAsLong();
+  }
+
+  /**
+   * Admits a call unless latency is above the target and the limit is reached. A successful
+   * acquire must be paired with exactly one of {@link #onComplete(long)} or {@link #onIgnore()}.
+   */
+  public boolean tryAcquire() {
+    if (targetNanos == 0) {
+      return true;
+    }
+    rollIfElapsed(nanoClock.getAsLong());
+    while (true) {
+      int current = inflight.get();
+      if (current >= limit) {
+        rejected.increment();
+        return false;
+      }
+      if (inflight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Releases the call and records its latency from admission to completion.
+   */
+  public void onComplete(long latencyNanos) {
+    if (targetNanos == 0) {
+      return;
+    }
+    inflight.decrementAndGet();
+    long now = nanoClock.getAsLong();
+    lock.lock();
+    try {
+      intervalMinLatency = Math.min(intervalMinLatency, latencyNanos);
+      intervalCompletions++;
+    } finally {
+      lock.unlock();
+    }
+    rollIfElapsed(now);
+  }
+
+  /**
+   * Releases the call without recording a latency.
+   */
+  public void onIgnore() {
+    if (targetNanos != 0) {
+      inflight.decrementAndGet();
+    }
+  }
+
+  public boolean isShedding() {
+    return limit != Integer.MAX_VALUE;
+  }
+
+  /**
+   * Concurrent calls admitted while shedding, 0 while every call is admitted.
+   */
+  public int getLimit() {
+    int current = limit;
+    return current == Integer.MAX_VALUE ? 0 : current;
+  }
+
+  public int getInflight() {
+    return inflight.get();
+  }
+
+  /**
+   * Shortest latency of the last completed interval in milliseconds.
+   */
+  public double getLatencyMillis() {
+    return lastMinLatency / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  public long rejectedCount() {
+    return rejected.sum();
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  private void rollIfElapsed(long now) {
+    if (now - intervalStart < intervalNanos || !lock.tryLock()) {
+      return;
+    }
+    try {
+      long elapsed = now - intervalStart;
+      if (elapsed < intervalNanos) {
+        return;
+      }
+      long minLatency = intervalMinLatency;
+      if (intervalCompletions == 0) {
+        // Calls in flight for the whole interval are at least that slow.
+        minLatency = intervalStartInflight > 0 ? elapsed : 0;
+      }
+      lastMinLatency = minLatency;
+      limit = minLatency > targetNanos
+          ? (int) Math.max(minLimit, Math.min(Integer.MAX_VALUE - 1,
+              intervalCompletions * targetNanos / elapsed))
+          : Integer.MAX_VALUE;
+      intervalStart = now;
+      intervalMinLatency = Long.MAX_VALUE;
+      intervalCompletions = 0;
+      intervalStartInflight = inflight.get();
+    } finally {
+      lock.unlock();
+    }
+  }
+}
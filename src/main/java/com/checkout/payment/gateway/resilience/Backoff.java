@@ -0,0 +1,40 @@
+package com.checkout.payment.gateway.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Exponential backoff with full jitter: the wait before retry {@code n} is uniformly random
+ * between zero and {@code min(maxDelay, baseDelay * 2^(n-1))}. The randomness spreads out clients
+ * that failed together, so their retries do not arrive as another synchronized wave.
+ */
+public class Backoff {
+
+  private final long baseDelayNanos;
+  private final long maxDelayNanos;
+  private final DoubleSupplier random;
+
+  public Backoff(Duration baseDelay, Duration maxDelay) {
+    this(baseDelay, maxDelay, () -> ThreadLocalRandom.current().nextDouble());
+  }
+
+  Backoff(Duration baseDelay, Duration maxDelay, DoubleSupplier random) {
+    if (baseDelay.isNegative() || maxDelay.compareTo(baseDelay) < 0) {
+      throw new IllegalArgumentException("Delays must satisfy 0 <= base <= max");
+    }
+    this.baseDelayNanos = baseDelay.toNanos();
+    this.maxDelayNanos = maxDelay.toNanos();
+    this.random = random;
+  }
+
+  /**
+   * Returns the wait before the given retry, counting from 1.
+   */
+  public Duration delay(int retry) {
+    int doublings = Math.min(Math.max(retry - 1, 0), 62);
+    long ceiling = baseDelayNanos > maxDelayNanos >> doublings
+        ? maxDelayNanos : baseDelayNanos << doublings;
+    return Duration.ofNanos((long) (random.getAsDouble() * ceiling));
+  }
+}
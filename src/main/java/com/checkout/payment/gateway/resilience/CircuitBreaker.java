@@ -0,0 +1,223 @@
+package com.checkout.payment.gateway.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Count-based circuit breaker. While {@link State#CLOSED} the outcomes of the last
+ * {@code windowSize} calls are kept; once at least {@code minimumCalls} are recorded and either
+ * the failure rate or the slow-call rate reaches its threshold the circuit opens and calls are
+ * rejected for {@code openDuration}. After that, {@code halfOpenCalls} trial calls are let
+ * through and their rates decide between closing and opening again.
+ */
+public class CircuitBreaker {
+
+  private static final Logger LOG = LoggerFactory.getLogger(CircuitBreaker.class);
+
+  private static final byte FAILURE = 1;
+  private static final byte SLOW = 2;
+
+  public enum State {
+    CLOSED, OPEN, HALF_OPEN
+  }
+
+  private final String name;
+  private final int minimumCalls;
+  private final int failureRateThreshold;
+  private final int slowCallRateThreshold;
+  private final long slowCallNanos;
+  private final long openNanos;
+  private final int halfOpenCalls;
+  private final LongSupplier nanoClock;
+
+  private final byte[] window;
+  private int head;
+  private int recorded;
+  private int failures;
+  private int slowCalls;
+
+  private volatile State state = State.CLOSED;
+  private long openedAt;
+  private int halfOpenPermits;
+  private int halfOpenCompleted;
+  private int halfOpenFailures;
+  private int halfOpenSlowCalls;
+
+  private final LongAdder rejected = new LongAdder();
+  private final AtomicLongArray transitions = new AtomicLongArray(State.values().length);
+
+  public CircuitBreaker(String name, int windowSize, int minimumCalls, int failureRateThreshold,
+      int slowCallRateThreshold, Duration slowCallDuration, Duration openDuration,
+      int halfOpenCalls) {
+    this(name, windowSize, minimumCalls, failureRateThreshold, slowCallRateThreshold,
+        slowCallDuration, openDuration, halfOpenCalls, System::nanoTime);
+  }
+
+  CircuitBreaker(String name, int windowSize, int minimumCalls, int failureRateThreshold,
+      int slowCallRateThreshold, Duration slowCallDuration, Duration openDuration,
+      int halfOpenCalls, LongSupplier nanoClock) {
+    if (windowSize < 1 || minimumCalls < 1 || halfOpenCalls < 1) {
+      throw new IllegalArgumentException(
+          "Window size, minimum calls and half-open calls must be positive");
+    }
+    this.name = name;
+    this.window = new byte[windowSize];
+    this.minimumCalls = Math.min(minimumCalls, windowSize);
+    this.failureRateThreshold = failureRateThreshold;
+    this.slowCallRateThreshold = slowCallRateThreshold;
+    this.slowCallNanos = slowCallDuration.toNanos();
+    this.openNanos = openDuration.toNanos();
+    this.halfOpenCalls = halfOpenCalls;
+    this.nanoClock = nanoClock;
+  }
+
+  /**
+   * Returns {@code true} if a call may proceed; its outcome must then be reported through
+   * {@link #onSuccess(long)}, {@link #onFailure(long)} or {@link #onIgnore()}. Lock-free while the
+   * circuit is closed.
+   */
+  public boolean tryAcquirePermission() {
+    if (state == State.CLOSED) {
+      return true;
+    }
+    synchronized (this) {
+      if (state == State.OPEN && nanoClock.getAsLong() - openedAt >= openNanos) {
+        transitionTo(State.HALF_OPEN);
+      }
+      if (state == State.CLOSED) {
+        return true;
+      }
+      if (state == State.HALF_OPEN && halfOpenPermits > 0) {
+        halfOpenPermits--;
+        return true;
+      }
+    }
+    rejected.increment();
+    return false;
+  }
+
+  public void onSuccess(long durationNanos) {
+    record(false, durationNanos >= slowCallNanos);
+  }
+
+  public void onFailure(long durationNanos) {
+    record(true, durationNanos >= slowCallNanos);
+  }
+
+  /**
+   * Hands back the permission of a call that never reached the protected resource.
+   */
+  public synchronized void onIgnore() {
+    if (state == State.HALF_OPEN) {
+      halfOpenPermits++;
+    }
+  }
+
+  public State getState() {
+    return state;
+  }
+
+  /**
+   * Time left before the open circuit lets trial calls through, or zero if it is not open.
+   */
+  public synchronized Duration remainingOpenDuration() {
+    if (state != State.OPEN) {
+      return Duration.ZERO;
+    }
+    return Duration.ofNanos(Math.max(0, openNanos - (nanoClock.getAsLong() - openedAt)));
+  }
+
+  /**
+   * Failure rate in percent over the current window, or -1 until {@code minimumCalls} outcomes
+   * have been recorded.
+   */
+  public synchronized float failureRate() {
+    return recorded < minimumCalls ? -1 : failures * 100f / recorded;
+  }
+
+  public synchronized float slowCallRate() {
+    return recorded < minimumCalls ? -1 : slowCalls * 100f / recorded;
+  }
+
+  public long rejectedCount() {
+    return rejected.sum();
+  }
+
+  public long transitionCount(State to) {
+    return transitions.get(to.ordinal());
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  private synchronized void record(boolean failure, boolean slow) {
+    switch (state) {
+      case CLOSED -> {
+        byte outcome = (byte) ((failure ? FAILURE : 0) | (slow ? SLOW : 0));
+        if (recorded == window.length) {
+          byte evicted = window[head];
+          failures -= evicted & FAILURE;
+          slowCalls -= (evicted & SLOW) >> 1;
+        } else {
+          recorded++;
+        }
+        window[head] = outcome;
+        head = (head + 1) % window.length;
+        failures += outcome & FAILURE;
+        slowCalls += (outcome & SLOW) >> 1;
+        if (recorded >= minimumCalls
+            && exceedsThresholds(failures, slowCalls, recorded)) {
+          transitionTo(State.OPEN);
+        }
+      }
+      case HALF_OPEN -> {
+        halfOpenCompleted++;
+        halfOpenFailures += failure ? 1 : 0;
+        halfOpenSlowCalls += slow ? 1 : 0;
+        if (halfOpenCompleted >= halfOpenCalls) {
+          transitionTo(exceedsThresholds(halfOpenFailures, halfOpenSlowCalls, halfOpenCompleted)
+              ? State.OPEN : State.CLOSED);
+        }
+      }
+      case OPEN -> {
+        // Late outcome of a call admitted before the circuit opened.
+      }
+    }
+  }
+
+  private boolean exceedsThresholds(int failed, int slow, int total) {
+    return failed * 100L >= (long) failureRateThreshold * total
+        || slow * 100L >= (long) slowCallRateThreshold * total;
+  }
+
+  private void transitionTo(State next) {
+    State previous = state;
+    switch (next) {
+      case OPEN -> openedAt = nanoClock.getAsLong();
+      case HALF_OPEN -> {
+        halfOpenPermits = halfOpenCalls;
+        halfOpenCompleted = 0;
+        halfOpenFailures = 0;
+        halfOpenSlowCalls = 0;
+      }
+      case CLOSED -> {
+        head = 0;
+        recorded = 0;
+        failures = 0;
+        slowCalls = 0;
+      }
+    }
+    state = next;
+    transitions.incrementAndGet(next.ordinal());
+    if (next == State.CLOSED) {
+      LOG.info("Circuit breaker {} changed state from {} to {}", name, previous, next);
+    } else {
+      LOG.warn("Circuit breaker {} changed state from {} to {}", name, previous, next);
+    }
+  }
+}
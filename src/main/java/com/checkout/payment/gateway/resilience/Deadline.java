@@ -0,0 +1,53 @@
+package com.checkout.payment.gateway.resilience;
+
+import java.time.Duration;
+
+/**
+ * The time by which a request must be answered, on the {@link System#nanoTime()} clock. It is
+ * carried with the request, so every stage can tell how much of the budget is left and drop work
+ * that can no longer be answered in time.
+ */
+public final class Deadline {
+
+  private final long startedAt;
+  private final long expiresAt;
+
+  private Deadline(long startedAt, long expiresAt) {
+    this.startedAt = startedAt;
+    this.expiresAt = expiresAt;
+  }
+
+  /**
+   * Returns a deadline {@code timeout} from now; a zero or negative timeout has already expired.
+   */
+  public static Deadline after(Duration timeout) {
+    long now = System.nanoTime();
+    return new Deadline(now, now + Math.max(0, timeout.toNanos()));
+  }
+
+  public boolean isExpired() {
+    return expiresAt - System.nanoTime() <= 0;
+  }
+
+  /**
+   * Time left before the deadline, zero once it has expired.
+   */
+  public Duration remaining() {
+    return Duration.ofNanos(Math.max(0, expiresAt - System.nanoTime()));
+  }
+
+  /**
+   * Returns {@code timeout}, or the time left if that is shorter.
+   */
+  public Duration cap(Duration timeout) {
+    Duration remaining = remaining();
+    return remaining.compareTo(timeout) < 0 ? remaining : timeout;
+  }
+
+  /**
+   * Time since the deadline was set.
+   */
+  public long elapsedNanos() {
+    return System.nanoTime() - startedAt;
+  }
+}
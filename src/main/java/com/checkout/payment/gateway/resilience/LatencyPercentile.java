@@ -0,0 +1,49 @@
+package com.checkout.payment.gateway.resilience;
+
+import java.util.Arrays;
+
+/**
+ * A latency percentile over the last {@code window} samples. The samples are sorted again after
+ * every tenth of the window rather than on every read, so reads are a volatile load and the value
+ * trails the traffic by at most that many samples. Unknown (-1) until a tenth of the window has
+ * been recorded.
+ */
+public class LatencyPercentile {
+
+  private final double percentile;
+  private final long[] samples;
+  private final int updateEvery;
+
+  private int next;
+  private int size;
+  private int sinceUpdate;
+  private volatile long valueNanos = -1;
+
+  public LatencyPercentile(double percentile, int window) {
+    if (percentile <= 0 || percentile >= 1 || window < 1) {
+      throw new IllegalArgumentException("Percentile must be in (0, 1) and window positive");
+    }
+    this.percentile = percentile;
+    this.samples = new long[window];
+    this.updateEvery = Math.max(1, window / 10);
+  }
+
+  public synchronized void record(long latencyNanos) {
+    samples[next] = latencyNanos;
+    next = (next + 1) % samples.length;
+    size = Math.min(size + 1, samples.length);
+    if (++sinceUpdate >= updateEvery) {
+      sinceUpdate = 0;
+      long[] sorted = Arrays.copyOf(samples, size);
+      Arrays.sort(sorted);
+      valueNanos = sorted[(int) Math.ceil(percentile * size) - 1];
+    }
+  }
+
+  /**
+   * Returns the percentile in nanoseconds, or -1 while there are too few samples.
+   */
+  public long getNanos() {
+    return valueNanos;
+  }
+}
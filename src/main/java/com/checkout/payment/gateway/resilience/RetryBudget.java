@@ -0,0 +1,102 @@
+package com.checkout.payment.gateway.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Caps the extra calls (retries and hedges) made to a downstream at a share of its first
+ * attempts, so a failing downstream sees at most {@code 1 + ratio} times its normal load instead
+ * of {@code maxAttempts} times. Every first attempt deposits {@code ratio} of a token, every extra
+ * call withdraws a whole one. A trickle of {@code minPerSecond} tokens keeps retries possible at
+ * low traffic. The balance never exceeds one second's worth of both, so a quiet period does not
+ * bank a burst of retries for the next outage.
+ */
+public class RetryBudget {
+
+  private final String name;
+  private final double ratio;
+  private final double minPerSecond;
+  private final LongSupplier nanoClock;
+
+  private double balance;
+  private double requestsPerSecond;
+  private long lastRefill;
+  private long windowStart;
+  private long windowRequests;
+  private final LongAdder withdrawn = new LongAdder();
+  private final LongAdder exhausted = new LongAdder();
+
+  public RetryBudget(String name, double ratio, int minPerSecond) {
+    this(name, ratio, minPerSecond, System::nanoTime);
+  }
+
+  RetryBudget(String name, double ratio, int minPerSecond, LongSupplier nanoClock) {
+    if (ratio < 0 || minPerSecond < 0) {
+      throw new IllegalArgumentException("Retry budget ratio and minimum must not be negative");
+    }
+    this.name = name;
+    this.ratio = ratio;
+    this.minPerSecond = minPerSecond;
+    this.nanoClock = nanoClock;
+    this.lastRefill = nanoClock.getAsLong();
+    this.windowStart = lastRefill;
+    this.balance = minPerSecond;
+  }
+
+  /**
+   * Records a first attempt.
+   */
+  public synchronized void onRequest() {
+    refill();
+    windowRequests++;
+    balance = Math.min(capacity(), balance + ratio);
+  }
+
+  /**
+   * Takes a token for an extra call, or returns {@code false} when the budget is spent.
+   */
+  public synchronized boolean tryWithdraw() {
+    refill();
+    if (balance < 1) {
+      exhausted.increment();
+      return false;
+    }
+    balance--;
+    withdrawn.increment();
+    return true;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public synchronized double getBalance() {
+    refill();
+    return balance;
+  }
+
+  public long withdrawnCount() {
+    return withdrawn.sum();
+  }
+
+  public long exhaustedCount() {
+    return exhausted.sum();
+  }
+
+  private void refill() {
+    long now = nanoClock.getAsLong();
+    long second = TimeUnit.SECONDS.toNanos(1);
+    if (now - windowStart >= second) {
+      requestsPerSecond = windowRequests * (double) second / (now - windowStart);
+      windowRequests = 0;
+      windowStart = now;
+    }
+    balance = Math.min(capacity(), balance + minPerSecond * (now - lastRefill) / second);
+    lastRefill = now;
+  }
+
+  private double capacity() {
+    return Math.max(1, minPerSecond + requestsPerSecond * ratio);
+  }
+}
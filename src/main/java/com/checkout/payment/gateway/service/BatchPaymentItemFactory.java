@@ -0,0 +1,79 @@
+package com.checkout.payment.gateway.service;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.handler.CommonExceptionHandler;
+import com.checkout.payment.gateway.model.BatchPaymentItemResponse;
+import com.checkout.payment.gateway.model.ErrorResponse;
+import com.checkout.payment.gateway.model.ErrorResponseStatus;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.validation.Validator;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+/**
+ * Validates and renders the items of batch and streamed submissions so that each item gets the
+ * status and body the same request would have got from a single {@code POST /v1/payments}.
+ */
+@Component
+public class BatchPaymentItemFactory {
+
+  private final SpringValidatorAdapter validator;
+  private final CommonExceptionHandler exceptionHandler;
+
+  public BatchPaymentItemFactory(Validator validator, CommonExceptionHandler exceptionHandler) {
+    this.validator = new SpringValidatorAdapter(validator);
+    this.exceptionHandler = exceptionHandler;
+  }
+
+  /**
+   * Returns the rejected item for an invalid request, or {@code null} when it may be authorized.
+   */
+  public BatchPaymentItemResponse validate(int index, PostPaymentRequest request) {
+    if (request == null) {
+      return BatchPaymentItemResponse.failed(index, new ResponseEntity<>(
+          new ErrorResponseStatus(PaymentStatus.REJECTED.getName(),
+              "Payment request must not be empty"), HttpStatus.BAD_REQUEST));
+    }
+    BindingResult bindingResult = validationErrors(request);
+    return bindingResult == null ? null : BatchPaymentItemResponse.failed(index,
+        exceptionHandler.handleValidationErrors(bindingResult));
+  }
+
+  /**
+   * Returns the broken rules of the request, or {@code null} if it is valid. Requests verified
+   * while they were read are not validated again.
+   */
+  public BindingResult validationErrors(PostPaymentRequest request) {
+    if (request.isVerified()) {
+      return null;
+    }
+    BindingResult bindingResult = new BeanPropertyBindingResult(request, "postPaymentRequest");
+    validator.validate(request, bindingResult);
+    return bindingResult.hasErrors() ? bindingResult : null;
+  }
+
+  public BatchPaymentItemResponse completed(int index, PostPaymentResponse response,
+      Throwable failure) {
+    return failure == null
+        ? BatchPaymentItemResponse.processed(index, response)
+        : BatchPaymentItemResponse.failed(index, exceptionHandler.handleBatchItemFailure(failure));
+  }
+
+  public BatchPaymentItemResponse malformed(int index, JsonProcessingException ex) {
+    return BatchPaymentItemResponse.failed(index, new ResponseEntity<>(
+        new ErrorResponse("JSON parse error: " + ex.getOriginalMessage()),
+        HttpStatus.BAD_REQUEST));
+  }
+
+  public BatchPaymentItemResponse tooLarge(int index, int maxRecordBytes) {
+    return BatchPaymentItemResponse.failed(index, new ResponseEntity<>(
+        new ErrorResponse("Payment record exceeds " + maxRecordBytes + " bytes"),
+        HttpStatus.BAD_REQUEST));
+  }
+}
@@ -0,0 +1,123 @@
+package com.checkout.payment.gateway.service;
+
+import com.checkout.payment.gateway.exception.ServiceOverloadedException;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.resilience.AdmissionController;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Authorizes a batch of payments through {@link PaymentGatewayService} with at most
+ * {@code parallelism} payments in flight; each completion starts the next pending payment.
+ * Every payment passes the same {@link AdmissionController} as a single one, so while payment
+ * latency is above target the items over its limit fail at once instead of reaching the bank.
+ */
+@Service
+public class BatchPaymentService {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BatchPaymentService.class);
+
+  private final PaymentGatewayService paymentGatewayService;
+  private final ExecutorService batchPaymentExecutor;
+  private final int parallelism;
+  private final AdmissionController admissionController;
+  private final Duration admissionRetryAfter;
+
+  public BatchPaymentService(PaymentGatewayService paymentGatewayService,
+      @Qualifier("batchPaymentExecutor") ExecutorService batchPaymentExecutor,
+      @Value("${payments.batch.parallelism:32}") int parallelism,
+      AdmissionController paymentAdmissionController,
+      @Value("${payments.admission.retry-after:1s}") Duration admissionRetryAfter) {
+    this.paymentGatewayService = paymentGatewayService;
+    this.batchPaymentExecutor = batchPaymentExecutor;
+    this.parallelism = parallelism;
+    this.admissionController = paymentAdmissionController;
+    this.admissionRetryAfter = admissionRetryAfter;
+  }
+
+  /**
+   * Returns one future per request, in request order. A failed payment only fails its own future.
+   */
+  public List<CompletableFuture<PostPaymentResponse>> processPayments(
+      List<PostPaymentRequest> paymentRequests) {
+    LOG.info("Processing batch of {} payments", paymentRequests.size());
+    List<CompletableFuture<PostPaymentResponse>> results =
+        new ArrayList<>(paymentRequests.size());
+    for (int i = 0; i < paymentRequests.size(); i++) {
+      results.add(new CompletableFuture<>());
+    }
+    AtomicInteger next = new AtomicInteger();
+    for (int i = 0; i < Math.min(parallelism, paymentRequests.size()); i++) {
+      submitNext(paymentRequests, results, next);
+    }
+    return results;
+  }
+
+  /**
+   * Authorizes one payment on the batch executor without a concurrency bound of its own; the
+   * caller limits how many it keeps in flight. The future fails with the unwrapped cause, or
+   * with {@link ServiceOverloadedException} if admission control turned the payment away.
+   */
+  public CompletableFuture<PostPaymentResponse> submitPayment(PostPaymentRequest paymentRequest) {
+    CompletableFuture<PostPaymentResponse> result = new CompletableFuture<>();
+    if (!admissionController.tryAcquire()) {
+      result.completeExceptionally(new ServiceOverloadedException(
+          "Payment latency is above the admission target", admissionRetryAfter));
+      return result;
+    }
+    long start = System.nanoTime();
+    try {
+      batchPaymentExecutor.execute(() -> {
+        CompletableFuture<PostPaymentResponse> payment;
+        try {
+          payment = paymentGatewayService.processPaymentAsync(paymentRequest);
+        } catch (RuntimeException e) {
+          payment = CompletableFuture.failedFuture(e);
+        }
+        payment.whenComplete((response, failure) -> {
+          admissionController.onComplete(System.nanoTime() - start);
+          if (failure == null) {
+            result.complete(response);
+          } else {
+            result.completeExceptionally(
+                failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause() : failure);
+          }
+        });
+      });
+    } catch (RejectedExecutionException e) {
+      admissionController.onIgnore();
+      result.completeExceptionally(e);
+    }
+    return result;
+  }
+
+  private void submitNext(List<PostPaymentRequest> paymentRequests,
+      List<CompletableFuture<PostPaymentResponse>> results, AtomicInteger next) {
+    int index = next.getAndIncrement();
+    if (index >= paymentRequests.size()) {
+      return;
+    }
+    CompletableFuture<PostPaymentResponse> result = results.get(index);
+    submitPayment(paymentRequests.get(index)).whenComplete((response, failure) -> {
+      if (failure == null) {
+        result.complete(response);
+      } else {
+        result.completeExceptionally(failure);
+      }
+      submitNext(paymentRequests, results, next);
+    });
+  }
+}
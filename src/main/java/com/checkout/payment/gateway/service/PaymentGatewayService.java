@@ -1,14 +1,24 @@
 package com.checkout.payment.gateway.service;
 
+import com.checkout.payment.gateway.bin.CardSchemeDetector;
+import com.checkout.payment.gateway.client.BankSimulatorAsyncInterface;
 import com.checkout.payment.gateway.client.BankSimulatorInterface;
 import com.checkout.payment.gateway.enums.PaymentStatus;
-import com.checkout.payment.gateway.exception.EntityNotFoundException;
+import com.checkout.payment.gateway.exception.DeadlineExceededException;
+import com.checkout.payment.gateway.generator.PaymentIdGenerator;
 import com.checkout.payment.gateway.model.PostPaymentRequest;
 import com.checkout.payment.gateway.model.PostPaymentResponse;
 import com.checkout.payment.gateway.repository.PaymentsRepository;
+import com.checkout.payment.gateway.resilience.Deadline;
+import com.checkout.payment.gateway.service.PaymentStageMetrics.Stage;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -18,38 +28,140 @@ public class PaymentGatewayService {
 
   private final PaymentsRepository paymentsRepository;
   private final BankSimulatorInterface bankSimulatorClient;
+  private final BankSimulatorAsyncInterface bankSimulatorAsyncClient;
+  private final PaymentIdGenerator paymentIdGenerator;
+  private final CardSchemeDetector cardSchemeDetector;
+  private final PaymentStageMetrics stageMetrics;
+  private final Executor paymentStorageExecutor;
 
   public PaymentGatewayService(PaymentsRepository paymentsRepository,
-      BankSimulatorInterface bankSimulatorClient) {
+      BankSimulatorInterface bankSimulatorClient,
+      BankSimulatorAsyncInterface bankSimulatorAsyncClient,
+      PaymentIdGenerator paymentIdGenerator,
+      CardSchemeDetector cardSchemeDetector,
+      PaymentStageMetrics stageMetrics,
+      @Qualifier("paymentStorageExecutor") Executor paymentStorageExecutor) {
     this.paymentsRepository = paymentsRepository;
     this.bankSimulatorClient = bankSimulatorClient;
+    this.bankSimulatorAsyncClient = bankSimulatorAsyncClient;
+    this.paymentIdGenerator = paymentIdGenerator;
+    this.cardSchemeDetector = cardSchemeDetector;
+    this.stageMetrics = stageMetrics;
+    this.paymentStorageExecutor = paymentStorageExecutor;
   }
 
-  public PostPaymentResponse getPaymentById(UUID id) {
-    LOG.info("Requesting access to the payment with ID {}", id);
-    return paymentsRepository.get(id)
-        .orElseThrow(() -> {
-          LOG.warn("Payment not found. Payment ID: {}", id);
-          return new EntityNotFoundException("Payment not found. Payment ID: " + id);
-        });
+  /**
+   * Returns the payment, or empty if there is none. Unknown IDs are expected traffic (scanners,
+   * stale links), so they are neither logged above debug nor turned into exceptions.
+   */
+  public Optional<PostPaymentResponse> getPaymentById(UUID id) {
+    LOG.debug("Requesting access to the payment with ID {}", id);
+    return paymentsRepository.get(id);
   }
 
   public PostPaymentResponse processPayment(PostPaymentRequest paymentRequest) {
-    UUID paymentId = UUID.randomUUID();
+    UUID paymentId = startPayment();
 
+    PaymentStatus paymentStatus = authorize(paymentId, paymentRequest);
+
+    return completePayment(paymentId, paymentRequest, paymentStatus);
+  }
+
+  /**
+   * Authorizes the payment without blocking the caller. An answer still pending when the bank
+   * client returns arrives on its callback threads, which are few, so the payment is then stored
+   * on {@code paymentStorageExecutor}: a slow repository write or journal sync never holds up
+   * other payments' callbacks. An answer that is already there, as from the blocking client, is
+   * stored on the calling thread.
+   */
+  public CompletableFuture<PostPaymentResponse> processPaymentAsync(
+      PostPaymentRequest paymentRequest) {
+    UUID paymentId = startPayment();
+    try {
+      checkDeadline(paymentId, paymentRequest);
+    } catch (DeadlineExceededException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+
+    long start = System.nanoTime();
+    CompletableFuture<PaymentStatus> bankAnswer = bankSimulatorAsyncClient
+        .makePaymentAsync(paymentId, paymentRequest)
+        .whenComplete((paymentStatus, failure) -> bankCallCompleted(start, failure));
+    if (bankAnswer.isDone()) {
+      return bankAnswer.thenApply(
+          paymentStatus -> completePayment(paymentId, paymentRequest, paymentStatus));
+    }
+    return bankAnswer.thenApplyAsync(
+        paymentStatus -> completePayment(paymentId, paymentRequest, paymentStatus),
+        paymentStorageExecutor);
+  }
+
+  // The steps of processPayment, run separately by the PaymentPipeline stages.
+
+  UUID startPayment() {
+    UUID paymentId = paymentIdGenerator.nextId();
     LOG.info("Processing payment with payment ID: {}", paymentId);
+    return paymentId;
+  }
 
-    PaymentStatus paymentStatus = bankSimulatorClient.makePayment(paymentId, paymentRequest);
+  /**
+   * Asks the bank, unless the request deadline has already expired.
+   *
+   * @throws DeadlineExceededException if the deadline expired before or during the bank call
+   */
+  PaymentStatus authorize(UUID paymentId, PostPaymentRequest paymentRequest) {
+    checkDeadline(paymentId, paymentRequest);
+    long start = System.nanoTime();
+    RuntimeException failure = null;
+    try {
+      return bankSimulatorClient.makePayment(paymentId, paymentRequest);
+    } catch (RuntimeException e) {
+      failure = e;
+      throw e;
+    } finally {
+      bankCallCompleted(start, failure);
+    }
+  }
 
+  PostPaymentResponse completePayment(UUID paymentId, PostPaymentRequest paymentRequest,
+      PaymentStatus paymentStatus) {
+    long start = System.nanoTime();
     PostPaymentResponse postPaymentResponse = buildResponse(paymentId, paymentRequest,
         paymentStatus);
     if (paymentStatus == PaymentStatus.AUTHORIZED || paymentStatus == PaymentStatus.DECLINED) {
       LOG.info("Payment processed with ID: {}, status: {}", paymentId, paymentStatus);
       paymentsRepository.add(postPaymentResponse);
     }
+    stageMetrics.record(Stage.PERSIST, System.nanoTime() - start);
     return postPaymentResponse;
   }
 
+  /**
+   * Records the time the payment spent before the bank, and drops it if its deadline expired
+   * meanwhile: nobody is waiting for the answer any more, and the bank has not seen it yet.
+   */
+  private void checkDeadline(UUID paymentId, PostPaymentRequest paymentRequest) {
+    Deadline deadline = paymentRequest.getDeadline();
+    if (deadline == null) {
+      return;
+    }
+    stageMetrics.record(Stage.QUEUE, deadline.elapsedNanos());
+    if (deadline.isExpired()) {
+      stageMetrics.deadlineExceeded(Stage.QUEUE);
+      throw new DeadlineExceededException(
+          "Deadline expired before payment ID: " + paymentId + " reached the bank");
+    }
+  }
+
+  private void bankCallCompleted(long start, Throwable failure) {
+    stageMetrics.record(Stage.BANK, System.nanoTime() - start);
+    Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+        ? failure.getCause() : failure;
+    if (cause instanceof DeadlineExceededException) {
+      stageMetrics.deadlineExceeded(Stage.BANK);
+    }
+  }
+
   private PostPaymentResponse buildResponse(UUID id, PostPaymentRequest request,
       PaymentStatus status) {
     var response = new PostPaymentResponse();
@@ -60,6 +172,7 @@ public class PaymentGatewayService {
     response.setExpiryYear(request.getExpiryYear());
     response.setCurrency(request.getCurrency());
     response.setAmount(request.getAmount());
+    response.setScheme(cardSchemeDetector.detect(request.getCardNumber()));
 
     return response;
   }
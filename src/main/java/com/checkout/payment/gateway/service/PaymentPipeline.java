@@ -0,0 +1,129 @@
+package com.checkout.payment.gateway.service;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.InvalidPaymentRequestException;
+import com.checkout.payment.gateway.exception.ServiceOverloadedException;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.BindingResult;
+
+/**
+ * Runs {@link PaymentGatewayService#processPayment} as three {@link PipelineStage}s, each with
+ * its own bounded queue and workers, instead of on the request thread:
+ * <ol>
+ *   <li>validate: checks the request and assigns the payment ID,</li>
+ *   <li>authorize: asks the bank,</li>
+ *   <li>persist: builds the response and stores the payment.</li>
+ * </ol>
+ * Only the validate queue turns payments away: when it is full {@link #submit} throws a
+ * {@link ServiceOverloadedException} at once, which is answered with 503. Later stages are
+ * entered with a blocking put, so a payment the bank has seen is never dropped, and a slow stage
+ * fills the queues in front of it until new payments are turned away at the door.
+ */
+@Service
+@ConditionalOnProperty(name = "payments.pipeline.enabled", havingValue = "true")
+public class PaymentPipeline implements AutoCloseable {
+
+  private final PaymentGatewayService paymentGatewayService;
+  private final BatchPaymentItemFactory itemFactory;
+  private final Duration retryAfter;
+  private final PipelineStage validate;
+  private final PipelineStage authorize;
+  private final PipelineStage persist;
+
+  public PaymentPipeline(PaymentGatewayService paymentGatewayService,
+      BatchPaymentItemFactory itemFactory,
+      @Value("${payments.pipeline.validate.workers:2}") int validateWorkers,
+      @Value("${payments.pipeline.validate.queue-capacity:256}") int validateQueueCapacity,
+      @Value("${payments.pipeline.authorize.workers:32}") int authorizeWorkers,
+      @Value("${payments.pipeline.authorize.queue-capacity:256}") int authorizeQueueCapacity,
+      @Value("${payments.pipeline.persist.workers:4}") int persistWorkers,
+      @Value("${payments.pipeline.persist.queue-capacity:1024}") int persistQueueCapacity,
+      @Value("${payments.pipeline.retry-after:1s}") Duration retryAfter) {
+    this.paymentGatewayService = paymentGatewayService;
+    this.itemFactory = itemFactory;
+    this.retryAfter = retryAfter;
+    this.validate = new PipelineStage("validate", validateWorkers, validateQueueCapacity);
+    this.authorize = new PipelineStage("authorize", authorizeWorkers, authorizeQueueCapacity);
+    this.persist = new PipelineStage("persist", persistWorkers, persistQueueCapacity);
+  }
+
+  /**
+   * Queues the payment and returns its result. The future fails with an
+   * {@link InvalidPaymentRequestException} for an invalid request, or with the bank or storage
+   * error that stopped it.
+   *
+   * @throws ServiceOverloadedException if the validate queue is full
+   */
+  public CompletableFuture<PostPaymentResponse> submit(PostPaymentRequest request) {
+    CompletableFuture<PostPaymentResponse> result = new CompletableFuture<>();
+    if (!validate.offer(() -> validate(request, result))) {
+      throw new ServiceOverloadedException("Payment pipeline is full", retryAfter);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the stages in processing order.
+   */
+  public List<PipelineStage> stages() {
+    return List.of(validate, authorize, persist);
+  }
+
+  /**
+   * Closes the stages in order, so each one drains into the next before it stops.
+   */
+  @Override
+  public void close() {
+    validate.close();
+    authorize.close();
+    persist.close();
+  }
+
+  private void validate(PostPaymentRequest request,
+      CompletableFuture<PostPaymentResponse> result) {
+    try {
+      BindingResult errors = itemFactory.validationErrors(request);
+      if (errors != null) {
+        result.completeExceptionally(new InvalidPaymentRequestException(errors));
+        return;
+      }
+      UUID paymentId = paymentGatewayService.startPayment();
+      authorize.put(() -> authorize(paymentId, request, result));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      result.completeExceptionally(e);
+    } catch (RuntimeException e) {
+      result.completeExceptionally(e);
+    }
+  }
+
+  private void authorize(UUID paymentId, PostPaymentRequest request,
+      CompletableFuture<PostPaymentResponse> result) {
+    try {
+      PaymentStatus status = paymentGatewayService.authorize(paymentId, request);
+      persist.put(() -> persist(paymentId, request, status, result));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      result.completeExceptionally(e);
+    } catch (RuntimeException e) {
+      result.completeExceptionally(e);
+    }
+  }
+
+  private void persist(UUID paymentId, PostPaymentRequest request, PaymentStatus status,
+      CompletableFuture<PostPaymentResponse> result) {
+    try {
+      result.complete(paymentGatewayService.completePayment(paymentId, request, status));
+    } catch (RuntimeException e) {
+      result.completeExceptionally(e);
+    }
+  }
+}
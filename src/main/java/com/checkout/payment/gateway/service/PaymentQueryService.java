@@ -0,0 +1,140 @@
+package com.checkout.payment.gateway.service;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.InvalidPaymentQueryException;
+import com.checkout.payment.gateway.model.PaymentFilter;
+import com.checkout.payment.gateway.model.PaymentPage;
+import com.checkout.payment.gateway.model.PaymentSearch;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.repository.IndexedPaymentsRepository;
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+import com.checkout.payment.gateway.repository.PaymentsRepository.PaymentVisitor;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Lists stored payments page by page. A page is filled straight from a
+ * {@link PaymentsRepository#scan} and the cursor is the opaque scan position to resume from, so
+ * neither the server nor the client ever holds more than one page.
+ *
+ * <p>A page scans at most {@code maxScan} payments. When a selective filter runs out of that
+ * budget the page comes back short but still carries a cursor.
+ *
+ * <p>Searches are answered from the secondary indexes of {@link IndexedPaymentsRepository}
+ * instead, newest first, with the index position as cursor.
+ */
+@Service
+public class PaymentQueryService {
+
+  private static final byte LIST_CURSOR = 1;
+  private static final byte SEARCH_CURSOR = 2;
+  private static final int CURSOR_BYTES = 1 + Long.BYTES;
+
+  private final IndexedPaymentsRepository paymentsRepository;
+  private final int maxLimit;
+  private final int maxScan;
+
+  public PaymentQueryService(IndexedPaymentsRepository paymentsRepository,
+      @Value("${payments.list.max-limit:1000}") int maxLimit,
+      @Value("${payments.list.max-scan:100000}") int maxScan) {
+    this.paymentsRepository = paymentsRepository;
+    this.maxLimit = maxLimit;
+    this.maxScan = maxScan;
+  }
+
+  public PaymentPage listPayments(PaymentFilter filter, String cursor, int limit) {
+    checkLimit(limit);
+    long position = cursor == null ? 0 : decodeCursor(LIST_CURSOR, cursor);
+    PageCollector page = new PageCollector(filter, limit);
+    long next = paymentsRepository.scan(position, page);
+    return new PaymentPage(page.payments, page.stopped ? encodeCursor(LIST_CURSOR, next) : null);
+  }
+
+  public PaymentPage searchPayments(PaymentSearch search, String cursor, int limit) {
+    checkLimit(limit);
+    if (search.getLastFour() != null && !search.getLastFour().matches("\\d{4}")) {
+      throw new InvalidPaymentQueryException("Last four must be 4 digits");
+    }
+    if (search.getExpiryMonth() != null
+        && (search.getExpiryMonth() < 1 || search.getExpiryMonth() > 12)) {
+      throw new InvalidPaymentQueryException("Expiry month must be between 1 and 12");
+    }
+    long before = cursor == null ? Long.MAX_VALUE : decodeCursor(SEARCH_CURSOR, cursor);
+    PageCollector page = new PageCollector(PaymentFilter.ALL, limit);
+    long next = paymentsRepository.search(search, before, page);
+    return new PaymentPage(page.payments,
+        page.stopped ? encodeCursor(SEARCH_CURSOR, next) : null);
+  }
+
+  /**
+   * Resolves a status filter by its API name ({@code Authorized}) or constant name, ignoring case.
+   */
+  public static PaymentStatus parseStatus(String status) {
+    if (status == null) {
+      return null;
+    }
+    for (PaymentStatus candidate : PaymentStatus.values()) {
+      if (candidate.getName().equalsIgnoreCase(status)
+          || candidate.name().equalsIgnoreCase(status)) {
+        return candidate;
+      }
+    }
+    throw new InvalidPaymentQueryException("Unknown payment status: " + status);
+  }
+
+  static String encodeCursor(byte kind, long position) {
+    ByteBuffer cursor = ByteBuffer.allocate(CURSOR_BYTES).put(kind).putLong(position);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.array());
+  }
+
+  static long decodeCursor(byte kind, String cursor) {
+    byte[] bytes;
+    try {
+      bytes = Base64.getUrlDecoder().decode(cursor);
+    } catch (IllegalArgumentException e) {
+      bytes = null;
+    }
+    if (bytes == null || bytes.length != CURSOR_BYTES || bytes[0] != kind) {
+      throw new InvalidPaymentQueryException("Invalid cursor");
+    }
+    long position = ByteBuffer.wrap(bytes, 1, Long.BYTES).getLong();
+    if (position < 0) {
+      throw new InvalidPaymentQueryException("Invalid cursor");
+    }
+    return position;
+  }
+
+  private void checkLimit(int limit) {
+    if (limit < 1 || limit > maxLimit) {
+      throw new InvalidPaymentQueryException("Limit must be between 1 and " + maxLimit);
+    }
+  }
+
+  private final class PageCollector implements PaymentVisitor {
+
+    private final PaymentFilter filter;
+    private final int limit;
+    private final List<PostPaymentResponse> payments;
+    private int scanned;
+    private boolean stopped;
+
+    PageCollector(PaymentFilter filter, int limit) {
+      this.filter = filter;
+      this.limit = limit;
+      this.payments = new ArrayList<>(Math.min(limit, 100));
+    }
+
+    @Override
+    public boolean visit(PostPaymentResponse payment) {
+      if (filter.matches(payment)) {
+        payments.add(payment);
+      }
+      stopped = payments.size() >= limit || ++scanned >= maxScan;
+      return !stopped;
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package com.checkout.payment.gateway.service;
+
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Where the time of a payment goes, and where payments run out of time:
+ * <ul>
+ *   <li>queue: from the start of the request deadline until the bank call starts, covering
+ *   validation and every queue in front of the bank,</li>
+ *   <li>bank: the bank call,</li>
+ *   <li>persist: building and storing the response.</li>
+ * </ul>
+ * A payment whose deadline expires is counted against the stage it was in: queue when it was
+ * dropped before reaching the bank, bank when the deadline ran out waiting for the answer.
+ */
+@Component
+public class PaymentStageMetrics {
+
+  public enum Stage {
+    QUEUE, BANK, PERSIST;
+
+    public String tag() {
+      return name().toLowerCase();
+    }
+  }
+
+  private final LongAdder[] counts = adders();
+  private final LongAdder[] nanos = adders();
+  private final LongAdder[] deadlinesExceeded = adders();
+
+  public void record(Stage stage, long elapsedNanos) {
+    counts[stage.ordinal()].increment();
+    nanos[stage.ordinal()].add(elapsedNanos);
+  }
+
+  public void deadlineExceeded(Stage stage) {
+    deadlinesExceeded[stage.ordinal()].increment();
+  }
+
+  public long count(Stage stage) {
+    return counts[stage.ordinal()].sum();
+  }
+
+  public double totalNanos(Stage stage) {
+    return nanos[stage.ordinal()].sum();
+  }
+
+  public long deadlineExceededCount(Stage stage) {
+    return deadlinesExceeded[stage.ordinal()].sum();
+  }
+
+  private static LongAdder[] adders() {
+    LongAdder[] adders = new LongAdder[Stage.values().length];
+    for (int i = 0; i < adders.length; i++) {
+      adders[i] = new LongAdder();
+    }
+    return adders;
+  }
+}
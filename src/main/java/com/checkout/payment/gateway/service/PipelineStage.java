@@ -0,0 +1,143 @@
+package com.checkout.payment.gateway.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * One stage of the {@link PaymentPipeline}: a bounded queue of tasks run by a fixed set of worker
+ * threads. Tasks enter either with {@link #offer}, which fails at once when the queue is full, or
+ * with {@link #put}, which waits for room, so a slow stage holds back the stage feeding it.
+ *
+ * <p>Records how long tasks wait in the queue and how long they run, so the stage limiting
+ * throughput is the one with a full queue and busy workers.
+ */
+public class PipelineStage implements AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PipelineStage.class);
+  private static final long POLL_MILLIS = 100;
+
+  private final String name;
+  private final BlockingQueue<Task> queue;
+  private final Thread[] workers;
+  private final AtomicInteger busy = new AtomicInteger();
+  private final LongAdder completed = new LongAdder();
+  private final LongAdder serviceNanos = new LongAdder();
+  private final LongAdder waitNanos = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private volatile boolean closed;
+
+  public PipelineStage(String name, int workers, int queueCapacity) {
+    if (workers < 1 || queueCapacity < 1) {
+      throw new IllegalArgumentException("Workers and queue capacity must be positive");
+    }
+    this.name = name;
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.workers = new Thread[workers];
+    for (int i = 0; i < workers; i++) {
+      Thread worker = new Thread(this::work, "payment-" + name + "-" + (i + 1));
+      worker.setDaemon(true);
+      worker.start();
+      this.workers[i] = worker;
+    }
+  }
+
+  /**
+   * Queues the task unless the queue is full. Returns {@code false} if the task was rejected.
+   */
+  public boolean offer(Runnable task) {
+    if (!closed && queue.offer(new Task(task, System.nanoTime()))) {
+      return true;
+    }
+    rejected.increment();
+    return false;
+  }
+
+  /**
+   * Queues the task, waiting for room in the queue.
+   */
+  public void put(Runnable task) throws InterruptedException {
+    queue.put(new Task(task, System.nanoTime()));
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int queueDepth() {
+    return queue.size();
+  }
+
+  public int busyWorkers() {
+    return busy.get();
+  }
+
+  public long completedCount() {
+    return completed.sum();
+  }
+
+  public double serviceTimeNanos() {
+    return serviceNanos.sum();
+  }
+
+  public double waitTimeNanos() {
+    return waitNanos.sum();
+  }
+
+  public long rejectedCount() {
+    return rejected.sum();
+  }
+
+  /**
+   * Stops taking new tasks with {@link #offer}, runs the tasks already queued and stops the
+   * workers.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    for (Thread worker : workers) {
+      try {
+        worker.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  private void work() {
+    while (true) {
+      Task task;
+      try {
+        task = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        continue;
+      }
+      if (task == null) {
+        if (closed) {
+          return;
+        }
+        continue;
+      }
+      long start = System.nanoTime();
+      waitNanos.add(start - task.queuedAt);
+      busy.incrementAndGet();
+      try {
+        task.runnable.run();
+      } catch (RuntimeException e) {
+        LOG.error("Payment pipeline stage {} task failed", name, e);
+      } finally {
+        busy.decrementAndGet();
+        serviceNanos.add(System.nanoTime() - start);
+        completed.increment();
+      }
+    }
+  }
+
+  private record Task(Runnable runnable, long queuedAt) {
+  }
+}
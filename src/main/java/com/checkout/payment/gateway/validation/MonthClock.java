@@ -0,0 +1,45 @@
+package com.checkout.payment.gateway.validation;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+
+/**
+ * The current year and month for expiry checks. Each call reads the clock, but the calendar is
+ * only recomputed when the cached month is over, so a check costs one clock read and allocates
+ * nothing.
+ */
+final class MonthClock {
+
+  static final MonthClock SYSTEM = new MonthClock(Clock.systemDefaultZone());
+
+  private final Clock clock;
+  private volatile CachedMonth cached;
+
+  MonthClock(Clock clock) {
+    this.clock = clock;
+    this.cached = load();
+  }
+
+  YearMonth now() {
+    CachedMonth month = cached;
+    long millis = clock.millis();
+    if (millis < month.startMillis || millis >= month.endMillis) {
+      month = load();
+      cached = month;
+    }
+    return month.yearMonth;
+  }
+
+  private CachedMonth load() {
+    ZoneId zone = clock.getZone();
+    YearMonth yearMonth = YearMonth.from(LocalDate.now(clock));
+    return new CachedMonth(yearMonth,
+        yearMonth.atDay(1).atStartOfDay(zone).toInstant().toEpochMilli(),
+        yearMonth.plusMonths(1).atDay(1).atStartOfDay(zone).toInstant().toEpochMilli());
+  }
+
+  private record CachedMonth(YearMonth yearMonth, long startMillis, long endMillis) {
+  }
+}
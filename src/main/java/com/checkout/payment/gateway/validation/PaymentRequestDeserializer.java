@@ -0,0 +1,191 @@
+package com.checkout.payment.gateway.validation;
+
+import com.checkout.payment.gateway.bin.CardSchemeDetector;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonParser.NumberType;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.std.DelegatingDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import java.io.IOException;
+import java.time.YearMonth;
+
+/**
+ * Reads a {@link PostPaymentRequest} straight from the parser and checks each field against the
+ * {@link PaymentRequestValidator} rules as soon as its token is read. A request whose fields all
+ * pass is marked {@link PostPaymentRequest#isVerified() verified}, and Bean Validation is skipped
+ * for it. Checking stops at the first field that fails; the remaining fields are still read, and
+ * the request is left to Bean Validation, which reports every broken rule as before.
+ *
+ * <p>Only the usual shape is read here: string values for the string fields and {@code int}
+ * values for the number fields. On any other token or field name the fields read so far and the
+ * rest of the object are replayed to Jackson's bean deserializer, so coercions, unknown properties
+ * and error messages are exactly those of the plain bean.
+ */
+public final class PaymentRequestDeserializer extends DelegatingDeserializer {
+
+  private static final int CARD_NUMBER = 1;
+  private static final int EXPIRY_MONTH = 1 << 1;
+  private static final int EXPIRY_YEAR = 1 << 2;
+  private static final int CURRENCY = 1 << 3;
+  private static final int AMOUNT = 1 << 4;
+  private static final int CVV = 1 << 5;
+  private static final int ALL_FIELDS = (1 << 6) - 1;
+
+  private final MonthClock clock;
+  private final CardSchemeDetector cardSchemeDetector;
+
+  PaymentRequestDeserializer(JsonDeserializer<?> beanDeserializer, MonthClock clock,
+      CardSchemeDetector cardSchemeDetector) {
+    super(beanDeserializer);
+    this.clock = clock;
+    this.cardSchemeDetector = cardSchemeDetector;
+  }
+
+  /**
+   * Returns a module installing this deserializer in front of the bean deserializer of
+   * {@link PostPaymentRequest}.
+   */
+  public static Module module(CardSchemeDetector cardSchemeDetector) {
+    return module(MonthClock.SYSTEM, cardSchemeDetector);
+  }
+
+  static Module module(MonthClock clock, CardSchemeDetector cardSchemeDetector) {
+    return new SimpleModule("PaymentRequestDeserializer")
+        .setDeserializerModifier(new BeanDeserializerModifier() {
+          @Override
+          public JsonDeserializer<?> modifyDeserializer(DeserializationConfig config,
+              BeanDescription description, JsonDeserializer<?> deserializer) {
+            return description.getBeanClass() == PostPaymentRequest.class
+                ? new PaymentRequestDeserializer(deserializer, clock, cardSchemeDetector)
+                : deserializer;
+          }
+        });
+  }
+
+  @Override
+  protected JsonDeserializer<?> newDelegatingInstance(JsonDeserializer<?> newDelegatee) {
+    return new PaymentRequestDeserializer(newDelegatee, clock, cardSchemeDetector);
+  }
+
+  @Override
+  public Object deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+    if (!p.isExpectedStartObjectToken()) {
+      return _delegatee.deserialize(p, ctxt);
+    }
+    PostPaymentRequest request = new PostPaymentRequest();
+    YearMonth currentMonth = clock.now();
+    int read = 0;
+    boolean valid = true;
+    String field;
+    while ((field = p.nextFieldName()) != null) {
+      JsonToken token = p.nextToken();
+      switch (field) {
+        case "cardNumber" -> {
+          if (token != JsonToken.VALUE_STRING) {
+            return replay(p, ctxt, request, read, field);
+          }
+          request.setCardNumber(p.getText());
+          valid = valid && PaymentRequestValidator.isValidCardNumber(request.getCardNumber());
+          read |= CARD_NUMBER;
+        }
+        case "expiryMonth" -> {
+          if (!isInt(p, token)) {
+            return replay(p, ctxt, request, read, field);
+          }
+          request.setExpiryMonth(p.getIntValue());
+          valid = valid && request.getExpiryMonth() >= 1 && request.getExpiryMonth() <= 12;
+          read |= EXPIRY_MONTH;
+        }
+        case "expiryYear" -> {
+          if (!isInt(p, token)) {
+            return replay(p, ctxt, request, read, field);
+          }
+          request.setExpiryYear(p.getIntValue());
+          valid = valid && request.getExpiryYear() >= currentMonth.getYear();
+          read |= EXPIRY_YEAR;
+        }
+        case "currency" -> {
+          if (token != JsonToken.VALUE_STRING) {
+            return replay(p, ctxt, request, read, field);
+          }
+          request.setCurrency(p.getText());
+          valid = valid && PaymentRequestValidator.isSupportedCurrency(request.getCurrency());
+          read |= CURRENCY;
+        }
+        case "amount" -> {
+          if (!isInt(p, token)) {
+            return replay(p, ctxt, request, read, field);
+          }
+          request.setAmount(p.getIntValue());
+          valid = valid && PaymentRequestValidator.isValidAmount(request.getAmount());
+          read |= AMOUNT;
+        }
+        case "cvv" -> {
+          if (token != JsonToken.VALUE_STRING) {
+            return replay(p, ctxt, request, read, field);
+          }
+          request.setCvv(p.getText());
+          valid = valid && PaymentRequestValidator.isValidCvv(request.getCvv());
+          read |= CVV;
+        }
+        default -> {
+          return replay(p, ctxt, request, read, field);
+        }
+      }
+    }
+    request.setVerified(valid && read == ALL_FIELDS
+        && PaymentRequestValidator.isValidExpiry(request.getExpiryMonth(),
+            request.getExpiryYear(), currentMonth)
+        && (cardSchemeDetector == null || cardSchemeDetector.supports(request.getCardNumber())));
+    return request;
+  }
+
+  private static boolean isInt(JsonParser p, JsonToken token) throws IOException {
+    return token == JsonToken.VALUE_NUMBER_INT && p.getNumberType() == NumberType.INT;
+  }
+
+  /**
+   * Hands the object to the bean deserializer, with the parser on the value of {@code field}:
+   * the fields already read are written back as they were read, then the rest is copied as is.
+   */
+  private Object replay(JsonParser p, DeserializationContext ctxt, PostPaymentRequest request,
+      int read, String field) throws IOException {
+    TokenBuffer buffer = ctxt.bufferForInputBuffering(p);
+    buffer.writeStartObject();
+    if ((read & CARD_NUMBER) != 0) {
+      buffer.writeStringField("cardNumber", request.getCardNumber());
+    }
+    if ((read & EXPIRY_MONTH) != 0) {
+      buffer.writeNumberField("expiryMonth", request.getExpiryMonth());
+    }
+    if ((read & EXPIRY_YEAR) != 0) {
+      buffer.writeNumberField("expiryYear", request.getExpiryYear());
+    }
+    if ((read & CURRENCY) != 0) {
+      buffer.writeStringField("currency", request.getCurrency());
+    }
+    if ((read & AMOUNT) != 0) {
+      buffer.writeNumberField("amount", request.getAmount());
+    }
+    if ((read & CVV) != 0) {
+      buffer.writeStringField("cvv", request.getCvv());
+    }
+    buffer.writeFieldName(field);
+    buffer.copyCurrentStructure(p);
+    while (p.nextToken() == JsonToken.FIELD_NAME) {
+      buffer.copyCurrentStructure(p);
+    }
+    buffer.writeEndObject();
+    try (JsonParser replayed = buffer.asParserOnFirstToken()) {
+      return _delegatee.deserialize(replayed, ctxt);
+    }
+  }
+}
@@ -0,0 +1,284 @@
+package com.checkout.payment.gateway.validation;
+
+import com.checkout.payment.gateway.bin.CardSchemeDetector;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import java.time.YearMonth;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Validates every field of a {@link PostPaymentRequest} in one pass, reporting the same field
+ * errors with the same messages as the separate {@code @NotNull}, {@code @Size},
+ * {@code @Pattern}, {@code @Min}/{@code @Max}, {@code @CardChecksumCheck}, {@code @CurrencyCode},
+ * {@code @CurrentOrFutureYear} and {@code @FutureExpiryDate} constraints it replaces.
+ *
+ * <p>Each string is scanned once, without regular expressions, and the current month comes from
+ * a {@link MonthClock}, so a valid request is checked without allocating.
+ *
+ * <p>When created by Spring, a card number that passes every other check is also looked up in
+ * the {@link CardSchemeDetector}, and rejected if its scheme is not supported, so the request
+ * never reaches the bank.
+ */
+public class PaymentRequestValidator
+    implements ConstraintValidator<ValidPaymentRequest, PostPaymentRequest> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PaymentRequestValidator.class);
+
+  static final String CARD_NUMBER_EMPTY = "Card number must not be empty";
+  static final String CARD_NUMBER_LENGTH = "Card number must be between 14 and 19 characters long";
+  static final String CARD_NUMBER_NUMERIC = "Card number must be 14-19 numeric characters long";
+  static final String CARD_NUMBER_LUHN = "Invalid card number, failed Luhn check";
+  static final String CARD_SCHEME_UNSUPPORTED = "Card scheme is not supported";
+  static final String EXPIRY_MONTH_RANGE =
+      "Invalid value of the expiry month, value should be in a range 1-12";
+  static final String EXPIRY_YEAR_PAST = "Expiry year in the past";
+  static final String EXPIRY_DATE_PAST = "Expiry date is not valid";
+  static final String CURRENCY_EMPTY = "Currency must not be empty";
+  static final String CURRENCY_LENGTH = "Currency must be exactly 3 characters long";
+  static final String CURRENCY_UNSUPPORTED = "Wrong currency code/currency code is not supported";
+  static final String AMOUNT_MIN = "Invalid value of the amount, value must be more than 0";
+  static final String AMOUNT_MAX =
+      "Invalid value of the amount, value must be less than " + Integer.MAX_VALUE;
+  static final String CVV_EMPTY = "CVV must not be empty";
+  static final String CVV_LENGTH = "CVV must be 3 or 4 characters long";
+  static final String CVV_NUMERIC = "CVV must only contain numeric characters";
+
+  private static final String[] SUPPORTED_CURRENCIES = {"GBP", "USD", "EUR"};
+
+  private final MonthClock clock;
+  private final CardSchemeDetector cardSchemeDetector;
+
+  public PaymentRequestValidator() {
+    this(MonthClock.SYSTEM, null);
+  }
+
+  @Autowired
+  public PaymentRequestValidator(CardSchemeDetector cardSchemeDetector) {
+    this(MonthClock.SYSTEM, cardSchemeDetector);
+  }
+
+  PaymentRequestValidator(MonthClock clock, CardSchemeDetector cardSchemeDetector) {
+    this.clock = clock;
+    this.cardSchemeDetector = cardSchemeDetector;
+  }
+
+  @Override
+  public boolean isValid(PostPaymentRequest request, ConstraintValidatorContext context) {
+    if (request == null) {
+      return true;
+    }
+    YearMonth currentMonth = clock.now();
+    boolean valid = checkCardNumber(request.getCardNumber(), context)
+        && checkCardScheme(request.getCardNumber(), context);
+    valid &= checkExpiry(request.getExpiryMonth(), request.getExpiryYear(), currentMonth,
+        context);
+    valid &= checkCurrency(request.getCurrency(), context);
+    valid &= checkAmount(request.getAmount(), context);
+    valid &= checkCvv(request.getCvv(), context);
+    return valid;
+  }
+
+  private static boolean checkCardNumber(String cardNumber, ConstraintValidatorContext context) {
+    if (cardNumber == null) {
+      reject(context, "cardNumber", CARD_NUMBER_EMPTY);
+      reject(context, "cardNumber", CARD_NUMBER_LUHN);
+      return false;
+    }
+    int length = cardNumber.length();
+    // \d matches ASCII digits only, while the Luhn check accepts any Unicode digit.
+    boolean asciiDigits = length > 0;
+    boolean digits = length > 0;
+    int sum = 0;
+    boolean doubled = false;
+    for (int i = length - 1; i >= 0 && digits; i--) {
+      char c = cardNumber.charAt(i);
+      int digit;
+      if (c >= '0' && c <= '9') {
+        digit = c - '0';
+      } else {
+        asciiDigits = false;
+        digits = Character.isDigit(c);
+        digit = Character.getNumericValue(c);
+      }
+      if (doubled) {
+        digit *= 2;
+      }
+      sum += digit / 10 + digit % 10;
+      doubled = !doubled;
+    }
+
+    boolean valid = true;
+    if (length < 14 || length > 19) {
+      valid = reject(context, "cardNumber", CARD_NUMBER_LENGTH);
+    }
+    if (!asciiDigits) {
+      valid = reject(context, "cardNumber", CARD_NUMBER_NUMERIC);
+    }
+    if (!digits || sum % 10 != 0) {
+      if (digits) {
+        LOG.warn("Card number ****{} is not valid",
+            length >= 4 ? cardNumber.substring(length - 4) : cardNumber);
+      }
+      valid = reject(context, "cardNumber", CARD_NUMBER_LUHN);
+    }
+    return valid;
+  }
+
+  private boolean checkCardScheme(String cardNumber, ConstraintValidatorContext context) {
+    if (cardSchemeDetector == null || cardSchemeDetector.isAccepted(cardNumber)) {
+      return true;
+    }
+    return reject(context, "cardNumber", CARD_SCHEME_UNSUPPORTED);
+  }
+
+  /**
+   * The expiry date error is reported on the request rather than a field, and only reaches the
+   * client when no field is invalid.
+   */
+  private static boolean checkExpiry(int month, int year, YearMonth currentMonth,
+      ConstraintValidatorContext context) {
+    boolean valid = true;
+    if (month < 1 || month > 12) {
+      valid = reject(context, "expiryMonth", EXPIRY_MONTH_RANGE);
+    }
+    int currentYear = currentMonth.getYear();
+    if (year < currentYear) {
+      LOG.warn("Expiry year {} is not valid", year);
+      valid = reject(context, "expiryYear", EXPIRY_YEAR_PAST);
+    }
+    if (year < currentYear || year == currentYear && month < currentMonth.getMonthValue()) {
+      LOG.warn("Validating expiry date failed for: month={}, year={}, valid={}", month, year,
+          false);
+      context.disableDefaultConstraintViolation();
+      context.buildConstraintViolationWithTemplate(EXPIRY_DATE_PAST).addConstraintViolation();
+      valid = false;
+    }
+    return valid;
+  }
+
+  private static boolean checkCurrency(String currency, ConstraintValidatorContext context) {
+    if (currency == null) {
+      reject(context, "currency", CURRENCY_EMPTY);
+      return reject(context, "currency", CURRENCY_UNSUPPORTED);
+    }
+    boolean valid = true;
+    if (currency.length() != 3) {
+      valid = reject(context, "currency", CURRENCY_LENGTH);
+    }
+    if (!isSupportedCurrency(currency)) {
+      if (!currency.isEmpty()) {
+        LOG.warn("Currency code {} is not supported", currency);
+      }
+      valid = reject(context, "currency", CURRENCY_UNSUPPORTED);
+    }
+    return valid;
+  }
+
+  private static boolean checkAmount(int amount, ConstraintValidatorContext context) {
+    if (amount < 1) {
+      return reject(context, "amount", AMOUNT_MIN);
+    }
+    if (amount > Integer.MAX_VALUE - 1) {
+      return reject(context, "amount", AMOUNT_MAX);
+    }
+    return true;
+  }
+
+  private static boolean checkCvv(String cvv, ConstraintValidatorContext context) {
+    if (cvv == null) {
+      return reject(context, "cvv", CVV_EMPTY);
+    }
+    int length = cvv.length();
+    boolean valid = true;
+    if (length < 3 || length > 4) {
+      valid = reject(context, "cvv", CVV_LENGTH);
+    }
+    boolean asciiDigits = length > 0;
+    for (int i = 0; i < length && asciiDigits; i++) {
+      char c = cvv.charAt(i);
+      asciiDigits = c >= '0' && c <= '9';
+    }
+    if (!asciiDigits) {
+      valid = reject(context, "cvv", CVV_NUMERIC);
+    }
+    return valid;
+  }
+
+  /*
+   * The predicates below accept exactly what the checks above accept, without reporting, for
+   * PaymentRequestDeserializer to verify fields as it reads them.
+   */
+
+  static boolean isValidCardNumber(String cardNumber) {
+    int length = cardNumber.length();
+    if (length < 14 || length > 19) {
+      return false;
+    }
+    int sum = 0;
+    boolean doubled = false;
+    for (int i = length - 1; i >= 0; i--) {
+      char c = cardNumber.charAt(i);
+      if (c < '0' || c > '9') {
+        return false;
+      }
+      int digit = c - '0';
+      if (doubled) {
+        digit *= 2;
+      }
+      sum += digit / 10 + digit % 10;
+      doubled = !doubled;
+    }
+    return sum % 10 == 0;
+  }
+
+  static boolean isValidExpiry(int month, int year, YearMonth currentMonth) {
+    return month >= 1 && month <= 12 && (year > currentMonth.getYear()
+        || year == currentMonth.getYear() && month >= currentMonth.getMonthValue());
+  }
+
+  static boolean isValidAmount(int amount) {
+    return amount >= 1 && amount <= Integer.MAX_VALUE - 1;
+  }
+
+  static boolean isValidCvv(String cvv) {
+    int length = cvv.length();
+    if (length < 3 || length > 4) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      char c = cvv.charAt(i);
+      if (c < '0' || c > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // Case-insensitive like Currency.getInstance(code.toUpperCase()), without the lookup.
+  static boolean isSupportedCurrency(String currency) {
+    if (currency.length() != 3) {
+      return false;
+    }
+    char first = Character.toUpperCase(currency.charAt(0));
+    char second = Character.toUpperCase(currency.charAt(1));
+    char third = Character.toUpperCase(currency.charAt(2));
+    for (String supported : SUPPORTED_CURRENCIES) {
+      if (first == supported.charAt(0) && second == supported.charAt(1)
+          && third == supported.charAt(2)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean reject(ConstraintValidatorContext context, String field,
+      String message) {
+    context.disableDefaultConstraintViolation();
+    context.buildConstraintViolationWithTemplate(message).addPropertyNode(field)
+        .addConstraintViolation();
+    return false;
+  }
+}
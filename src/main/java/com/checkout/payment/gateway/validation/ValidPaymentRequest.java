@@ -0,0 +1,19 @@
+package com.checkout.payment.gateway.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Documented
+@Constraint(validatedBy = PaymentRequestValidator.class)
+@Target({ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ValidPaymentRequest {
+  String message() default "Invalid payment request";
+  Class<?>[] groups() default {};
+  Class<? extends Payload>[] payload() default {};
+}
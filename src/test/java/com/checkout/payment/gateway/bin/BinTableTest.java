@@ -0,0 +1,116 @@
+package com.checkout.payment.gateway.bin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.checkout.payment.gateway.enums.CardScheme;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import org.junit.jupiter.api.Test;
+
+class BinTableTest {
+
+  @Test
+  void scheme_PrefixRanges_MatchEveryCardStartingInRange() throws IOException {
+    BinTable table = parse("""
+        # low,high,scheme[,country]
+        4,4,VISA
+        51,55,MASTERCARD
+
+        2221,2720,MASTERCARD
+        """);
+
+    assertEquals(CardScheme.VISA, table.scheme("4532015112830366"));
+    assertEquals(CardScheme.MASTERCARD, table.scheme("5555555555554444"));
+    assertEquals(CardScheme.MASTERCARD, table.scheme("5100000000000008"));
+    assertEquals(CardScheme.MASTERCARD, table.scheme("2223000048400011"));
+    assertEquals(CardScheme.MASTERCARD, table.scheme("2720999999999996"));
+    assertNull(table.scheme("2721000000000000"));
+    assertNull(table.scheme("5600000000000000"));
+    assertNull(table.scheme("3000000000000004"));
+  }
+
+  @Test
+  void scheme_NestedRanges_NarrowestRangeWins() throws IOException {
+    BinTable table = parse("""
+        62,62,UNIONPAY,CN
+        622126,622925,DISCOVER,US
+        6222,6222,MAESTRO
+        """);
+
+    assertEquals(CardScheme.UNIONPAY, table.scheme("6200000000000005"));
+    assertEquals(CardScheme.UNIONPAY, table.scheme("6221259999999999"));
+    assertEquals(CardScheme.DISCOVER, table.scheme("6221260000000000"));
+    assertEquals(CardScheme.MAESTRO, table.scheme("6222000000000000"));
+    assertEquals(CardScheme.DISCOVER, table.scheme("6223000000000000"));
+    assertEquals(CardScheme.DISCOVER, table.scheme("6229259999999999"));
+    assertEquals(CardScheme.UNIONPAY, table.scheme("6229260000000000"));
+    assertEquals(CardScheme.UNIONPAY, table.scheme("6299999999999999"));
+    assertEquals("US", table.issuerCountry("6223000000000000"));
+    assertEquals("CN", table.issuerCountry("6230000000000000"));
+    assertNull(table.issuerCountry("6222000000000000"));
+  }
+
+  @Test
+  void scheme_IdenticalRanges_LaterLineWins() throws IOException {
+    BinTable table = parse("""
+        37,37,AMERICAN_EXPRESS
+        37,37,DINERS_CLUB
+        """);
+
+    assertEquals(CardScheme.DINERS_CLUB, table.scheme("378282246310005"));
+  }
+
+  @Test
+  void scheme_ShortOrNonNumericCardNumber_ReturnsNull() throws IOException {
+    BinTable table = parse("4,4,VISA");
+
+    assertNull(table.scheme(null));
+    assertNull(table.scheme("4111111"));
+    assertNull(table.scheme("4111-1111-1111-1111"));
+    assertEquals(CardScheme.VISA, table.scheme("41111111"));
+  }
+
+  @Test
+  void parse_PartiallyOverlappingRanges_ThrowsWithLineNumbers() {
+    IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+        () -> parse("""
+            30,35,DINERS_CLUB
+            3528,3699,JCB
+            """));
+
+    assertEquals("Invalid BIN range on line 2: range overlaps the range on line 1",
+        exception.getMessage());
+  }
+
+  @Test
+  void parse_MalformedLines_ThrowWithLineNumber() {
+    assertInvalid("4,4", "Invalid BIN range on line 1: expected low,high,scheme[,country]");
+    assertInvalid("4x,4,VISA", "Invalid BIN range on line 1: BIN prefixes must be 1-8 digits");
+    assertInvalid("123456789,4,VISA",
+        "Invalid BIN range on line 1: BIN prefixes must be 1-8 digits");
+    assertInvalid("55,51,MASTERCARD", "Invalid BIN range on line 1: low 55 is above high 51");
+    assertInvalid("4,4,VISA\n5,5,SOLO", "Invalid BIN range on line 2: unknown scheme SOLO");
+    assertInvalid("4,4,VISA,gbr",
+        "Invalid BIN range on line 1: country must be an ISO 3166 alpha-2 code");
+  }
+
+  @Test
+  void size_NestedRanges_CountsDisjointSegments() throws IOException {
+    assertEquals(0, parse("").size());
+    assertEquals(3, parse("5,5,VISA\n51,51,MASTERCARD").size());
+    assertEquals(1, parse("51,55,MASTERCARD\n51,55,MASTERCARD").size());
+  }
+
+  private static void assertInvalid(String csv, String message) {
+    IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+        () -> parse(csv));
+    assertEquals(message, exception.getMessage());
+  }
+
+  private static BinTable parse(String csv) throws IOException {
+    return BinTable.parse(new BufferedReader(new StringReader(csv)));
+  }
+}
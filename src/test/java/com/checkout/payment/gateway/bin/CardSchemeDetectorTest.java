@@ -0,0 +1,114 @@
+package com.checkout.payment.gateway.bin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.checkout.payment.gateway.enums.CardScheme;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CardSchemeDetectorTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void detect_BundledTable_KnowsMajorSchemes() {
+    try (CardSchemeDetector detector = new CardSchemeDetector("", Duration.ZERO, "", false)) {
+      assertEquals(CardScheme.VISA, detector.detect("4532015112830366"));
+      assertEquals(CardScheme.MASTERCARD, detector.detect("5555555555554444"));
+      assertEquals(CardScheme.MASTERCARD, detector.detect("2223000048400011"));
+      assertEquals(CardScheme.AMERICAN_EXPRESS, detector.detect("378282246310005"));
+      assertEquals(CardScheme.DISCOVER, detector.detect("6011111111111117"));
+      assertEquals(CardScheme.DINERS_CLUB, detector.detect("30569309025904"));
+      assertEquals(CardScheme.JCB, detector.detect("3530111333300000"));
+      assertNull(detector.detect("1234567890123456"));
+    }
+  }
+
+  @Test
+  void isAccepted_SupportedSchemes_RejectsOtherSchemesAndCountsThem() {
+    try (CardSchemeDetector detector = new CardSchemeDetector("", Duration.ZERO,
+        "VISA, MASTERCARD", false)) {
+      assertTrue(detector.isAccepted("4532015112830366"));
+      assertTrue(detector.isAccepted("5555555555554444"));
+      assertFalse(detector.isAccepted("378282246310005"));
+      assertTrue(detector.isAccepted("1234567890123456"));
+      assertEquals(1, detector.rejectedCount());
+    }
+  }
+
+  @Test
+  void isAccepted_RejectUnknown_RejectsCardsOutsideEveryRange() {
+    try (CardSchemeDetector detector = new CardSchemeDetector("", Duration.ZERO, "", true)) {
+      assertTrue(detector.isAccepted("4532015112830366"));
+      assertFalse(detector.isAccepted("1234567890123456"));
+    }
+  }
+
+  @Test
+  void reload_ChangedFile_SwapsInNewTable() throws IOException {
+    Path file = write("bins.csv", "4,4,VISA\n", 1);
+    try (CardSchemeDetector detector = detector(file)) {
+      assertEquals(CardScheme.VISA, detector.detect("4532015112830366"));
+      assertFalse(detector.reload());
+
+      replace(file, "4,4,VISA\n37,37,AMERICAN_EXPRESS\n", 2);
+
+      assertTrue(detector.reload());
+      assertEquals(CardScheme.AMERICAN_EXPRESS, detector.detect("378282246310005"));
+      assertEquals(2, detector.tableSize());
+      assertEquals(2, detector.reloadCount());
+    }
+  }
+
+  @Test
+  void reload_InvalidFile_KeepsCurrentTable() throws IOException {
+    Path file = write("bins.csv", "4,4,VISA\n", 1);
+    try (CardSchemeDetector detector = detector(file)) {
+      replace(file, "4,4,VISA\n5,5,SOLO\n", 2);
+
+      assertFalse(detector.reload());
+      assertEquals(CardScheme.VISA, detector.detect("4532015112830366"));
+      assertEquals(1, detector.failedReloadCount());
+
+      Files.delete(file);
+
+      assertFalse(detector.reload());
+      assertEquals(CardScheme.VISA, detector.detect("4532015112830366"));
+      assertEquals(2, detector.failedReloadCount());
+    }
+  }
+
+  @Test
+  void constructor_InvalidFile_Throws() throws IOException {
+    Path file = write("bins.csv", "4,4,SOLO\n", 1);
+
+    assertThrows(IllegalStateException.class, () -> detector(file));
+  }
+
+  private static CardSchemeDetector detector(Path file) {
+    return new CardSchemeDetector(file.toString(), Duration.ZERO, "", false);
+  }
+
+  private Path write(String name, String csv, long modifiedSeconds) throws IOException {
+    Path file = Files.writeString(directory.resolve(name), csv);
+    Files.setLastModifiedTime(file, FileTime.fromMillis(modifiedSeconds * 1000));
+    return file;
+  }
+
+  // Replaces the file with an atomic move, as an operator would.
+  private void replace(Path file, String csv, long modifiedSeconds) throws IOException {
+    Path next = write(file.getFileName() + ".next", csv, modifiedSeconds);
+    Files.move(next, file, StandardCopyOption.ATOMIC_MOVE);
+  }
+}
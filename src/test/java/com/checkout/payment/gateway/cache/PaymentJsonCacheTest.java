@@ -0,0 +1,119 @@
+package com.checkout.payment.gateway.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.cache.PaymentJsonCache.PaymentJson;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.repository.IndexedPaymentsRepository;
+import com.checkout.payment.gateway.repository.StripedPaymentsRepository;
+import com.checkout.payment.gateway.service.PaymentGatewayService;
+import com.checkout.payment.gateway.service.PaymentStageMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PaymentJsonCacheTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private IndexedPaymentsRepository payments;
+  private PaymentJsonCache cache;
+
+  @BeforeEach
+  void setUp() {
+    payments = new IndexedPaymentsRepository(new StripedPaymentsRepository(4), 1_000, 1_000, 0.01);
+    cache = new PaymentJsonCache(new PaymentGatewayService(payments, null, null, null, null,
+        new PaymentStageMetrics(), Runnable::run), objectMapper, 2);
+  }
+
+  @Test
+  void get_StoredPayment_EncodesOnceAndReusesBytes() throws Exception {
+    PostPaymentResponse payment = payment();
+    payments.add(payment);
+
+    PaymentJson first = cache.get(payment.getId()).orElseThrow();
+    PaymentJson second = cache.get(payment.getId()).orElseThrow();
+
+    assertSame(first, second);
+    assertEquals(objectMapper.readTree(objectMapper.writeValueAsBytes(payment)),
+        objectMapper.readTree(first.json()));
+    assertEquals(PaymentJsonCache.etag(first.json()), first.etag());
+    assertEquals(1, cache.missCount());
+    assertEquals(1, cache.hitCount());
+  }
+
+  @Test
+  void get_UnknownPayment_ReturnsEmpty() {
+    assertTrue(cache.get(UUID.randomUUID()).isEmpty());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void get_MorePaymentsThanMaxEntries_EvictsOldest() {
+    PostPaymentResponse[] stored = {payment(), payment(), payment()};
+    for (PostPaymentResponse payment : stored) {
+      payments.add(payment);
+      cache.get(payment.getId());
+    }
+
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.evictionCount());
+    cache.get(stored[0].getId());
+    assertEquals(4, cache.missCount());
+  }
+
+  @Test
+  void isNotModified_MatchingETag_ReturnsTrue() {
+    PostPaymentResponse payment = payment();
+    payments.add(payment);
+    PaymentJson json = cache.get(payment.getId()).orElseThrow();
+    String etag = json.etag();
+
+    assertTrue(cache.isNotModified(json, etag));
+    assertTrue(cache.isNotModified(json, "\"other\", W/" + etag));
+    assertTrue(cache.isNotModified(json, "*"));
+    assertFalse(cache.isNotModified(json, "\"" + payment.getId() + "\""));
+    assertEquals(3, cache.notModifiedCount());
+  }
+
+  @Test
+  void isNotModified_ETagOnlyPartOfAnotherTag_ReturnsFalse() {
+    PostPaymentResponse payment = payment();
+    payments.add(payment);
+    PaymentJson json = cache.get(payment.getId()).orElseThrow();
+    String unquoted = json.etag().substring(1, json.etag().length() - 1);
+
+    assertFalse(cache.isNotModified(json, "\"x" + unquoted + "\""));
+    assertFalse(cache.isNotModified(json, "\"" + unquoted + "\"x\""));
+    assertFalse(cache.isNotModified(json, unquoted));
+    assertFalse(cache.isNotModified(json, "\"other\""));
+    assertEquals(0, cache.notModifiedCount());
+  }
+
+  @Test
+  void etag_DifferentRepresentation_Differs() throws Exception {
+    PostPaymentResponse payment = payment();
+    payments.add(payment);
+    String etag = cache.get(payment.getId()).orElseThrow().etag();
+    payment.setAmount(200);
+
+    assertNotEquals(etag, PaymentJsonCache.etag(objectMapper.writeValueAsBytes(payment)));
+  }
+
+  private static PostPaymentResponse payment() {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(UUID.randomUUID());
+    payment.setStatus(PaymentStatus.AUTHORIZED);
+    payment.setCardNumberLastFour("4321");
+    payment.setExpiryMonth(12);
+    payment.setExpiryYear(2030);
+    payment.setCurrency("GBP");
+    payment.setAmount(100);
+    return payment;
+  }
+}
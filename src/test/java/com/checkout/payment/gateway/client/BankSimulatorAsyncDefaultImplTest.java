@@ -0,0 +1,194 @@
+package com.checkout.payment.gateway.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.AcquiringProcessException;
+import com.checkout.payment.gateway.exception.BankUnavailableException;
+import com.checkout.payment.gateway.exception.TransientBankException;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.resilience.AdaptiveConcurrencyLimiter;
+import com.checkout.payment.gateway.resilience.Backoff;
+import com.checkout.payment.gateway.resilience.CircuitBreaker;
+import com.checkout.payment.gateway.resilience.RetryBudget;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class BankSimulatorAsyncDefaultImplTest {
+
+  private StubBankServer bank;
+  private ExecutorService callbackExecutor;
+  private HttpClient httpClient;
+  private CircuitBreaker circuitBreaker;
+  private AdaptiveConcurrencyLimiter limiter;
+  private BankSimulatorAsyncDefaultImpl bankSimulator;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    bank = new StubBankServer();
+    callbackExecutor = Executors.newFixedThreadPool(2);
+    httpClient = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .executor(callbackExecutor)
+        .build();
+    circuitBreaker = new CircuitBreaker("bank", 4, 4, 50, 100, Duration.ofSeconds(5),
+        Duration.ofMinutes(1), 1);
+    limiter = limiter(50);
+    bankSimulator = bankSimulator(1);
+  }
+
+  @AfterEach
+  void tearDown() {
+    bank.close();
+    callbackExecutor.shutdownNow();
+  }
+
+  @Test
+  void makePaymentAsync_BankAuthorizes_CompletesWithAuthorized() {
+    PaymentStatus status = bankSimulator.makePaymentAsync(UUID.randomUUID(),
+        createPostPaymentRequest("378282246310005")).join();
+
+    assertEquals(PaymentStatus.AUTHORIZED, status);
+  }
+
+  @Test
+  void makePaymentAsync_BankDeclines_CompletesWithDeclined() {
+    PaymentStatus status = bankSimulator.makePaymentAsync(UUID.randomUUID(),
+        createPostPaymentRequest("4532015112830366")).join();
+
+    assertEquals(PaymentStatus.DECLINED, status);
+  }
+
+  @Test
+  void makePaymentAsync_BankUnavailable_CompletesWithAcquiringProcessException() {
+    CompletableFuture<PaymentStatus> future = bankSimulator.makePaymentAsync(UUID.randomUUID(),
+        createPostPaymentRequest("378734493671000"));
+
+    CompletionException exception = assertThrows(CompletionException.class, future::join);
+    assertInstanceOf(AcquiringProcessException.class, exception.getCause());
+  }
+
+  @Test
+  void makePaymentAsync_BankUnreachable_CompletesWithAcquiringProcessException() {
+    ReflectionTestUtils.setField(bankSimulator, "baseUrl", "http://127.0.0.1:1");
+
+    CompletableFuture<PaymentStatus> future = bankSimulator.makePaymentAsync(UUID.randomUUID(),
+        createPostPaymentRequest("378282246310005"));
+
+    CompletionException exception = assertThrows(CompletionException.class, future::join);
+    assertInstanceOf(AcquiringProcessException.class, exception.getCause());
+  }
+
+  @Test
+  void makePaymentAsync_BankUnavailable_RetriedUpToMaxAttempts() {
+    bankSimulator = bankSimulator(3);
+
+    CompletableFuture<PaymentStatus> future = bankSimulator.makePaymentAsync(UUID.randomUUID(),
+        createPostPaymentRequest("378734493671000"));
+
+    CompletionException exception = assertThrows(CompletionException.class, future::join);
+    assertInstanceOf(TransientBankException.class, exception.getCause());
+    assertEquals(3, bank.requestCount());
+    assertEquals(2, bankSimulator.retryCount());
+  }
+
+  @Test
+  void makePaymentAsync_BankUnreachable_Retried() {
+    bankSimulator = bankSimulator(2);
+    ReflectionTestUtils.setField(bankSimulator, "baseUrl", "http://127.0.0.1:1");
+
+    CompletableFuture<PaymentStatus> future = bankSimulator.makePaymentAsync(UUID.randomUUID(),
+        createPostPaymentRequest("378282246310005"));
+
+    CompletionException exception = assertThrows(CompletionException.class, future::join);
+    assertInstanceOf(TransientBankException.class, exception.getCause());
+    assertEquals(1, bankSimulator.retryCount());
+  }
+
+  @Test
+  void makePaymentAsync_CircuitOpen_FailsFastWithoutCallingBank() {
+    for (int i = 0; i < 4; i++) {
+      CompletableFuture<PaymentStatus> future = bankSimulator.makePaymentAsync(UUID.randomUUID(),
+          createPostPaymentRequest("378734493671000"));
+      assertThrows(CompletionException.class, future::join);
+    }
+
+    CompletableFuture<PaymentStatus> future = bankSimulator.makePaymentAsync(UUID.randomUUID(),
+        createPostPaymentRequest("378282246310005"));
+
+    CompletionException exception = assertThrows(CompletionException.class, future::join);
+    assertInstanceOf(BankUnavailableException.class, exception.getCause());
+    assertEquals(4, bank.requestCount());
+  }
+
+  @Test
+  void makePaymentAsync_ConcurrencyLimitReached_FailsFastWithoutCallingBank() {
+    bank.setLatency(Duration.ofMillis(200));
+    limiter = limiter(1);
+    bankSimulator = bankSimulator(1);
+    CompletableFuture<PaymentStatus> first = bankSimulator.makePaymentAsync(UUID.randomUUID(),
+        createPostPaymentRequest("378282246310005"));
+
+    CompletableFuture<PaymentStatus> second = bankSimulator.makePaymentAsync(UUID.randomUUID(),
+        createPostPaymentRequest("378282246310005"));
+
+    CompletionException exception = assertThrows(CompletionException.class, second::join);
+    assertInstanceOf(BankUnavailableException.class, exception.getCause());
+    assertEquals(PaymentStatus.AUTHORIZED, first.join());
+    assertEquals(1, bank.requestCount());
+    assertEquals(0, limiter.getInflight());
+  }
+
+  @Test
+  void makePaymentAsync_ManySlowAuthorizations_CompleteOnTwoCallbackThreads() {
+    bank.setLatency(Duration.ofMillis(200));
+    List<CompletableFuture<PaymentStatus>> futures = new ArrayList<>();
+
+    for (int i = 0; i < 50; i++) {
+      futures.add(bankSimulator.makePaymentAsync(UUID.randomUUID(),
+          createPostPaymentRequest("378282246310005")));
+    }
+
+    futures.forEach(future -> assertEquals(PaymentStatus.AUTHORIZED, future.join()));
+    assertEquals(50, bank.requestCount());
+  }
+
+  private BankSimulatorAsyncDefaultImpl bankSimulator(int maxAttempts) {
+    BankSimulatorAsyncDefaultImpl simulator = new BankSimulatorAsyncDefaultImpl(httpClient,
+        new ObjectMapper(), Duration.ofSeconds(2), circuitBreaker, limiter,
+        new RetryBudget("bank", 0.1, 5), maxAttempts,
+        new Backoff(Duration.ofMillis(1), Duration.ofMillis(5)));
+    ReflectionTestUtils.setField(simulator, "baseUrl", bank.baseUrl());
+    return simulator;
+  }
+
+  private static AdaptiveConcurrencyLimiter limiter(int limit) {
+    return new AdaptiveConcurrencyLimiter("bank", limit, 1, limit, 1.5, 0.2, 0.9, 10, 500, 0,
+        Duration.ZERO);
+  }
+
+  private static PostPaymentRequest createPostPaymentRequest(String cardNumber) {
+    PostPaymentRequest request = new PostPaymentRequest();
+    request.setCardNumber(cardNumber);
+    request.setExpiryMonth(12);
+    request.setExpiryYear(2030);
+    request.setCvv("123");
+    request.setCurrency("USD");
+    request.setAmount(10000);
+    return request;
+  }
+}
@@ -4,7 +4,11 @@ import com.checkout.payment.gateway.client.model.BankPaymentRequest;
 import com.checkout.payment.gateway.client.model.BankPaymentResponse;
 import com.checkout.payment.gateway.enums.PaymentStatus;
 import com.checkout.payment.gateway.exception.AcquiringProcessException;
+import com.checkout.payment.gateway.exception.BankCallCancelledException;
+import com.checkout.payment.gateway.exception.DeadlineExceededException;
+import com.checkout.payment.gateway.exception.TransientBankException;
 import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.resilience.Deadline;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,12 +17,20 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -36,7 +48,7 @@ class BankSimulatorDefaultImplTest {
   private BankSimulatorDefaultImpl bankSimulator;
 
   @Captor
-  private ArgumentCaptor<BankPaymentRequest> bankPaymentRequestCaptor;
+  private ArgumentCaptor<HttpEntity<BankPaymentRequest>> bankPaymentRequestCaptor;
 
   private static final String BASE_URL = "http://localhost:8080";
   private UUID paymentId;
@@ -71,7 +83,7 @@ class BankSimulatorDefaultImplTest {
 
     when(restTemplate.postForEntity(
         eq(BASE_URL + "/payments"),
-        any(BankPaymentRequest.class),
+        any(HttpEntity.class),
         eq(BankPaymentResponse.class)
     )).thenReturn(responseEntity);
 
@@ -84,7 +96,9 @@ class BankSimulatorDefaultImplTest {
         eq(BankPaymentResponse.class)
     );
 
-    BankPaymentRequest capturedRequest = bankPaymentRequestCaptor.getValue();
+    BankPaymentRequest capturedRequest = bankPaymentRequestCaptor.getValue().getBody();
+    assertEquals(paymentId.toString(),
+        bankPaymentRequestCaptor.getValue().getHeaders().getFirst("Idempotency-Key"));
     assertEquals("4111111111111111", capturedRequest.cardNumber());
     assertEquals("12/2025", capturedRequest.expiryDate());
     assertEquals("123", capturedRequest.cvv());
@@ -100,7 +114,7 @@ class BankSimulatorDefaultImplTest {
 
     when(restTemplate.postForEntity(
         eq(BASE_URL + "/payments"),
-        any(BankPaymentRequest.class),
+        any(HttpEntity.class),
         eq(BankPaymentResponse.class)
     )).thenReturn(responseEntity);
 
@@ -109,7 +123,7 @@ class BankSimulatorDefaultImplTest {
     assertEquals(PaymentStatus.DECLINED, result);
     verify(restTemplate).postForEntity(
         eq(BASE_URL + "/payments"),
-        any(BankPaymentRequest.class),
+        any(HttpEntity.class),
         eq(BankPaymentResponse.class)
     );
   }
@@ -120,7 +134,7 @@ class BankSimulatorDefaultImplTest {
 
     when(restTemplate.postForEntity(
         eq(BASE_URL + "/payments"),
-        any(BankPaymentRequest.class),
+        any(HttpEntity.class),
         eq(BankPaymentResponse.class)
     )).thenReturn(responseEntity);
 
@@ -141,7 +155,7 @@ class BankSimulatorDefaultImplTest {
 
     when(restTemplate.postForEntity(
         eq(BASE_URL + "/payments"),
-        any(BankPaymentRequest.class),
+        any(HttpEntity.class),
         eq(BankPaymentResponse.class)
     )).thenReturn(responseEntity);
 
@@ -158,7 +172,7 @@ class BankSimulatorDefaultImplTest {
   void whenMakePayment_andRestTemplateThrowsException_thenThrowAcquiringProcessException() {
     when(restTemplate.postForEntity(
         eq(BASE_URL + "/payments"),
-        any(BankPaymentRequest.class),
+        any(HttpEntity.class),
         eq(BankPaymentResponse.class)
     )).thenThrow(new RestClientException("Network error"));
 
@@ -169,13 +183,76 @@ class BankSimulatorDefaultImplTest {
 
     assertEquals("Bank simulator respond with error while making payment request for payment ID: "
         + paymentId, exception.getMessage());
+    assertFalse(exception instanceof TransientBankException);
+  }
+
+  @Test
+  void whenMakePayment_andBankUnavailable_thenThrowTransientBankException() {
+    when(restTemplate.postForEntity(
+        eq(BASE_URL + "/payments"),
+        any(HttpEntity.class),
+        eq(BankPaymentResponse.class)
+    )).thenThrow(HttpServerErrorException.create(HttpStatus.SERVICE_UNAVAILABLE,
+        "Service Unavailable", HttpHeaders.EMPTY, null, null));
+
+    assertThrows(TransientBankException.class,
+        () -> bankSimulator.makePayment(paymentId, postPaymentRequest));
+  }
+
+  @Test
+  void whenMakePayment_andConnectionFails_thenThrowTransientBankException() {
+    when(restTemplate.postForEntity(
+        eq(BASE_URL + "/payments"),
+        any(HttpEntity.class),
+        eq(BankPaymentResponse.class)
+    )).thenThrow(new ResourceAccessException("I/O error",
+        new ConnectException("Connection refused")));
+
+    assertThrows(TransientBankException.class,
+        () -> bankSimulator.makePayment(paymentId, postPaymentRequest));
+  }
+
+  @Test
+  void whenMakePayment_andReadTimesOut_thenThrowAcquiringProcessException() {
+    when(restTemplate.postForEntity(
+        eq(BASE_URL + "/payments"),
+        any(HttpEntity.class),
+        eq(BankPaymentResponse.class)
+    )).thenThrow(new ResourceAccessException("I/O error",
+        new SocketTimeoutException("Read timed out")));
+
+    AcquiringProcessException exception = assertThrows(
+        AcquiringProcessException.class,
+        () -> bankSimulator.makePayment(paymentId, postPaymentRequest)
+    );
+
+    assertFalse(exception instanceof TransientBankException);
+  }
+
+  @Test
+  void whenMakePayment_andCallerCancels_thenThrowBankCallCancelledException() {
+    when(restTemplate.postForEntity(
+        eq(BASE_URL + "/payments"),
+        any(HttpEntity.class),
+        eq(BankPaymentResponse.class)
+    )).thenAnswer(invocation -> {
+      Thread.currentThread().interrupt();
+      throw new ResourceAccessException("I/O error", new SocketException("Closed by interrupt"));
+    });
+
+    try {
+      assertThrows(BankCallCancelledException.class,
+          () -> bankSimulator.makePayment(paymentId, postPaymentRequest));
+    } finally {
+      Thread.interrupted();
+    }
   }
 
   @Test
   void whenMakePayment_andUnexpectedExceptionOccurs_thenThrowAcquiringProcessException() {
     when(restTemplate.postForEntity(
         eq(BASE_URL + "/payments"),
-        any(BankPaymentRequest.class),
+        any(HttpEntity.class),
         eq(BankPaymentResponse.class)
     )).thenThrow(new RuntimeException("Unexpected error"));
 
@@ -187,6 +264,14 @@ class BankSimulatorDefaultImplTest {
     assertEquals("Bank simulator respond with error while making payment request for payment ID: "
         + paymentId, exception.getMessage());
   }
-}
 
+  @Test
+  void whenMakePayment_andDeadlineExpired_thenThrowWithoutCallingBank() {
+    postPaymentRequest.setDeadline(Deadline.after(Duration.ZERO));
+
+    assertThrows(DeadlineExceededException.class,
+        () -> bankSimulator.makePayment(paymentId, postPaymentRequest));
 
+    verifyNoInteractions(restTemplate);
+  }
+}
@@ -0,0 +1,80 @@
+package com.checkout.payment.gateway.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.AcquiringProcessException;
+import com.checkout.payment.gateway.exception.BankUnavailableException;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.resilience.CircuitBreaker;
+import java.time.Duration;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CircuitBreakingBankSimulatorTest {
+
+  @Mock
+  private ConcurrencyLimitingBankSimulator delegate;
+
+  private CircuitBreaker circuitBreaker;
+  private CircuitBreakingBankSimulator bankSimulator;
+
+  @BeforeEach
+  void setUp() {
+    circuitBreaker = new CircuitBreaker("bank", 4, 4, 50, 100, Duration.ofSeconds(5),
+        Duration.ofMinutes(1), 1);
+    bankSimulator = new CircuitBreakingBankSimulator(delegate, circuitBreaker);
+  }
+
+  @Test
+  void makePayment_CircuitClosed_DelegatesToBank() {
+    when(delegate.makePayment(any(), any())).thenReturn(PaymentStatus.AUTHORIZED);
+
+    PaymentStatus status = bankSimulator.makePayment(UUID.randomUUID(), new PostPaymentRequest());
+
+    assertEquals(PaymentStatus.AUTHORIZED, status);
+    assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+  }
+
+  @Test
+  void makePayment_BankKeepsFailing_OpensCircuitAndFailsFast() {
+    when(delegate.makePayment(any(), any()))
+        .thenThrow(new AcquiringProcessException("Bank unavailable"));
+    for (int i = 0; i < 4; i++) {
+      assertThrows(AcquiringProcessException.class,
+          () -> bankSimulator.makePayment(UUID.randomUUID(), new PostPaymentRequest()));
+    }
+
+    BankUnavailableException exception = assertThrows(BankUnavailableException.class,
+        () -> bankSimulator.makePayment(UUID.randomUUID(), new PostPaymentRequest()));
+
+    assertTrue(exception.getRetryAfter().compareTo(Duration.ZERO) > 0);
+    assertEquals(1, circuitBreaker.rejectedCount());
+    verify(delegate, times(4)).makePayment(any(), any());
+  }
+
+  @Test
+  void makePayment_ConcurrencyLimitRejections_DoNotOpenCircuit() {
+    when(delegate.makePayment(any(), any()))
+        .thenThrow(new BankUnavailableException("Limit reached", Duration.ofSeconds(1)));
+
+    for (int i = 0; i < 8; i++) {
+      assertThrows(BankUnavailableException.class,
+          () -> bankSimulator.makePayment(UUID.randomUUID(), new PostPaymentRequest()));
+    }
+
+    assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    verify(delegate, times(8)).makePayment(any(), any());
+  }
+}
@@ -0,0 +1,109 @@
+package com.checkout.payment.gateway.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.BankUnavailableException;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.resilience.AdaptiveConcurrencyLimiter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+class ConcurrencyLimitingBankSimulatorTest {
+
+  private static final int CLIENTS = 16;
+
+  private StubBankServer bank;
+  private ExecutorService clients;
+  private BankSimulatorDefaultImpl bankClient;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    bank = new StubBankServer();
+    clients = Executors.newFixedThreadPool(CLIENTS);
+    bankClient = new BankSimulatorDefaultImpl(new RestTemplate());
+    ReflectionTestUtils.setField(bankClient, "baseUrl", bank.baseUrl());
+  }
+
+  @AfterEach
+  void tearDown() {
+    clients.shutdownNow();
+    bank.close();
+  }
+
+  @Test
+  void makePayment_BankSlowsDown_LimitGrowsThenShrinksAndCapsBankConcurrency() throws Exception {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("bank", 4, 1, 12, 1.5,
+        0.2, 0.9, 10, 500, CLIENTS, Duration.ofSeconds(5));
+    ConcurrencyLimitingBankSimulator bankSimulator =
+        new ConcurrencyLimitingBankSimulator(bankClient, limiter);
+
+    bank.setLatency(Duration.ofMillis(10));
+    runClients(bankSimulator, 15);
+    int healthyLimit = limiter.getLimit();
+
+    bank.setLatency(Duration.ofMillis(200));
+    runClients(bankSimulator, 3);
+
+    assertTrue(healthyLimit > 4, "healthy limit " + healthyLimit);
+    assertTrue(limiter.getLimit() < healthyLimit,
+        "healthy " + healthyLimit + ", degraded " + limiter.getLimit());
+    assertTrue(bank.maxConcurrentRequests() <= 12,
+        "bank concurrency " + bank.maxConcurrentRequests());
+    assertEquals(0, limiter.getInflight());
+  }
+
+  @Test
+  void makePayment_LimitReachedAndQueueFull_FailsFastWithoutCallingBank() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("bank", 1, 1, 1, 1.5,
+        0.2, 0.9, 10, 500, 0, Duration.ZERO);
+    ConcurrencyLimitingBankSimulator bankSimulator =
+        new ConcurrencyLimitingBankSimulator(bankClient, limiter);
+    assertTrue(limiter.tryAcquire());
+
+    assertThrows(BankUnavailableException.class,
+        () -> bankSimulator.makePayment(UUID.randomUUID(), createPostPaymentRequest()));
+
+    assertEquals(0, bank.requestCount());
+    assertEquals(1, limiter.rejectedCount());
+  }
+
+  private void runClients(ConcurrencyLimitingBankSimulator bankSimulator, int paymentsPerClient)
+      throws Exception {
+    List<Future<?>> futures = new ArrayList<>();
+    for (int i = 0; i < CLIENTS; i++) {
+      futures.add(clients.submit(() -> {
+        for (int j = 0; j < paymentsPerClient; j++) {
+          assertEquals(PaymentStatus.AUTHORIZED,
+              bankSimulator.makePayment(UUID.randomUUID(), createPostPaymentRequest()));
+        }
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+  }
+
+  private static PostPaymentRequest createPostPaymentRequest() {
+    PostPaymentRequest request = new PostPaymentRequest();
+    request.setCardNumber("378282246310005");
+    request.setExpiryMonth(12);
+    request.setExpiryYear(2030);
+    request.setCvv("123");
+    request.setCurrency("USD");
+    request.setAmount(10000);
+    return request;
+  }
+}
@@ -0,0 +1,146 @@
+package com.checkout.payment.gateway.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.AcquiringProcessException;
+import com.checkout.payment.gateway.exception.BankUnavailableException;
+import com.checkout.payment.gateway.exception.TransientBankException;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.resilience.Backoff;
+import com.checkout.payment.gateway.resilience.Deadline;
+import com.checkout.payment.gateway.resilience.LatencyPercentile;
+import com.checkout.payment.gateway.resilience.RetryBudget;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class RetryingBankSimulatorTest {
+
+  private static final Backoff NO_WAIT = new Backoff(Duration.ZERO, Duration.ZERO);
+
+  private final AtomicInteger calls = new AtomicInteger();
+  private final UUID paymentId = UUID.randomUUID();
+  private final PostPaymentRequest request = new PostPaymentRequest();
+
+  @Test
+  void makePayment_TransientFailure_RetriedUntilSuccess() {
+    RetryingBankSimulator bank = retrying(failing(2), 3, new RetryBudget("bank", 0.1, 10));
+
+    assertEquals(PaymentStatus.AUTHORIZED, bank.makePayment(paymentId, request));
+    assertEquals(3, calls.get());
+    assertEquals(2, bank.retryCount());
+  }
+
+  @Test
+  void makePayment_StillFailingAfterMaxAttempts_ThrowsLastFailure() {
+    RetryingBankSimulator bank = retrying(failing(5), 3, new RetryBudget("bank", 0.1, 10));
+
+    assertThrows(TransientBankException.class, () -> bank.makePayment(paymentId, request));
+    assertEquals(3, calls.get());
+  }
+
+  @Test
+  void makePayment_BankAnsweredOrCircuitOpen_NotRetried() {
+    RetryingBankSimulator declined = retrying((id, payment) -> {
+      calls.incrementAndGet();
+      throw new AcquiringProcessException("Bank returned null body");
+    }, 3, new RetryBudget("bank", 0.1, 10));
+    RetryingBankSimulator open = retrying((id, payment) -> {
+      calls.incrementAndGet();
+      throw new BankUnavailableException("Bank circuit is open", Duration.ofSeconds(1));
+    }, 3, new RetryBudget("bank", 0.1, 10));
+
+    assertThrows(AcquiringProcessException.class, () -> declined.makePayment(paymentId, request));
+    assertThrows(BankUnavailableException.class, () -> open.makePayment(paymentId, request));
+    assertEquals(2, calls.get());
+  }
+
+  @Test
+  void makePayment_BudgetSpent_NotRetried() {
+    RetryBudget budget = new RetryBudget("bank", 0, 0);
+    RetryingBankSimulator bank = retrying(failing(1), 3, budget);
+
+    assertThrows(TransientBankException.class, () -> bank.makePayment(paymentId, request));
+    assertEquals(1, calls.get());
+    assertEquals(1, budget.exhaustedCount());
+  }
+
+  @Test
+  void makePayment_DeadlineExpired_NotRetried() {
+    request.setDeadline(Deadline.after(Duration.ZERO));
+    RetryingBankSimulator bank = retrying(failing(1), 3, new RetryBudget("bank", 0.1, 10));
+
+    assertThrows(TransientBankException.class, () -> bank.makePayment(paymentId, request));
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  void makePayment_AttemptSlowerThanPercentile_HedgeAnswersFirst() throws Exception {
+    CountDownLatch slowAttempt = new CountDownLatch(1);
+    CountDownLatch slowAttemptCancelled = new CountDownLatch(1);
+    LatencyPercentile latency = new LatencyPercentile(0.95, 10);
+    for (int i = 0; i < 10; i++) {
+      latency.record(TimeUnit.MILLISECONDS.toNanos(1));
+    }
+    RetryingBankSimulator bank = new RetryingBankSimulator((id, payment) -> {
+      if (calls.incrementAndGet() == 1) {
+        try {
+          slowAttempt.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          slowAttemptCancelled.countDown();
+          Thread.currentThread().interrupt();
+        }
+      }
+      return PaymentStatus.AUTHORIZED;
+    }, new RetryBudget("bank", 0.1, 10), 1, NO_WAIT, latency, Duration.ofMillis(20));
+
+    long start = System.nanoTime();
+    PaymentStatus status = bank.makePayment(paymentId, request);
+    long elapsed = System.nanoTime() - start;
+    slowAttempt.countDown();
+
+    assertEquals(PaymentStatus.AUTHORIZED, status);
+    assertTrue(elapsed < TimeUnit.SECONDS.toNanos(1), "took " + elapsed + " ns");
+    assertEquals(2, calls.get());
+    assertEquals(1, bank.hedgeCount());
+    assertEquals(1, bank.hedgeWinCount());
+    assertTrue(slowAttemptCancelled.await(1, TimeUnit.SECONDS), "slow attempt not cancelled");
+  }
+
+  @Test
+  void close_HedgingEnabled_StopsHedgeThreads() {
+    LatencyPercentile latency = new LatencyPercentile(0.95, 10);
+    for (int i = 0; i < 10; i++) {
+      latency.record(TimeUnit.MILLISECONDS.toNanos(1));
+    }
+    RetryingBankSimulator bank = new RetryingBankSimulator(
+        (id, payment) -> PaymentStatus.AUTHORIZED, new RetryBudget("bank", 0.1, 10), 1, NO_WAIT,
+        latency, Duration.ofMillis(20));
+    assertEquals(PaymentStatus.AUTHORIZED, bank.makePayment(paymentId, request));
+
+    bank.close();
+
+    assertThrows(RejectedExecutionException.class, () -> bank.makePayment(paymentId, request));
+  }
+
+  private RetryingBankSimulator retrying(BankSimulatorInterface delegate, int maxAttempts,
+      RetryBudget budget) {
+    return new RetryingBankSimulator(delegate, budget, maxAttempts, NO_WAIT, null, Duration.ZERO);
+  }
+
+  private BankSimulatorInterface failing(int failures) {
+    return (id, payment) -> {
+      if (calls.incrementAndGet() <= failures) {
+        throw new TransientBankException("Bank responded with 503");
+      }
+      return PaymentStatus.AUTHORIZED;
+    };
+  }
+}
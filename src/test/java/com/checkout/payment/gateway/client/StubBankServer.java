@@ -0,0 +1,111 @@
+package com.checkout.payment.gateway.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the mountebank bank simulator. Mirrors {@code imposters/bank_simulator.ejs}:
+ * odd last digit authorizes, even declines, zero returns 503. Adds a configurable latency before
+ * every response and records the peak number of concurrent requests.
+ */
+public class StubBankServer implements AutoCloseable {
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+  private final AtomicInteger requests = new AtomicInteger();
+  private final AtomicInteger concurrent = new AtomicInteger();
+  private final AtomicInteger maxConcurrent = new AtomicInteger();
+  private volatile Duration latency = Duration.ZERO;
+
+  public StubBankServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    executor = Executors.newCachedThreadPool();
+    server.setExecutor(executor);
+    server.createContext("/payments", this::handle);
+    server.start();
+  }
+
+  public String baseUrl() {
+    return "http://127.0.0.1:" + server.getAddress().getPort();
+  }
+
+  public void setLatency(Duration latency) {
+    this.latency = latency;
+  }
+
+  public int requestCount() {
+    return requests.get();
+  }
+
+  public int maxConcurrentRequests() {
+    return maxConcurrent.get();
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    requests.incrementAndGet();
+    maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+    try {
+      respond(exchange);
+    } finally {
+      concurrent.decrementAndGet();
+    }
+  }
+
+  private void respond(HttpExchange exchange) throws IOException {
+    String body;
+    try (InputStream in = exchange.getRequestBody()) {
+      body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+    sleep(latency);
+
+    char lastDigit = lastCardDigit(body);
+    if (lastDigit == '0') {
+      respond(exchange, 503, "");
+    } else if ((lastDigit - '0') % 2 == 1) {
+      respond(exchange, 200, "{\"authorized\":true,\"authorization_code\":\"0bb07405\"}");
+    } else {
+      respond(exchange, 200, "{\"authorized\":false,\"authorization_code\":\"\"}");
+    }
+  }
+
+  private static char lastCardDigit(String body) {
+    int field = body.indexOf("\"card_number\"");
+    int end = body.indexOf('"', body.indexOf('"', body.indexOf(':', field) + 1) + 1);
+    return body.charAt(end - 1);
+  }
+
+  private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+
+  private static void sleep(Duration duration) {
+    if (duration.isZero()) {
+      return;
+    }
+    try {
+      Thread.sleep(duration.toMillis());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
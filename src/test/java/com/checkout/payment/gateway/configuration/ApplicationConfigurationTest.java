@@ -0,0 +1,65 @@
+package com.checkout.payment.gateway.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.checkout.payment.gateway.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ApplicationConfigurationTest {
+
+  private final ApplicationConfiguration configuration = new ApplicationConfiguration();
+
+  private PoolingHttpClientConnectionManager connectionManager;
+
+  @BeforeEach
+  void setUp() {
+    connectionManager = configuration.bankConnectionManager(20, 80, Duration.ofMinutes(5),
+        Duration.ofSeconds(2), Duration.ofSeconds(1), Duration.ofSeconds(5));
+  }
+
+  @AfterEach
+  void tearDown() {
+    connectionManager.close();
+  }
+
+  @Test
+  void bankConnectionManager_AppliesPoolLimits() {
+    assertEquals(20, connectionManager.getDefaultMaxPerRoute());
+    assertEquals(80, connectionManager.getMaxTotal());
+  }
+
+  @Test
+  void bankConnectionPoolMetrics_RegistersPoolGauges() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    configuration.bankConnectionPoolMetrics(connectionManager).bindTo(registry);
+
+    assertEquals(0, registry.get("bank.client.pool.leased").gauge().value());
+    assertEquals(0, registry.get("bank.client.pool.pending").gauge().value());
+    assertEquals(0, registry.get("bank.client.pool.available").gauge().value());
+    assertEquals(80, registry.get("bank.client.pool.max").gauge().value());
+  }
+
+  @Test
+  void bankCircuitBreakerMetrics_RegistersStateAndRejectionMeters() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    CircuitBreaker circuitBreaker = configuration.bankCircuitBreaker(10, 1, 50, 100,
+        Duration.ofSeconds(5), Duration.ofMinutes(1), 1);
+    circuitBreaker.tryAcquirePermission();
+    circuitBreaker.onFailure(0);
+    circuitBreaker.tryAcquirePermission();
+
+    configuration.bankCircuitBreakerMetrics(circuitBreaker).bindTo(registry);
+
+    assertEquals(1, registry.get("bank.client.circuit.state").gauge().value());
+    assertEquals(100, registry.get("bank.client.circuit.failure.rate").gauge().value());
+    assertEquals(1, registry.get("bank.client.circuit.rejected").functionCounter().count());
+    assertEquals(1, registry.get("bank.client.circuit.transitions").tag("state", "open")
+        .functionCounter().count());
+  }
+}
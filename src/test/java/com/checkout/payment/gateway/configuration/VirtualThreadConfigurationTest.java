@@ -0,0 +1,20 @@
+package com.checkout.payment.gateway.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class VirtualThreadConfigurationTest {
+
+  private final VirtualThreadConfiguration configuration = new VirtualThreadConfiguration();
+
+  @Test
+  void applicationTaskExecutor_RunsTasksOnVirtualThreads() throws Exception {
+    boolean virtual = configuration.applicationTaskExecutor()
+        .submit(() -> Thread.currentThread().isVirtual())
+        .get(5, TimeUnit.SECONDS);
+
+    assertTrue(virtual);
+  }
+}
@@ -1,5 +1,6 @@
 package com.checkout.payment.gateway.controller;
 
+import com.checkout.payment.gateway.cache.PaymentJsonCache;
 import com.checkout.payment.gateway.enums.PaymentStatus;
 import com.checkout.payment.gateway.model.PostPaymentResponse;
 import com.checkout.payment.gateway.repository.PaymentsRepository;
@@ -8,11 +9,18 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.util.UUID;
 
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -52,6 +60,58 @@ class PaymentGatewayControllerGetTest {
         .andExpect(jsonPath("$.amount").value(payment.getAmount()));
   }
 
+  @Test
+  void getPostPaymentEventById_ExistingPayment_ReturnsContentETagAndCacheControl()
+      throws Exception {
+    PostPaymentResponse payment = payment(PaymentStatus.AUTHORIZED, "GBP");
+    paymentsRepository.add(payment);
+
+    MvcResult result = mvc.perform(MockMvcRequestBuilders.get("/v1/payments/" + payment.getId()))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL,
+            "max-age=31536000, private, immutable"))
+        .andExpect(jsonPath("$.id").value(payment.getId().toString()))
+        .andReturn();
+
+    assertEquals(PaymentJsonCache.etag(result.getResponse().getContentAsByteArray()),
+        result.getResponse().getHeader(HttpHeaders.ETAG));
+  }
+
+  @Test
+  void getPostPaymentEventById_MatchingIfNoneMatch_ReturnsNotModified() throws Exception {
+    PostPaymentResponse payment = payment(PaymentStatus.AUTHORIZED, "GBP");
+    paymentsRepository.add(payment);
+    String etag = mvc.perform(MockMvcRequestBuilders.get("/v1/payments/" + payment.getId()))
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    mvc.perform(MockMvcRequestBuilders.get("/v1/payments/" + payment.getId())
+            .header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, etag))
+        .andExpect(content().bytes(new byte[0]));
+  }
+
+  @Test
+  void getPostPaymentEventById_StaleIfNoneMatch_ReturnsPayment() throws Exception {
+    PostPaymentResponse payment = payment(PaymentStatus.AUTHORIZED, "GBP");
+    paymentsRepository.add(payment);
+
+    mvc.perform(MockMvcRequestBuilders.get("/v1/payments/" + payment.getId())
+            .header(HttpHeaders.IF_NONE_MATCH, "\"" + UUID.randomUUID() + "\""))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.amount").value(payment.getAmount()));
+  }
+
+  @Test
+  void getPostPaymentEventById_UnknownPaymentWithIfNoneMatch_ReturnsNotFound() throws Exception {
+    UUID id = UUID.randomUUID();
+
+    mvc.perform(MockMvcRequestBuilders.get("/v1/payments/" + id)
+            .header(HttpHeaders.IF_NONE_MATCH, "\"" + id + "\""))
+        .andExpect(status().isNotFound());
+  }
+
   @Test
   void whenPaymentWithIdDoesNotExistThen404IsReturned() throws Exception {
     mvc.perform(MockMvcRequestBuilders.get("/v1/payments/" + UUID.randomUUID()))
@@ -73,4 +133,77 @@ class PaymentGatewayControllerGetTest {
         .andExpect(status().isNotFound())
         .andExpect(jsonPath("$.message").value("Page not found"));
   }
-}
\ No newline at end of file
+
+  @Test
+  void getPostPaymentEvents_FilteredByStatusAndCurrency_ReturnsMatchingPaymentsWithCursor()
+      throws Exception {
+    for (int i = 0; i < 3; i++) {
+      paymentsRepository.add(payment(PaymentStatus.DECLINED, "NZD"));
+    }
+    paymentsRepository.add(payment(PaymentStatus.AUTHORIZED, "NZD"));
+
+    mvc.perform(MockMvcRequestBuilders.get("/v1/payments")
+            .param("status", "declined")
+            .param("currency", "NZD")
+            .param("limit", "2"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.payments", hasSize(2)))
+        .andExpect(jsonPath("$.payments[0].status").value("Declined"))
+        .andExpect(jsonPath("$.payments[0].currency").value("NZD"))
+        .andExpect(jsonPath("$.nextCursor").isString());
+  }
+
+  @Test
+  void getPostPaymentEvents_UnknownStatus_ReturnsBadRequest() throws Exception {
+    mvc.perform(MockMvcRequestBuilders.get("/v1/payments").param("status", "Pending"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value("Unknown payment status: Pending"));
+  }
+
+  @Test
+  void getPostPaymentEvents_InvalidCursor_ReturnsBadRequest() throws Exception {
+    mvc.perform(MockMvcRequestBuilders.get("/v1/payments").param("cursor", "bogus"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value("Invalid cursor"));
+  }
+
+  @Test
+  void searchPostPaymentEvents_ByCardAndAmount_ReturnsMatchingPayment() throws Exception {
+    PostPaymentResponse match = payment(PaymentStatus.AUTHORIZED, "USD");
+    match.setCardNumberLastFour("8642");
+    match.setAmount(98765);
+    paymentsRepository.add(match);
+    PostPaymentResponse otherAmount = payment(PaymentStatus.AUTHORIZED, "USD");
+    otherAmount.setCardNumberLastFour("8642");
+    paymentsRepository.add(otherAmount);
+
+    mvc.perform(MockMvcRequestBuilders.get("/v1/payments/search")
+            .param("lastFour", "8642")
+            .param("expiryMonth", "12")
+            .param("expiryYear", "2030")
+            .param("amount", "98765"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.payments", hasSize(1)))
+        .andExpect(jsonPath("$.payments[0].id").value(match.getId().toString()))
+        .andExpect(jsonPath("$.nextCursor").doesNotExist());
+  }
+
+  @Test
+  void searchPostPaymentEvents_InvalidLastFour_ReturnsBadRequest() throws Exception {
+    mvc.perform(MockMvcRequestBuilders.get("/v1/payments/search").param("lastFour", "12a4"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value("Last four must be 4 digits"));
+  }
+
+  private static PostPaymentResponse payment(PaymentStatus status, String currency) {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(UUID.randomUUID());
+    payment.setAmount(10);
+    payment.setCurrency(currency);
+    payment.setStatus(status);
+    payment.setExpiryMonth(12);
+    payment.setExpiryYear(2030);
+    payment.setCardNumberLastFour("4321");
+    return payment;
+  }
+}
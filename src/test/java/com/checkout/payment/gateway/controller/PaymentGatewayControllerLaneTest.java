@@ -0,0 +1,143 @@
+package com.checkout.payment.gateway.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.resilience.Bulkhead;
+import com.checkout.payment.gateway.service.PaymentGatewayService;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Year;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+/**
+ * Runs the real server with 20 request threads, 10 of them for the write lane, against a bank
+ * that holds every payment for 2 s, and checks that reads stay fast while the write lane is full.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+    "server.tomcat.threads.max=20",
+    "payments.lanes.write.max-concurrent=10",
+    "payments.lanes.read.max-concurrent=10",
+    "payments.admission.target-latency=0"})
+class PaymentGatewayControllerLaneTest {
+
+  private static final long BANK_LATENCY_MILLIS = 2_000;
+  private static final int POST_CLIENTS = 60;
+  private static final int GET_CLIENTS = 4;
+  private static final int GETS_PER_CLIENT = 50;
+
+  @LocalServerPort
+  private int port;
+
+  @Autowired
+  private Bulkhead paymentWriteBulkhead;
+
+  @MockBean
+  private PaymentGatewayService paymentGatewayService;
+
+  @Test
+  void getPaymentById_WriteLaneSaturated_ReadLatencyUnaffected() throws Exception {
+    PostPaymentResponse stored = payment();
+    when(paymentGatewayService.getPaymentById(stored.getId())).thenReturn(Optional.of(stored));
+    when(paymentGatewayService.processPaymentAsync(any())).thenAnswer(invocation -> {
+      Thread.sleep(BANK_LATENCY_MILLIS);
+      return CompletableFuture.completedFuture(payment());
+    });
+
+    HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .build();
+    URI payments = URI.create("http://127.0.0.1:" + port + "/v1/payments");
+    HttpRequest post = HttpRequest.newBuilder(payments)
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString("""
+            {"cardNumber": "378282246310005", "expiryMonth": 12, "expiryYear": %d,
+             "currency": "GBP", "amount": 100, "cvv": "123"}
+            """.formatted(Year.now().getValue() + 1)))
+        .build();
+    HttpRequest get = HttpRequest.newBuilder(payments.resolve("payments/" + stored.getId()))
+        .GET()
+        .build();
+
+    AtomicInteger rejectedPosts = new AtomicInteger();
+    AtomicLong postsDeadline = new AtomicLong(Long.MAX_VALUE);
+    long[] readLatencies = new long[GET_CLIENTS * GETS_PER_CLIENT];
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < POST_CLIENTS; i++) {
+        executor.submit(() -> {
+          while (System.nanoTime() < postsDeadline.get()) {
+            if (client.send(post, HttpResponse.BodyHandlers.discarding()).statusCode() == 503) {
+              rejectedPosts.incrementAndGet();
+              Thread.sleep(5);
+            }
+          }
+          return null;
+        });
+      }
+      long saturatedBy = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+      while (paymentWriteBulkhead.getInflight() < paymentWriteBulkhead.getMaxConcurrent()) {
+        assertTrue(System.nanoTime() < saturatedBy, "Write lane never filled up");
+        Thread.sleep(10);
+      }
+
+      Future<?>[] readers = new Future<?>[GET_CLIENTS];
+      for (int r = 0; r < GET_CLIENTS; r++) {
+        int offset = r * GETS_PER_CLIENT;
+        readers[r] = executor.submit(() -> {
+          for (int i = 0; i < GETS_PER_CLIENT; i++) {
+            long start = System.nanoTime();
+            assertEquals(200, client.send(get, HttpResponse.BodyHandlers.discarding())
+                .statusCode());
+            readLatencies[offset + i] = System.nanoTime() - start;
+          }
+          return null;
+        });
+      }
+      for (Future<?> reader : readers) {
+        reader.get(30, TimeUnit.SECONDS);
+      }
+      postsDeadline.set(System.nanoTime());
+    }
+
+    Arrays.sort(readLatencies);
+    long p99 = readLatencies[(int) Math.ceil(0.99 * readLatencies.length) - 1];
+    assertTrue(p99 < TimeUnit.MILLISECONDS.toNanos(BANK_LATENCY_MILLIS / 4),
+        "GET p99 was " + TimeUnit.NANOSECONDS.toMillis(p99) + " ms");
+    assertTrue(rejectedPosts.get() > 0);
+  }
+
+  private static PostPaymentResponse payment() {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(UUID.randomUUID());
+    payment.setAmount(100);
+    payment.setCurrency("GBP");
+    payment.setStatus(PaymentStatus.AUTHORIZED);
+    payment.setExpiryMonth(12);
+    payment.setExpiryYear(Year.now().getValue() + 1);
+    payment.setCardNumberLastFour("0005");
+    return payment;
+  }
+}
@@ -1,16 +1,31 @@
 package com.checkout.payment.gateway.controller;
 
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.checkout.payment.gateway.enums.CardScheme;
 import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.AcquiringProcessException;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
 import com.checkout.payment.gateway.model.PostPaymentResponse;
 import com.checkout.payment.gateway.repository.PaymentsRepository;
+import com.checkout.payment.gateway.resilience.Bulkhead;
 import com.checkout.payment.gateway.service.PaymentGatewayService;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -18,6 +33,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 @SpringBootTest
@@ -36,6 +52,9 @@ class PaymentGatewayControllerPostTest {
   @Autowired
   private ObjectMapper objectMapper;
 
+  @Autowired
+  private Bulkhead paymentWriteBulkhead;
+
   @Test
   void createPostPaymentEvent_ValidRequest_ReturnsCreatedPayment() throws Exception {
     PostPaymentResponse expectedResponse = new PostPaymentResponse();
@@ -46,8 +65,10 @@ class PaymentGatewayControllerPostTest {
     expectedResponse.setExpiryMonth(12);
     expectedResponse.setExpiryYear(2026);
     expectedResponse.setCardNumberLastFour("0366");
+    expectedResponse.setScheme(CardScheme.VISA);
 
-    when(paymentGatewayService.processPayment(any())).thenReturn(expectedResponse);
+    when(paymentGatewayService.processPaymentAsync(any()))
+        .thenReturn(CompletableFuture.completedFuture(expectedResponse));
 
     String requestBody = """
         {
@@ -60,13 +81,18 @@ class PaymentGatewayControllerPostTest {
         }
         """;
 
-    mvc.perform(MockMvcRequestBuilders.post("/v1/payments")
+    MvcResult result = mvc.perform(MockMvcRequestBuilders.post("/v1/payments")
             .contentType(MediaType.APPLICATION_JSON)
             .content(requestBody))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    mvc.perform(asyncDispatch(result))
         .andExpect(status().isOk())
         .andExpect(jsonPath("$.id").exists())
         .andExpect(jsonPath("$.status").value("Authorized"))
         .andExpect(jsonPath("$.cardNumberLastFour").value("0366"))
+        .andExpect(jsonPath("$.scheme").value("Visa"))
         .andExpect(jsonPath("$.expiryMonth").value(12))
         .andExpect(jsonPath("$.expiryYear").value(2026))
         .andExpect(jsonPath("$.currency").value("USD"))
@@ -84,7 +110,8 @@ class PaymentGatewayControllerPostTest {
     expectedResponse.setExpiryYear(2026);
     expectedResponse.setCardNumberLastFour("0366");
 
-    when(paymentGatewayService.processPayment(any())).thenReturn(expectedResponse);
+    when(paymentGatewayService.processPaymentAsync(any()))
+        .thenReturn(CompletableFuture.completedFuture(expectedResponse));
 
     String requestBody = """
         {
@@ -97,14 +124,286 @@ class PaymentGatewayControllerPostTest {
         }
         """;
 
-    mvc.perform(MockMvcRequestBuilders.post("/v1/payments")
+    MvcResult result = mvc.perform(MockMvcRequestBuilders.post("/v1/payments")
             .contentType(MediaType.APPLICATION_JSON)
             .content(requestBody))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    mvc.perform(asyncDispatch(result))
         .andExpect(status().isOk())
         .andExpect(jsonPath("$.status").value("Declined"))
         .andExpect(jsonPath("$.amount").value(100));
   }
 
+  @Test
+  void createPostPaymentEvent_BankFails_ReturnsBadGateway() throws Exception {
+    when(paymentGatewayService.processPaymentAsync(any()))
+        .thenReturn(CompletableFuture.failedFuture(
+            new AcquiringProcessException("Bank simulator respond with error")));
+
+    String requestBody = """
+        {
+          "cardNumber": "4532015112830366",
+          "expiryMonth": 12,
+          "expiryYear": 2026,
+          "currency": "USD",
+          "amount": 100,
+          "cvv": "123"
+        }
+        """;
+
+    MvcResult result = mvc.perform(MockMvcRequestBuilders.post("/v1/payments")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(requestBody))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    mvc.perform(asyncDispatch(result))
+        .andExpect(status().isBadGateway())
+        .andExpect(jsonPath("$.message").value(
+            "Error processing payment. Acquiring Bank integration error.Try again later."));
+  }
+
+  @Test
+  void createPostPaymentEvent_RepeatedIdempotencyKey_ReplaysFirstResponse() throws Exception {
+    PostPaymentResponse expectedResponse = new PostPaymentResponse();
+    expectedResponse.setId(UUID.randomUUID());
+    expectedResponse.setAmount(100);
+    expectedResponse.setCurrency("USD");
+    expectedResponse.setStatus(PaymentStatus.AUTHORIZED);
+    expectedResponse.setExpiryMonth(12);
+    expectedResponse.setExpiryYear(2026);
+    expectedResponse.setCardNumberLastFour("0366");
+
+    when(paymentGatewayService.processPaymentAsync(any()))
+        .thenReturn(CompletableFuture.completedFuture(expectedResponse));
+
+    String requestBody = """
+        {
+          "cardNumber": "4532015112830366",
+          "expiryMonth": 12,
+          "expiryYear": 2026,
+          "currency": "USD",
+          "amount": 100,
+          "cvv": "123"
+        }
+        """;
+    String idempotencyKey = UUID.randomUUID().toString();
+
+    for (int i = 0; i < 2; i++) {
+      MvcResult result = mvc.perform(MockMvcRequestBuilders.post("/v1/payments")
+              .header("Idempotency-Key", idempotencyKey)
+              .contentType(MediaType.APPLICATION_JSON)
+              .content(requestBody))
+          .andExpect(request().asyncStarted())
+          .andReturn();
+
+      mvc.perform(asyncDispatch(result))
+          .andExpect(status().isOk())
+          .andExpect(jsonPath("$.id").value(expectedResponse.getId().toString()));
+    }
+
+    verify(paymentGatewayService, times(1)).processPaymentAsync(any());
+  }
+
+  @Test
+  void createPostPaymentEvent_IdempotencyKeyReusedForDifferentPayment_ReturnsUnprocessableEntity()
+      throws Exception {
+    PostPaymentResponse expectedResponse = new PostPaymentResponse();
+    expectedResponse.setId(UUID.randomUUID());
+    expectedResponse.setStatus(PaymentStatus.AUTHORIZED);
+
+    when(paymentGatewayService.processPaymentAsync(any()))
+        .thenReturn(CompletableFuture.completedFuture(expectedResponse));
+
+    String requestBody = """
+        {
+          "cardNumber": "4532015112830366",
+          "expiryMonth": 12,
+          "expiryYear": 2026,
+          "currency": "USD",
+          "amount": %d,
+          "cvv": "123"
+        }
+        """;
+    String idempotencyKey = UUID.randomUUID().toString();
+
+    MvcResult result = mvc.perform(MockMvcRequestBuilders.post("/v1/payments")
+            .header("Idempotency-Key", idempotencyKey)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(requestBody.formatted(100)))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    mvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk());
+
+    mvc.perform(MockMvcRequestBuilders.post("/v1/payments")
+            .header("Idempotency-Key", idempotencyKey)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(requestBody.formatted(200)))
+        .andExpect(status().isUnprocessableEntity())
+        .andExpect(jsonPath("$.message").value(
+            "Idempotency key was already used with a different payment request"));
+  }
+
+  @Test
+  void createPostPaymentEventBatch_MixedItems_ReturnsPerItemResultsInOrder() throws Exception {
+    when(paymentGatewayService.processPaymentAsync(any())).thenAnswer(invocation -> {
+      PostPaymentRequest request = invocation.getArgument(0);
+      if (request.getAmount() == 300) {
+        return CompletableFuture.failedFuture(
+            new AcquiringProcessException("Bank simulator respond with error"));
+      }
+      PostPaymentResponse response = new PostPaymentResponse();
+      response.setId(UUID.randomUUID());
+      response.setStatus(PaymentStatus.AUTHORIZED);
+      response.setAmount(request.getAmount());
+      return CompletableFuture.completedFuture(response);
+    });
+
+    String requestBody = """
+        [
+          {"cardNumber": "4532015112830366", "expiryMonth": 12, "expiryYear": 2030,
+           "currency": "USD", "amount": 100, "cvv": "123"},
+          {"cardNumber": "invalid-card", "expiryMonth": 12, "expiryYear": 2030,
+           "currency": "USD", "amount": 200, "cvv": "123"},
+          {"cardNumber": "4532015112830366", "expiryMonth": 12, "expiryYear": 2030,
+           "currency": "USD", "amount": 300, "cvv": "123"}
+        ]
+        """;
+
+    MvcResult result = mvc.perform(MockMvcRequestBuilders.post("/v1/payments/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(requestBody))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    mvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].index").value(0))
+        .andExpect(jsonPath("$[0].status").value(200))
+        .andExpect(jsonPath("$[0].payment.status").value("Authorized"))
+        .andExpect(jsonPath("$[0].payment.amount").value(100))
+        .andExpect(jsonPath("$[1].index").value(1))
+        .andExpect(jsonPath("$[1].status").value(400))
+        .andExpect(jsonPath("$[1].error.status").value("Rejected"))
+        .andExpect(jsonPath("$[1].error.message").value(startsWith("cardNumber: ")))
+        .andExpect(jsonPath("$[2].index").value(2))
+        .andExpect(jsonPath("$[2].status").value(502))
+        .andExpect(jsonPath("$[2].error.message").value(
+            "Error processing payment. Acquiring Bank integration error.Try again later."));
+
+    verify(paymentGatewayService, times(2)).processPaymentAsync(any());
+  }
+
+  @Test
+  void createPostPaymentEventBatch_EmptyBatch_ReturnsBadRequest() throws Exception {
+    mvc.perform(MockMvcRequestBuilders.post("/v1/payments/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("[]"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value("Batch must contain between 1 and 1000 payments"));
+  }
+
+  @Test
+  void ingestPostPaymentEventStream_NdjsonRecords_StreamsOneResultPerRecord() throws Exception {
+    when(paymentGatewayService.processPaymentAsync(any())).thenAnswer(invocation -> {
+      PostPaymentRequest request = invocation.getArgument(0);
+      PostPaymentResponse response = new PostPaymentResponse();
+      response.setId(UUID.randomUUID());
+      response.setStatus(PaymentStatus.AUTHORIZED);
+      response.setAmount(request.getAmount());
+      return CompletableFuture.completedFuture(response);
+    });
+
+    String requestBody = """
+        {"cardNumber": "4532015112830366", "expiryMonth": 12, "expiryYear": 2030, \
+        "currency": "USD", "amount": 100, "cvv": "123"}
+        {"cardNumber": "4532015112830366", "expiryMonth": 12, "expiryYear": 2030, \
+        "currency": "XYZ", "amount": 200, "cvv": "123"}
+        """;
+
+    MvcResult result = mvc.perform(MockMvcRequestBuilders.post("/v1/payments/stream")
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .content(requestBody))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+        .andReturn();
+
+    String[] lines = result.getResponse().getContentAsString().split("\n");
+    assertEquals(2, lines.length);
+    Map<Integer, JsonNode> results = new HashMap<>();
+    for (String line : lines) {
+      JsonNode item = objectMapper.readTree(line);
+      results.put(item.get("index").asInt(), item);
+    }
+    assertEquals(200, results.get(0).get("status").asInt());
+    assertEquals(100, results.get(0).get("payment").get("amount").asInt());
+    assertEquals(400, results.get(1).get("status").asInt());
+    assertEquals("Rejected", results.get(1).get("error").get("status").asText());
+    verify(paymentGatewayService, times(1)).processPaymentAsync(any());
+  }
+
+  @Test
+  void batchAndStream_WriteLaneFull_ReturnServiceUnavailable() throws Exception {
+    int taken = 0;
+    while (paymentWriteBulkhead.tryAcquire()) {
+      taken++;
+    }
+    try {
+      mvc.perform(MockMvcRequestBuilders.post("/v1/payments/batch")
+              .contentType(MediaType.APPLICATION_JSON)
+              .content("""
+                  [{"cardNumber": "4532015112830366", "expiryMonth": 12, "expiryYear": 2030,
+                    "currency": "USD", "amount": 100, "cvv": "123"}]
+                  """))
+          .andExpect(status().isServiceUnavailable());
+      mvc.perform(MockMvcRequestBuilders.post("/v1/payments/stream")
+              .contentType(MediaType.APPLICATION_NDJSON)
+              .content("""
+                  {"cardNumber": "4532015112830366", "expiryMonth": 12, "expiryYear": 2030, \
+                  "currency": "USD", "amount": 100, "cvv": "123"}
+                  """))
+          .andExpect(status().isServiceUnavailable());
+    } finally {
+      for (int i = 0; i < taken; i++) {
+        paymentWriteBulkhead.release();
+      }
+    }
+    verify(paymentGatewayService, times(0)).processPaymentAsync(any());
+  }
+
+  @Test
+  void createPostPaymentEvent_NonPositiveRequestTimeout_ReturnsBadRequest() throws Exception {
+    String requestBody = """
+        {
+          "cardNumber": "4532015112830366",
+          "expiryMonth": 12,
+          "expiryYear": 2030,
+          "currency": "USD",
+          "amount": 100,
+          "cvv": "123"
+        }
+        """;
+
+    mvc.perform(MockMvcRequestBuilders.post("/v1/payments")
+            .contentType(MediaType.APPLICATION_JSON)
+            .header("Request-Timeout", "0")
+            .content(requestBody))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.status").value("Rejected"))
+        .andExpect(jsonPath("$.message")
+            .value("Request-Timeout must be a positive number of milliseconds"));
+    mvc.perform(MockMvcRequestBuilders.post("/v1/payments/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .header("Request-Timeout", "-1")
+            .content("[" + requestBody + "]"))
+        .andExpect(status().isBadRequest());
+
+    verify(paymentGatewayService, times(0)).processPaymentAsync(any());
+  }
+
   @Test
   void createPostPaymentEvent_InvalidCardNumber_ReturnsBadRequest() throws Exception {
     String requestBody = """
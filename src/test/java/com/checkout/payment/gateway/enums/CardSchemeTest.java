@@ -0,0 +1,36 @@
+package com.checkout.payment.gateway.enums;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class CardSchemeTest {
+
+  @Test
+  void getCode_StoredCodes_NeverChange() {
+    // Repositories persist these codes; changing one corrupts every stored payment.
+    assertEquals(1, CardScheme.VISA.getCode());
+    assertEquals(2, CardScheme.MASTERCARD.getCode());
+    assertEquals(3, CardScheme.AMERICAN_EXPRESS.getCode());
+    assertEquals(4, CardScheme.DISCOVER.getCode());
+    assertEquals(5, CardScheme.DINERS_CLUB.getCode());
+    assertEquals(6, CardScheme.JCB.getCode());
+    assertEquals(7, CardScheme.UNIONPAY.getCode());
+    assertEquals(8, CardScheme.MAESTRO.getCode());
+  }
+
+  @Test
+  void fromCode_EveryScheme_RoundTrips() {
+    for (CardScheme scheme : CardScheme.values()) {
+      assertEquals(scheme, CardScheme.fromCode(scheme.getCode()));
+    }
+  }
+
+  @Test
+  void fromCode_UnknownCode_Throws() {
+    assertThrows(IllegalArgumentException.class, () -> CardScheme.fromCode((byte) 0));
+    assertThrows(IllegalArgumentException.class, () -> CardScheme.fromCode((byte) 99));
+    assertThrows(IllegalArgumentException.class, () -> CardScheme.fromCode((byte) -1));
+  }
+}
@@ -2,8 +2,14 @@ package com.checkout.payment.gateway.exception.handler;
 
 import com.checkout.payment.gateway.enums.PaymentStatus;
 import com.checkout.payment.gateway.exception.AcquiringProcessException;
+import com.checkout.payment.gateway.exception.BankUnavailableException;
+import com.checkout.payment.gateway.exception.DeadlineExceededException;
 import com.checkout.payment.gateway.exception.EntityNotFoundException;
 import com.checkout.payment.gateway.exception.EventProcessingException;
+import com.checkout.payment.gateway.exception.IdempotencyKeyConflictException;
+import com.checkout.payment.gateway.exception.InvalidIdempotencyKeyException;
+import com.checkout.payment.gateway.exception.InvalidPaymentQueryException;
+import com.checkout.payment.gateway.exception.ServiceOverloadedException;
 import com.checkout.payment.gateway.model.ErrorResponse;
 import com.checkout.payment.gateway.model.ErrorResponseStatus;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,6 +17,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -20,6 +27,7 @@ import org.springframework.validation.ObjectError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -58,6 +66,103 @@ class CommonExceptionHandlerTest {
     assertEquals("Error processing payment. Acquiring Bank integration error.Try again later.", response.getBody().getMessage());
   }
 
+  @Test
+  void handleBankUnavailableException_ReturnsServiceUnavailableWithRetryAfter() {
+    BankUnavailableException exception = new BankUnavailableException("Circuit open",
+        Duration.ofMillis(2500));
+
+    ResponseEntity<ErrorResponse> response = exceptionHandler.handleBankUnavailableException(exception);
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+    assertEquals("3", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    assertNotNull(response.getBody());
+    assertEquals("Error processing payment. Acquiring Bank is unavailable.Try again later.", response.getBody().getMessage());
+  }
+
+  @Test
+  void handleServiceOverloadedException_ReturnsServiceUnavailableWithRetryAfter() {
+    ServiceOverloadedException exception = new ServiceOverloadedException("Pipeline full",
+        Duration.ofMillis(200));
+
+    ResponseEntity<ErrorResponse> response =
+        exceptionHandler.handleServiceOverloadedException(exception);
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+    assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    assertNotNull(response.getBody());
+    assertEquals("Error processing payment. Payment gateway is overloaded. Try again later.",
+        response.getBody().getMessage());
+  }
+
+  @Test
+  void handleDeadlineExceededException_ReturnsGatewayTimeout() {
+    DeadlineExceededException exception = new DeadlineExceededException("Deadline expired");
+
+    ResponseEntity<ErrorResponse> response =
+        exceptionHandler.handleDeadlineExceededException(exception);
+
+    assertEquals(HttpStatus.GATEWAY_TIMEOUT, response.getStatusCode());
+    assertNotNull(response.getBody());
+    assertEquals("Error processing payment. Request deadline exceeded.",
+        response.getBody().getMessage());
+  }
+
+  @Test
+  void handleIdempotencyKeyConflictException_ReturnsUnprocessableEntityResponse() {
+    IdempotencyKeyConflictException exception = new IdempotencyKeyConflictException("Key reused");
+
+    ResponseEntity<ErrorResponse> response = exceptionHandler.handleIdempotencyKeyConflictException(exception);
+
+    assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+    assertNotNull(response.getBody());
+    assertEquals("Key reused", response.getBody().getMessage());
+  }
+
+  @Test
+  void handleInvalidIdempotencyKeyException_ReturnsBadRequestResponse() {
+    InvalidIdempotencyKeyException exception = new InvalidIdempotencyKeyException("Invalid key");
+
+    ResponseEntity<ErrorResponse> response = exceptionHandler.handleInvalidIdempotencyKeyException(exception);
+
+    assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    assertNotNull(response.getBody());
+    assertEquals("Invalid key", response.getBody().getMessage());
+  }
+
+  @Test
+  void handleInvalidPaymentQueryException_ReturnsBadRequestResponse() {
+    InvalidPaymentQueryException exception = new InvalidPaymentQueryException("Invalid cursor");
+
+    ResponseEntity<ErrorResponse> response = exceptionHandler.handleInvalidPaymentQueryException(exception);
+
+    assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    assertNotNull(response.getBody());
+    assertEquals("Invalid cursor", response.getBody().getMessage());
+  }
+
+  @Test
+  void handleBatchItemFailure_BankUnavailable_ReturnsSameResponseAsSinglePayment() {
+    BankUnavailableException exception = new BankUnavailableException("Circuit open",
+        Duration.ofSeconds(1));
+
+    ResponseEntity<ErrorResponse> response = exceptionHandler.handleBatchItemFailure(exception);
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+    assertNotNull(response.getBody());
+    assertEquals("Error processing payment. Acquiring Bank is unavailable.Try again later.", response.getBody().getMessage());
+  }
+
+  @Test
+  void handleBatchItemFailure_Overloaded_ReturnsServiceUnavailableWithRetryAfter() {
+    ServiceOverloadedException exception = new ServiceOverloadedException("Shedding",
+        Duration.ofSeconds(2));
+
+    ResponseEntity<ErrorResponse> response = exceptionHandler.handleBatchItemFailure(exception);
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+    assertEquals("2", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+  }
+
   @Test
   void handleValidationException_WithFieldErrors_ReturnsBadRequestWithFieldErrors() {
     MethodArgumentNotValidException exception = createValidationExceptionWithFieldErrors();
@@ -0,0 +1,63 @@
+package com.checkout.payment.gateway.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PaymentFilter;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.repository.StripedPaymentsRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PaymentExporterTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void export_ManyPayments_WritesOneJsonLinePerMatchingPayment() throws Exception {
+    StripedPaymentsRepository repository = new StripedPaymentsRepository(8);
+    Set<String> authorized = new HashSet<>();
+    for (int i = 0; i < 20_000; i++) {
+      PostPaymentResponse payment = new PostPaymentResponse();
+      payment.setId(UUID.randomUUID());
+      payment.setStatus(i % 4 == 0 ? PaymentStatus.DECLINED : PaymentStatus.AUTHORIZED);
+      payment.setCardNumberLastFour("0366");
+      payment.setExpiryMonth(4);
+      payment.setExpiryYear(2030);
+      payment.setCurrency("GBP");
+      payment.setAmount(i);
+      repository.add(payment);
+      if (payment.getStatus() == PaymentStatus.AUTHORIZED) {
+        authorized.add(payment.getId().toString());
+      }
+    }
+    Path file = directory.resolve("payments.ndjson");
+    Files.writeString(file, "stale content that must be truncated\n".repeat(100_000));
+
+    long exported = new PaymentExporter(repository, objectMapper)
+        .export(new PaymentFilter(null, null, PaymentStatus.AUTHORIZED, null), file);
+
+    List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+    assertEquals(authorized.size(), exported);
+    assertEquals(authorized.size(), lines.size());
+    Set<String> ids = new HashSet<>();
+    for (String line : lines) {
+      JsonNode payment = objectMapper.readTree(line);
+      assertEquals("Authorized", payment.get("status").asText());
+      ids.add(payment.get("id").asText());
+    }
+    assertEquals(authorized, ids);
+  }
+}
@@ -0,0 +1,96 @@
+package com.checkout.payment.gateway.generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class TimeOrderedPaymentIdGeneratorTest {
+
+  private static final long NOW = 1_760_000_000_000L;
+
+  @Test
+  void nextId_IsVersion7WithRfcVariant() {
+    UUID id = new TimeOrderedPaymentIdGenerator().nextId();
+
+    assertEquals(7, id.version());
+    assertEquals(2, id.variant());
+  }
+
+  @Test
+  void nextId_EmbedsClockTimestamp() {
+    UUID id = new TimeOrderedPaymentIdGenerator(() -> NOW).nextId();
+
+    assertEquals(NOW, TimeOrderedPaymentIdGenerator.timestampMillis(id));
+  }
+
+  @Test
+  void timestampMillis_RandomUuid_ReturnsMinusOne() {
+    assertEquals(-1, TimeOrderedPaymentIdGenerator.timestampMillis(UUID.randomUUID()));
+  }
+
+  @Test
+  void nextId_StalledOrBackwardsClock_StaysStrictlyIncreasing() {
+    AtomicLong clock = new AtomicLong(NOW);
+    TimeOrderedPaymentIdGenerator generator = new TimeOrderedPaymentIdGenerator(clock::get);
+
+    UUID previous = generator.nextId();
+    for (int i = 0; i < 10_000; i++) {
+      if (i == 5_000) {
+        clock.set(NOW - 60_000);
+      }
+      UUID next = generator.nextId();
+      assertTrue(Long.compareUnsigned(next.getMostSignificantBits(),
+          previous.getMostSignificantBits()) > 0);
+      previous = next;
+    }
+  }
+
+  @Test
+  void nextId_SequenceExhausted_BorrowsNextMillisecond() {
+    TimeOrderedPaymentIdGenerator generator = new TimeOrderedPaymentIdGenerator(() -> NOW);
+
+    UUID last = null;
+    for (int i = 0; i <= 4096; i++) {
+      last = generator.nextId();
+    }
+
+    assertEquals(NOW + 1, TimeOrderedPaymentIdGenerator.timestampMillis(last));
+  }
+
+  @Test
+  void nextId_ConcurrentCallers_AllUnique() throws Exception {
+    TimeOrderedPaymentIdGenerator generator = new TimeOrderedPaymentIdGenerator();
+    Set<UUID> ids = ConcurrentHashMap.newKeySet();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        futures.add(executor.submit(() -> {
+          Set<UUID> local = new HashSet<>();
+          for (int i = 0; i < 50_000; i++) {
+            local.add(generator.nextId());
+          }
+          ids.addAll(local);
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(8 * 50_000, ids.size());
+  }
+}
@@ -0,0 +1,182 @@
+package com.checkout.payment.gateway.idempotency;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.AcquiringProcessException;
+import com.checkout.payment.gateway.exception.IdempotencyKeyConflictException;
+import com.checkout.payment.gateway.exception.InvalidIdempotencyKeyException;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+class IdempotencyCacheTest {
+
+  private final AtomicLong clock = new AtomicLong();
+  private final IdempotencyCache cache = new IdempotencyCache(3, Duration.ofMinutes(10),
+      clock::get);
+  private final AtomicInteger bankCalls = new AtomicInteger();
+
+  @Test
+  void execute_ConcurrentDuplicates_RunPaymentOnceAndShareResponse() throws Exception {
+    int threads = 32;
+    CompletableFuture<PostPaymentResponse> inFlight = new CompletableFuture<>();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<CompletableFuture<PostPaymentResponse>>> results = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        results.add(executor.submit(() -> {
+          start.await();
+          return cache.execute("order-1", createPostPaymentRequest(100), () -> {
+            bankCalls.incrementAndGet();
+            return inFlight;
+          });
+        }));
+      }
+      start.countDown();
+      List<CompletableFuture<PostPaymentResponse>> futures = new ArrayList<>();
+      for (Future<CompletableFuture<PostPaymentResponse>> result : results) {
+        futures.add(result.get(5, TimeUnit.SECONDS));
+      }
+
+      PostPaymentResponse response = createPostPaymentResponse();
+      inFlight.complete(response);
+
+      for (CompletableFuture<PostPaymentResponse> future : futures) {
+        assertSame(response, future.get(5, TimeUnit.SECONDS));
+      }
+      assertEquals(1, bankCalls.get());
+      assertEquals(1, cache.missCount());
+      assertEquals(threads - 1, cache.coalescedCount());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void execute_ReplayedKey_AnswersFromCache() {
+    PostPaymentResponse first = cache.execute("order-1", createPostPaymentRequest(100),
+        completedPayment()).join();
+
+    PostPaymentResponse replay = cache.execute("order-1", createPostPaymentRequest(100),
+        completedPayment()).join();
+
+    assertSame(first, replay);
+    assertEquals(1, bankCalls.get());
+    assertEquals(1, cache.hitCount());
+  }
+
+  @Test
+  void execute_PaymentFails_DoesNotCacheFailure() {
+    CompletableFuture<PostPaymentResponse> failed = cache.execute("order-1",
+        createPostPaymentRequest(100), () -> {
+          bankCalls.incrementAndGet();
+          return CompletableFuture.failedFuture(new AcquiringProcessException("Bank error"));
+        });
+    CompletionException exception = assertThrows(CompletionException.class, failed::join);
+    assertInstanceOf(AcquiringProcessException.class, exception.getCause());
+
+    cache.execute("order-1", createPostPaymentRequest(100), completedPayment()).join();
+
+    assertEquals(2, bankCalls.get());
+  }
+
+  @Test
+  void execute_KeyReusedForDifferentPayment_ThrowsConflict() {
+    cache.execute("order-1", createPostPaymentRequest(100), completedPayment()).join();
+
+    assertThrows(IdempotencyKeyConflictException.class,
+        () -> cache.execute("order-1", createPostPaymentRequest(200), completedPayment()));
+    assertEquals(1, bankCalls.get());
+  }
+
+  @Test
+  void fingerprint_LeavesOutCvvAndIsNotPlainSha256() throws Exception {
+    PostPaymentRequest request = createPostPaymentRequest(100);
+    byte[] fingerprint = IdempotencyCache.fingerprint(request);
+    request.setCvv("999");
+
+    assertArrayEquals(fingerprint, IdempotencyCache.fingerprint(request));
+    byte[] unkeyed = MessageDigest.getInstance("SHA-256")
+        .digest("378282246310005|12|2030|USD|100".getBytes(StandardCharsets.UTF_8));
+    assertFalse(MessageDigest.isEqual(unkeyed, fingerprint));
+  }
+
+  @Test
+  void execute_BlankKey_ThrowsInvalidKey() {
+    assertThrows(InvalidIdempotencyKeyException.class,
+        () -> cache.execute(" ", createPostPaymentRequest(100), completedPayment()));
+  }
+
+  @Test
+  void execute_TtlElapsed_RunsPaymentAgain() {
+    cache.execute("order-1", createPostPaymentRequest(100), completedPayment()).join();
+    clock.addAndGet(Duration.ofMinutes(10).toNanos());
+
+    cache.execute("order-1", createPostPaymentRequest(100), completedPayment()).join();
+
+    assertEquals(2, bankCalls.get());
+    assertEquals(1, cache.expiredEvictionCount());
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  void execute_MaxEntriesExceeded_EvictsOldestKey() {
+    for (int i = 1; i <= 4; i++) {
+      cache.execute("order-" + i, createPostPaymentRequest(100), completedPayment()).join();
+    }
+
+    cache.execute("order-1", createPostPaymentRequest(100), completedPayment()).join();
+
+    assertEquals(5, bankCalls.get());
+    assertEquals(3, cache.size());
+    assertEquals(2, cache.sizeEvictionCount());
+  }
+
+  private Supplier<CompletableFuture<PostPaymentResponse>> completedPayment() {
+    return () -> {
+      bankCalls.incrementAndGet();
+      return CompletableFuture.completedFuture(createPostPaymentResponse());
+    };
+  }
+
+  private static PostPaymentResponse createPostPaymentResponse() {
+    PostPaymentResponse response = new PostPaymentResponse();
+    response.setId(UUID.randomUUID());
+    response.setStatus(PaymentStatus.AUTHORIZED);
+    return response;
+  }
+
+  private static PostPaymentRequest createPostPaymentRequest(int amount) {
+    PostPaymentRequest request = new PostPaymentRequest();
+    request.setCardNumber("378282246310005");
+    request.setExpiryMonth(12);
+    request.setExpiryYear(2030);
+    request.setCvv("123");
+    request.setCurrency("USD");
+    request.setAmount(amount);
+    return request;
+  }
+}
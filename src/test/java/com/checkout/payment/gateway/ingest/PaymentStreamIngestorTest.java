@@ -0,0 +1,212 @@
+package com.checkout.payment.gateway.ingest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.AcquiringProcessException;
+import com.checkout.payment.gateway.exception.handler.CommonExceptionHandler;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.resilience.AdmissionController;
+import com.checkout.payment.gateway.service.BatchPaymentItemFactory;
+import com.checkout.payment.gateway.service.BatchPaymentService;
+import com.checkout.payment.gateway.service.PaymentGatewayService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentStreamIngestorTest {
+
+  private static final int MAX_IN_FLIGHT = 4;
+  private static final AdmissionController ADMIT_ALL =
+      new AdmissionController("payments", Duration.ZERO, Duration.ofSeconds(1), 1);
+  private static final String PAYMENT = "{\"cardNumber\": \"4532015112830366\", \"expiryMonth\": 12,"
+      + " \"expiryYear\": 2030, \"currency\": \"USD\", \"amount\": %d, \"cvv\": \"123\"}";
+
+  @Mock
+  private PaymentGatewayService paymentGatewayService;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private ExecutorService batchExecutor;
+  private ExecutorService bankExecutor;
+  private PaymentStreamIngestor ingestor;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+
+  @BeforeEach
+  void setUp() {
+    batchExecutor = Executors.newFixedThreadPool(8);
+    bankExecutor = Executors.newCachedThreadPool();
+    BatchPaymentService batchPaymentService =
+        new BatchPaymentService(paymentGatewayService, batchExecutor, 8, ADMIT_ALL, Duration.ZERO);
+    BatchPaymentItemFactory itemFactory = new BatchPaymentItemFactory(
+        Validation.buildDefaultValidatorFactory().getValidator(), new CommonExceptionHandler());
+    ingestor = new PaymentStreamIngestor(objectMapper, batchPaymentService, itemFactory,
+        MAX_IN_FLIGHT, DataSize.ofKilobytes(1));
+  }
+
+  @AfterEach
+  void tearDown() {
+    batchExecutor.shutdownNow();
+    bankExecutor.shutdownNow();
+  }
+
+  @Test
+  void ingest_MixedRecords_WritesOneResultPerRecord() throws Exception {
+    when(paymentGatewayService.processPaymentAsync(any())).thenAnswer(invocation -> {
+      PostPaymentRequest request = invocation.getArgument(0);
+      return request.getAmount() == 300
+          ? CompletableFuture.failedFuture(
+              new AcquiringProcessException("Bank simulator respond with error"))
+          : CompletableFuture.completedFuture(authorized(request));
+    });
+    String input = PAYMENT.formatted(100) + "\n"
+        + PAYMENT.formatted(200).replace("4532015112830366", "invalid-card") + "\n"
+        + "{not json\n"
+        + "   \n"
+        + "{\"padding\": \"" + "x".repeat(2048) + "\"}\r\n"
+        + PAYMENT.formatted(300);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    IngestSummary summary = ingestor.ingest(
+        new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), out);
+
+    List<JsonNode> results = results(out);
+    assertEquals(5, results.size());
+    assertEquals(200, results.get(0).get("status").asInt());
+    assertEquals("Authorized", results.get(0).get("payment").get("status").asText());
+    assertEquals(400, results.get(1).get("status").asInt());
+    assertEquals("Rejected", results.get(1).get("error").get("status").asText());
+    assertTrue(results.get(1).get("error").get("message").asText().startsWith("cardNumber: "));
+    assertEquals(400, results.get(2).get("status").asInt());
+    assertTrue(results.get(2).get("error").get("message").asText()
+        .startsWith("JSON parse error: "));
+    assertEquals(400, results.get(3).get("status").asInt());
+    assertEquals("Payment record exceeds 1024 bytes",
+        results.get(3).get("error").get("message").asText());
+    assertEquals(502, results.get(4).get("status").asInt());
+    assertEquals(new IngestSummary(5, 1, 3, 1, summary.elapsedNanos()), summary);
+    assertEquals(1, ingestor.processedCount());
+    assertEquals(3, ingestor.rejectedCount());
+    assertEquals(1, ingestor.failedCount());
+  }
+
+  @Test
+  void ingest_SlowBank_BoundsPaymentsInFlight() throws Exception {
+    when(paymentGatewayService.processPaymentAsync(any())).thenAnswer(invocation -> {
+      PostPaymentRequest request = invocation.getArgument(0);
+      maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+      return CompletableFuture.supplyAsync(() -> {
+        sleep(2);
+        inFlight.decrementAndGet();
+        return authorized(request);
+      }, bankExecutor);
+    });
+    StringBuilder input = new StringBuilder();
+    for (int i = 0; i < 200; i++) {
+      input.append(PAYMENT.formatted(i + 1)).append('\n');
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    IngestSummary summary = ingestor.ingest(
+        new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8)), out);
+
+    List<JsonNode> results = results(out);
+    assertEquals(200, results.size());
+    for (int i = 0; i < results.size(); i++) {
+      assertEquals(i, results.get(i).get("index").asInt());
+      assertEquals(i + 1, results.get(i).get("payment").get("amount").asInt());
+    }
+    assertEquals(200, summary.processed());
+    assertTrue(maxInFlight.get() <= MAX_IN_FLIGHT,
+        "max in flight " + maxInFlight.get() + " exceeds window " + MAX_IN_FLIGHT);
+  }
+
+  @Test
+  void ingest_OpenInput_StreamsResultsBeforeInputEnds() throws Exception {
+    when(paymentGatewayService.processPaymentAsync(any())).thenAnswer(invocation ->
+        CompletableFuture.completedFuture(authorized(invocation.getArgument(0))));
+    PipedOutputStream upload = new PipedOutputStream();
+    PipedInputStream in = new PipedInputStream(upload);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    CompletableFuture<IngestSummary> ingest = CompletableFuture.supplyAsync(() -> {
+      try {
+        return ingestor.ingest(in, out);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+    upload.write((PAYMENT.formatted(100) + "\n").getBytes(StandardCharsets.UTF_8));
+    upload.flush();
+
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!out.toString(StandardCharsets.UTF_8).endsWith("\n")
+        && System.nanoTime() < deadline) {
+      sleep(5);
+    }
+    assertEquals(1, results(out).size());
+
+    upload.write((PAYMENT.formatted(200) + "\n").getBytes(StandardCharsets.UTF_8));
+    upload.close();
+
+    assertEquals(2, ingest.get(5, TimeUnit.SECONDS).processed());
+    assertEquals(2, results(out).size());
+  }
+
+  private List<JsonNode> results(ByteArrayOutputStream out) throws IOException {
+    List<JsonNode> results = new ArrayList<>();
+    for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+      if (!line.isEmpty()) {
+        results.add(objectMapper.readTree(line));
+      }
+    }
+    results.sort(Comparator.comparingInt(result -> result.get("index").asInt()));
+    return results;
+  }
+
+  private static PostPaymentResponse authorized(PostPaymentRequest request) {
+    PostPaymentResponse response = new PostPaymentResponse();
+    response.setId(UUID.randomUUID());
+    response.setStatus(PaymentStatus.AUTHORIZED);
+    response.setAmount(request.getAmount());
+    return response;
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
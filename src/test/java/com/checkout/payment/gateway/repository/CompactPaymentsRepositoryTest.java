@@ -0,0 +1,199 @@
+package com.checkout.payment.gateway.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.checkout.payment.gateway.enums.CardScheme;
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CompactPaymentsRepositoryTest {
+
+  private CompactPaymentsRepository repository;
+
+  @BeforeEach
+  void setUp() {
+    repository = new CompactPaymentsRepository();
+  }
+
+  @Test
+  void get_ExistingPayment_MaterialisesEqualPayment() {
+    PostPaymentResponse payment = createPayment(UUID.randomUUID(), "0366", "GBP");
+
+    repository.add(payment);
+    PostPaymentResponse read = repository.get(payment.getId()).orElseThrow();
+
+    assertNotSame(payment, read);
+    assertPaymentEquals(payment, read);
+  }
+
+  @Test
+  void get_UnknownOrNullId_ReturnsEmpty() {
+    repository.add(createPayment(UUID.randomUUID(), "4321", "USD"));
+
+    assertFalse(repository.get(UUID.randomUUID()).isPresent());
+    assertFalse(repository.get(null).isPresent());
+  }
+
+  @Test
+  void get_EmptyLastFourAndNullFields_RoundTrip() {
+    PostPaymentResponse payment = createPayment(UUID.randomUUID(), "", null);
+    payment.setStatus(null);
+    payment.setScheme(null);
+
+    repository.add(payment);
+    PostPaymentResponse read = repository.get(payment.getId()).orElseThrow();
+
+    assertEquals("", read.getCardNumberLastFour());
+    assertNull(read.getCurrency());
+    assertNull(read.getStatus());
+    assertNull(read.getScheme());
+  }
+
+  @Test
+  void get_NullLastFour_RoundTripsAsNull() {
+    PostPaymentResponse payment = createPayment(UUID.randomUUID(), null, "GBP");
+
+    repository.add(payment);
+    PostPaymentResponse read = repository.get(payment.getId()).orElseThrow();
+
+    assertNull(read.getCardNumberLastFour());
+  }
+
+  @Test
+  void add_LowerCaseCurrency_KeptInOverflowAsIs() {
+    PostPaymentResponse payment = createPayment(UUID.randomUUID(), "4321", "usd");
+
+    repository.add(payment);
+
+    assertFalse(CompactPaymentsRepository.fitsSlot(payment));
+    assertSame(payment, repository.get(payment.getId()).orElseThrow());
+  }
+
+  @Test
+  void add_SameIdTwice_LatestPaymentWins() {
+    UUID id = UUID.randomUUID();
+    repository.add(createPayment(id, "1111", "GBP"));
+    repository.add(createPayment(id, "2222", "eur"));
+    assertEquals("eur", repository.get(id).orElseThrow().getCurrency());
+
+    repository.add(createPayment(id, "3333", "EUR"));
+
+    PostPaymentResponse read = repository.get(id).orElseThrow();
+    assertEquals("3333", read.getCardNumberLastFour());
+    assertEquals("EUR", read.getCurrency());
+  }
+
+  @Test
+  void scan_OverflowAndReplacedPayments_VisitsLatestVersionOnceInInsertionOrder() {
+    UUID replaced = UUID.randomUUID();
+    PostPaymentResponse first = createPayment(UUID.randomUUID(), "1111", "GBP");
+    PostPaymentResponse overflow = createPayment(UUID.randomUUID(), "2222", "usd");
+    repository.add(first);
+    repository.add(createPayment(replaced, "3333", "GBP"));
+    repository.add(overflow);
+    repository.add(createPayment(replaced, "4444", "EUR"));
+
+    List<PostPaymentResponse> visited = new ArrayList<>();
+    long end = repository.scan(0, visited::add);
+
+    assertEquals(3, visited.size());
+    assertPaymentEquals(first, visited.get(0));
+    assertSame(overflow, visited.get(1));
+    assertEquals("4444", visited.get(2).getCardNumberLastFour());
+
+    List<PostPaymentResponse> resumed = new ArrayList<>();
+    long next = repository.scan(0, payment -> resumed.add(payment) && resumed.size() < 2);
+    repository.scan(next, resumed::add);
+    assertEquals(3, resumed.size());
+    assertEquals(end, repository.scan(end, payment -> true));
+  }
+
+  @Test
+  void add_ManyPayments_SurvivesChunkAndIndexGrowth() {
+    List<PostPaymentResponse> payments = new ArrayList<>();
+    for (int i = 0; i < 50_000; i++) {
+      PostPaymentResponse payment = createPayment(UUID.randomUUID(),
+          String.format("%04d", i % 10_000), i % 2 == 0 ? "GBP" : "USD");
+      payment.setAmount(i + 1);
+      payments.add(payment);
+      repository.add(payment);
+    }
+
+    assertEquals(50_000, repository.size());
+    payments.forEach(payment -> assertPaymentEquals(payment,
+        repository.get(payment.getId()).orElseThrow()));
+  }
+
+  @Test
+  void add_ConcurrentWritersAndReaders_NoWriteIsLost() throws Exception {
+    int threads = 8;
+    int perThread = 5_000;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<List<UUID>>> futures = new ArrayList<>();
+    try {
+      for (int t = 0; t < threads; t++) {
+        futures.add(executor.submit(() -> {
+          start.await();
+          List<UUID> ids = new ArrayList<>(perThread);
+          for (int i = 0; i < perThread; i++) {
+            UUID id = UUID.randomUUID();
+            repository.add(createPayment(id, "4321", "GBP"));
+            assertTrue(repository.get(id).isPresent());
+            ids.add(id);
+          }
+          return ids;
+        }));
+      }
+      start.countDown();
+
+      for (Future<List<UUID>> future : futures) {
+        for (UUID id : future.get()) {
+          assertEquals(id, repository.get(id).orElseThrow().getId());
+        }
+      }
+      assertEquals(threads * perThread, repository.size());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static void assertPaymentEquals(PostPaymentResponse expected,
+      PostPaymentResponse actual) {
+    assertEquals(expected.getId(), actual.getId());
+    assertEquals(expected.getStatus(), actual.getStatus());
+    assertEquals(expected.getCardNumberLastFour(), actual.getCardNumberLastFour());
+    assertEquals(expected.getExpiryMonth(), actual.getExpiryMonth());
+    assertEquals(expected.getExpiryYear(), actual.getExpiryYear());
+    assertEquals(expected.getCurrency(), actual.getCurrency());
+    assertEquals(expected.getAmount(), actual.getAmount());
+    assertEquals(expected.getScheme(), actual.getScheme());
+  }
+
+  private static PostPaymentResponse createPayment(UUID id, String lastFour, String currency) {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(id);
+    payment.setStatus(PaymentStatus.DECLINED);
+    payment.setCardNumberLastFour(lastFour);
+    payment.setExpiryMonth(9);
+    payment.setExpiryYear(2031);
+    payment.setCurrency(currency);
+    payment.setAmount(250);
+    payment.setScheme(CardScheme.MASTERCARD);
+    return payment;
+  }
+}
@@ -0,0 +1,76 @@
+package com.checkout.payment.gateway.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PaymentSearch;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class IndexedPaymentsRepositoryTest {
+
+  private final AtomicInteger storeLookups = new AtomicInteger();
+  private final StripedPaymentsRepository store = new StripedPaymentsRepository(4) {
+    @Override
+    public Optional<PostPaymentResponse> get(UUID id) {
+      storeLookups.incrementAndGet();
+      return super.get(id);
+    }
+  };
+
+  @Test
+  void get_UnknownIds_MostlyAnsweredWithoutStoreLookup() {
+    IndexedPaymentsRepository repository = new IndexedPaymentsRepository(store, 1_000, 1_000,
+        0.01);
+    for (int i = 0; i < 1_000; i++) {
+      repository.add(payment("GBP"));
+    }
+
+    for (int i = 0; i < 10_000; i++) {
+      assertTrue(repository.get(UUID.randomUUID()).isEmpty());
+    }
+
+    assertTrue(storeLookups.get() < 200, "store lookups: " + storeLookups.get());
+    assertEquals(10_000 - storeLookups.get(), repository.filteredLookupCount());
+  }
+
+  @Test
+  void constructor_ExistingPayments_RebuildsFilterAndIndex() {
+    List<PostPaymentResponse> payments = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      PostPaymentResponse payment = payment(i % 2 == 0 ? "GBP" : "USD");
+      store.add(payment);
+      payments.add(payment);
+    }
+
+    IndexedPaymentsRepository repository = new IndexedPaymentsRepository(store, 1_000, 1_000,
+        0.01);
+
+    for (PostPaymentResponse payment : payments) {
+      assertEquals(payment, repository.get(payment.getId()).orElseThrow());
+    }
+    int[] found = new int[1];
+    repository.search(new PaymentSearch(null, null, null, null, null, "usd", null, null),
+        Long.MAX_VALUE, payment -> ++found[0] > 0);
+    assertEquals(50, found[0]);
+    assertEquals(100, repository.indexSize());
+  }
+
+  private static PostPaymentResponse payment(String currency) {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(UUID.randomUUID());
+    payment.setStatus(PaymentStatus.AUTHORIZED);
+    payment.setCardNumberLastFour("4321");
+    payment.setExpiryMonth(12);
+    payment.setExpiryYear(2030);
+    payment.setCurrency(currency);
+    payment.setAmount(100);
+    return payment;
+  }
+}
@@ -0,0 +1,165 @@
+package com.checkout.payment.gateway.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StripedPaymentsRepositoryTest {
+
+  private StripedPaymentsRepository repository;
+
+  @BeforeEach
+  void setUp() {
+    repository = new StripedPaymentsRepository(8);
+  }
+
+  @Test
+  void get_ExistingPayment_ReturnsPayment() {
+    PostPaymentResponse payment = createPayment(UUID.randomUUID());
+
+    repository.add(payment);
+
+    assertSame(payment, repository.get(payment.getId()).orElseThrow());
+  }
+
+  @Test
+  void get_UnknownOrNullId_ReturnsEmpty() {
+    assertFalse(repository.get(UUID.randomUUID()).isPresent());
+    assertFalse(repository.get(null).isPresent());
+  }
+
+  @Test
+  void add_SameIdTwice_ReplacesPayment() {
+    UUID id = UUID.randomUUID();
+    PostPaymentResponse first = createPayment(id);
+    PostPaymentResponse second = createPayment(id);
+
+    repository.add(first);
+    repository.add(second);
+
+    assertSame(second, repository.get(id).orElseThrow());
+    assertEquals(1, repository.size());
+  }
+
+  @Test
+  void add_NullId_ThrowsNullPointerException() {
+    assertThrows(NullPointerException.class, () -> repository.add(new PostPaymentResponse()));
+  }
+
+  @Test
+  void constructor_SegmentsRoundedUpToPowerOfTwo() {
+    assertEquals(1, new StripedPaymentsRepository(1).segmentCount());
+    assertEquals(8, new StripedPaymentsRepository(5).segmentCount());
+    assertEquals(64, new StripedPaymentsRepository(64).segmentCount());
+    assertThrows(IllegalArgumentException.class, () -> new StripedPaymentsRepository(0));
+  }
+
+  @Test
+  void add_ManyPayments_SurvivesResizes() {
+    List<PostPaymentResponse> payments = new ArrayList<>();
+    for (int i = 0; i < 10_000; i++) {
+      PostPaymentResponse payment = createPayment(UUID.randomUUID());
+      payments.add(payment);
+      repository.add(payment);
+    }
+
+    assertEquals(10_000, repository.size());
+    payments.forEach(payment -> assertSame(payment, repository.get(payment.getId()).orElseThrow()));
+  }
+
+  @Test
+  void add_ConcurrentWritersAndReaders_NoWriteIsLost() throws Exception {
+    int threads = 16;
+    int perThread = 5_000;
+    ExecutorService executor = Executors.newFixedThreadPool(threads * 2);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<List<UUID>>> writers = new ArrayList<>();
+    List<Future<?>> readers = new ArrayList<>();
+    try {
+      for (int t = 0; t < threads; t++) {
+        writers.add(executor.submit(() -> {
+          start.await();
+          List<UUID> ids = new ArrayList<>(perThread);
+          for (int i = 0; i < perThread; i++) {
+            PostPaymentResponse payment = createPayment(UUID.randomUUID());
+            repository.add(payment);
+            ids.add(payment.getId());
+          }
+          return ids;
+        }));
+        readers.add(executor.submit(() -> {
+          start.await();
+          for (int i = 0; i < perThread; i++) {
+            repository.get(UUID.randomUUID());
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+
+      for (Future<List<UUID>> writer : writers) {
+        for (UUID id : writer.get()) {
+          assertTrue(repository.get(id).isPresent());
+        }
+      }
+      for (Future<?> reader : readers) {
+        reader.get();
+      }
+      assertEquals(threads * perThread, repository.size());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void scan_ResumedFromReturnedPositions_VisitsEveryPaymentOnce() {
+    List<UUID> added = new ArrayList<>();
+    for (int i = 0; i < 1_000; i++) {
+      PostPaymentResponse payment = createPayment(UUID.randomUUID());
+      added.add(payment.getId());
+      repository.add(payment);
+    }
+    repository.add(createPayment(added.get(0)));
+
+    List<UUID> visited = new ArrayList<>();
+    long position = 0;
+    for (int page = 0; page < 200 && visited.size() < added.size(); page++) {
+      int[] remaining = {7};
+      position = repository.scan(position, payment -> {
+        visited.add(payment.getId());
+        return --remaining[0] > 0;
+      });
+    }
+
+    assertEquals(added.size(), visited.size());
+    assertEquals(new HashSet<>(added), new HashSet<>(visited));
+    assertEquals(position, repository.scan(position, payment -> true));
+  }
+
+  private static PostPaymentResponse createPayment(UUID id) {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(id);
+    payment.setStatus(PaymentStatus.AUTHORIZED);
+    payment.setCardNumberLastFour("4321");
+    payment.setExpiryMonth(12);
+    payment.setExpiryYear(2030);
+    payment.setCurrency("USD");
+    payment.setAmount(100);
+    return payment;
+  }
+}
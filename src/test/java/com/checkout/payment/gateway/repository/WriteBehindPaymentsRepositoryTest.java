@@ -0,0 +1,205 @@
+package com.checkout.payment.gateway.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.checkout.payment.gateway.exception.PaymentStorageException;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class WriteBehindPaymentsRepositoryTest {
+
+  private final Semaphore writes = new Semaphore(0);
+  private final CountDownLatch writing = new CountDownLatch(1);
+  private final AtomicInteger failures = new AtomicInteger();
+  private final List<Integer> batchSizes = new ArrayList<>();
+  private final List<UUID> written = new ArrayList<>();
+  private final Set<UUID> unwritable = ConcurrentHashMap.newKeySet();
+  // Each batch waits for a permit, so tests control when the writer gets through.
+  private final StripedPaymentsRepository store = new StripedPaymentsRepository(4) {
+    @Override
+    public void addAll(List<PostPaymentResponse> payments) {
+      writing.countDown();
+      writes.acquireUninterruptibly();
+      if (failures.getAndUpdate(remaining -> Math.max(0, remaining - 1)) > 0) {
+        throw new PaymentStorageException("Disk full");
+      }
+      if (payments.stream().anyMatch(payment -> unwritable.contains(payment.getId()))) {
+        throw new PaymentStorageException("Corrupt record");
+      }
+      batchSizes.add(payments.size());
+      payments.forEach(payment -> written.add(payment.getId()));
+      super.addAll(payments);
+    }
+  };
+
+  @Test
+  void get_PaymentNotYetWritten_ReadFromPendingWrites() {
+    try (WriteBehindPaymentsRepository repository = repository(16, 8)) {
+      PostPaymentResponse payment = payment();
+
+      repository.add(payment);
+
+      assertSame(payment, repository.get(payment.getId()).orElseThrow());
+      assertTrue(store.get(payment.getId()).isEmpty());
+      assertEquals(1, repository.pendingCount());
+
+      writes.release(Integer.MAX_VALUE);
+      repository.flush();
+
+      assertEquals(payment, store.get(payment.getId()).orElseThrow());
+      assertEquals(payment, repository.get(payment.getId()).orElseThrow());
+      assertEquals(0, repository.pendingCount());
+    }
+  }
+
+  @Test
+  void add_WriterBusy_QueuedPaymentsWrittenInBatchesInOrder() throws InterruptedException {
+    List<UUID> ids = new ArrayList<>();
+    try (WriteBehindPaymentsRepository repository = repository(64, 8)) {
+      for (int i = 0; i < 21; i++) {
+        PostPaymentResponse payment = payment();
+        ids.add(payment.getId());
+        repository.add(payment);
+        if (i == 0) {
+          assertTrue(writing.await(5, TimeUnit.SECONDS));
+        }
+      }
+
+      writes.release(Integer.MAX_VALUE);
+      repository.flush();
+
+      assertEquals(List.of(1, 8, 8, 4), batchSizes);
+      assertEquals(4, repository.batchCount());
+      assertEquals(ids, written);
+    }
+  }
+
+  @Test
+  void add_QueueFull_FailsAfterEnqueueTimeout() throws InterruptedException {
+    try (WriteBehindPaymentsRepository repository = repository(1, 8)) {
+      repository.add(payment());
+      assertTrue(writing.await(5, TimeUnit.SECONDS));
+      repository.add(payment());
+      PostPaymentResponse rejected = payment();
+
+      assertThrows(PaymentStorageException.class, () -> repository.add(rejected));
+
+      assertTrue(repository.get(rejected.getId()).isEmpty());
+      writes.release(Integer.MAX_VALUE);
+    }
+  }
+
+  @Test
+  void add_StoreFails_BatchRetriedAndReadableMeanwhile() {
+    failures.set(2);
+    try (WriteBehindPaymentsRepository repository = repository(16, 8)) {
+      PostPaymentResponse payment = payment();
+      repository.add(payment);
+
+      writes.release(Integer.MAX_VALUE);
+      assertEquals(payment, repository.get(payment.getId()).orElseThrow());
+      repository.flush();
+
+      assertEquals(payment, store.get(payment.getId()).orElseThrow());
+      assertEquals(2, repository.failedBatchCount());
+      assertEquals(1, repository.batchCount());
+    }
+  }
+
+  @Test
+  void add_OnePaymentNeverWritable_RestWrittenAndItDeadLettered() throws InterruptedException {
+    try (WriteBehindPaymentsRepository repository = repository(16, 8)) {
+      repository.add(payment());
+      assertTrue(writing.await(5, TimeUnit.SECONDS));
+      List<PostPaymentResponse> payments = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        PostPaymentResponse payment = payment();
+        payments.add(payment);
+        repository.add(payment);
+      }
+      PostPaymentResponse bad = payments.get(5);
+      unwritable.add(bad.getId());
+
+      writes.release(Integer.MAX_VALUE);
+      repository.flush();
+
+      assertTrue(store.get(bad.getId()).isEmpty());
+      assertEquals(bad, repository.get(bad.getId()).orElseThrow());
+      payments.stream().filter(payment -> payment != bad)
+          .forEach(payment -> assertFalse(store.get(payment.getId()).isEmpty()));
+      assertEquals(1, repository.deadLetterCount());
+      assertEquals(0, repository.pendingCount());
+    }
+  }
+
+  @Test
+  void add_MoreDeadLettersThanLimit_OldestDropped() {
+    try (WriteBehindPaymentsRepository repository = repository(16, 1, 2)) {
+      List<PostPaymentResponse> payments = new ArrayList<>();
+      for (int i = 0; i < 3; i++) {
+        PostPaymentResponse payment = payment();
+        payments.add(payment);
+        unwritable.add(payment.getId());
+        repository.add(payment);
+      }
+
+      writes.release(Integer.MAX_VALUE);
+      repository.flush();
+
+      assertTrue(repository.get(payments.get(0).getId()).isEmpty());
+      assertEquals(payments.get(1), repository.get(payments.get(1).getId()).orElseThrow());
+      assertEquals(payments.get(2), repository.get(payments.get(2).getId()).orElseThrow());
+      assertEquals(2, repository.deadLetterCount());
+      assertEquals(1, repository.droppedDeadLetterCount());
+    }
+  }
+
+  @Test
+  void close_PendingWrites_WrittenBeforeCloseReturns() {
+    WriteBehindPaymentsRepository repository = repository(16, 8);
+    List<PostPaymentResponse> payments = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      PostPaymentResponse payment = payment();
+      payments.add(payment);
+      repository.add(payment);
+    }
+    writes.release(Integer.MAX_VALUE);
+
+    repository.close();
+
+    payments.forEach(payment -> assertFalse(store.get(payment.getId()).isEmpty()));
+    assertThrows(PaymentStorageException.class, () -> repository.add(payment()));
+  }
+
+  private WriteBehindPaymentsRepository repository(int queueCapacity, int batchSize) {
+    return repository(queueCapacity, batchSize, 100);
+  }
+
+  private WriteBehindPaymentsRepository repository(int queueCapacity, int batchSize,
+      int maxDeadLetters) {
+    return new WriteBehindPaymentsRepository(store, queueCapacity, batchSize,
+        Duration.ofMillis(50), maxDeadLetters);
+  }
+
+  private static PostPaymentResponse payment() {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(UUID.randomUUID());
+    payment.setAmount(100);
+    payment.setCurrency("GBP");
+    return payment;
+  }
+}
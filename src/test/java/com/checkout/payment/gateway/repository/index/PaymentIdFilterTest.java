@@ -0,0 +1,65 @@
+package com.checkout.payment.gateway.repository.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.checkout.payment.gateway.generator.TimeOrderedPaymentIdGenerator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class PaymentIdFilterTest {
+
+  private static final int PAYMENTS = 100_000;
+
+  @Test
+  void mightContain_AddedIds_AlwaysTrue() {
+    PaymentIdFilter filter = new PaymentIdFilter(PAYMENTS, 0.01);
+    TimeOrderedPaymentIdGenerator generator = new TimeOrderedPaymentIdGenerator();
+    List<UUID> ids = new ArrayList<>();
+    for (int i = 0; i < PAYMENTS; i++) {
+      UUID id = i % 2 == 0 ? generator.nextId() : UUID.randomUUID();
+      filter.add(id);
+      ids.add(id);
+    }
+
+    for (UUID id : ids) {
+      assertTrue(filter.mightContain(id), id.toString());
+    }
+  }
+
+  @Test
+  void mightContain_UnknownIds_FalsePositiveRateNearTarget() {
+    PaymentIdFilter filter = new PaymentIdFilter(PAYMENTS, 0.01);
+    TimeOrderedPaymentIdGenerator generator = new TimeOrderedPaymentIdGenerator();
+    for (int i = 0; i < PAYMENTS; i++) {
+      filter.add(generator.nextId());
+    }
+
+    int falsePositives = 0;
+    for (int i = 0; i < PAYMENTS; i++) {
+      if (filter.mightContain(i % 2 == 0 ? generator.nextId() : UUID.randomUUID())) {
+        falsePositives++;
+      }
+    }
+
+    assertTrue(falsePositives < PAYMENTS * 0.02, "false positives: " + falsePositives);
+  }
+
+  @Test
+  void constructor_SizesFromExpectedPayments() {
+    PaymentIdFilter filter = new PaymentIdFilter(1_000_000, 0.01);
+
+    assertTrue(filter.sizeInBits() >= 9_585_059L, "bits: " + filter.sizeInBits());
+    assertEquals(7, filter.hashCount());
+  }
+
+  @Test
+  void constructor_InvalidArguments_ThrowsIllegalArgumentException() {
+    assertThrows(IllegalArgumentException.class, () -> new PaymentIdFilter(0, 0.01));
+    assertThrows(IllegalArgumentException.class, () -> new PaymentIdFilter(1_000, 0));
+    assertThrows(IllegalArgumentException.class, () -> new PaymentIdFilter(1_000, 1));
+  }
+}
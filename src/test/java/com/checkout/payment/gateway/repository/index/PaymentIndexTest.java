@@ -0,0 +1,148 @@
+package com.checkout.payment.gateway.repository.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PaymentSearch;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class PaymentIndexTest {
+
+  private static final long START_MILLIS = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+  private static final long MINUTE_MILLIS = 60_000;
+
+  @Test
+  void search_EachIndex_ReturnsMatchesNewestFirst() {
+    PaymentIndex index = new PaymentIndex(1_000);
+    List<PostPaymentResponse> payments = new ArrayList<>();
+    for (int i = 0; i < 600; i++) {
+      PostPaymentResponse payment = payment(START_MILLIS + i * MINUTE_MILLIS, i);
+      payment.setCardNumberLastFour(String.format("%04d", i % 10));
+      payment.setExpiryMonth(i % 12 + 1);
+      payment.setStatus(i % 3 == 0 ? PaymentStatus.DECLINED : PaymentStatus.AUTHORIZED);
+      payment.setCurrency(i % 2 == 0 ? "USD" : "EUR");
+      index.add(payment);
+      payments.add(payment);
+    }
+
+    List<PaymentSearch> searches = List.of(
+        search("0007", 8, 2030, null, null, null, null, null),
+        search("0004", null, null, null, null, null, null, null),
+        search(null, null, null, 42, null, null, null, null),
+        search(null, null, null, null, PaymentStatus.DECLINED, null, null, null),
+        search(null, null, null, null, null, "eur", null, null),
+        search(null, null, null, null, PaymentStatus.DECLINED, "USD", null, null),
+        search(null, null, null, null, null, null,
+            Instant.ofEpochMilli(START_MILLIS + 90 * MINUTE_MILLIS),
+            Instant.ofEpochMilli(START_MILLIS + 250 * MINUTE_MILLIS)),
+        search("0001", null, null, null, null, "EUR", null,
+            Instant.ofEpochMilli(START_MILLIS + 300 * MINUTE_MILLIS)),
+        search(null, null, null, null, null, null, null, null));
+    for (PaymentSearch search : searches) {
+      List<UUID> expected = new ArrayList<>();
+      for (int i = payments.size() - 1; i >= 0; i--) {
+        if (search.matches(payments.get(i))) {
+          expected.add(payments.get(i).getId());
+        }
+      }
+      assertEquals(expected, searchAll(index, search, Integer.MAX_VALUE), search.toString());
+    }
+  }
+
+  @Test
+  void search_ResumedFromReturnedOrdinal_ContinuesWhereVisitorStopped() {
+    PaymentIndex index = new PaymentIndex(1_000);
+    List<UUID> declined = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      PostPaymentResponse payment = payment(START_MILLIS + i, i);
+      payment.setStatus(i % 4 == 0 ? PaymentStatus.DECLINED : PaymentStatus.AUTHORIZED);
+      index.add(payment);
+      if (payment.getStatus() == PaymentStatus.DECLINED) {
+        declined.add(0, payment.getId());
+      }
+    }
+    PaymentSearch search = search(null, null, null, null, PaymentStatus.DECLINED, null, null, null);
+
+    assertEquals(declined, searchAll(index, search, 3));
+  }
+
+  @Test
+  void add_BeyondCapacity_DropsOldestChunksFromEveryIndex() {
+    PaymentIndex index = new PaymentIndex(1);
+    int chunkSize = 1 << 14;
+    int total = 3 * chunkSize + 10;
+    for (int i = 0; i < total; i++) {
+      PostPaymentResponse payment = payment(START_MILLIS + i * MINUTE_MILLIS / 100, i);
+      payment.setStatus(i % 2 == 0 ? PaymentStatus.DECLINED : PaymentStatus.AUTHORIZED);
+      index.add(payment);
+    }
+
+    assertEquals(10, index.size());
+    assertEquals(3L * chunkSize, index.evictedCount());
+    assertEquals(5, searchAll(index,
+        search("0366", 12, 2030, null, PaymentStatus.DECLINED, null, null, null),
+        Integer.MAX_VALUE).size());
+    assertEquals(10, searchAll(index,
+        search(null, null, null, null, null, "GBP", Instant.ofEpochMilli(START_MILLIS), null),
+        Integer.MAX_VALUE).size());
+  }
+
+  @Test
+  void search_RandomIds_NeverMatchTimeRange() {
+    PaymentIndex index = new PaymentIndex(100);
+    PostPaymentResponse payment = payment(START_MILLIS, 1);
+    payment.setId(UUID.randomUUID());
+    index.add(payment);
+
+    assertEquals(1, searchAll(index, search(null, null, null, null, null, "GBP", null, null),
+        Integer.MAX_VALUE).size());
+    assertEquals(0, searchAll(index, search(null, null, null, null, null, null,
+        Instant.EPOCH, null), Integer.MAX_VALUE).size());
+  }
+
+  @Test
+  void constructor_CapacityOutOfRange_ThrowsIllegalArgumentException() {
+    assertThrows(IllegalArgumentException.class, () -> new PaymentIndex(0));
+    assertThrows(IllegalArgumentException.class,
+        () -> new PaymentIndex(PaymentIndex.MAX_CAPACITY + 1));
+  }
+
+  private static List<UUID> searchAll(PaymentIndex index, PaymentSearch search, int pageSize) {
+    List<UUID> found = new ArrayList<>();
+    long before = Long.MAX_VALUE;
+    int[] page = new int[1];
+    while (before >= 0) {
+      page[0] = 0;
+      before = index.search(search, before, id -> {
+        found.add(id);
+        return ++page[0] < pageSize;
+      });
+    }
+    return found;
+  }
+
+  private static PaymentSearch search(String lastFour, Integer expiryMonth, Integer expiryYear,
+      Integer amount, PaymentStatus status, String currency, Instant from, Instant to) {
+    return new PaymentSearch(lastFour, expiryMonth, expiryYear, amount, status, currency, from,
+        to);
+  }
+
+  private static PostPaymentResponse payment(long millis, int amount) {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(new UUID(millis << 16 | 0x7000L | (amount & 0xFFF),
+        0x8000000000000000L | amount));
+    payment.setStatus(PaymentStatus.AUTHORIZED);
+    payment.setCardNumberLastFour("0366");
+    payment.setExpiryMonth(12);
+    payment.setExpiryYear(2030);
+    payment.setCurrency("GBP");
+    payment.setAmount(amount);
+    return payment;
+  }
+}
@@ -0,0 +1,309 @@
+package com.checkout.payment.gateway.repository.journal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.checkout.payment.gateway.enums.CardScheme;
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.PaymentStorageException;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PaymentJournalTest {
+
+  private static final long SEGMENT_SIZE = 64 * 1024;
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void append_ThenRead_ReturnsSamePayment() {
+    try (PaymentJournal journal = open(FsyncPolicy.ALWAYS)) {
+      PostPaymentResponse payment = createPayment(PaymentStatus.AUTHORIZED);
+
+      PostPaymentResponse read = journal.read(journal.append(payment));
+
+      assertPaymentEquals(payment, read);
+    }
+  }
+
+  @Test
+  void open_ExistingJournal_RecoversAllCommittedPayments() {
+    List<PostPaymentResponse> payments = new ArrayList<>();
+    try (PaymentJournal journal = open(FsyncPolicy.NEVER)) {
+      for (int i = 0; i < 100; i++) {
+        PostPaymentResponse payment = createPayment(
+            i % 2 == 0 ? PaymentStatus.AUTHORIZED : PaymentStatus.DECLINED);
+        payments.add(payment);
+        journal.append(payment);
+      }
+    }
+
+    try (PaymentJournal journal = open(FsyncPolicy.ALWAYS)) {
+      Map<UUID, Long> index = rebuildIndex(journal);
+
+      assertEquals(100, index.size());
+      payments.forEach(payment -> assertPaymentEquals(payment,
+          journal.read(index.get(payment.getId()))));
+    }
+  }
+
+  @Test
+  void open_WriterKilledMidRecord_DiscardsTornRecordAndReusesSlot() throws IOException {
+    PostPaymentResponse committed = createPayment(PaymentStatus.AUTHORIZED);
+    try (PaymentJournal journal = open(FsyncPolicy.ALWAYS)) {
+      journal.append(committed);
+    }
+    // Simulate a crash after the payload of the second record hit the page cache but before its
+    // commit marker did: half of the record is written and the marker is still zero.
+    Path segment = directory.resolve("payments-00000000.journal");
+    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+      ByteBuffer torn = ByteBuffer.allocate(PaymentJournal.RECORD_SIZE / 2);
+      while (torn.hasRemaining()) {
+        torn.put((byte) 0x5A);
+      }
+      torn.flip();
+      channel.write(torn, 2L * PaymentJournal.RECORD_SIZE);
+    }
+
+    PostPaymentResponse next = createPayment(PaymentStatus.DECLINED);
+    try (PaymentJournal journal = open(FsyncPolicy.ALWAYS)) {
+      Map<UUID, Long> index = rebuildIndex(journal);
+      assertEquals(1, index.size());
+      assertPaymentEquals(committed, journal.read(index.get(committed.getId())));
+
+      assertEquals(2L * PaymentJournal.RECORD_SIZE, journal.append(next));
+    }
+
+    try (PaymentJournal journal = open(FsyncPolicy.ALWAYS)) {
+      Map<UUID, Long> index = rebuildIndex(journal);
+      assertEquals(2, index.size());
+      assertPaymentEquals(next, journal.read(index.get(next.getId())));
+    }
+  }
+
+  @Test
+  void open_CorruptedChecksum_StopsRecoveryAtCorruptedRecord() throws IOException {
+    List<PostPaymentResponse> payments = new ArrayList<>();
+    try (PaymentJournal journal = open(FsyncPolicy.ALWAYS)) {
+      for (int i = 0; i < 3; i++) {
+        PostPaymentResponse payment = createPayment(PaymentStatus.AUTHORIZED);
+        payments.add(payment);
+        journal.append(payment);
+      }
+    }
+    Path segment = directory.resolve("payments-00000000.journal");
+    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), 3L * PaymentJournal.RECORD_SIZE + 16);
+    }
+
+    try (PaymentJournal journal = open(FsyncPolicy.ALWAYS)) {
+      Map<UUID, Long> index = rebuildIndex(journal);
+      assertEquals(2, index.size());
+      assertFalse(index.containsKey(payments.get(2).getId()));
+    }
+  }
+
+  @Test
+  void append_SegmentFull_RollsOverToNewSegment() {
+    long smallSegment = 11L * PaymentJournal.RECORD_SIZE;
+    List<PostPaymentResponse> payments = new ArrayList<>();
+    try (PaymentJournal journal = PaymentJournal.open(directory, smallSegment, FsyncPolicy.ALWAYS,
+        Duration.ofMillis(100))) {
+      for (int i = 0; i < 25; i++) {
+        PostPaymentResponse payment = createPayment(PaymentStatus.AUTHORIZED);
+        payments.add(payment);
+        journal.append(payment);
+      }
+      assertEquals(3, journal.segmentCount());
+    }
+
+    try (PaymentJournal journal = PaymentJournal.open(directory, smallSegment,
+        FsyncPolicy.ALWAYS, Duration.ofMillis(100))) {
+      Map<UUID, Long> index = rebuildIndex(journal);
+      assertEquals(25, index.size());
+      payments.forEach(payment -> assertPaymentEquals(payment,
+          journal.read(index.get(payment.getId()))));
+    }
+  }
+
+  @Test
+  void appendAll_BatchAcrossSegments_RecoveredInOrder() {
+    long smallSegment = 11L * PaymentJournal.RECORD_SIZE;
+    List<PostPaymentResponse> payments = new ArrayList<>();
+    for (int i = 0; i < 25; i++) {
+      payments.add(createPayment(PaymentStatus.AUTHORIZED));
+    }
+    try (PaymentJournal journal = PaymentJournal.open(directory, smallSegment, FsyncPolicy.ALWAYS,
+        Duration.ofMillis(100))) {
+      long[] positions = journal.appendAll(payments);
+
+      assertEquals(25, positions.length);
+      for (int i = 0; i < positions.length; i++) {
+        assertPaymentEquals(payments.get(i), journal.read(positions[i]));
+      }
+    }
+
+    try (PaymentJournal journal = PaymentJournal.open(directory, smallSegment,
+        FsyncPolicy.ALWAYS, Duration.ofMillis(100))) {
+      assertEquals(payments.stream().map(PostPaymentResponse::getId).toList(),
+          new ArrayList<>(rebuildIndex(journal).keySet()));
+    }
+  }
+
+  @Test
+  void scan_FromReturnedPosition_ContinuesAcrossSegments() {
+    long smallSegment = 11L * PaymentJournal.RECORD_SIZE;
+    try (PaymentJournal journal = PaymentJournal.open(directory, smallSegment, FsyncPolicy.NEVER,
+        Duration.ofMillis(100))) {
+      List<UUID> appended = new ArrayList<>();
+      for (int i = 0; i < 25; i++) {
+        PostPaymentResponse payment = createPayment(PaymentStatus.AUTHORIZED);
+        appended.add(payment.getId());
+        journal.append(payment);
+      }
+
+      List<UUID> visited = new ArrayList<>();
+      long position = 0;
+      for (int page = 0; page < 25 && visited.size() < appended.size(); page++) {
+        int[] remaining = {4};
+        position = journal.scan(position, (id, recordPosition) -> {
+          visited.add(id);
+          return --remaining[0] > 0;
+        });
+      }
+
+      assertEquals(appended, visited);
+      PostPaymentResponse late = createPayment(PaymentStatus.DECLINED);
+      journal.append(late);
+      List<UUID> tail = new ArrayList<>();
+      journal.scan(position, (id, recordPosition) -> tail.add(id));
+      assertEquals(List.of(late.getId()), tail);
+    }
+  }
+
+  @Test
+  void append_ConcurrentWritersWithGroupCommit_AllRecordsRecovered() throws Exception {
+    int threads = 8;
+    int perThread = 200;
+    try (PaymentJournal journal = open(FsyncPolicy.ALWAYS)) {
+      ExecutorService executor = Executors.newFixedThreadPool(threads);
+      try {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+          futures.add(executor.submit(() -> {
+            for (int i = 0; i < perThread; i++) {
+              journal.append(createPayment(PaymentStatus.AUTHORIZED));
+            }
+          }));
+        }
+        for (Future<?> future : futures) {
+          future.get();
+        }
+      } finally {
+        executor.shutdownNow();
+      }
+    }
+
+    try (PaymentJournal journal = open(FsyncPolicy.ALWAYS)) {
+      assertEquals(threads * perThread, rebuildIndex(journal).size());
+    }
+  }
+
+  @Test
+  void append_IntervalPolicy_RecordsRecoveredAfterClose() {
+    PostPaymentResponse payment = createPayment(PaymentStatus.DECLINED);
+    try (PaymentJournal journal = open(FsyncPolicy.INTERVAL)) {
+      journal.append(payment);
+    }
+
+    try (PaymentJournal journal = open(FsyncPolicy.INTERVAL)) {
+      Map<UUID, Long> index = rebuildIndex(journal);
+      assertPaymentEquals(payment, journal.read(index.get(payment.getId())));
+    }
+  }
+
+  @Test
+  void read_NullStatusCurrencyAndScheme_RoundTripsAsNull() {
+    try (PaymentJournal journal = open(FsyncPolicy.ALWAYS)) {
+      PostPaymentResponse payment = createPayment(null);
+      payment.setCurrency(null);
+      payment.setScheme(null);
+
+      PostPaymentResponse read = journal.read(journal.append(payment));
+
+      assertNull(read.getStatus());
+      assertNull(read.getCurrency());
+      assertNull(read.getScheme());
+    }
+  }
+
+  @Test
+  void append_AfterClose_ThrowsPaymentStorageException() {
+    PaymentJournal journal = open(FsyncPolicy.ALWAYS);
+    journal.close();
+
+    assertThrows(PaymentStorageException.class,
+        () -> journal.append(createPayment(PaymentStatus.AUTHORIZED)));
+  }
+
+  @Test
+  void open_ForeignFile_ThrowsPaymentStorageException() throws IOException {
+    Files.write(directory.resolve("payments-00000000.journal"), new byte[1024]);
+
+    assertThrows(PaymentStorageException.class, () -> open(FsyncPolicy.ALWAYS));
+  }
+
+  private PaymentJournal open(FsyncPolicy policy) {
+    return PaymentJournal.open(directory, SEGMENT_SIZE, policy, Duration.ofMillis(10));
+  }
+
+  private static Map<UUID, Long> rebuildIndex(PaymentJournal journal) {
+    Map<UUID, Long> index = new LinkedHashMap<>();
+    journal.forEach(index::put);
+    return index;
+  }
+
+  private static void assertPaymentEquals(PostPaymentResponse expected,
+      PostPaymentResponse actual) {
+    assertEquals(expected.getId(), actual.getId());
+    assertEquals(expected.getStatus(), actual.getStatus());
+    assertEquals(expected.getCardNumberLastFour(), actual.getCardNumberLastFour());
+    assertEquals(expected.getExpiryMonth(), actual.getExpiryMonth());
+    assertEquals(expected.getExpiryYear(), actual.getExpiryYear());
+    assertEquals(expected.getCurrency(), actual.getCurrency());
+    assertEquals(expected.getAmount(), actual.getAmount());
+    assertEquals(expected.getScheme(), actual.getScheme());
+  }
+
+  private static PostPaymentResponse createPayment(PaymentStatus status) {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(UUID.randomUUID());
+    payment.setStatus(status);
+    payment.setCardNumberLastFour("0366");
+    payment.setExpiryMonth(4);
+    payment.setExpiryYear(2030);
+    payment.setCurrency("GBP");
+    payment.setAmount(12345);
+    payment.setScheme(CardScheme.VISA);
+    return payment;
+  }
+}
@@ -0,0 +1,130 @@
+package com.checkout.payment.gateway.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+  private static final long RTT = TimeUnit.MILLISECONDS.toNanos(20);
+
+  @Test
+  void tryAcquire_LimitReachedAndNoQueue_RejectsImmediately() {
+    AdaptiveConcurrencyLimiter limiter = limiter(2, 0, Duration.ZERO);
+
+    assertTrue(limiter.tryAcquire());
+    assertTrue(limiter.tryAcquire());
+    assertFalse(limiter.tryAcquire());
+    assertEquals(2, limiter.getInflight());
+    assertEquals(1, limiter.rejectedCount());
+  }
+
+  @Test
+  void tryAcquire_QueueWaitElapses_Rejects() {
+    AdaptiveConcurrencyLimiter limiter = limiter(1, 10, Duration.ofMillis(20));
+    assertTrue(limiter.tryAcquire());
+
+    long start = System.nanoTime();
+    assertFalse(limiter.tryAcquire());
+
+    assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(20));
+    assertEquals(0, limiter.getQueued());
+  }
+
+  @Test
+  void tryAcquire_PermitReleasedWhileQueued_GrantsPermit() throws Exception {
+    AdaptiveConcurrencyLimiter limiter = limiter(1, 10, Duration.ofSeconds(5));
+    assertTrue(limiter.tryAcquire());
+
+    CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(limiter::tryAcquire);
+    while (limiter.getQueued() == 0) {
+      Thread.onSpinWait();
+    }
+    limiter.onIgnore();
+
+    assertTrue(waiter.get(5, TimeUnit.SECONDS));
+    assertEquals(1, limiter.getInflight());
+  }
+
+  @Test
+  void tryAcquireNow_LimitReached_RejectsWithoutQueueing() {
+    AdaptiveConcurrencyLimiter limiter = limiter(1, 10, Duration.ofSeconds(5));
+    assertTrue(limiter.tryAcquireNow());
+
+    long start = System.nanoTime();
+    assertFalse(limiter.tryAcquireNow());
+
+    assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+    assertEquals(1, limiter.getInflight());
+    assertEquals(1, limiter.rejectedCount());
+  }
+
+  @Test
+  void onSuccess_StableRttAtFullUtilisation_RaisesLimit() {
+    AdaptiveConcurrencyLimiter limiter = limiter(4, 0, Duration.ZERO);
+
+    for (int i = 0; i < 20; i++) {
+      completeRound(limiter, limiter.getLimit(), RTT);
+    }
+
+    assertTrue(limiter.getLimit() > 4, "limit " + limiter.getLimit());
+  }
+
+  @Test
+  void onSuccess_LowUtilisation_KeepsLimit() {
+    AdaptiveConcurrencyLimiter limiter = limiter(10, 0, Duration.ZERO);
+
+    for (int i = 0; i < 50; i++) {
+      completeRound(limiter, 1, RTT);
+    }
+
+    assertEquals(10, limiter.getLimit());
+  }
+
+  @Test
+  void onSuccess_RttRises_LowersLimit() {
+    AdaptiveConcurrencyLimiter limiter = limiter(20, 0, Duration.ZERO);
+    for (int i = 0; i < 10; i++) {
+      completeRound(limiter, limiter.getLimit(), RTT);
+    }
+    int healthyLimit = limiter.getLimit();
+
+    for (int i = 0; i < 5; i++) {
+      completeRound(limiter, limiter.getLimit(), RTT * 10);
+    }
+
+    assertTrue(limiter.getLimit() < healthyLimit / 2,
+        "healthy " + healthyLimit + ", degraded " + limiter.getLimit());
+  }
+
+  @Test
+  void onFailure_BacksOffMultiplicatively() {
+    AdaptiveConcurrencyLimiter limiter = limiter(10, 0, Duration.ZERO);
+
+    assertTrue(limiter.tryAcquire());
+    limiter.onFailure();
+
+    assertEquals(9, limiter.getLimit());
+    assertEquals(0, limiter.getInflight());
+  }
+
+  private static AdaptiveConcurrencyLimiter limiter(int initialLimit, int maxQueued,
+      Duration maxQueueWait) {
+    return new AdaptiveConcurrencyLimiter("bank", initialLimit, 1, 100, 1.5, 0.2, 0.9, 10, 500,
+        maxQueued, maxQueueWait);
+  }
+
+  private static void completeRound(AdaptiveConcurrencyLimiter limiter, int calls, long rtt) {
+    for (int i = 0; i < calls; i++) {
+      assertTrue(limiter.tryAcquire());
+    }
+    for (int i = 0; i < calls; i++) {
+      limiter.onSuccess(rtt);
+    }
+  }
+}
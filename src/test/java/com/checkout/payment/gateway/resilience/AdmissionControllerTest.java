@@ -0,0 +1,128 @@
+package com.checkout.payment.gateway.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class AdmissionControllerTest {
+
+  private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+  private static final long FAST = TimeUnit.MILLISECONDS.toNanos(20);
+
+  private final AtomicLong clock = new AtomicLong();
+  private final AdmissionController controller = new AdmissionController("test",
+      Duration.ofMillis(100), Duration.ofSeconds(1), 1, clock::get);
+
+  @Test
+  void tryAcquire_LatencyUnderTarget_AdmitsEveryCall() {
+    completeInterval(20, FAST);
+
+    for (int i = 0; i < 100; i++) {
+      assertTrue(controller.tryAcquire());
+    }
+    assertFalse(controller.isShedding());
+    assertEquals(0, controller.rejectedCount());
+  }
+
+  @Test
+  void tryAcquire_ShortestLatencyAboveTarget_AdmitsLittlesLawLimit() {
+    completeInterval(20, SLOW);
+
+    // 20 calls per second at a 100 ms target leave room for 2 concurrent calls.
+    assertTrue(controller.tryAcquire());
+    assertTrue(controller.tryAcquire());
+    assertFalse(controller.tryAcquire());
+    assertTrue(controller.isShedding());
+    assertEquals(2, controller.getLimit());
+    assertEquals(1, controller.rejectedCount());
+    assertEquals(500.0, controller.getLatencyMillis());
+  }
+
+  @Test
+  void tryAcquire_DownstreamSlowerThanTarget_KeepsMinimumLimit() {
+    AdmissionController floored = new AdmissionController("test", Duration.ofMillis(100),
+        Duration.ofSeconds(1), 5, clock::get);
+    for (int i = 0; i < 2; i++) {
+      assertTrue(floored.tryAcquire());
+      if (i == 1) {
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+      }
+      floored.onComplete(SLOW);
+    }
+
+    for (int i = 0; i < 5; i++) {
+      assertTrue(floored.tryAcquire());
+    }
+    assertFalse(floored.tryAcquire());
+    assertEquals(5, floored.getLimit());
+  }
+
+  @Test
+  void tryAcquire_OneFastCallInInterval_DoesNotShed() {
+    for (int i = 0; i < 20; i++) {
+      assertTrue(controller.tryAcquire());
+      controller.onComplete(i == 0 ? FAST : SLOW);
+    }
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+    assertTrue(controller.tryAcquire());
+    assertFalse(controller.isShedding());
+  }
+
+  @Test
+  void onComplete_LatencyBackUnderTarget_LiftsLimit() {
+    completeInterval(20, SLOW);
+    assertTrue(controller.isShedding());
+
+    completeInterval(2, FAST);
+
+    assertFalse(controller.isShedding());
+    assertEquals(0, controller.getLimit());
+  }
+
+  @Test
+  void tryAcquire_NothingCompletesWhileInFlight_Sheds() {
+    for (int i = 0; i < 5; i++) {
+      assertTrue(controller.tryAcquire());
+    }
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    assertTrue(controller.tryAcquire());
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+    assertFalse(controller.tryAcquire());
+    assertEquals(1, controller.getLimit());
+    assertEquals(6, controller.getInflight());
+  }
+
+  @Test
+  void tryAcquire_ZeroTarget_AdmitsEveryCall() {
+    AdmissionController disabled = new AdmissionController("test", Duration.ZERO,
+        Duration.ofSeconds(1), 1, clock::get);
+    for (int i = 0; i < 20; i++) {
+      assertTrue(disabled.tryAcquire());
+      disabled.onComplete(SLOW);
+    }
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+    assertTrue(disabled.tryAcquire());
+    assertFalse(disabled.isShedding());
+  }
+
+  /**
+   * Completes the calls, the last one as the interval ends.
+   */
+  private void completeInterval(int calls, long latencyNanos) {
+    for (int i = 0; i < calls; i++) {
+      assertTrue(controller.tryAcquire());
+      if (i == calls - 1) {
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+      }
+      controller.onComplete(latencyNanos);
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package com.checkout.payment.gateway.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class BackoffTest {
+
+  @Test
+  void delay_FullJitter_UpToExponentialCeiling() {
+    Backoff backoff = new Backoff(Duration.ofMillis(50), Duration.ofSeconds(1), () -> 0.999999);
+
+    assertEquals(49, backoff.delay(1).toMillis());
+    assertEquals(99, backoff.delay(2).toMillis());
+    assertEquals(399, backoff.delay(4).toMillis());
+    assertEquals(799, backoff.delay(5).toMillis());
+    assertEquals(999, backoff.delay(6).toMillis());
+    assertEquals(999, backoff.delay(100).toMillis());
+  }
+
+  @Test
+  void delay_RandomAtZero_RetriesImmediately() {
+    Backoff backoff = new Backoff(Duration.ofMillis(50), Duration.ofSeconds(1), () -> 0);
+
+    assertEquals(Duration.ZERO, backoff.delay(3));
+  }
+}
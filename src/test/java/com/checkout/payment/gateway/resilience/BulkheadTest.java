@@ -0,0 +1,33 @@
+package com.checkout.payment.gateway.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class BulkheadTest {
+
+  @Test
+  void tryAcquire_LimitReached_RejectsImmediately() {
+    Bulkhead bulkhead = new Bulkhead("write", 2);
+
+    assertTrue(bulkhead.tryAcquire());
+    assertTrue(bulkhead.tryAcquire());
+    assertFalse(bulkhead.tryAcquire());
+    assertEquals(2, bulkhead.getInflight());
+    assertEquals(1.0, bulkhead.utilization());
+    assertEquals(1, bulkhead.rejectedCount());
+  }
+
+  @Test
+  void release_PermitReturned_AdmitsNextCall() {
+    Bulkhead bulkhead = new Bulkhead("write", 1);
+    assertTrue(bulkhead.tryAcquire());
+
+    bulkhead.release();
+
+    assertTrue(bulkhead.tryAcquire());
+    assertEquals(0, bulkhead.rejectedCount());
+  }
+}
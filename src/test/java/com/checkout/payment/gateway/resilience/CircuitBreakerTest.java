@@ -0,0 +1,111 @@
+package com.checkout.payment.gateway.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.checkout.payment.gateway.resilience.CircuitBreaker.State;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+
+  private static final long FAST = Duration.ofMillis(10).toNanos();
+  private static final long SLOW = Duration.ofSeconds(2).toNanos();
+
+  private final AtomicLong clock = new AtomicLong();
+  private CircuitBreaker circuitBreaker;
+
+  @BeforeEach
+  void setUp() {
+    circuitBreaker = new CircuitBreaker("bank", 10, 4, 50, 80, Duration.ofSeconds(1),
+        Duration.ofSeconds(10), 2, clock::get);
+  }
+
+  @Test
+  void onFailure_BelowMinimumCalls_StaysClosed() {
+    for (int i = 0; i < 3; i++) {
+      assertTrue(circuitBreaker.tryAcquirePermission());
+      circuitBreaker.onFailure(FAST);
+    }
+
+    assertEquals(State.CLOSED, circuitBreaker.getState());
+    assertEquals(-1f, circuitBreaker.failureRate());
+  }
+
+  @Test
+  void onFailure_FailureRateReachesThreshold_OpensAndRejects() {
+    recordOutcomes(2, 2, FAST);
+
+    assertEquals(State.OPEN, circuitBreaker.getState());
+    assertFalse(circuitBreaker.tryAcquirePermission());
+    assertEquals(1, circuitBreaker.rejectedCount());
+    assertEquals(1, circuitBreaker.transitionCount(State.OPEN));
+    assertEquals(Duration.ofSeconds(10), circuitBreaker.remainingOpenDuration());
+  }
+
+  @Test
+  void onSuccess_SlowCallRateReachesThreshold_Opens() {
+    recordOutcomes(4, 0, SLOW);
+
+    assertEquals(State.OPEN, circuitBreaker.getState());
+  }
+
+  @Test
+  void onFailure_OldFailuresSlideOutOfWindow_StaysClosed() {
+    recordOutcomes(0, 1, FAST);
+    recordOutcomes(9, 0, FAST);
+    recordOutcomes(0, 4, FAST);
+
+    assertEquals(State.CLOSED, circuitBreaker.getState());
+    assertEquals(40f, circuitBreaker.failureRate());
+  }
+
+  @Test
+  void tryAcquirePermission_OpenDurationElapsed_AllowsLimitedTrialCalls() {
+    recordOutcomes(0, 4, FAST);
+    clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+    assertTrue(circuitBreaker.tryAcquirePermission());
+    assertTrue(circuitBreaker.tryAcquirePermission());
+    assertFalse(circuitBreaker.tryAcquirePermission());
+    assertEquals(State.HALF_OPEN, circuitBreaker.getState());
+  }
+
+  @Test
+  void onSuccess_TrialCallsSucceed_Closes() {
+    recordOutcomes(0, 4, FAST);
+    clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+    recordOutcomes(2, 0, FAST);
+
+    assertEquals(State.CLOSED, circuitBreaker.getState());
+    assertEquals(-1f, circuitBreaker.failureRate());
+    assertTrue(circuitBreaker.tryAcquirePermission());
+  }
+
+  @Test
+  void onFailure_TrialCallsFail_OpensAgain() {
+    recordOutcomes(0, 4, FAST);
+    clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+    recordOutcomes(1, 1, FAST);
+
+    assertEquals(State.OPEN, circuitBreaker.getState());
+    assertEquals(2, circuitBreaker.transitionCount(State.OPEN));
+    assertFalse(circuitBreaker.tryAcquirePermission());
+  }
+
+  private void recordOutcomes(int successes, int failures, long durationNanos) {
+    for (int i = 0; i < successes; i++) {
+      assertTrue(circuitBreaker.tryAcquirePermission());
+      circuitBreaker.onSuccess(durationNanos);
+    }
+    for (int i = 0; i < failures; i++) {
+      assertTrue(circuitBreaker.tryAcquirePermission());
+      circuitBreaker.onFailure(durationNanos);
+    }
+  }
+}
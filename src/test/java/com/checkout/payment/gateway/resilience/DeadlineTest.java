@@ -0,0 +1,36 @@
+package com.checkout.payment.gateway.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class DeadlineTest {
+
+  @Test
+  void after_ZeroOrNegativeTimeout_AlreadyExpired() {
+    assertTrue(Deadline.after(Duration.ZERO).isExpired());
+    assertTrue(Deadline.after(Duration.ofSeconds(-1)).isExpired());
+    assertEquals(Duration.ZERO, Deadline.after(Duration.ofSeconds(-1)).remaining());
+  }
+
+  @Test
+  void cap_TimeoutShorterThanRemaining_KeepsTimeout() {
+    Deadline deadline = Deadline.after(Duration.ofMinutes(1));
+
+    assertFalse(deadline.isExpired());
+    assertEquals(Duration.ofSeconds(10), deadline.cap(Duration.ofSeconds(10)));
+  }
+
+  @Test
+  void cap_TimeoutLongerThanRemaining_ReturnsRemaining() {
+    Deadline deadline = Deadline.after(Duration.ofSeconds(1));
+
+    Duration capped = deadline.cap(Duration.ofMinutes(1));
+
+    assertTrue(capped.compareTo(Duration.ofSeconds(1)) <= 0);
+    assertTrue(capped.compareTo(Duration.ZERO) > 0);
+  }
+}
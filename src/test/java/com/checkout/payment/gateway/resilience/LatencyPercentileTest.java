@@ -0,0 +1,31 @@
+package com.checkout.payment.gateway.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyPercentileTest {
+
+  @Test
+  void getNanos_FullWindow_ReturnsPercentileOfLastSamples() {
+    LatencyPercentile p95 = new LatencyPercentile(0.95, 100);
+    for (int i = 1; i <= 100; i++) {
+      p95.record(1_000_000);
+    }
+    for (int i = 1; i <= 100; i++) {
+      p95.record(i);
+    }
+
+    assertEquals(95, p95.getNanos());
+  }
+
+  @Test
+  void getNanos_TooFewSamples_Unknown() {
+    LatencyPercentile p95 = new LatencyPercentile(0.95, 100);
+    for (int i = 0; i < 9; i++) {
+      p95.record(i);
+    }
+
+    assertEquals(-1, p95.getNanos());
+  }
+}
@@ -0,0 +1,57 @@
+package com.checkout.payment.gateway.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class RetryBudgetTest {
+
+  private long now;
+
+  @Test
+  void tryWithdraw_RatioOfRequests_AllowsThatShareOfRetries() {
+    RetryBudget budget = new RetryBudget("bank", 0.1, 0, () -> now);
+    // A first second of traffic sizes the budget at 100 requests/s x 0.1.
+    for (int i = 0; i < 100; i++) {
+      budget.onRequest();
+    }
+    now += TimeUnit.SECONDS.toNanos(1);
+
+    int retries = 0;
+    for (int i = 0; i < 100; i++) {
+      budget.onRequest();
+      while (budget.tryWithdraw()) {
+        retries++;
+      }
+    }
+
+    assertTrue(retries >= 10 && retries <= 11, "retries: " + retries);
+    assertTrue(budget.exhaustedCount() > 0);
+  }
+
+  @Test
+  void tryWithdraw_NoTraffic_RefillsAtMinimumRate() {
+    RetryBudget budget = new RetryBudget("bank", 0.1, 2, () -> now);
+    assertTrue(budget.tryWithdraw());
+    assertTrue(budget.tryWithdraw());
+    assertFalse(budget.tryWithdraw());
+
+    now += TimeUnit.MILLISECONDS.toNanos(500);
+
+    assertTrue(budget.tryWithdraw());
+    assertFalse(budget.tryWithdraw());
+    assertEquals(3, budget.withdrawnCount());
+  }
+
+  @Test
+  void getBalance_LongIdlePeriod_CappedAtOneSecondOfBudget() {
+    RetryBudget budget = new RetryBudget("bank", 0.1, 2, () -> now);
+
+    now += TimeUnit.MINUTES.toNanos(10);
+
+    assertEquals(2.0, budget.getBalance());
+  }
+}
@@ -0,0 +1,149 @@
+package com.checkout.payment.gateway.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.AcquiringProcessException;
+import com.checkout.payment.gateway.exception.ServiceOverloadedException;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.resilience.AdmissionController;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class BatchPaymentServiceTest {
+
+  private static final int PARALLELISM = 4;
+
+  @Mock
+  private PaymentGatewayService paymentGatewayService;
+
+  private final AdmissionController admissionController =
+      new AdmissionController("payments", Duration.ZERO, Duration.ofSeconds(1), 1);
+  private ExecutorService batchExecutor;
+  private ExecutorService bankExecutor;
+  private BatchPaymentService batchPaymentService;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+
+  @BeforeEach
+  void setUp() {
+    batchExecutor = Executors.newFixedThreadPool(PARALLELISM);
+    bankExecutor = Executors.newCachedThreadPool();
+    batchPaymentService = new BatchPaymentService(paymentGatewayService, batchExecutor,
+        PARALLELISM, admissionController, Duration.ofSeconds(1));
+  }
+
+  @AfterEach
+  void tearDown() {
+    batchExecutor.shutdownNow();
+    bankExecutor.shutdownNow();
+  }
+
+  @Test
+  void processPayments_ManyPayments_KeepsOrderAndBoundsParallelism() {
+    when(paymentGatewayService.processPaymentAsync(any()))
+        .thenAnswer(invocation -> slowPayment(invocation.getArgument(0)));
+    List<PostPaymentRequest> requests = new ArrayList<>();
+    for (int amount = 1; amount <= 50; amount++) {
+      requests.add(createPostPaymentRequest(amount));
+    }
+
+    List<CompletableFuture<PostPaymentResponse>> results =
+        batchPaymentService.processPayments(requests);
+
+    for (int i = 0; i < requests.size(); i++) {
+      assertEquals(i + 1, results.get(i).join().getAmount());
+    }
+    assertTrue(maxInFlight.get() <= PARALLELISM, "max in flight " + maxInFlight.get());
+  }
+
+  @Test
+  void processPayments_OnePaymentFails_OtherPaymentsComplete() {
+    when(paymentGatewayService.processPaymentAsync(any())).thenAnswer(invocation -> {
+      PostPaymentRequest request = invocation.getArgument(0);
+      return request.getAmount() == 2
+          ? CompletableFuture.failedFuture(new AcquiringProcessException("Bank error"))
+          : slowPayment(request);
+    });
+
+    List<CompletableFuture<PostPaymentResponse>> results = batchPaymentService.processPayments(
+        List.of(createPostPaymentRequest(1), createPostPaymentRequest(2),
+            createPostPaymentRequest(3)));
+
+    assertEquals(1, results.get(0).join().getAmount());
+    CompletionException exception = assertThrows(CompletionException.class,
+        () -> results.get(1).join());
+    assertInstanceOf(AcquiringProcessException.class, exception.getCause());
+    assertEquals(3, results.get(2).join().getAmount());
+  }
+
+  @Test
+  void processPayments_AdmissionShedding_FailsItemsWithoutCallingBank() {
+    AdmissionController shedding = mock(AdmissionController.class);
+    when(shedding.tryAcquire()).thenReturn(false);
+    BatchPaymentService service = new BatchPaymentService(paymentGatewayService, batchExecutor,
+        PARALLELISM, shedding, Duration.ofSeconds(1));
+
+    List<CompletableFuture<PostPaymentResponse>> results = service.processPayments(
+        List.of(createPostPaymentRequest(1), createPostPaymentRequest(2)));
+
+    for (CompletableFuture<PostPaymentResponse> result : results) {
+      CompletionException exception = assertThrows(CompletionException.class, result::join);
+      assertInstanceOf(ServiceOverloadedException.class, exception.getCause());
+    }
+    verify(paymentGatewayService, never()).processPaymentAsync(any());
+  }
+
+  private CompletableFuture<PostPaymentResponse> slowPayment(PostPaymentRequest request) {
+    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+        TimeUnit.MILLISECONDS.sleep(10);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      inFlight.decrementAndGet();
+      PostPaymentResponse response = new PostPaymentResponse();
+      response.setId(UUID.randomUUID());
+      response.setStatus(PaymentStatus.AUTHORIZED);
+      response.setAmount(request.getAmount());
+      return response;
+    }, bankExecutor);
+  }
+
+  private static PostPaymentRequest createPostPaymentRequest(int amount) {
+    PostPaymentRequest request = new PostPaymentRequest();
+    request.setCardNumber("378282246310005");
+    request.setExpiryMonth(12);
+    request.setExpiryYear(2030);
+    request.setCvv("123");
+    request.setCurrency("USD");
+    request.setAmount(amount);
+    return request;
+  }
+}
@@ -1,11 +1,18 @@
 package com.checkout.payment.gateway.service;
 
+import com.checkout.payment.gateway.bin.CardSchemeDetector;
+import com.checkout.payment.gateway.client.BankSimulatorAsyncInterface;
 import com.checkout.payment.gateway.client.BankSimulatorInterface;
+import com.checkout.payment.gateway.enums.CardScheme;
 import com.checkout.payment.gateway.enums.PaymentStatus;
-import com.checkout.payment.gateway.exception.EntityNotFoundException;
+import com.checkout.payment.gateway.exception.AcquiringProcessException;
+import com.checkout.payment.gateway.exception.DeadlineExceededException;
+import com.checkout.payment.gateway.generator.PaymentIdGenerator;
+import com.checkout.payment.gateway.generator.TimeOrderedPaymentIdGenerator;
 import com.checkout.payment.gateway.model.PostPaymentRequest;
 import com.checkout.payment.gateway.model.PostPaymentResponse;
 import com.checkout.payment.gateway.repository.PaymentsRepository;
+import com.checkout.payment.gateway.resilience.Deadline;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,10 +20,15 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -32,6 +44,22 @@ class PaymentGatewayServiceTest {
     @Mock
     private BankSimulatorInterface bankSimulatorClient;
 
+    @Mock
+    private BankSimulatorAsyncInterface bankSimulatorAsyncClient;
+
+    @Spy
+    private PaymentIdGenerator paymentIdGenerator = new TimeOrderedPaymentIdGenerator();
+
+    @Spy
+    private CardSchemeDetector cardSchemeDetector =
+        new CardSchemeDetector("", Duration.ZERO, "", false);
+
+    @Spy
+    private PaymentStageMetrics stageMetrics = new PaymentStageMetrics();
+
+    @Spy
+    private Executor paymentStorageExecutor = new DirectExecutor();
+
     @InjectMocks
     private PaymentGatewayService paymentGatewayService;
 
@@ -53,7 +81,8 @@ class PaymentGatewayServiceTest {
     void getPaymentById_ExistingPayment_ReturnsPaymentResponse() {
         when(paymentsRepository.get(testPaymentId)).thenReturn(Optional.of(existingPaymentResponse));
 
-        PostPaymentResponse result = paymentGatewayService.getPaymentById(testPaymentId);
+        PostPaymentResponse result =
+            paymentGatewayService.getPaymentById(testPaymentId).orElseThrow();
 
         assertNotNull(result);
         assertEquals(existingPaymentResponse.getId(), result.getId());
@@ -64,13 +93,12 @@ class PaymentGatewayServiceTest {
     }
 
     @Test
-    void getPaymentById_NonExistingPayment_ThrowsEntityNotFoundException() {
+    void getPaymentById_NonExistingPayment_ReturnsEmpty() {
         when(paymentsRepository.get(testPaymentId)).thenReturn(Optional.empty());
 
-        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
-            () -> paymentGatewayService.getPaymentById(testPaymentId));
+        Optional<PostPaymentResponse> result = paymentGatewayService.getPaymentById(testPaymentId);
 
-        assertEquals("Payment not found. Payment ID: " + testPaymentId, exception.getMessage());
+        assertTrue(result.isEmpty());
         verify(paymentsRepository).get(testPaymentId);
     }
 
@@ -142,6 +170,19 @@ class PaymentGatewayServiceTest {
         verify(paymentsRepository, never()).add(any(PostPaymentResponse.class));
     }
 
+    @Test
+    void processPayment_UsesIdFromGenerator() {
+        UUID generatedId = UUID.randomUUID();
+        when(paymentIdGenerator.nextId()).thenReturn(generatedId);
+        when(bankSimulatorClient.makePayment(generatedId, testPaymentRequest))
+            .thenReturn(PaymentStatus.AUTHORIZED);
+
+        PostPaymentResponse result = paymentGatewayService.processPayment(testPaymentRequest);
+
+        assertEquals(generatedId, result.getId());
+        verify(bankSimulatorClient).makePayment(generatedId, testPaymentRequest);
+    }
+
     @Test
     void processPayment_WithValidCardNumber_ReturnsResponseWithCorrectLastFour() {
         testPaymentRequest.setCardNumber("4532015112830366");
@@ -152,10 +193,23 @@ class PaymentGatewayServiceTest {
 
         assertNotNull(result);
         assertEquals("0366", result.getCardNumberLastFour());
+        assertEquals(CardScheme.VISA, result.getScheme());
         verify(bankSimulatorClient).makePayment(any(UUID.class), eq(testPaymentRequest));
         verify(paymentsRepository).add(any(PostPaymentResponse.class));
     }
 
+    @Test
+    void processPayment_UnknownBin_ReturnsResponseWithoutScheme() {
+        testPaymentRequest.setCardNumber("1234567812345670");
+        when(bankSimulatorClient.makePayment(any(UUID.class), eq(testPaymentRequest)))
+            .thenReturn(PaymentStatus.AUTHORIZED);
+
+        PostPaymentResponse result = paymentGatewayService.processPayment(testPaymentRequest);
+
+        assertNull(result.getScheme());
+        verify(paymentsRepository).add(any(PostPaymentResponse.class));
+    }
+
     @Test
     void processPayment_BankSimulatorThrowsException_PropagatesException() {
         RuntimeException expectedException = new RuntimeException("Bank service unavailable");
@@ -170,6 +224,86 @@ class PaymentGatewayServiceTest {
         verify(paymentsRepository, never()).add(any(PostPaymentResponse.class));
     }
 
+    @Test
+    void processPaymentAsync_BankAuthorizes_CompletesWithAuthorizedResponseAndSavesPayment() {
+        when(bankSimulatorAsyncClient.makePaymentAsync(any(UUID.class), eq(testPaymentRequest)))
+            .thenReturn(CompletableFuture.completedFuture(PaymentStatus.AUTHORIZED));
+
+        PostPaymentResponse result = paymentGatewayService.processPaymentAsync(testPaymentRequest)
+            .join();
+
+        assertEquals(PaymentStatus.AUTHORIZED, result.getStatus());
+        assertEquals(testPaymentRequest.getCardNumberLastFour(), result.getCardNumberLastFour());
+        verify(paymentsRepository).add(paymentResponseCaptor.capture());
+        assertEquals(result.getId(), paymentResponseCaptor.getValue().getId());
+        verify(paymentStorageExecutor, never()).execute(any(Runnable.class));
+        verify(bankSimulatorClient, never()).makePayment(any(UUID.class), any());
+    }
+
+    @Test
+    void processPaymentAsync_BankAnswersLater_SavesPaymentOnStorageExecutor() {
+        CompletableFuture<PaymentStatus> bankAnswer = new CompletableFuture<>();
+        when(bankSimulatorAsyncClient.makePaymentAsync(any(UUID.class), eq(testPaymentRequest)))
+            .thenReturn(bankAnswer);
+
+        CompletableFuture<PostPaymentResponse> result =
+            paymentGatewayService.processPaymentAsync(testPaymentRequest);
+        bankAnswer.complete(PaymentStatus.AUTHORIZED);
+
+        assertEquals(PaymentStatus.AUTHORIZED, result.join().getStatus());
+        verify(paymentStorageExecutor).execute(any(Runnable.class));
+        verify(paymentsRepository).add(any(PostPaymentResponse.class));
+    }
+
+    @Test
+    void processPaymentAsync_BankFails_CompletesExceptionallyAndDoesNotSavePayment() {
+        when(bankSimulatorAsyncClient.makePaymentAsync(any(UUID.class), eq(testPaymentRequest)))
+            .thenReturn(CompletableFuture.failedFuture(new AcquiringProcessException("Bank error")));
+
+        CompletionException exception = assertThrows(CompletionException.class,
+            () -> paymentGatewayService.processPaymentAsync(testPaymentRequest).join());
+
+        assertInstanceOf(AcquiringProcessException.class, exception.getCause());
+        verify(paymentsRepository, never()).add(any(PostPaymentResponse.class));
+    }
+
+    @Test
+    void processPayment_DeadlineExpired_DropsPaymentBeforeBank() {
+        testPaymentRequest.setDeadline(Deadline.after(Duration.ZERO));
+
+        assertThrows(DeadlineExceededException.class,
+            () -> paymentGatewayService.processPayment(testPaymentRequest));
+
+        verify(bankSimulatorClient, never()).makePayment(any(UUID.class), any());
+        verify(paymentsRepository, never()).add(any(PostPaymentResponse.class));
+        assertEquals(1, stageMetrics.deadlineExceededCount(PaymentStageMetrics.Stage.QUEUE));
+    }
+
+    @Test
+    void processPaymentAsync_DeadlineExpired_CompletesExceptionallyWithoutCallingBank() {
+        testPaymentRequest.setDeadline(Deadline.after(Duration.ZERO));
+
+        CompletionException exception = assertThrows(CompletionException.class,
+            () -> paymentGatewayService.processPaymentAsync(testPaymentRequest).join());
+
+        assertInstanceOf(DeadlineExceededException.class, exception.getCause());
+        verify(bankSimulatorAsyncClient, never()).makePaymentAsync(any(UUID.class), any());
+    }
+
+    @Test
+    void processPayment_WithinDeadline_RecordsStageTimes() {
+        testPaymentRequest.setDeadline(Deadline.after(Duration.ofSeconds(10)));
+        when(bankSimulatorClient.makePayment(any(UUID.class), eq(testPaymentRequest)))
+            .thenReturn(PaymentStatus.AUTHORIZED);
+
+        paymentGatewayService.processPayment(testPaymentRequest);
+
+        for (PaymentStageMetrics.Stage stage : PaymentStageMetrics.Stage.values()) {
+            assertEquals(1, stageMetrics.count(stage));
+            assertEquals(0, stageMetrics.deadlineExceededCount(stage));
+        }
+    }
+
     private PostPaymentRequest createTestPaymentRequest() {
         PostPaymentRequest request = new PostPaymentRequest();
         request.setCardNumber("4532015112830366");
@@ -192,4 +326,12 @@ class PaymentGatewayServiceTest {
         response.setCardNumberLastFour("3366");
         return response;
     }
+
+    private static class DirectExecutor implements Executor {
+
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    }
 }
@@ -0,0 +1,118 @@
+package com.checkout.payment.gateway.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.InvalidPaymentRequestException;
+import com.checkout.payment.gateway.exception.ServiceOverloadedException;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.validation.BindingResult;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentPipelineTest {
+
+  private static final UUID PAYMENT_ID = UUID.randomUUID();
+
+  @Mock
+  private PaymentGatewayService paymentGatewayService;
+
+  @Mock
+  private BatchPaymentItemFactory itemFactory;
+
+  private final PostPaymentRequest request = new PostPaymentRequest();
+
+  @Test
+  void submit_ValidRequest_PassesThroughEveryStage() throws Exception {
+    PostPaymentResponse response = new PostPaymentResponse();
+    when(paymentGatewayService.startPayment()).thenReturn(PAYMENT_ID);
+    when(paymentGatewayService.authorize(PAYMENT_ID, request))
+        .thenReturn(PaymentStatus.AUTHORIZED);
+    when(paymentGatewayService.completePayment(PAYMENT_ID, request, PaymentStatus.AUTHORIZED))
+        .thenReturn(response);
+
+    try (PaymentPipeline pipeline = pipeline(4)) {
+      assertSame(response, pipeline.submit(request).get(5, TimeUnit.SECONDS));
+
+      for (PipelineStage stage : pipeline.stages()) {
+        assertEquals(1, stage.completedCount(), stage.getName());
+      }
+    }
+  }
+
+  @Test
+  void submit_InvalidRequest_FailsBeforeBankCall() {
+    when(itemFactory.validationErrors(request)).thenReturn(mock(BindingResult.class));
+
+    try (PaymentPipeline pipeline = pipeline(4)) {
+      ExecutionException failure = assertThrows(ExecutionException.class,
+          () -> pipeline.submit(request).get(5, TimeUnit.SECONDS));
+
+      assertInstanceOf(InvalidPaymentRequestException.class, failure.getCause());
+      verify(paymentGatewayService, never()).authorize(any(), any());
+    }
+  }
+
+  @Test
+  void submit_BankSlow_QueuesFillAndNewPaymentsRejected() throws Exception {
+    CountDownLatch bank = new CountDownLatch(1);
+    when(paymentGatewayService.startPayment()).thenReturn(PAYMENT_ID);
+    when(paymentGatewayService.authorize(PAYMENT_ID, request)).thenAnswer(invocation -> {
+      bank.await(5, TimeUnit.SECONDS);
+      return PaymentStatus.AUTHORIZED;
+    });
+    when(paymentGatewayService.completePayment(eq(PAYMENT_ID), eq(request), any()))
+        .thenReturn(new PostPaymentResponse());
+
+    try (PaymentPipeline pipeline = pipeline(1)) {
+      List<CompletableFuture<PostPaymentResponse>> accepted = new ArrayList<>();
+      ServiceOverloadedException rejected = null;
+      for (int i = 0; i < 10 && rejected == null; i++) {
+        try {
+          accepted.add(pipeline.submit(request));
+        } catch (ServiceOverloadedException e) {
+          rejected = e;
+        }
+      }
+
+      assertNotNull(rejected);
+      assertEquals(Duration.ofSeconds(1), rejected.getRetryAfter());
+      assertTrue(accepted.size() <= 4, "accepted: " + accepted.size());
+      assertEquals(1, pipeline.stages().get(0).rejectedCount());
+
+      bank.countDown();
+      for (CompletableFuture<PostPaymentResponse> payment : accepted) {
+        assertNotNull(payment.get(5, TimeUnit.SECONDS));
+      }
+    }
+  }
+
+  // One worker per stage and queues of the given capacity.
+  private PaymentPipeline pipeline(int queueCapacity) {
+    return new PaymentPipeline(paymentGatewayService, itemFactory, 1, queueCapacity, 1,
+        queueCapacity, 1, queueCapacity, Duration.ofSeconds(1));
+  }
+}
@@ -0,0 +1,192 @@
+package com.checkout.payment.gateway.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.InvalidPaymentQueryException;
+import com.checkout.payment.gateway.model.PaymentFilter;
+import com.checkout.payment.gateway.model.PaymentPage;
+import com.checkout.payment.gateway.model.PaymentSearch;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.repository.IndexedPaymentsRepository;
+import com.checkout.payment.gateway.repository.StripedPaymentsRepository;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PaymentQueryServiceTest {
+
+  private static final long START_MILLIS = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+
+  private long clockMillis = START_MILLIS;
+  private IndexedPaymentsRepository repository;
+  private PaymentQueryService paymentQueryService;
+
+  @BeforeEach
+  void setUp() {
+    repository = new IndexedPaymentsRepository(new StripedPaymentsRepository(4), 1_000, 1_000,
+        0.01);
+    paymentQueryService = new PaymentQueryService(repository, 50, 1_000);
+  }
+
+  @Test
+  void listPayments_FollowingCursors_ReturnsEveryMatchingPaymentOnce() {
+    List<UUID> declinedUsd = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      PaymentStatus status = i % 3 == 0 ? PaymentStatus.DECLINED : PaymentStatus.AUTHORIZED;
+      String currency = i % 2 == 0 ? "USD" : "GBP";
+      PostPaymentResponse payment = addPayment(status, currency);
+      if (status == PaymentStatus.DECLINED && currency.equals("USD")) {
+        declinedUsd.add(payment.getId());
+      }
+    }
+    PaymentFilter filter = new PaymentFilter(null, null, PaymentStatus.DECLINED, "usd");
+
+    List<UUID> listed = new ArrayList<>();
+    String cursor = null;
+    int pages = 0;
+    do {
+      PaymentPage page = paymentQueryService.listPayments(filter, cursor, 20);
+      assertTrue(page.getPayments().size() <= 20);
+      page.getPayments().forEach(payment -> listed.add(payment.getId()));
+      cursor = page.getNextCursor();
+      pages++;
+    } while (cursor != null && pages < 100);
+
+    assertNull(cursor);
+    assertEquals(declinedUsd.size(), listed.size());
+    assertTrue(listed.containsAll(declinedUsd));
+  }
+
+  @Test
+  void listPayments_TimeRange_MatchesTimestampEmbeddedInId() {
+    addPayment(PaymentStatus.AUTHORIZED, "USD");
+    clockMillis += 60_000;
+    PostPaymentResponse inRange = addPayment(PaymentStatus.AUTHORIZED, "USD");
+    clockMillis += 60_000;
+    addPayment(PaymentStatus.AUTHORIZED, "USD");
+    PostPaymentResponse randomId = payment(UUID.randomUUID(), PaymentStatus.AUTHORIZED, "USD");
+    repository.add(randomId);
+
+    PaymentFilter filter = new PaymentFilter(Instant.ofEpochMilli(START_MILLIS + 60_000),
+        Instant.ofEpochMilli(START_MILLIS + 120_000), null, null);
+    PaymentPage page = paymentQueryService.listPayments(filter, null, 50);
+
+    assertEquals(1, page.getPayments().size());
+    assertEquals(inRange.getId(), page.getPayments().get(0).getId());
+    assertNull(page.getNextCursor());
+  }
+
+  @Test
+  void listPayments_ScanBudgetExhausted_ReturnsShortPageWithCursor() {
+    for (int i = 0; i < 1_500; i++) {
+      addPayment(PaymentStatus.AUTHORIZED, "USD");
+    }
+    PaymentFilter filter = new PaymentFilter(null, null, PaymentStatus.DECLINED, null);
+
+    PaymentPage page = paymentQueryService.listPayments(filter, null, 10);
+
+    assertTrue(page.getPayments().isEmpty());
+    assertNotNull(page.getNextCursor());
+    assertNull(paymentQueryService.listPayments(filter, page.getNextCursor(), 10).getNextCursor());
+  }
+
+  @Test
+  void listPayments_InvalidCursorOrLimit_ThrowsInvalidPaymentQueryException() {
+    assertThrows(InvalidPaymentQueryException.class,
+        () -> paymentQueryService.listPayments(PaymentFilter.ALL, "not-a-cursor", 10));
+    assertThrows(InvalidPaymentQueryException.class,
+        () -> paymentQueryService.listPayments(PaymentFilter.ALL, null, 0));
+    assertThrows(InvalidPaymentQueryException.class,
+        () -> paymentQueryService.listPayments(PaymentFilter.ALL, null, 51));
+  }
+
+  @Test
+  void cursor_RoundTrips() {
+    long position = 5L << 32 | 17;
+
+    assertEquals(position, PaymentQueryService.decodeCursor((byte) 1,
+        PaymentQueryService.encodeCursor((byte) 1, position)));
+    assertThrows(InvalidPaymentQueryException.class, () -> PaymentQueryService.decodeCursor(
+        (byte) 2, PaymentQueryService.encodeCursor((byte) 1, position)));
+  }
+
+  @Test
+  void searchPayments_FollowingCursors_ReturnsMatchesNewestFirst() {
+    List<UUID> expected = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      PostPaymentResponse payment = payment(timeOrderedId(clockMillis++), PaymentStatus.AUTHORIZED,
+          "USD");
+      payment.setCardNumberLastFour(i % 5 == 0 ? "0366" : "1111");
+      payment.setAmount(i % 2 == 0 ? 2500 : 100);
+      repository.add(payment);
+      if (i % 5 == 0 && i % 2 == 0) {
+        expected.add(0, payment.getId());
+      }
+    }
+    PaymentSearch search = new PaymentSearch("0366", 12, 2030, 2500, null, null, null, null);
+
+    List<UUID> found = new ArrayList<>();
+    String cursor = null;
+    int pages = 0;
+    do {
+      PaymentPage page = paymentQueryService.searchPayments(search, cursor, 7);
+      page.getPayments().forEach(payment -> found.add(payment.getId()));
+      cursor = page.getNextCursor();
+      pages++;
+    } while (cursor != null && pages < 100);
+
+    assertEquals(expected, found);
+  }
+
+  @Test
+  void searchPayments_InvalidCriteria_ThrowsInvalidPaymentQueryException() {
+    assertThrows(InvalidPaymentQueryException.class, () -> paymentQueryService.searchPayments(
+        new PaymentSearch("366", null, null, null, null, null, null, null), null, 10));
+    assertThrows(InvalidPaymentQueryException.class, () -> paymentQueryService.searchPayments(
+        new PaymentSearch(null, 13, null, null, null, null, null, null), null, 10));
+    assertThrows(InvalidPaymentQueryException.class, () -> paymentQueryService.searchPayments(
+        new PaymentSearch(null, null, null, null, null, null, null, null), "bogus", 10));
+  }
+
+  @Test
+  void parseStatus_ApiOrConstantName_IgnoresCase() {
+    assertEquals(PaymentStatus.AUTHORIZED, PaymentQueryService.parseStatus("Authorized"));
+    assertEquals(PaymentStatus.DECLINED, PaymentQueryService.parseStatus("DECLINED"));
+    assertNull(PaymentQueryService.parseStatus(null));
+    assertThrows(InvalidPaymentQueryException.class,
+        () -> PaymentQueryService.parseStatus("Pending"));
+  }
+
+  private PostPaymentResponse addPayment(PaymentStatus status, String currency) {
+    PostPaymentResponse payment = payment(timeOrderedId(clockMillis), status, currency);
+    repository.add(payment);
+    return payment;
+  }
+
+  private static UUID timeOrderedId(long millis) {
+    long random = ThreadLocalRandom.current().nextLong();
+    return new UUID(millis << 16 | 0x7000L | (random & 0xFFFL),
+        0x8000000000000000L | (random >>> 2));
+  }
+
+  private static PostPaymentResponse payment(UUID id, PaymentStatus status, String currency) {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(id);
+    payment.setStatus(status);
+    payment.setCardNumberLastFour("4321");
+    payment.setExpiryMonth(12);
+    payment.setExpiryYear(2030);
+    payment.setCurrency(currency);
+    payment.setAmount(100);
+    return payment;
+  }
+}
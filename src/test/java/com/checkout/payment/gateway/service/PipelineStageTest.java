@@ -0,0 +1,97 @@
+package com.checkout.payment.gateway.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class PipelineStageTest {
+
+  @Test
+  void offer_QueueFull_RejectsAndCounts() throws InterruptedException {
+    CountDownLatch running = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    try (PipelineStage stage = new PipelineStage("test", 1, 2)) {
+      assertTrue(stage.offer(() -> {
+        running.countDown();
+        await(release);
+      }));
+      assertTrue(running.await(5, TimeUnit.SECONDS));
+      assertTrue(stage.offer(() -> { }));
+      assertTrue(stage.offer(() -> { }));
+
+      assertFalse(stage.offer(() -> { }));
+
+      assertEquals(2, stage.queueDepth());
+      assertEquals(1, stage.busyWorkers());
+      assertEquals(1, stage.rejectedCount());
+      release.countDown();
+    }
+  }
+
+  @Test
+  void put_QueueFull_WaitsForRoom() throws InterruptedException {
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger ran = new AtomicInteger();
+    try (PipelineStage stage = new PipelineStage("test", 1, 1)) {
+      stage.put(() -> await(release));
+      stage.put(ran::incrementAndGet);
+      Thread producer = new Thread(() -> {
+        try {
+          stage.put(ran::incrementAndGet);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+      producer.start();
+      producer.join(200);
+      assertTrue(producer.isAlive());
+
+      release.countDown();
+      producer.join(5_000);
+
+      assertFalse(producer.isAlive());
+    }
+    assertEquals(2, ran.get());
+  }
+
+  @Test
+  void close_QueuedTasks_RunBeforeWorkersStop() {
+    AtomicInteger ran = new AtomicInteger();
+    PipelineStage stage = new PipelineStage("test", 2, 100);
+    for (int i = 0; i < 100; i++) {
+      stage.offer(() -> {
+        sleep(1);
+        ran.incrementAndGet();
+      });
+    }
+
+    stage.close();
+
+    assertEquals(100, ran.get());
+    assertEquals(100, stage.completedCount());
+    assertTrue(stage.serviceTimeNanos() >= TimeUnit.MILLISECONDS.toNanos(100));
+    assertTrue(stage.waitTimeNanos() > 0);
+    assertFalse(stage.offer(() -> { }));
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package com.checkout.payment.gateway.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+
+class MonthClockTest {
+
+  @Test
+  void now_AcrossMonthBoundary_ReturnsNewMonth() {
+    MutableClock clock = new MutableClock(Instant.parse("2030-01-31T23:59:59.999Z"));
+    MonthClock monthClock = new MonthClock(clock);
+
+    assertEquals(YearMonth.of(2030, 1), monthClock.now());
+    clock.instant = Instant.parse("2030-02-01T00:00:00Z");
+    assertEquals(YearMonth.of(2030, 2), monthClock.now());
+    clock.instant = Instant.parse("2030-12-31T23:00:00Z");
+    assertEquals(YearMonth.of(2030, 12), monthClock.now());
+  }
+
+  @Test
+  void now_ClockMovedBack_ReturnsEarlierMonth() {
+    MutableClock clock = new MutableClock(Instant.parse("2030-03-01T00:00:00Z"));
+    MonthClock monthClock = new MonthClock(clock);
+
+    clock.instant = Instant.parse("2030-02-28T23:59:59Z");
+
+    assertEquals(YearMonth.of(2030, 2), monthClock.now());
+  }
+
+  private static final class MutableClock extends Clock {
+
+    private Instant instant;
+
+    private MutableClock(Instant instant) {
+      this.instant = instant;
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+  }
+}
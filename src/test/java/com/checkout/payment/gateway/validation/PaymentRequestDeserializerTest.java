@@ -0,0 +1,136 @@
+package com.checkout.payment.gateway.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.checkout.payment.gateway.bin.CardSchemeDetector;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PaymentRequestDeserializerTest {
+
+  // 15 June 2030
+  private static final MonthClock CLOCK = new MonthClock(
+      Clock.fixed(Instant.parse("2030-06-15T12:00:00Z"), ZoneOffset.UTC));
+
+  private final ObjectMapper plain = new ObjectMapper()
+      .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+  private final ObjectMapper mapper = new ObjectMapper()
+      .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+      .registerModule(PaymentRequestDeserializer.module(CLOCK, null));
+
+  @Test
+  void deserialize_ValidRequest_IsVerified() throws JsonProcessingException {
+    PostPaymentRequest request = mapper.readValue(body("2031", "\"123\""),
+        PostPaymentRequest.class);
+
+    assertTrue(request.isVerified());
+    assertEquals("4532015112830366", request.getCardNumber());
+    assertEquals(12, request.getExpiryMonth());
+    assertEquals(2031, request.getExpiryYear());
+    assertEquals("USD", request.getCurrency());
+    assertEquals(1000, request.getAmount());
+    assertEquals("123", request.getCvv());
+  }
+
+  @Test
+  void deserialize_InvalidFields_ReadsEveryFieldButIsNotVerified() throws JsonProcessingException {
+    assertNotVerified(body("2031", "\"12a\""));
+    assertNotVerified(body("2029", "\"123\""));
+    assertNotVerified(body("2030", "\"123\"").replace("\"expiryMonth\":12", "\"expiryMonth\":5"));
+    assertNotVerified(body("2031", "\"123\"").replace("USD", "XXX"));
+    assertNotVerified(body("2031", "\"123\"").replace("0366", "0367"));
+    assertNotVerified(body("2031", "\"123\"").replace("1000", "0"));
+    assertNotVerified("{\"cardNumber\":\"4532015112830366\"}");
+  }
+
+  @Test
+  void deserialize_OtherTokensOrFields_ReadAsPlainBean() throws JsonProcessingException {
+    assertNotVerified(body("\"2031\"", "\"123\""));
+    assertNotVerified(body("2031", "123"));
+    assertNotVerified(body("2031.0", "\"123\""));
+    assertNotVerified(body("2031", "null"));
+    assertNotVerified(body("2031", "\"123\"").replace("{", "{\"reference\":{\"id\":[1,2]},"));
+    assertNotVerified(body("2031", "\"123\"").replace("}", ",\"note\":\"x\"}"));
+  }
+
+  @Test
+  void deserialize_MalformedValue_FailsWithPlainBeanMessage() {
+    String json = body("2031", "\"123\"").replace("1000", "\"ten\"");
+
+    JsonProcessingException expected = assertThrows(JsonProcessingException.class,
+        () -> plain.readValue(json, PostPaymentRequest.class));
+    JsonProcessingException actual = assertThrows(JsonProcessingException.class,
+        () -> mapper.readValue(json, PostPaymentRequest.class));
+
+    assertEquals(expected.getOriginalMessage(), actual.getOriginalMessage());
+  }
+
+  @Test
+  void deserialize_UnknownFieldRejected_FailsAsPlainBean() {
+    ObjectMapper strict = new ObjectMapper()
+        .registerModule(PaymentRequestDeserializer.module(CLOCK, null));
+
+    assertThrows(JsonProcessingException.class, () -> strict.readValue(
+        body("2031", "\"123\"").replace("}", ",\"note\":\"x\"}"), PostPaymentRequest.class));
+  }
+
+  @Test
+  void deserialize_UnsupportedScheme_IsNotVerified() throws JsonProcessingException {
+    try (CardSchemeDetector detector = new CardSchemeDetector("", Duration.ZERO, "MASTERCARD",
+        false)) {
+      ObjectMapper mastercardOnly = new ObjectMapper()
+          .registerModule(PaymentRequestDeserializer.module(CLOCK, detector));
+
+      assertFalse(mastercardOnly.readValue(body("2031", "\"123\""), PostPaymentRequest.class)
+          .isVerified());
+      assertEquals(0, detector.rejectedCount());
+    }
+  }
+
+  @Test
+  void deserialize_NullAndLists_ReadAsPlainBean() throws JsonProcessingException {
+    assertNull(mapper.readValue("null", PostPaymentRequest.class));
+
+    List<PostPaymentRequest> requests = mapper.readValue(
+        "[" + body("2031", "\"123\"") + "," + body("2031", "\"1\"") + "]",
+        mapper.getTypeFactory().constructCollectionType(List.class, PostPaymentRequest.class));
+
+    assertTrue(requests.get(0).isVerified());
+    assertFalse(requests.get(1).isVerified());
+  }
+
+  @Test
+  void setter_VerifiedRequest_ClearsMark() throws JsonProcessingException {
+    PostPaymentRequest request = mapper.readValue(body("2031", "\"123\""),
+        PostPaymentRequest.class);
+
+    request.setCvv("1");
+
+    assertFalse(request.isVerified());
+  }
+
+  private void assertNotVerified(String json) throws JsonProcessingException {
+    PostPaymentRequest request = mapper.readValue(json, PostPaymentRequest.class);
+
+    assertFalse(request.isVerified(), json);
+    assertEquals(plain.readValue(json, PostPaymentRequest.class).toString(), request.toString(),
+        json);
+  }
+
+  private static String body(String expiryYear, String cvv) {
+    return "{\"cardNumber\":\"4532015112830366\",\"expiryMonth\":12,\"expiryYear\":" + expiryYear
+        + ",\"currency\":\"USD\",\"amount\":1000,\"cvv\":" + cvv + "}";
+  }
+}
@@ -0,0 +1,375 @@
+package com.checkout.payment.gateway.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.checkout.payment.gateway.bin.CardSchemeDetector;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import jakarta.validation.Configuration;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorFactory;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PaymentRequestValidatorTest {
+
+  private static final String LUHN = "cardNumber: " + PaymentRequestValidator.CARD_NUMBER_LUHN;
+  private static final String CURRENCY =
+      "currency: " + PaymentRequestValidator.CURRENCY_UNSUPPORTED;
+  private static final String EXPIRY_YEAR =
+      "expiryYear: " + PaymentRequestValidator.EXPIRY_YEAR_PAST;
+  private static final String EXPIRY_DATE = ": " + PaymentRequestValidator.EXPIRY_DATE_PAST;
+
+  private ValidatorFactory validatorFactory;
+  private Validator validator;
+  // Checks that depend on the current month run in June 2026.
+  private ValidatorFactory juneFactory;
+  private Validator june;
+
+  @BeforeEach
+  void setUp() {
+    validatorFactory = Validation.buildDefaultValidatorFactory();
+    validator = validatorFactory.getValidator();
+    juneFactory = validatorFactory(clockAt("2026-06-15T12:00:00Z"));
+    june = juneFactory.getValidator();
+  }
+
+  @AfterEach
+  void tearDown() {
+    validatorFactory.close();
+    juneFactory.close();
+  }
+
+  @Test
+  void isValid_ValidRequest_NoViolations() {
+    assertEquals(Set.of(), violations(validRequest()));
+  }
+
+  @Test
+  void isValid_LowercaseCurrency_NoViolations() {
+    PostPaymentRequest request = validRequest();
+    request.setCurrency("eur");
+
+    assertEquals(Set.of(), violations(request));
+  }
+
+  @Test
+  void isValid_MissingFields_ReportsNotNullAndDependentMessages() {
+    PostPaymentRequest request = validRequest();
+    request.setCardNumber(null);
+    request.setCurrency(null);
+    request.setCvv(null);
+
+    assertEquals(Set.of(
+        "cardNumber: Card number must not be empty",
+        "cardNumber: Invalid card number, failed Luhn check",
+        "currency: Currency must not be empty",
+        "currency: Wrong currency code/currency code is not supported",
+        "cvv: CVV must not be empty"), violations(request));
+  }
+
+  @Test
+  void isValid_EveryFieldInvalid_ReportsEachBrokenRule() {
+    PostPaymentRequest request = validRequest();
+    request.setCardNumber("4111-1111");
+    request.setExpiryMonth(13);
+    request.setCurrency("JPYX");
+    request.setAmount(0);
+    request.setCvv("12a45");
+
+    assertEquals(Set.of(
+        "cardNumber: Card number must be between 14 and 19 characters long",
+        "cardNumber: Card number must be 14-19 numeric characters long",
+        "cardNumber: Invalid card number, failed Luhn check",
+        "expiryMonth: Invalid value of the expiry month, value should be in a range 1-12",
+        "currency: Currency must be exactly 3 characters long",
+        "currency: Wrong currency code/currency code is not supported",
+        "amount: Invalid value of the amount, value must be more than 0",
+        "cvv: CVV must be 3 or 4 characters long",
+        "cvv: CVV must only contain numeric characters"), violations(request));
+  }
+
+  @Test
+  void isValid_FailedLuhnCheck_ReportsOnlyChecksum() {
+    PostPaymentRequest request = validRequest();
+    request.setCardNumber("4111111111111112");
+
+    assertEquals(Set.of("cardNumber: Invalid card number, failed Luhn check"),
+        violations(request));
+  }
+
+  @Test
+  void isValid_ExpiredLastMonth_ReportsExpiryDateOnRequest() {
+    YearMonth lastMonth = YearMonth.now().minusMonths(1);
+    PostPaymentRequest request = validRequest();
+    request.setExpiryMonth(lastMonth.getMonthValue());
+    request.setExpiryYear(lastMonth.getYear());
+
+    Set<String> violations = violations(request);
+
+    assertTrue(violations.contains(": Expiry date is not valid"), violations.toString());
+  }
+
+  @Test
+  void isValid_AmountAboveMax_ReportsMaxMessage() {
+    PostPaymentRequest request = validRequest();
+    request.setAmount(Integer.MAX_VALUE);
+
+    assertEquals(Set.of(
+        "amount: Invalid value of the amount, value must be less than 2147483647"),
+        violations(request));
+  }
+
+  @Test
+  void isValid_UnsupportedScheme_ReportsSchemeOnCardNumber() {
+    PostPaymentRequest request = validRequest();
+    request.setCardNumber("378282246310005");
+
+    try (CardSchemeDetector detector = new CardSchemeDetector("", Duration.ZERO, "VISA", false);
+        ValidatorFactory factory = validatorFactory(new PaymentRequestValidator(detector))) {
+      assertEquals(Set.of("cardNumber: Card scheme is not supported"),
+          violations(factory.getValidator(), request));
+      assertEquals(Set.of(), violations(factory.getValidator(), validRequest()));
+    }
+  }
+
+  @Test
+  void isValid_InvalidCardOfUnsupportedScheme_ReportsOnlyCardNumberRules() {
+    PostPaymentRequest request = validRequest();
+    request.setCardNumber("378282246310006");
+
+    try (CardSchemeDetector detector = new CardSchemeDetector("", Duration.ZERO, "VISA", false);
+        ValidatorFactory factory = validatorFactory(new PaymentRequestValidator(detector))) {
+      assertEquals(Set.of("cardNumber: Invalid card number, failed Luhn check"),
+          violations(factory.getValidator(), request));
+    }
+  }
+
+  @Test
+  void isValid_CardNumbersPassingLuhn_NoChecksumViolation() {
+    for (String cardNumber : List.of(
+        "4532015112830366", "5555555555554444", "378282246310005", "6011111111111117",
+        "30569309025904", "3530111333300000", "6011000990139424462", "0000000000000000",
+        "4111111111111111", "4000056655665556", "4000000000000077", "2223000048400011",
+        "371449635398431")) {
+      assertFalse(violations(withCardNumber(cardNumber)).contains(LUHN), cardNumber);
+    }
+  }
+
+  @Test
+  void isValid_CardNumbersFailingLuhn_ReportsChecksum() {
+    for (String cardNumber : List.of(
+        "4532015112830367", "5555555555554445", "378282246310006", "1234567890123456",
+        "1111111111111111", "123456789012", "123", "6011000990139424464", "0000000000000001",
+        "4111111111111112", "4000056655665557", "6011111111111118")) {
+      assertTrue(violations(withCardNumber(cardNumber)).contains(LUHN), cardNumber);
+    }
+  }
+
+  @Test
+  void isValid_MissingOrNonNumericCardNumber_ReportsChecksum() {
+    for (String cardNumber : Arrays.asList(null, "", "4532-0151-1283-0366",
+        "4532 0151 1283 0366", "453201511283036a", "abcdefghijk", "4532-0151-1283-0366!")) {
+      assertTrue(violations(withCardNumber(cardNumber)).contains(LUHN), cardNumber);
+    }
+  }
+
+  @Test
+  void isValid_SupportedCurrencyInAnyCase_NoCurrencyViolation() {
+    for (String currency : List.of("GBP", "gbp", "Gbp", "GbP", "gBp", "USD", "usd", "Usd", "UsD",
+        "EUR", "eur", "Eur")) {
+      assertFalse(violations(withCurrency(currency)).contains(CURRENCY), currency);
+    }
+  }
+
+  @Test
+  void isValid_UnsupportedOrUnknownCurrency_ReportsCurrency() {
+    for (String currency : List.of("JPY", "CAD", "AUD", "CHF", "CNY", "INR", "BRL", "RUB", "ZAR",
+        "MXN", "AAA", "XYZ", "QQQ", "BTC", "ETH", "LTC")) {
+      assertTrue(violations(withCurrency(currency)).contains(CURRENCY), currency);
+    }
+  }
+
+  @Test
+  void isValid_MalformedCurrency_ReportsCurrency() {
+    for (String currency : Arrays.asList(null, "", " ", "GB", "gb", "GBPP", "G1P", "G@P", "G P",
+        "gb p", " GB P", "123", "GB1", "1GB", "G!P", "G#P", "G$P", "G%P", " GBP", "GBP ", " gbp",
+        "gbp ", "\tGBP", "GBP\t", "\nGBP", "GBP\n")) {
+      assertTrue(violations(withCurrency(currency)).contains(CURRENCY), "[" + currency + "]");
+    }
+  }
+
+  @Test
+  void isValid_CurrentOrFutureYear_NoYearViolation() {
+    for (int year : new int[] {2026, 2027, 2028, 2029, 2030, 2031, 2036, 2076, 2100, 2126, 9999,
+        Integer.MAX_VALUE}) {
+      assertFalse(violations(june, expiring(12, year)).contains(EXPIRY_YEAR), "year " + year);
+    }
+  }
+
+  @Test
+  void isValid_PastYear_ReportsYear() {
+    for (int year : new int[] {2025, 2024, 2021, 2016, 1999, 1976, 1926, 1900, 0, -1, -100, -999,
+        Integer.MIN_VALUE}) {
+      assertTrue(violations(june, expiring(12, year)).contains(EXPIRY_YEAR), "year " + year);
+    }
+  }
+
+  @Test
+  void isValid_NullRequest_Valid() {
+    assertTrue(new PaymentRequestValidator().isValid(null, null));
+  }
+
+  @Test
+  void isValid_CurrentOrLaterMonthOfCurrentYear_NoExpiryViolation() {
+    for (int month = 1; month <= 12; month++) {
+      assertEquals(month < 6, violations(june, expiring(month, 2026)).contains(EXPIRY_DATE),
+          "month " + month);
+    }
+  }
+
+  @Test
+  void isValid_FutureExpiry_NoExpiryViolation() {
+    for (int month = 1; month <= 12; month++) {
+      assertFalse(violations(june, expiring(month, 2027)).contains(EXPIRY_DATE),
+          "month " + month + " of next year");
+    }
+    for (int year : new int[] {2036, 2076, 9999}) {
+      assertFalse(violations(june, expiring(12, year)).contains(EXPIRY_DATE), "year " + year);
+    }
+  }
+
+  @Test
+  void isValid_PastExpiry_ReportsExpiryDate() {
+    for (int month = 1; month <= 12; month++) {
+      assertTrue(violations(june, expiring(month, 2025)).contains(EXPIRY_DATE),
+          "month " + month + " of previous year");
+    }
+    assertTrue(violations(june, expiring(5, 2026)).contains(EXPIRY_DATE));
+    assertTrue(violations(june, expiring(6, 2025)).contains(EXPIRY_DATE));
+    for (int year : new int[] {2016, 1976, 1900}) {
+      assertTrue(violations(june, expiring(1, year)).contains(EXPIRY_DATE), "year " + year);
+    }
+  }
+
+  @Test
+  void isValid_InDecember_AcceptsDecemberAndJanuaryRejectsNovember() {
+    try (ValidatorFactory factory = validatorFactory(clockAt("2026-12-31T23:59:59Z"))) {
+      Validator december = factory.getValidator();
+
+      assertFalse(violations(december, expiring(12, 2026)).contains(EXPIRY_DATE));
+      assertFalse(violations(december, expiring(1, 2027)).contains(EXPIRY_DATE));
+      assertTrue(violations(december, expiring(11, 2026)).contains(EXPIRY_DATE));
+    }
+  }
+
+  @Test
+  void isValid_InJanuary_RejectsDecemberOfLastYear() {
+    try (ValidatorFactory factory = validatorFactory(clockAt("2027-01-01T00:00:00Z"))) {
+      Validator january = factory.getValidator();
+
+      assertFalse(violations(january, expiring(1, 2027)).contains(EXPIRY_DATE));
+      assertTrue(violations(january, expiring(12, 2026)).contains(EXPIRY_DATE));
+      assertTrue(violations(january, expiring(12, 2026)).contains(EXPIRY_YEAR));
+    }
+  }
+
+  @Test
+  void isValid_LastInstantOfMonth_StillAcceptsThatMonth() {
+    try (ValidatorFactory lastDay = validatorFactory(clockAt("2026-06-30T23:59:59.999Z"));
+        ValidatorFactory nextDay = validatorFactory(clockAt("2026-07-01T00:00:00Z"))) {
+      assertFalse(violations(lastDay.getValidator(), expiring(6, 2026)).contains(EXPIRY_DATE));
+      assertTrue(violations(nextDay.getValidator(), expiring(6, 2026)).contains(EXPIRY_DATE));
+    }
+  }
+
+  @Test
+  void isValid_LeapYearFebruary_ExpiresAfterThe29th() {
+    try (ValidatorFactory leapDay = validatorFactory(clockAt("2028-02-29T23:59:59Z"));
+        ValidatorFactory march = validatorFactory(clockAt("2028-03-01T00:00:00Z"))) {
+      assertFalse(violations(leapDay.getValidator(), expiring(2, 2028)).contains(EXPIRY_DATE));
+      assertTrue(violations(march.getValidator(), expiring(2, 2028)).contains(EXPIRY_DATE));
+      assertFalse(violations(june, expiring(2, 2028)).contains(EXPIRY_DATE));
+    }
+  }
+
+  private Set<String> violations(PostPaymentRequest request) {
+    return violations(validator, request);
+  }
+
+  private static Set<String> violations(Validator validator, PostPaymentRequest request) {
+    return validator.validate(request).stream()
+        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+        .collect(Collectors.toSet());
+  }
+
+  private static ValidatorFactory validatorFactory(MonthClock clock) {
+    return validatorFactory(new PaymentRequestValidator(clock, null));
+  }
+
+  private static MonthClock clockAt(String instant) {
+    return new MonthClock(Clock.fixed(Instant.parse(instant), ZoneOffset.UTC));
+  }
+
+  // Creates the factory the way Spring does, handing out the given validator instance.
+  private static ValidatorFactory validatorFactory(PaymentRequestValidator paymentValidator) {
+    Configuration<?> configuration = Validation.byDefaultProvider().configure();
+    ConstraintValidatorFactory defaults = configuration.getDefaultConstraintValidatorFactory();
+    return configuration.constraintValidatorFactory(new ConstraintValidatorFactory() {
+      @Override
+      public <T extends ConstraintValidator<?, ?>> T getInstance(Class<T> key) {
+        return key == PaymentRequestValidator.class
+            ? key.cast(paymentValidator) : defaults.getInstance(key);
+      }
+
+      @Override
+      public void releaseInstance(ConstraintValidator<?, ?> instance) {
+        defaults.releaseInstance(instance);
+      }
+    }).buildValidatorFactory();
+  }
+
+  private static PostPaymentRequest withCardNumber(String cardNumber) {
+    PostPaymentRequest request = validRequest();
+    request.setCardNumber(cardNumber);
+    return request;
+  }
+
+  private static PostPaymentRequest withCurrency(String currency) {
+    PostPaymentRequest request = validRequest();
+    request.setCurrency(currency);
+    return request;
+  }
+
+  private static PostPaymentRequest expiring(int month, int year) {
+    PostPaymentRequest request = validRequest();
+    request.setExpiryMonth(month);
+    request.setExpiryYear(year);
+    return request;
+  }
+
+  private static PostPaymentRequest validRequest() {
+    PostPaymentRequest request = new PostPaymentRequest();
+    request.setCardNumber("4532015112830366");
+    request.setExpiryMonth(12);
+    request.setExpiryYear(YearMonth.now().getYear() + 1);
+    request.setCurrency("USD");
+    request.setAmount(1000);
+    request.setCvv("123");
+    return request;
+  }
+}